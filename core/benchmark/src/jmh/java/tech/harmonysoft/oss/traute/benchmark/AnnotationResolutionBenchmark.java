@@ -0,0 +1,146 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+import com.sun.source.tree.AnnotationTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ImportTree;
+import com.sun.source.tree.Tree;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.util.Name;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tech.harmonysoft.oss.traute.common.settings.TrautePluginSettings;
+import tech.harmonysoft.oss.traute.javac.common.AnnotationIndex;
+import tech.harmonysoft.oss.traute.javac.common.KnownAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singletonList;
+import static tech.harmonysoft.oss.traute.common.settings.TrautePluginSettingsBuilder.settingsBuilder;
+
+/**
+ * <p>
+ *     Compares annotation resolution through the per-compilation unit {@link AnnotationIndex} with
+ *     the {@link LinearAnnotationMatcher linear matching} used before on compilation units with many imports.
+ * </p>
+ * <p>
+ *     Every operation resolves all annotations of the pre-parsed {@link SourceCorpus synthetic corpus},
+ *     results are reported per annotation:
+ * </p>
+ * <ul>
+ *   <li>{@code index} - resolution through indices built in advance</li>
+ *   <li>{@code indexWithBuild} - the same, but indices are built during the operation, once per unit</li>
+ *   <li>{@code linear} - annotations and imports are given as strings, every annotation is matched against
+ *       the {@code NotNull} and {@code Nullable} annotations</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@Fork(2)
+public class AnnotationResolutionBenchmark {
+
+    private static final int FILE_COUNT           = 10;
+    private static final int METHODS_PER_CLASS    = 10;
+    private static final int ANNOTATED_PARAMETERS = 2;
+    private static final int ANNOTATIONS          = FILE_COUNT * METHODS_PER_CLASS * (ANNOTATED_PARAMETERS + 1);
+
+    @Param({ "50", "100", "200" })
+    public int importCount;
+
+    private final List<Unit> units = new ArrayList<>();
+
+    private TrautePluginSettings settings;
+    private KnownAnnotations     knownAnnotations;
+    private ParsedCorpus         corpus;
+
+    @Setup
+    public void setUp() {
+        corpus = new ParsedCorpus(SourceCorpus.generate(FILE_COUNT,
+                                                        METHODS_PER_CLASS,
+                                                        ANNOTATED_PARAMETERS,
+                                                        1,
+                                                        importCount));
+        settings = settingsBuilder().build();
+        knownAnnotations = new KnownAnnotations(settings, corpus.getNames());
+        for (CompilationUnitTree compilationUnit : corpus.getCompilationUnits()) {
+            units.add(new Unit(compilationUnit));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANNOTATIONS)
+    public void index(Blackhole blackhole) {
+        for (Unit unit : units) {
+            resolve(unit.index, unit, blackhole);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANNOTATIONS)
+    public void indexWithBuild(Blackhole blackhole) {
+        for (Unit unit : units) {
+            resolve(buildIndex(unit.compilationUnit), unit, blackhole);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANNOTATIONS)
+    public void linear(Blackhole blackhole) {
+        for (Unit unit : units) {
+            for (String annotation : unit.annotationsInSource) {
+                List<String> annotationsToCheck = singletonList(annotation);
+                blackhole.consume(unit.matcher.findMatch(annotationsToCheck, settings.getNotNullAnnotations()));
+                blackhole.consume(unit.matcher.findMatch(annotationsToCheck, settings.getNullableAnnotations()));
+            }
+        }
+    }
+
+    private void resolve(AnnotationIndex index, Unit unit, Blackhole blackhole) {
+        for (Tree annotationType : unit.annotationTypes) {
+            Name resolved = index.resolve(annotationType);
+            blackhole.consume(resolved != null && knownAnnotations.getNotNull().contains(resolved));
+            blackhole.consume(resolved != null && knownAnnotations.getNullable().contains(resolved));
+        }
+    }
+
+    private AnnotationIndex buildIndex(CompilationUnitTree compilationUnit) {
+        Tree packageName = compilationUnit.getPackageName();
+        return new AnnotationIndex(knownAnnotations,
+                                   corpus.getNames(),
+                                   packageName == null ? null : TreeInfo.fullName((JCTree) packageName),
+                                   compilationUnit.getImports());
+    }
+
+    private class Unit {
+
+        private final List<Tree>   annotationTypes     = new ArrayList<>();
+        private final List<String> annotationsInSource = new ArrayList<>();
+
+        private final CompilationUnitTree     compilationUnit;
+        private final AnnotationIndex         index;
+        private final LinearAnnotationMatcher matcher;
+
+        Unit(CompilationUnitTree compilationUnit) {
+            this.compilationUnit = compilationUnit;
+            index = buildIndex(compilationUnit);
+            List<String> imports = new ArrayList<>();
+            for (ImportTree anImport : compilationUnit.getImports()) {
+                imports.add(anImport.getQualifiedIdentifier().toString());
+            }
+            matcher = new LinearAnnotationMatcher(compilationUnit.getPackageName().toString(), imports);
+            for (AnnotationTree annotation : ParsedCorpus.getAnnotations(compilationUnit)) {
+                annotationTypes.add(annotation.getAnnotationType());
+                annotationsInSource.add(annotation.getAnnotationType().toString());
+            }
+            if (annotationTypes.size() * FILE_COUNT != ANNOTATIONS) {
+                throw new IllegalStateException(String.format("Expected to find %d annotations but got %d",
+                                                              ANNOTATIONS / FILE_COUNT, annotationTypes.size()));
+            }
+        }
+    }
+}
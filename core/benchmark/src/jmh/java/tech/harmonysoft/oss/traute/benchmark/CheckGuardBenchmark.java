@@ -0,0 +1,121 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import tech.harmonysoft.oss.traute.runtime.TrauteChecks;
+
+import java.util.concurrent.TimeUnit;
+
+import static tech.harmonysoft.oss.traute.common.util.TrauteConstants.CHECKS_SYSTEM_PROPERTY;
+
+/**
+ * <p>
+ *     Measures run time cost of {@link PluginMode#GUARDED guarded checks} switched off by the
+ *     {@value tech.harmonysoft.oss.traute.common.util.TrauteConstants#CHECKS_SYSTEM_PROPERTY} system property
+ *     against the same shapes compiled without the plugin, with unguarded checks and with guarded checks
+ *     which are switched on.
+ * </p>
+ * <p>
+ *     {@link PluginMode#DYNAMIC Dynamic checks} are switched through {@link TrauteChecks} after the shapes
+ *     are loaded, {@code DYNAMIC_FLIPPED} case switches them off and on again before the measurement,
+ *     i.e. it shows that the code is compiled for the current switch state after deoptimization.
+ * </p>
+ * <p>
+ *     The property is read when a shape's guard class is loaded, every shape is compiled and loaded
+ *     by a new class loader during the trial setup, so, a single JVM is enough for all the cases.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@Fork(2)
+public class CheckGuardBenchmark {
+
+    public enum Checks {
+
+        NONE(PluginMode.NONE, null),
+        UNGUARDED(PluginMode.INLINE, null),
+        GUARD_ON(PluginMode.GUARDED, "true"),
+        GUARD_OFF(PluginMode.GUARDED, "false"),
+        DYNAMIC_ON(PluginMode.DYNAMIC, null),
+        DYNAMIC_OFF(PluginMode.DYNAMIC, null, false),
+        DYNAMIC_FLIPPED(PluginMode.DYNAMIC, null, true, false);
+
+        @NotNull private final PluginMode mode;
+        @NotNull private final boolean[]  switches;
+        private final String              propertyValue;
+
+        Checks(@NotNull PluginMode mode, String propertyValue, @NotNull boolean... switches) {
+            this.mode = mode;
+            this.propertyValue = propertyValue;
+            this.switches = switches;
+        }
+    }
+
+    @Param({ "NONE", "UNGUARDED", "GUARD_ON", "GUARD_OFF", "DYNAMIC_ON", "DYNAMIC_OFF", "DYNAMIC_FLIPPED" })
+    public Checks checks;
+
+    private GetterTarget     getter;
+    private ParametersTarget parameters4;
+    private SwitchTarget     switchReturn;
+
+    private String argument = "argument";
+    private int    key;
+
+    @Setup
+    public void setUp() {
+        if (checks.propertyValue == null) {
+            System.clearProperty(CHECKS_SYSTEM_PROPERTY);
+        } else {
+            System.setProperty(CHECKS_SYSTEM_PROPERTY, checks.propertyValue);
+        }
+        getter = RuntimeShape.GETTER.newInstance(GetterTarget.class, checks.mode);
+        parameters4 = RuntimeShape.PARAMETERS_4.newInstance(ParametersTarget.class, checks.mode);
+        switchReturn = RuntimeShape.SWITCH.newInstance(SwitchTarget.class, checks.mode);
+        // Force guard classes initialization while the property has the expected value
+        getter.get();
+        call(parameters4);
+        switchReturn.select(0);
+        for (boolean enabled : checks.switches) {
+            if (enabled) {
+                TrauteChecks.enable(RuntimeShape.PACKAGE);
+            } else {
+                TrauteChecks.disable(RuntimeShape.PACKAGE);
+            }
+            for (int i = 0; i < 100_000; i++) {
+                getter.get();
+                call(parameters4);
+                switchReturn.select(i & 7);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty(CHECKS_SYSTEM_PROPERTY);
+        TrauteChecks.reset(RuntimeShape.PACKAGE);
+    }
+
+    @Benchmark
+    public String getter() {
+        return getter.get();
+    }
+
+    @Benchmark
+    public int parameters4() {
+        return call(parameters4);
+    }
+
+    @Benchmark
+    public String switchReturn() {
+        key = (key + 1) & 7;
+        return switchReturn.select(key);
+    }
+
+    private int call(@NotNull ParametersTarget target) {
+        String a = argument;
+        return target.apply(a, a, a, a, a, a, a, a);
+    }
+}
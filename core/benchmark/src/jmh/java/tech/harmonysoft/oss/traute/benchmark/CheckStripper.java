@@ -0,0 +1,100 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ *     Removes {@link tech.harmonysoft.oss.traute.common.settings.CheckStyle#RUNTIME runtime} checks from
+ *     class files the same way a shrinker does for the {@code -assumenosideeffects} rule bundled with
+ *     {@code traute-runtime}: a {@code TrauteNullChecks.checkNotNull()} call is removed together with
+ *     the instructions which load its arguments, unused constants disappear from the constant pool as
+ *     the class file is written anew.
+ * </p>
+ * <p>
+ *     It's a model of the rule only - a real shrinker also optimizes the remaining code, e.g. the temporary
+ *     variable of a {@code return} check, and its output is {@code dex} or class files of another layout.
+ *     That's why the sizes reported for stripped classes show what the rule removes, not what a minified
+ *     application weighs.
+ * </p>
+ */
+public class CheckStripper {
+
+    private static final String CHECKS_CLASS  = "tech/harmonysoft/oss/traute/runtime/TrauteNullChecks";
+    private static final String CHECK_METHOD  = "checkNotNull";
+
+    private CheckStripper() {
+    }
+
+    /**
+     * @param binaries  class files to process where keys are binary class names
+     * @return          class files without runtime checks
+     */
+    @NotNull
+    public static Map<String, byte[]> strip(@NotNull Map<String, byte[]> binaries) {
+        Map<String, byte[]> result = new HashMap<>();
+        for (Map.Entry<String, byte[]> entry : binaries.entrySet()) {
+            result.put(entry.getKey(), strip(entry.getValue()));
+        }
+        return result;
+    }
+
+    @NotNull
+    private static byte[] strip(@NotNull byte[] classFile) {
+        ClassNode node = new ClassNode();
+        new ClassReader(classFile).accept(node, 0);
+        for (MethodNode method : node.methods) {
+            InsnList instructions = method.instructions;
+            for (AbstractInsnNode instruction = instructions.getFirst(); instruction != null; ) {
+                AbstractInsnNode next = instruction.getNext();
+                if (isCheck(instruction)) {
+                    AbstractInsnNode message = previousInstruction(instruction);
+                    AbstractInsnNode value = message == null ? null : previousInstruction(message);
+                    if (message != null && value != null && isLoad(message) && isLoad(value)) {
+                        instructions.remove(value);
+                        instructions.remove(message);
+                    } else {
+                        instructions.insertBefore(instruction, new InsnNode(Opcodes.POP2));
+                    }
+                    instructions.remove(instruction);
+                }
+                instruction = next;
+            }
+        }
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        node.accept(writer);
+        return writer.toByteArray();
+    }
+
+    private static boolean isCheck(@NotNull AbstractInsnNode instruction) {
+        if (instruction.getOpcode() != Opcodes.INVOKESTATIC) {
+            return false;
+        }
+        MethodInsnNode call = (MethodInsnNode) instruction;
+        return CHECKS_CLASS.equals(call.owner) && CHECK_METHOD.equals(call.name);
+    }
+
+    private static boolean isLoad(@NotNull AbstractInsnNode instruction) {
+        return instruction.getOpcode() == Opcodes.ALOAD || instruction.getOpcode() == Opcodes.LDC;
+    }
+
+    @Nullable
+    private static AbstractInsnNode previousInstruction(@NotNull AbstractInsnNode instruction) {
+        AbstractInsnNode result = instruction.getPrevious();
+        while (result != null && result.getOpcode() < 0) {
+            if (result instanceof LabelNode || result instanceof FrameNode) {
+                // Don't cross a jump target - the loads might belong to another path
+                return null;
+            }
+            result = result.getPrevious();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,107 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ *     Reports total size of class files produced for a {@link SourceCorpus synthetic corpus} compiled in every
+ *     {@link PluginMode}, {@code 'savedBytes'} is the difference between the class files size in
+ *     the {@link PluginMode#INLINE default mode} and in the current mode. Everything generated by the plugin
+ *     is counted, e.g. failure methods, message tables and guard classes. {@code 'messageTableBytes'} is the size of
+ *     message table holder classes - they are a part of {@code 'classBytes'} but are loaded only by a failed check.
+ * </p>
+ * <p>
+ *     {@link PluginMode#RUNTIME Runtime} checks are also reported after they are removed by
+ *     the {@link CheckStripper} ({@value #STRIPPED_RUNTIME_MODE}) - that's what a minified build ships.
+ * </p>
+ * <p>
+ *     The report is written in the {@code JSON} format to the file given as the first argument (standard output
+ *     is used if there are no arguments).
+ * </p>
+ */
+public class ClassFileSizeReport {
+
+    private static final String STRIPPED_RUNTIME_MODE = "RUNTIME_STRIPPED";
+    private static final String MESSAGE_CLASS_SUFFIX  = "$traute$messages";
+
+    private static final int FILE_COUNT           = 100;
+    private static final int METHODS_PER_CLASS    = 10;
+    private static final int ANNOTATED_PARAMETERS = 3;
+    private static final int RETURNS_PER_METHOD   = 1;
+
+    public static void main(String[] args) throws Exception {
+        List<InMemorySourceFile> sources = SourceCorpus.generate(FILE_COUNT,
+                                                                 METHODS_PER_CLASS,
+                                                                 ANNOTATED_PARAMETERS,
+                                                                 RETURNS_PER_METHOD,
+                                                                 0);
+        long inlineClassBytes = -1;
+        List<String> records = new ArrayList<>();
+        for (PluginMode mode : PluginMode.values()) {
+            Map<String, byte[]> binaries = new InMemoryCompiler().compile(sources,
+                                                                          mode.isWithPlugin(),
+                                                                          mode.getPluginOptions());
+            long classBytes = getClassBytes(binaries);
+            if (mode == PluginMode.INLINE) {
+                inlineClassBytes = classBytes;
+            }
+            records.add(toRecord(mode.toString(), classBytes, getMessageTableBytes(binaries),
+                                 inlineClassBytes < 0 || !mode.isWithPlugin() ? null : inlineClassBytes - classBytes));
+            if (mode == PluginMode.RUNTIME) {
+                long strippedClassBytes = getClassBytes(CheckStripper.strip(binaries));
+                records.add(toRecord(STRIPPED_RUNTIME_MODE, strippedClassBytes, 0,
+                                     inlineClassBytes - strippedClassBytes));
+            }
+        }
+        String report = "[\n" + String.join(",\n", records) + "\n]\n";
+        if (args.length > 0) {
+            File file = new File(args[0]);
+            File dir = file.getAbsoluteFile().getParentFile();
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Can't create directory " + dir);
+            }
+            Files.write(file.toPath(), report.getBytes(StandardCharsets.UTF_8));
+        } else {
+            System.out.print(report);
+        }
+    }
+
+    private static long getClassBytes(@NotNull Map<String, byte[]> binaries) {
+        long result = 0;
+        for (byte[] binary : binaries.values()) {
+            result += binary.length;
+        }
+        return result;
+    }
+
+    private static long getMessageTableBytes(@NotNull Map<String, byte[]> binaries) {
+        long result = 0;
+        for (Map.Entry<String, byte[]> entry : binaries.entrySet()) {
+            if (entry.getKey().endsWith(MESSAGE_CLASS_SUFFIX)) {
+                result += entry.getValue().length;
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private static String toRecord(@NotNull String mode,
+                                   long classBytes,
+                                   long messageTableBytes,
+                                   @Nullable Long savedBytes)
+    {
+        return String.format(
+                "  {\"mode\":\"%s\",\"files\":%d,\"classBytes\":%d,\"messageTableBytes\":%d,\"savedBytes\":%s}",
+                mode, FILE_COUNT, classBytes, messageTableBytes, savedBytes == null ? "null" : savedBytes
+        );
+    }
+}
@@ -0,0 +1,56 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Measures how much the plugin adds to the compilation time and memory allocations.</p>
+ * <p>
+ *     Every operation is a compilation of the whole {@link SourceCorpus synthetic corpus}, with and without
+ *     the plugin. Results are normalized by the number of compilation units in the corpus by the
+ *     {@code jmhPerUnitReport} task ({@code build/reports/jmh/per-unit.json}).
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@Fork(2)
+public class CompilationBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean plugin;
+
+    @Param({ "10", "100" })
+    public int fileCount;
+
+    @Param({ "10" })
+    public int methodsPerClass;
+
+    @Param({ "2" })
+    public int annotatedParameters;
+
+    @Param({ "2" })
+    public int returnsPerMethod;
+
+    @Param({ "10", "200" })
+    public int importCount;
+
+    private final InMemoryCompiler compiler = new InMemoryCompiler();
+
+    private List<InMemorySourceFile> sources;
+
+    @Setup
+    public void setUp() {
+        sources = SourceCorpus.generate(fileCount, methodsPerClass, annotatedParameters, returnsPerMethod, importCount);
+    }
+
+    @Benchmark
+    public Map<String, byte[]> compile() {
+        return compiler.compile(sources, plugin);
+    }
+}
@@ -0,0 +1,9 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+/**
+ * Implemented by a generated class with a {@code NotNull} getter, see {@link RuntimeShape#GETTER}.
+ */
+public interface GetterTarget {
+
+    String get();
+}
@@ -0,0 +1,84 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+import tech.harmonysoft.oss.traute.common.util.TrauteConstants;
+
+import javax.tools.*;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.URI;
+import java.util.*;
+
+import static java.util.Arrays.asList;
+
+/**
+ * <p>Compiles given sources by {@code javac} called in-process, compiled binaries are kept in memory.</p>
+ * <p>Not thread-safe.</p>
+ */
+public class InMemoryCompiler {
+
+    private final JavaCompiler            compiler    = ToolProvider.getSystemJavaCompiler();
+    private final StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+
+    /**
+     * @param sources       sources to compile
+     * @param withPlugin    a flag which identifies if the plugin should be used during compilation
+     * @return              compiled binaries for the given sources where keys are binary class names
+     * @throws IllegalStateException    if the sources can't be compiled
+     */
+    @NotNull
+    public Map<String, byte[]> compile(@NotNull Collection<? extends JavaFileObject> sources, boolean withPlugin)
+            throws IllegalStateException
+    {
+        return compile(sources, withPlugin, Collections.emptyList());
+    }
+
+    /**
+     * @param sources       sources to compile
+     * @param withPlugin    a flag which identifies if the plugin should be used during compilation
+     * @param pluginOptions additional compiler options to use when the plugin is used, e.g.
+     *                      {@code -Atraute.check.style=outOfLine}
+     * @return              compiled binaries for the given sources where keys are binary class names
+     * @throws IllegalStateException    if the sources can't be compiled
+     */
+    @NotNull
+    public Map<String, byte[]> compile(@NotNull Collection<? extends JavaFileObject> sources,
+                                       boolean withPlugin,
+                                       @NotNull Collection<String> pluginOptions)
+            throws IllegalStateException
+    {
+        Map<String, ByteArrayOutputStream> output = new HashMap<>();
+        JavaFileManager outputCollector = new ForwardingJavaFileManager<JavaFileManager>(fileManager) {
+            @Override
+            public JavaFileObject getJavaFileForOutput(Location location,
+                                                       String className,
+                                                       JavaFileObject.Kind kind,
+                                                       FileObject sibling)
+            {
+                return new SimpleJavaFileObject(URI.create("bytes:///" + className), kind) {
+                    @Override
+                    public OutputStream openOutputStream() {
+                        return output.computeIfAbsent(className, key -> new ByteArrayOutputStream());
+                    }
+                };
+            }
+        };
+
+        List<String> options = new ArrayList<>(asList("-classpath", System.getProperty("java.class.path"),
+                                                      "-proc:none"));
+        if (withPlugin) {
+            options.add("-Xplugin:" + TrauteConstants.PLUGIN_NAME);
+            options.addAll(pluginOptions);
+        }
+        StringWriter compilerOutput = new StringWriter();
+        Boolean success = compiler.getTask(compilerOutput, outputCollector, null, options, null, sources).call();
+        if (!success) {
+            throw new IllegalStateException("Failed to compile benchmark sources: " + compilerOutput);
+        }
+
+        Map<String, byte[]> result = new HashMap<>();
+        output.forEach((className, bytes) -> result.put(className, bytes.toByteArray()));
+        return result;
+    }
+}
@@ -0,0 +1,32 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.tools.SimpleJavaFileObject;
+import java.net.URI;
+
+/**
+ * Stands for a source file with the predefined content.
+ */
+public class InMemorySourceFile extends SimpleJavaFileObject {
+
+    @NotNull private final String qualifiedClassName;
+    @NotNull private final String content;
+
+    public InMemorySourceFile(@NotNull String qualifiedClassName, @NotNull String content) {
+        super(URI.create(String.format("file:///%s%s", qualifiedClassName.replace('.', '/'), Kind.SOURCE.extension)),
+              Kind.SOURCE);
+        this.qualifiedClassName = qualifiedClassName;
+        this.content = content;
+    }
+
+    @NotNull
+    public String getQualifiedClassName() {
+        return qualifiedClassName;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return content;
+    }
+}
@@ -0,0 +1,70 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * <p>
+ *     Calls a {@link RuntimeShape} in a hot loop, that way JIT compiles the loop and decides whether to inline
+ *     the shape's method there. Is expected to be started in a dedicated JVM with {@code -XX:+PrintInlining}
+ *     by the {@link RuntimeCostReport}.
+ * </p>
+ * <p>Arguments: {@code <shape name> <plugin mode name>}</p>
+ */
+public class InliningProbe {
+
+    private static final int ITERATIONS = 100_000;
+    private static final int ROUNDS     = 20;
+
+    private static String argument = "argument";
+
+    public static void main(String[] args) {
+        RuntimeShape shape = RuntimeShape.valueOf(args[0]);
+        PluginMode mode = PluginMode.valueOf(args[1]);
+        long sink = 0;
+        switch (shape) {
+            case GETTER:
+                GetterTarget getter = shape.newInstance(GetterTarget.class, mode);
+                for (int i = 0; i < ROUNDS; i++) {
+                    sink += callGetter(getter);
+                }
+                break;
+            case SWITCH:
+                SwitchTarget switchTarget = shape.newInstance(SwitchTarget.class, mode);
+                for (int i = 0; i < ROUNDS; i++) {
+                    sink += callSwitch(switchTarget);
+                }
+                break;
+            default:
+                ParametersTarget parameters = shape.newInstance(ParametersTarget.class, mode);
+                for (int i = 0; i < ROUNDS; i++) {
+                    sink += callParameters(parameters);
+                }
+        }
+        System.out.println("sink: " + sink);
+    }
+
+    private static long callGetter(@NotNull GetterTarget target) {
+        long result = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            result += target.get().length();
+        }
+        return result;
+    }
+
+    private static long callParameters(@NotNull ParametersTarget target) {
+        long result = 0;
+        String a = argument;
+        for (int i = 0; i < ITERATIONS; i++) {
+            result += target.apply(a, a, a, a, a, a, a, a);
+        }
+        return result;
+    }
+
+    private static long callSwitch(@NotNull SwitchTarget target) {
+        long result = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            result += target.select(i & 7).length();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,209 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+import com.sun.source.tree.AnnotationTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ImportTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.ModifiersTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.model.JavacElements;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.Log;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tech.harmonysoft.oss.traute.common.settings.TrautePluginSettings;
+import tech.harmonysoft.oss.traute.common.stats.StatsCollector;
+import tech.harmonysoft.oss.traute.javac.common.CompilationUnitProcessingContext;
+import tech.harmonysoft.oss.traute.javac.common.InstrumentationApplianceFinder;
+import tech.harmonysoft.oss.traute.javac.common.KnownAnnotations;
+import tech.harmonysoft.oss.traute.javac.common.PackageInfoManager;
+import tech.harmonysoft.oss.traute.javac.instrumentation.Instrumentator;
+import tech.harmonysoft.oss.traute.javac.instrumentation.method.ReturnToInstrumentInfo;
+import tech.harmonysoft.oss.traute.javac.instrumentation.parameter.CombinedParameterInstrumentator;
+import tech.harmonysoft.oss.traute.javac.instrumentation.parameter.ParameterToInstrumentInfo;
+import tech.harmonysoft.oss.traute.javac.log.CompilerOutputLogger;
+import tech.harmonysoft.oss.traute.javac.log.TrautePluginLogger;
+import tech.harmonysoft.oss.traute.javac.text.ExceptionTextGeneratorManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singletonList;
+import static tech.harmonysoft.oss.traute.common.settings.TrautePluginSettingsBuilder.settingsBuilder;
+
+/**
+ * <p>
+ *     Measures time and memory which {@link InstrumentationApplianceFinder} spends to find {@code null}-checks
+ *     to add, i.e. the plugin's {@code AST} inspection without the instrumentation itself.
+ * </p>
+ * <p>
+ *     Every operation inspects the pre-parsed {@link SourceCorpus synthetic corpus}, results are reported
+ *     per instrumented method, allocations are reported by the {@code gc} profiler ({@code gc.alloc.rate.norm}):
+ * </p>
+ * <ul>
+ *   <li>
+ *       {@code finder} - the corpus is inspected by the {@link InstrumentationApplianceFinder} with
+ *       instrumentators which only count found checks, so, the trees are never modified
+ *   </li>
+ *   <li>
+ *       {@code prettyPrinted} - the reference for the string-based inspection: parameter types, return
+ *       types and annotations of every method are printed by {@link Tree#toString()} and the annotations are
+ *       matched by the {@link LinearAnnotationMatcher}
+ *   </li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@Fork(2)
+public class InspectionBenchmark {
+
+    private static final int FILE_COUNT           = 10;
+    private static final int METHODS_PER_CLASS    = 10;
+    private static final int ANNOTATED_PARAMETERS = 2;
+    private static final int RETURNS_PER_METHOD   = 2;
+    private static final int METHODS              = FILE_COUNT * METHODS_PER_CLASS;
+
+    @Param({ "10", "200" })
+    public int importCount;
+
+    private final CountingParameterInstrumentator         parameterInstrumentator
+            = new CountingParameterInstrumentator();
+    private final CountingCombinedParameterInstrumentator combinedParameterInstrumentator
+            = new CountingCombinedParameterInstrumentator();
+    private final CountingReturnInstrumentator            returnInstrumentator
+            = new CountingReturnInstrumentator();
+    private final List<LinearAnnotationMatcher>           matchers = new ArrayList<>();
+
+    private TrautePluginSettings          settings;
+    private TreeMaker                     astFactory;
+    private TrautePluginLogger            logger;
+    private ExceptionTextGeneratorManager exceptionTextGeneratorManager;
+    private PackageInfoManager            packageInfoManager;
+    private KnownAnnotations              knownAnnotations;
+    private ParsedCorpus                  corpus;
+
+    @Setup
+    public void setUp() {
+        corpus = new ParsedCorpus(SourceCorpus.generate(FILE_COUNT,
+                                                        METHODS_PER_CLASS,
+                                                        ANNOTATED_PARAMETERS,
+                                                        RETURNS_PER_METHOD,
+                                                        importCount));
+        settings = settingsBuilder().build();
+        astFactory = TreeMaker.instance(corpus.getContext());
+        logger = new CompilerOutputLogger(Log.instance(corpus.getContext()));
+        exceptionTextGeneratorManager = new ExceptionTextGeneratorManager(settings, logger);
+        packageInfoManager = new PackageInfoManager(JavacElements.instance(corpus.getContext()), null, null);
+        knownAnnotations = new KnownAnnotations(settings, corpus.getNames());
+        for (CompilationUnitTree compilationUnit : corpus.getCompilationUnits()) {
+            List<String> imports = new ArrayList<>();
+            for (ImportTree anImport : compilationUnit.getImports()) {
+                imports.add(anImport.getQualifiedIdentifier().toString());
+            }
+            matchers.add(new LinearAnnotationMatcher(compilationUnit.getPackageName().toString(), imports));
+        }
+
+        finder();
+        // Every method returns a literal which needs no check and a 'String.valueOf()' result
+        int parameters = parameterInstrumentator.count + combinedParameterInstrumentator.count;
+        if (parameters != METHODS * ANNOTATED_PARAMETERS || returnInstrumentator.count != METHODS) {
+            throw new IllegalStateException(String.format(
+                    "Expected to find %d parameter checks and %d return checks but got %d and %d",
+                    METHODS * ANNOTATED_PARAMETERS, METHODS, parameters, returnInstrumentator.count
+            ));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(METHODS)
+    public void finder() {
+        for (CompilationUnitTree compilationUnit : corpus.getCompilationUnits()) {
+            CompilationUnitProcessingContext context = new CompilationUnitProcessingContext(
+                    settings,
+                    astFactory,
+                    corpus.getNames(),
+                    logger,
+                    new StatsCollector(),
+                    exceptionTextGeneratorManager,
+                    packageInfoManager,
+                    knownAnnotations
+            );
+            compilationUnit.accept(new InstrumentationApplianceFinder(context,
+                                                                      parameterInstrumentator,
+                                                                      combinedParameterInstrumentator,
+                                                                      returnInstrumentator), null);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(METHODS)
+    public void prettyPrinted(Blackhole blackhole) {
+        List<CompilationUnitTree> compilationUnits = corpus.getCompilationUnits();
+        for (int i = 0; i < compilationUnits.size(); i++) {
+            LinearAnnotationMatcher matcher = matchers.get(i);
+            compilationUnits.get(i).accept(new TreeScanner<Void, Void>() {
+                @Override
+                public Void visitMethod(MethodTree node, Void v) {
+                    blackhole.consume(node.getName().toString());
+                    if (node.getReturnType() != null) {
+                        blackhole.consume(node.getReturnType().toString());
+                    }
+                    match(node.getModifiers(), matcher, blackhole);
+                    for (VariableTree parameter : node.getParameters()) {
+                        blackhole.consume(parameter.getType().toString());
+                        match(parameter.getModifiers(), matcher, blackhole);
+                    }
+                    return null;
+                }
+            }, null);
+        }
+    }
+
+    private void match(@NotNull ModifiersTree modifiers,
+                       @NotNull LinearAnnotationMatcher matcher,
+                       @NotNull Blackhole blackhole)
+    {
+        for (AnnotationTree annotation : modifiers.getAnnotations()) {
+            List<String> annotationsToCheck = singletonList(annotation.getAnnotationType().toString());
+            blackhole.consume(matcher.findMatch(annotationsToCheck, settings.getNotNullAnnotations()));
+            blackhole.consume(matcher.findMatch(annotationsToCheck, settings.getNullableAnnotations()));
+        }
+    }
+
+    private static class CountingParameterInstrumentator implements Instrumentator<ParameterToInstrumentInfo> {
+
+        private int count;
+
+        @Override
+        public void instrument(@NotNull ParameterToInstrumentInfo instrumentationInfo) {
+            count++;
+        }
+    }
+
+    private static class CountingCombinedParameterInstrumentator extends CombinedParameterInstrumentator {
+
+        private int count;
+
+        @Override
+        public void instrument(@NotNull List<ParameterToInstrumentInfo> parameters) {
+            count += parameters.size();
+        }
+    }
+
+    private static class CountingReturnInstrumentator implements Instrumentator<ReturnToInstrumentInfo> {
+
+        private int count;
+
+        @Override
+        public void instrument(@NotNull ReturnToInstrumentInfo instrumentationInfo) {
+            count++;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * <p>
+ *     A copy of the annotation matching used by the plugin before annotations were resolved through
+ *     {@link tech.harmonysoft.oss.traute.javac.common.AnnotationIndex}: every annotation written in source code
+ *     is compared with every import of the compilation unit. It's kept only as a baseline for
+ *     the {@link AnnotationResolutionBenchmark}.
+ * </p>
+ * <p>Thread-safe.</p>
+ */
+public class LinearAnnotationMatcher {
+
+    @Nullable private final String             packageName;
+    @NotNull private final Collection<String> imports;
+
+    /**
+     * @param packageName   compilation unit's package, {@code null} for the default package
+     * @param imports       compilation unit's imports as they are written in source code,
+     *                      e.g. {@code org.jetbrains.annotations.*}
+     */
+    public LinearAnnotationMatcher(@Nullable String packageName, @NotNull Collection<String> imports) {
+        this.packageName = packageName;
+        this.imports = imports;
+    }
+
+    @NotNull
+    public Optional<String> findMatch(@NotNull Collection<String> annotationsToCheck,
+                                      @NotNull Set<String> targetAnnotations)
+    {
+        for (String annotationInSource : annotationsToCheck) {
+            if (targetAnnotations.contains(annotationInSource)) {
+                // Qualified annotation, like 'void test(@javax.annotation.Nonnul String s) {}'
+                return Optional.of(annotationInSource);
+            }
+            if (packageName != null) {
+                String candidate = String.format("%s.%s", packageName, annotationInSource);
+                if (targetAnnotations.contains(candidate)) {
+                    return Optional.of(candidate);
+                }
+            }
+            for (String anImport : imports) {
+                // Support an import like 'import org.jetbrains.annotations.*;'
+                if (anImport.endsWith(".*")) {
+                    String candidate = anImport.substring(0, anImport.length() - 1) + annotationInSource;
+                    if (targetAnnotations.contains(candidate)) {
+                        return Optional.of(candidate);
+                    }
+                    continue;
+                }
+                if (!targetAnnotations.contains(anImport)) {
+                    continue;
+                }
+                if (anImport.endsWith(annotationInSource)) {
+                    return Optional.of(anImport);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,101 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads bytecode size of the methods declared in the given class file.
+ */
+public class MethodSizeReader {
+
+    private MethodSizeReader() {
+    }
+
+    /**
+     * @param classFile     target class file content
+     * @return              method name to its bytecode size ({@code Code} attribute's {@code code_length}),
+     *                      abstract and native methods are not included
+     * @throws IOException  in case of unexpected class file format
+     */
+    @NotNull
+    public static Map<String, Integer> read(@NotNull byte[] classFile) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile));
+        if (in.readInt() != 0xCAFEBABE) {
+            throw new IOException("Not a class file");
+        }
+        in.readUnsignedShort(); // minor version
+        in.readUnsignedShort(); // major version
+        String[] utf8 = readConstantPool(in);
+
+        in.readUnsignedShort(); // access flags
+        in.readUnsignedShort(); // this class
+        in.readUnsignedShort(); // super class
+        skip(in, in.readUnsignedShort() * 2); // interfaces
+
+        int fieldsCount = in.readUnsignedShort();
+        for (int i = 0; i < fieldsCount; i++) {
+            skip(in, 6);
+            skipAttributes(in);
+        }
+
+        Map<String, Integer> result = new HashMap<>();
+        int methodsCount = in.readUnsignedShort();
+        for (int i = 0; i < methodsCount; i++) {
+            in.readUnsignedShort(); // access flags
+            String name = utf8[in.readUnsignedShort()];
+            in.readUnsignedShort(); // descriptor
+            int attributesCount = in.readUnsignedShort();
+            for (int j = 0; j < attributesCount; j++) {
+                String attributeName = utf8[in.readUnsignedShort()];
+                int length = in.readInt();
+                if ("Code".equals(attributeName)) {
+                    in.readUnsignedShort(); // max stack
+                    in.readUnsignedShort(); // max locals
+                    int codeLength = in.readInt();
+                    result.merge(name, codeLength, Math::max);
+                    skip(in, length - 8);
+                } else {
+                    skip(in, length);
+                }
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private static String[] readConstantPool(@NotNull DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        String[] utf8 = new String[count];
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1: utf8[i] = in.readUTF(); break;
+                case 3: case 4: case 9: case 10: case 11: case 12: case 18: skip(in, 4); break;
+                case 5: case 6: skip(in, 8); i++; break;
+                case 7: case 8: case 16: case 19: case 20: skip(in, 2); break;
+                case 15: skip(in, 3); break;
+                default: throw new IOException("Unexpected constant pool tag " + tag);
+            }
+        }
+        return utf8;
+    }
+
+    private static void skipAttributes(@NotNull DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            in.readUnsignedShort();
+            skip(in, in.readInt());
+        }
+    }
+
+    private static void skip(@NotNull DataInputStream in, int bytes) throws IOException {
+        if (in.skipBytes(bytes) != bytes) {
+            throw new IOException("Unexpected end of class file");
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+/**
+ * Implemented by generated classes which method has a given number of {@code NotNull} parameters,
+ * see {@link RuntimeShape#PARAMETERS_1} etc.
+ */
+public interface ParametersTarget {
+
+    int apply(String p0, String p1, String p2, String p3, String p4, String p5, String p6, String p7);
+}
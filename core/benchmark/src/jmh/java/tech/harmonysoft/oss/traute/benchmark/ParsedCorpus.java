@@ -0,0 +1,83 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+import com.sun.source.tree.AnnotationTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.api.BasicJavacTask;
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.Names;
+import org.jetbrains.annotations.NotNull;
+
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <p>
+ *     Holds {@code AST} of the given sources parsed by {@code javac} without further compilation stages, i.e.
+ *     benchmarks can inspect the same trees again and again.
+ * </p>
+ * <p>Not thread-safe.</p>
+ */
+public class ParsedCorpus {
+
+    @NotNull private final List<CompilationUnitTree> compilationUnits = new ArrayList<>();
+    @NotNull private final Context                   context;
+    @NotNull private final Names                     names;
+
+    public ParsedCorpus(@NotNull Collection<InMemorySourceFile> sources) {
+        JavacTask task = (JavacTask) ToolProvider.getSystemJavaCompiler().getTask(
+                null, null, null, null, null, sources
+        );
+        try {
+            for (CompilationUnitTree compilationUnit : task.parse()) {
+                compilationUnits.add(compilationUnit);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to parse benchmark sources", e);
+        }
+        context = ((BasicJavacTask) task).getContext();
+        names = Names.instance(context);
+    }
+
+    @NotNull
+    public List<CompilationUnitTree> getCompilationUnits() {
+        return compilationUnits;
+    }
+
+    /**
+     * @return  context of the compilation which parsed the sources
+     */
+    @NotNull
+    public Context getContext() {
+        return context;
+    }
+
+    /**
+     * @return  name table of the compilation which parsed the sources
+     */
+    @NotNull
+    public Names getNames() {
+        return names;
+    }
+
+    /**
+     * @param compilationUnit   target compilation unit
+     * @return                  all annotations declared in the given compilation unit
+     */
+    @NotNull
+    public static List<AnnotationTree> getAnnotations(@NotNull CompilationUnitTree compilationUnit) {
+        List<AnnotationTree> result = new ArrayList<>();
+        compilationUnit.accept(new TreeScanner<Void, Void>() {
+            @Override
+            public Void visitAnnotation(AnnotationTree node, Void v) {
+                result.add(node);
+                return super.visitAnnotation(node, v);
+            }
+        }, null);
+        return result;
+    }
+}
@@ -0,0 +1,44 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Enumerates ways to compile {@link RuntimeShape benchmark shapes} - without the plugin and with the plugin
+ * configured to generate checks of particular shape.
+ */
+public enum PluginMode {
+
+    NONE(false),
+    INLINE(true),
+    OUT_OF_LINE(true, "-Atraute.check.style=outOfLine"),
+    REQUIRE_NON_NULL(true, "-Atraute.check.style=requireNonNull"),
+    MESSAGE_TABLE(true, "-Atraute.message.table=true"),
+    COMBINED(true, "-Atraute.parameter.checks.combined=true"),
+    GUARDED(true, "-Atraute.check.guard=property"),
+    DYNAMIC(true, "-Atraute.check.guard=dynamic"),
+    FAILURE_EVENTS(true, "-Atraute.failure.events=true"),
+    RUNTIME(true, "-Atraute.check.style=runtime");
+
+    @NotNull private final List<String> pluginOptions;
+
+    private final boolean withPlugin;
+
+    PluginMode(boolean withPlugin, @NotNull String... pluginOptions) {
+        this.withPlugin = withPlugin;
+        this.pluginOptions = unmodifiableList(asList(pluginOptions));
+    }
+
+    public boolean isWithPlugin() {
+        return withPlugin;
+    }
+
+    @NotNull
+    public List<String> getPluginOptions() {
+        return pluginOptions;
+    }
+}
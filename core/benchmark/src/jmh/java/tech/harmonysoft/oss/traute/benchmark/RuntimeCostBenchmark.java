@@ -0,0 +1,81 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ *     Measures run time cost of the checks inserted by the plugin - every {@link RuntimeShape} is compiled in
+ *     every {@link PluginMode} and called through an interface.
+ * </p>
+ * <p>Bytecode size and inlining decisions for the same shapes are reported by the {@link RuntimeCostReport}.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@Fork(2)
+public class RuntimeCostBenchmark {
+
+    @Param({ "NONE", "INLINE", "OUT_OF_LINE", "REQUIRE_NON_NULL", "MESSAGE_TABLE", "COMBINED", "FAILURE_EVENTS",
+             "RUNTIME" })
+    public PluginMode mode;
+
+    private GetterTarget     getter;
+    private ParametersTarget parameters1;
+    private ParametersTarget parameters2;
+    private ParametersTarget parameters4;
+    private ParametersTarget parameters8;
+    private SwitchTarget     switchReturn;
+
+    private String argument = "argument";
+    private int    key;
+
+    @Setup
+    public void setUp() {
+        getter = RuntimeShape.GETTER.newInstance(GetterTarget.class, mode);
+        parameters1 = RuntimeShape.PARAMETERS_1.newInstance(ParametersTarget.class, mode);
+        parameters2 = RuntimeShape.PARAMETERS_2.newInstance(ParametersTarget.class, mode);
+        parameters4 = RuntimeShape.PARAMETERS_4.newInstance(ParametersTarget.class, mode);
+        parameters8 = RuntimeShape.PARAMETERS_8.newInstance(ParametersTarget.class, mode);
+        switchReturn = RuntimeShape.SWITCH.newInstance(SwitchTarget.class, mode);
+    }
+
+    @Benchmark
+    public String getter() {
+        return getter.get();
+    }
+
+    @Benchmark
+    public int parameters1() {
+        return call(parameters1);
+    }
+
+    @Benchmark
+    public int parameters2() {
+        return call(parameters2);
+    }
+
+    @Benchmark
+    public int parameters4() {
+        return call(parameters4);
+    }
+
+    @Benchmark
+    public int parameters8() {
+        return call(parameters8);
+    }
+
+    @Benchmark
+    public String switchReturn() {
+        key = (key + 1) & 7;
+        return switchReturn.select(key);
+    }
+
+    private int call(ParametersTarget target) {
+        String a = argument;
+        return target.apply(a, a, a, a, a, a, a, a);
+    }
+}
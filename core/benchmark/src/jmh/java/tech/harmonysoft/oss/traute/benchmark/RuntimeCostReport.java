@@ -0,0 +1,110 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.Arrays.asList;
+
+/**
+ * <p>
+ *     Reports bytecode size of every {@link RuntimeShape} compiled in every {@link PluginMode} and whether
+ *     {@code JIT} inlines it into a hot caller. The latter is determined by running an {@link InliningProbe}
+ *     in a dedicated JVM with {@code -XX:+PrintInlining} and parsing its output.
+ * </p>
+ * <p>
+ *     The report is written in the {@code JSON} format to the file given as the first argument (standard output
+ *     is used if there are no arguments).
+ * </p>
+ */
+public class RuntimeCostReport {
+
+    /** Matches lines like {@code @ 12   bench.runtime.Getter::get (5 bytes)   inline (hot)}. */
+    private static final Pattern INLINING_PATTERN = Pattern.compile("@ \\d+\\s+(\\S+)::(\\S+) \\((\\d+) bytes\\)\\s+(.*)");
+
+    public static void main(String[] args) throws Exception {
+        List<String> records = new ArrayList<>();
+        for (RuntimeShape shape : RuntimeShape.values()) {
+            for (PluginMode mode : PluginMode.values()) {
+                byte[] classFile = shape.compile(mode).get(shape.getClassName());
+                Integer size = MethodSizeReader.read(classFile).get(shape.getMethodName());
+                String decision = getInliningDecision(shape, mode);
+                records.add(String.format(
+                        "  {\"shape\":\"%s\",\"mode\":\"%s\",\"method\":\"%s\",\"bytecodeSize\":%d,"
+                        + "\"inlined\":%s,\"inliningDecision\":%s}",
+                        shape, mode, shape.getMethodName(), size,
+                        isInlined(decision),
+                        decision == null ? "null" : "\"" + decision.replace("\"", "'") + "\""
+                ));
+            }
+        }
+        String report = "[\n" + String.join(",\n", records) + "\n]\n";
+        if (args.length > 0) {
+            File file = new File(args[0]);
+            File dir = file.getAbsoluteFile().getParentFile();
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Can't create directory " + dir);
+            }
+            Files.write(file.toPath(), report.getBytes(StandardCharsets.UTF_8));
+        } else {
+            System.out.print(report);
+        }
+    }
+
+    private static boolean isInlined(@Nullable String decision) {
+        return decision != null
+               && (decision.startsWith("inline") || decision.startsWith("accessor") || decision.startsWith("intrinsic"));
+    }
+
+    /**
+     * @param shape         target shape
+     * @param mode          target plugin mode
+     * @return              the last {@code JIT} decision about inlining the shape's method into a hot caller,
+     *                      e.g. {@code 'inline (hot)'} or {@code 'too big'}; {@code null} if the method is not
+     *                      mentioned in the {@code -XX:+PrintInlining} output
+     */
+    @Nullable
+    private static String getInliningDecision(@NotNull RuntimeShape shape, @NotNull PluginMode mode) throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        // Tiered compilation is disabled in order to get only C2 decisions, C1 has its own inlining policy
+        List<String> command = new ArrayList<>(asList(
+                java,
+                "-XX:-TieredCompilation",
+                "-XX:+UnlockDiagnosticVMOptions",
+                "-XX:+PrintInlining",
+                "-cp", System.getProperty("java.class.path"),
+                InliningProbe.class.getName(),
+                shape.name(),
+                mode.name()
+        ));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String result = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                                                                              StandardCharsets.UTF_8)))
+        {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = INLINING_PATTERN.matcher(line);
+                if (matcher.find()
+                    && shape.getClassName().equals(matcher.group(1).replace('/', '.'))
+                    && shape.getMethodName().equals(matcher.group(2)))
+                {
+                    result = matcher.group(4).trim();
+                }
+            }
+        }
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException(String.format("Inlining probe for %s failed with exit code %d",
+                                                          shape, exitCode));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,152 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * <p>Enumerates method shapes used for measuring run time cost of the checks inserted by the plugin.</p>
+ * <p>
+ *     Every shape is a class generated in the {@value #PACKAGE} package and compiled in one of
+ *     the {@link PluginMode plugin modes}. It implements one of the interfaces available to the benchmarks, so,
+ *     the calls don't involve reflection.
+ * </p>
+ */
+public enum RuntimeShape {
+
+    GETTER("Getter", "get", GetterTarget.class) {
+        @NotNull
+        @Override
+        protected String getBody() {
+            return "    private final String value = String.valueOf(System.nanoTime());\n" +
+                   "\n" +
+                   "    @NotNull\n" +
+                   "    @Override\n" +
+                   "    public String get() {\n" +
+                   "        return value;\n" +
+                   "    }\n";
+        }
+    },
+
+    PARAMETERS_1(1), PARAMETERS_2(2), PARAMETERS_4(4), PARAMETERS_8(8),
+
+    SWITCH("Switch", "select", SwitchTarget.class) {
+        @NotNull
+        @Override
+        protected String getBody() {
+            StringBuilder result = new StringBuilder();
+            // Values are taken from an array - returned literals are known to be non-null and aren't checked
+            result.append("    private final String[] values = { \"0\", \"1\", \"2\", \"3\", \"default\" };\n\n")
+                  .append("    @NotNull\n")
+                  .append("    @Override\n")
+                  .append("    public String select(int key) {\n")
+                  .append("        switch (key) {\n");
+            for (int i = 0; i < 4; i++) {
+                result.append("            case ").append(i).append(": return values[").append(i).append("];\n");
+            }
+            result.append("            default: return values[4];\n")
+                  .append("        }\n")
+                  .append("    }\n");
+            return result.toString();
+        }
+    };
+
+    public static final String PACKAGE = "bench.runtime";
+
+    @NotNull private final String   simpleClassName;
+    @NotNull private final String   methodName;
+    @NotNull private final Class<?> targetInterface;
+
+    private final int annotatedParameters;
+
+    RuntimeShape(@NotNull String simpleClassName, @NotNull String methodName, @NotNull Class<?> targetInterface) {
+        this.simpleClassName = simpleClassName;
+        this.methodName = methodName;
+        this.targetInterface = targetInterface;
+        annotatedParameters = 0;
+    }
+
+    RuntimeShape(int annotatedParameters) {
+        simpleClassName = "Parameters" + annotatedParameters;
+        methodName = "apply";
+        targetInterface = ParametersTarget.class;
+        this.annotatedParameters = annotatedParameters;
+    }
+
+    @NotNull
+    public String getClassName() {
+        return PACKAGE + "." + simpleClassName;
+    }
+
+    @NotNull
+    public String getMethodName() {
+        return methodName;
+    }
+
+    @NotNull
+    public String getSource() {
+        return String.format("package %s;\n\nimport org.jetbrains.annotations.NotNull;\n\n"
+                             + "public class %s implements %s {\n\n%s}\n",
+                             PACKAGE, simpleClassName, targetInterface.getName(), getBody());
+    }
+
+    @NotNull
+    protected String getBody() {
+        StringBuilder result = new StringBuilder("    @Override\n    public int apply(");
+        for (int i = 0; i < 8; i++) {
+            if (i > 0) {
+                result.append(", ");
+            }
+            if (i < annotatedParameters) {
+                result.append("@NotNull ");
+            }
+            result.append("String p").append(i);
+        }
+        result.append(") {\n        return p0.length();\n    }\n");
+        return result.toString();
+    }
+
+    /**
+     * @param mode  target plugin mode
+     * @return      compiled binaries for the current shape
+     */
+    @NotNull
+    public Map<String, byte[]> compile(@NotNull PluginMode mode) {
+        return new InMemoryCompiler().compile(
+                Collections.singleton(new InMemorySourceFile(getClassName(), getSource())),
+                mode.isWithPlugin(),
+                mode.getPluginOptions()
+        );
+    }
+
+    /**
+     * @param type  target interface
+     * @param mode  target plugin mode
+     * @param <T>   target interface type
+     * @return      an instance of the current shape compiled in the given mode
+     */
+    @NotNull
+    public <T> T newInstance(@NotNull Class<T> type, @NotNull PluginMode mode) {
+        if (type != targetInterface) {
+            throw new IllegalArgumentException(String.format("Shape %s implements %s, not %s",
+                                                             this, targetInterface.getName(), type.getName()));
+        }
+        Map<String, byte[]> binaries = compile(mode);
+        ClassLoader classLoader = new ClassLoader(RuntimeShape.class.getClassLoader()) {
+            @Override
+            protected Class<?> findClass(String name) throws ClassNotFoundException {
+                byte[] bytes = binaries.get(name);
+                if (bytes == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                return defineClass(name, bytes, 0, bytes.length);
+            }
+        };
+        try {
+            return type.cast(classLoader.loadClass(getClassName()).newInstance());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Can't instantiate benchmark shape " + this, e);
+        }
+    }
+}
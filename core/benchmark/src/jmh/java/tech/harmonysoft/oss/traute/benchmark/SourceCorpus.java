@@ -0,0 +1,169 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates synthetic sources to be compiled by the {@link CompilationBenchmark}.
+ */
+public class SourceCorpus {
+
+    /**
+     * Public JDK types which exist in all supported java versions and don't clash by simple names,
+     * i.e. any prefix of the array can be imported by a single compilation unit.
+     */
+    private static final String[] IMPORT_CANDIDATES = {
+            "java.io.File", "java.io.IOException", "java.io.InputStream", "java.io.OutputStream",
+            "java.io.Reader", "java.io.Writer", "java.math.BigDecimal", "java.math.BigInteger",
+            "java.net.URI", "java.net.URL", "java.nio.ByteBuffer", "java.nio.CharBuffer",
+            "java.nio.file.Files", "java.nio.file.Path", "java.nio.file.Paths", "java.time.Duration",
+            "java.time.Instant", "java.time.LocalDate", "java.util.ArrayList", "java.util.Collection",
+            "java.util.Collections", "java.util.HashMap", "java.util.HashSet", "java.util.Iterator",
+            "java.util.LinkedList", "java.util.List", "java.util.Map", "java.util.Objects",
+            "java.util.Optional", "java.util.Set", "java.util.TreeMap", "java.util.UUID",
+            "java.io.BufferedInputStream", "java.io.BufferedOutputStream", "java.io.BufferedReader",
+            "java.io.BufferedWriter", "java.io.ByteArrayInputStream", "java.io.ByteArrayOutputStream",
+            "java.io.CharArrayReader", "java.io.CharArrayWriter", "java.io.CharConversionException",
+            "java.io.Closeable", "java.io.Console", "java.io.DataInput", "java.io.DataInputStream",
+            "java.io.DataOutput", "java.io.DataOutputStream", "java.io.EOFException", "java.io.Externalizable",
+            "java.io.FileDescriptor", "java.io.FileFilter", "java.io.FileInputStream",
+            "java.io.FileNotFoundException", "java.io.FileOutputStream", "java.io.FilePermission",
+            "java.io.FileReader", "java.io.FileWriter", "java.io.FilenameFilter", "java.io.FilterInputStream",
+            "java.io.FilterOutputStream", "java.io.FilterReader", "java.io.FilterWriter", "java.io.Flushable",
+            "java.io.IOError", "java.io.InputStreamReader", "java.io.InterruptedIOException",
+            "java.io.InvalidClassException", "java.io.InvalidObjectException", "java.io.LineNumberReader",
+            "java.io.NotActiveException", "java.io.NotSerializableException", "java.io.ObjectInput",
+            "java.io.ObjectInputStream", "java.io.ObjectInputValidation", "java.io.ObjectOutput",
+            "java.io.ObjectOutputStream", "java.io.ObjectStreamClass", "java.io.ObjectStreamConstants",
+            "java.io.ObjectStreamException", "java.io.ObjectStreamField", "java.io.OptionalDataException",
+            "java.io.OutputStreamWriter", "java.io.PipedInputStream", "java.io.PipedOutputStream",
+            "java.io.PipedReader", "java.io.PipedWriter", "java.io.PrintStream", "java.io.PrintWriter",
+            "java.io.PushbackInputStream", "java.io.PushbackReader", "java.io.RandomAccessFile",
+            "java.io.SequenceInputStream", "java.io.Serializable", "java.io.SerializablePermission",
+            "java.io.StreamCorruptedException", "java.io.StreamTokenizer", "java.io.StringReader",
+            "java.io.StringWriter", "java.io.SyncFailedException", "java.io.UTFDataFormatException",
+            "java.io.UncheckedIOException", "java.io.UnsupportedEncodingException", "java.io.WriteAbortedException",
+            "java.net.Authenticator", "java.net.BindException", "java.net.CacheRequest", "java.net.CacheResponse",
+            "java.net.ConnectException", "java.net.ContentHandler", "java.net.ContentHandlerFactory",
+            "java.net.CookieHandler", "java.net.CookieManager", "java.net.CookiePolicy", "java.net.CookieStore",
+            "java.net.DatagramPacket", "java.net.DatagramSocket", "java.net.DatagramSocketImpl",
+            "java.net.DatagramSocketImplFactory", "java.net.FileNameMap", "java.net.HttpCookie",
+            "java.net.HttpRetryException", "java.net.HttpURLConnection", "java.net.IDN", "java.net.Inet4Address",
+            "java.net.Inet6Address", "java.net.InetAddress", "java.net.InetSocketAddress",
+            "java.net.InterfaceAddress", "java.net.JarURLConnection", "java.net.MalformedURLException",
+            "java.net.MulticastSocket", "java.net.NetPermission", "java.net.NetworkInterface",
+            "java.net.NoRouteToHostException", "java.net.PasswordAuthentication", "java.net.PortUnreachableException",
+            "java.net.ProtocolException", "java.net.ProtocolFamily", "java.net.Proxy", "java.net.ProxySelector",
+            "java.net.ResponseCache", "java.net.SecureCacheResponse", "java.net.ServerSocket", "java.net.Socket",
+            "java.net.SocketAddress", "java.net.SocketException", "java.net.SocketImpl", "java.net.SocketImplFactory",
+            "java.net.SocketOption", "java.net.SocketOptions", "java.net.SocketPermission",
+            "java.net.SocketTimeoutException", "java.net.StandardProtocolFamily", "java.net.StandardSocketOptions",
+            "java.net.URISyntaxException", "java.net.URLClassLoader", "java.net.URLConnection", "java.net.URLDecoder",
+            "java.net.URLEncoder", "java.net.URLPermission", "java.net.URLStreamHandler",
+            "java.net.URLStreamHandlerFactory", "java.net.UnknownHostException", "java.net.UnknownServiceException",
+            "java.nio.file.AccessDeniedException", "java.nio.file.AccessMode",
+            "java.nio.file.AtomicMoveNotSupportedException", "java.nio.file.ClosedDirectoryStreamException",
+            "java.nio.file.ClosedFileSystemException", "java.nio.file.ClosedWatchServiceException",
+            "java.nio.file.CopyOption", "java.nio.file.DirectoryIteratorException",
+            "java.nio.file.DirectoryNotEmptyException", "java.nio.file.DirectoryStream",
+            "java.nio.file.FileAlreadyExistsException", "java.nio.file.FileStore", "java.nio.file.FileSystem",
+            "java.nio.file.FileSystemAlreadyExistsException", "java.nio.file.FileSystemException",
+            "java.nio.file.FileSystemLoopException", "java.nio.file.FileSystemNotFoundException",
+            "java.nio.file.FileSystems", "java.nio.file.FileVisitOption", "java.nio.file.FileVisitResult",
+            "java.nio.file.FileVisitor", "java.nio.file.InvalidPathException", "java.nio.file.LinkOption",
+            "java.nio.file.LinkPermission", "java.nio.file.NoSuchFileException",
+            "java.nio.file.NotDirectoryException", "java.nio.file.NotLinkException", "java.nio.file.OpenOption",
+            "java.nio.file.PathMatcher", "java.nio.file.ProviderMismatchException",
+            "java.nio.file.ProviderNotFoundException", "java.nio.file.ReadOnlyFileSystemException",
+            "java.nio.file.SecureDirectoryStream", "java.nio.file.SimpleFileVisitor",
+            "java.nio.file.StandardCopyOption", "java.nio.file.StandardOpenOption",
+            "java.nio.file.StandardWatchEventKinds", "java.nio.file.WatchEvent", "java.nio.file.WatchKey",
+            "java.nio.file.WatchService", "java.nio.file.Watchable", "java.text.Annotation",
+            "java.text.AttributedCharacterIterator", "java.text.AttributedString", "java.text.Bidi",
+            "java.text.BreakIterator", "java.text.CharacterIterator", "java.text.ChoiceFormat",
+            "java.text.CollationElementIterator", "java.text.CollationKey", "java.text.Collator",
+            "java.text.DateFormat", "java.text.DateFormatSymbols", "java.text.DecimalFormat",
+            "java.text.DecimalFormatSymbols", "java.text.FieldPosition", "java.text.Format",
+            "java.text.MessageFormat", "java.text.Normalizer", "java.text.NumberFormat", "java.text.ParseException",
+            "java.text.ParsePosition", "java.text.RuleBasedCollator", "java.text.SimpleDateFormat",
+            "java.text.StringCharacterIterator", "java.time.Clock", "java.time.DateTimeException",
+            "java.time.DayOfWeek", "java.time.LocalDateTime", "java.time.LocalTime", "java.time.Month",
+            "java.time.MonthDay", "java.time.OffsetDateTime", "java.time.OffsetTime", "java.time.Period",
+            "java.time.Year"
+    };
+
+    private SourceCorpus() {
+    }
+
+    /**
+     * @param fileCount             number of compilation units to generate
+     * @param methodsPerClass       number of methods in every generated class
+     * @param annotatedParameters   number of {@code NotNull} parameters of every generated method
+     * @param returnsPerMethod      number of {@code return} statements in every generated method, the method is
+     *                              marked by {@code NotNull} if this number is positive
+     * @param importCount           number of unused imports in every compilation unit in addition to
+     *                              the {@code NotNull} annotation import
+     * @return                      generated sources
+     */
+    @NotNull
+    public static List<InMemorySourceFile> generate(int fileCount,
+                                                    int methodsPerClass,
+                                                    int annotatedParameters,
+                                                    int returnsPerMethod,
+                                                    int importCount)
+    {
+        if (importCount > IMPORT_CANDIDATES.length) {
+            throw new IllegalArgumentException(String.format("Import count must not exceed %d but got %d",
+                                                             IMPORT_CANDIDATES.length, importCount));
+        }
+        List<InMemorySourceFile> result = new ArrayList<>(fileCount);
+        for (int i = 0; i < fileCount; i++) {
+            String packageName = "bench.p" + (i % 10);
+            String className = "C" + i;
+            StringBuilder buffer = new StringBuilder();
+            buffer.append("package ").append(packageName).append(";\n\n")
+                  .append("import org.jetbrains.annotations.NotNull;\n");
+            for (int j = 0; j < importCount; j++) {
+                buffer.append("import ").append(IMPORT_CANDIDATES[j]).append(";\n");
+            }
+            buffer.append("\npublic class ").append(className).append(" {\n");
+            for (int j = 0; j < methodsPerClass; j++) {
+                appendMethod(buffer, j, annotatedParameters, returnsPerMethod);
+            }
+            buffer.append("}\n");
+            result.add(new InMemorySourceFile(packageName + "." + className, buffer.toString()));
+        }
+        return result;
+    }
+
+    private static void appendMethod(@NotNull StringBuilder buffer,
+                                     int index,
+                                     int annotatedParameters,
+                                     int returnsPerMethod)
+    {
+        buffer.append('\n');
+        if (returnsPerMethod > 0) {
+            buffer.append("    @NotNull\n    public String m");
+        } else {
+            buffer.append("    public void m");
+        }
+        buffer.append(index).append('(');
+        for (int i = 0; i < annotatedParameters; i++) {
+            buffer.append("@NotNull String p").append(i).append(", ");
+        }
+        buffer.append("int k) {\n");
+        if (returnsPerMethod <= 0) {
+            buffer.append("        k++;\n");
+        } else {
+            for (int i = 0; i < returnsPerMethod - 1; i++) {
+                buffer.append("        if (k == ").append(i).append(") {\n")
+                      .append("            return \"").append(i).append("\";\n")
+                      .append("        }\n");
+            }
+            buffer.append("        return String.valueOf(k);\n");
+        }
+        buffer.append("    }\n");
+    }
+}
@@ -0,0 +1,10 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+/**
+ * Implemented by a generated class with a {@code NotNull} method which has multiple {@code return} statements,
+ * see {@link RuntimeShape#SWITCH}.
+ */
+public interface SwitchTarget {
+
+    String select(int key);
+}
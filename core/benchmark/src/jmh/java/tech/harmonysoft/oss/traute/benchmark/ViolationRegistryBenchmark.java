@@ -0,0 +1,89 @@
+package tech.harmonysoft.oss.traute.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import tech.harmonysoft.oss.traute.runtime.TrauteViolations;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ *     Measures throughput of {@link TrauteViolations#record(String, String) recording failed checks} from 64 threads
+ *     when all of them hit the same check site and when they are spread over 4096 sites. A map of
+ *     {@link AtomicLong} counters is measured for comparison - it's the straightforward implementation
+ *     which suffers from contention on a hot site.
+ * </p>
+ * <p>
+ *     The registry's logger is switched off, so, only counting and sampling of the failures to report is measured.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+@Threads(64)
+public class ViolationRegistryBenchmark {
+
+    private static final String MESSAGE = "Argument 'arg' of type String (#0 out of 1, zero-based) is marked by "
+                                          + "@org.jetbrains.annotations.NotNull but got null for it";
+
+    @Param({ "1", "4096" })
+    public int sites;
+
+    private final ConcurrentMap<String, AtomicLong> atomicCounters = new ConcurrentHashMap<>();
+
+    private String[] siteNames;
+    private Level    loggerLevel;
+
+    @Setup
+    public void setUp() {
+        Logger logger = Logger.getLogger(TrauteViolations.LOGGER_NAME);
+        loggerLevel = logger.getLevel();
+        logger.setLevel(Level.OFF);
+        TrauteViolations.reset();
+        siteNames = new String[sites];
+        for (int i = 0; i < sites; i++) {
+            siteNames[i] = "bench.violations.Target" + (i / 16) + ".java:" + (i % 16 + 10) + ":30";
+            atomicCounters.put(siteNames[i], new AtomicLong());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        TrauteViolations.reset();
+        Logger.getLogger(TrauteViolations.LOGGER_NAME).setLevel(loggerLevel);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int site;
+
+        @Setup
+        public void setUp() {
+            site = ThreadLocalRandom.current().nextInt(4096);
+        }
+
+        int next(int sites) {
+            site = (site + 1) & (sites - 1);
+            return site;
+        }
+    }
+
+    @Benchmark
+    public void registry(Cursor cursor) {
+        TrauteViolations.record(siteNames[cursor.next(sites)], MESSAGE);
+    }
+
+    @Benchmark
+    public long atomicLong(Cursor cursor) {
+        return atomicCounters.get(siteNames[cursor.next(sites)]).incrementAndGet();
+    }
+}
@@ -0,0 +1,96 @@
+package tech.harmonysoft.oss.traute.common.settings;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tech.harmonysoft.oss.traute.common.util.TrauteConstants;
+
+/**
+ * <p>Enumerates ways to switch generated {@code null}-checks on and off at run time.</p>
+ * <p>
+ *     A guarded check looks as below, the guard is a {@code static final} field of a package-private class
+ *     {@code <TopLevelClass>$traute$guard} generated in the same source file:
+ * </p>
+ * <pre>
+ *     if (MyClass$traute$guard.ENABLED) {
+ *         if (arg == null) {
+ *             throw new NullPointerException("[problem details]");
+ *         }
+ *     }
+ * </pre>
+ * <p>
+ *     The field is initialized once when the guard class is loaded, after that {@code JIT} treats it as
+ *     a constant and drops disabled checks completely.
+ * </p>
+ *
+ * @see TrauteConstants#OPTION_CHECK_GUARD
+ */
+public enum CheckGuard {
+
+    /**
+     * Checks are not guarded, i.e. they are always performed.
+     */
+    NONE("none"),
+
+    /**
+     * <p>
+     *     Checks are on unless they are switched off by a system property. The most specific property among
+     *     the ones below wins:
+     * </p>
+     * <ul>
+     *   <li>{@code traute.checks.com.example.app=false} - switches off checks in classes from the
+     *       {@code com.example.app} package and its sub-packages;</li>
+     *   <li>{@code traute.checks=false} - switches off all checks;</li>
+     * </ul>
+     * <p>
+     *     A value other than {@code 'false'} (case-insensitive) switches checks on, that way it's possible to
+     *     switch off checks globally but keep them for a particular package.
+     * </p>
+     *
+     * @see TrauteConstants#CHECKS_SYSTEM_PROPERTY
+     */
+    PROPERTY("property"),
+
+    /**
+     * Checks are performed only if assertions are enabled for the top-level class which holds them, i.e. they
+     * are switched on and off by the standard {@code -ea} and {@code -da} java command line arguments,
+     * including their per-package and per-class forms.
+     */
+    ASSERTIONS("assertions"),
+
+    /**
+     * <p>
+     *     Checks can be switched on and off while the application is running. Every top-level class gets
+     *     a switch from the {@code traute-runtime} library - a {@code MutableCallSite} which target is
+     *     a constant, {@code JIT} folds it the same way as a {@code static final} field and deoptimizes
+     *     dependent code when the switch is flipped. Switches are controlled per package or class through
+     *     {@code JMX} or the {@code TrauteChecks} class, initial state is defined by the same system properties
+     *     as for the {@link #PROPERTY} guard.
+     * </p>
+     * <p>
+     *     Generated code doesn't reference the library directly, checks are always on if it's not available
+     *     at run time.
+     * </p>
+     */
+    DYNAMIC("dynamic");
+
+    @NotNull private final String optionValue;
+
+    CheckGuard(@NotNull String optionValue) {
+        this.optionValue = optionValue;
+    }
+
+    @Nullable
+    public static CheckGuard byOptionValue(@NotNull String value) {
+        for (CheckGuard guard : values()) {
+            if (guard.optionValue.equalsIgnoreCase(value)) {
+                return guard;
+            }
+        }
+        return null;
+    }
+
+    @NotNull
+    public String getOptionValue() {
+        return optionValue;
+    }
+}
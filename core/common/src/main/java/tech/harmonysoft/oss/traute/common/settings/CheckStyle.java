@@ -0,0 +1,90 @@
+package tech.harmonysoft.oss.traute.common.settings;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tech.harmonysoft.oss.traute.common.util.TrauteConstants;
+
+/**
+ * <p>Enumerates shapes of the generated {@code null}-checks.</p>
+ * <p>
+ *     Resulting shape also depends on the {@link TrauteConstants#OPTION_PREFIX_EXCEPTION_TO_THROW exception to throw}
+ *     and on the class which holds the check:
+ * </p>
+ * <table summary="Check shapes">
+ *     <tr><th>Style</th><th>{@code NullPointerException}</th><th>Other exception</th><th>Interface</th></tr>
+ *     <tr><td>{@link #INLINE}</td><td>inline</td><td>inline</td><td>inline</td></tr>
+ *     <tr><td>{@link #OUT_OF_LINE}</td><td>out-of-line</td><td>out-of-line</td><td>inline</td></tr>
+ *     <tr><td>{@link #REQUIRE_NON_NULL}</td><td>requireNonNull</td><td>inline</td><td>requireNonNull</td></tr>
+ *     <tr><td>{@link #RUNTIME}</td><td>runtime</td><td>inline</td><td>runtime</td></tr>
+ * </table>
+ *
+ * @see TrauteConstants#OPTION_CHECK_STYLE
+ */
+public enum CheckStyle {
+
+    /**
+     * <pre>
+     *     if (arg == null) {
+     *         throw new NullPointerException("[problem details]");
+     *     }
+     * </pre>
+     */
+    INLINE("inline"),
+
+    /**
+     * <pre>
+     *     if (arg == null) {
+     *         traute$fail$parameter("[problem details]");
+     *     }
+     * </pre>
+     * Here {@code traute$fail$parameter()} is a static method generated once per top-level class, it creates
+     * and throws the configured exception.
+     */
+    OUT_OF_LINE("outOfLine"),
+
+    /**
+     * <pre>
+     *     java.util.Objects.requireNonNull(arg, "[problem details]");
+     * </pre>
+     * A {@code return} check doesn't need a temporary variable then:
+     * <pre>
+     *     return java.util.Objects.requireNonNull(doCompute(), "[problem details]");
+     * </pre>
+     * {@link java.util.Objects#requireNonNull(Object, String)} throws a {@link NullPointerException}, so,
+     * {@link #INLINE} checks are generated if another exception is configured.
+     */
+    REQUIRE_NON_NULL("requireNonNull"),
+
+    /**
+     * <pre>
+     *     tech.harmonysoft.oss.traute.runtime.TrauteNullChecks.checkNotNull(arg, "[problem details]");
+     * </pre>
+     * The {@code traute-runtime} library is needed at compile time and at run time then. It bundles
+     * <i>ProGuard</i> rules which declare the call free of side effects, so, minified builds
+     * (e.g. <i>Android</i> release builds with <i>R8</i>) remove such checks completely. {@link #INLINE} checks
+     * are generated if an exception other than {@link NullPointerException} is configured, parameter checks
+     * are not {@link TrauteConstants#OPTION_COMBINE_PARAMETER_CHECKS combined}.
+     */
+    RUNTIME("runtime");
+
+    @NotNull private final String optionValue;
+
+    CheckStyle(@NotNull String optionValue) {
+        this.optionValue = optionValue;
+    }
+
+    @Nullable
+    public static CheckStyle byOptionValue(@NotNull String value) {
+        for (CheckStyle style : values()) {
+            if (style.optionValue.equalsIgnoreCase(value)) {
+                return style;
+            }
+        }
+        return null;
+    }
+
+    @NotNull
+    public String getOptionValue() {
+        return optionValue;
+    }
+}
@@ -0,0 +1,58 @@
+package tech.harmonysoft.oss.traute.common.settings;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tech.harmonysoft.oss.traute.common.util.TrauteConstants;
+
+/**
+ * Enumerates ways to react on a failed {@code null}-check.
+ *
+ * @see TrauteConstants#OPTION_FAILURE_MODE
+ */
+public enum FailureMode {
+
+    /**
+     * A {@link TrautePluginSettings#getExceptionToThrow configured exception} is thrown, that's the default.
+     */
+    THROW("throw"),
+
+    /**
+     * <p>
+     *     A failed check is recorded in the {@code traute-runtime} library's violations registry and the program
+     *     continues as if there is no check:
+     * </p>
+     * <pre>
+     *     if (arg == null) {
+     *         tech.harmonysoft.oss.traute.runtime.TrauteViolations.record("com.example.MyClass.java:12:30",
+     *                                                                     "[problem details]");
+     *     }
+     * </pre>
+     * <p>
+     *     The library has to be available both during compilation and at run time. The mode is intended for
+     *     a gradual rollout of the checks to existing code - violations are counted per check and logged
+     *     in a rate-limited manner.
+     * </p>
+     */
+    RECORD("record");
+
+    @NotNull private final String optionValue;
+
+    FailureMode(@NotNull String optionValue) {
+        this.optionValue = optionValue;
+    }
+
+    @Nullable
+    public static FailureMode byOptionValue(@NotNull String value) {
+        for (FailureMode mode : values()) {
+            if (mode.optionValue.equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        return null;
+    }
+
+    @NotNull
+    public String getOptionValue() {
+        return optionValue;
+    }
+}
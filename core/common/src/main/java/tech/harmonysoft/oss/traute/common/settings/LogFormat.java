@@ -0,0 +1,40 @@
+package tech.harmonysoft.oss.traute.common.settings;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tech.harmonysoft.oss.traute.common.util.TrauteConstants;
+
+/**
+ * Enumerates formats of the plugin's log file.
+ *
+ * @see TrauteConstants#OPTION_LOG_FORMAT
+ */
+public enum LogFormat {
+
+    /** {@code [INFO] message} */
+    TEXT("text"),
+
+    /** {@code {"level":"INFO","message":"message"}} */
+    JSON("json");
+
+    @NotNull private final String optionValue;
+
+    LogFormat(@NotNull String optionValue) {
+        this.optionValue = optionValue;
+    }
+
+    @Nullable
+    public static LogFormat byOptionValue(@NotNull String value) {
+        for (LogFormat format : values()) {
+            if (format.optionValue.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    @NotNull
+    public String getOptionValue() {
+        return optionValue;
+    }
+}
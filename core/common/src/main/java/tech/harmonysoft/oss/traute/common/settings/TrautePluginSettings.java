@@ -18,8 +18,17 @@ public class TrautePluginSettings {
     private final Map<InstrumentationType, String>      exceptionTextPatterns       = new HashMap<>();
     private final Map<InstrumentationType, Set<String>> notNullByDefaultAnnotations = new HashMap<>();
 
-    @Nullable private final File logFile;
-
+    @NotNull  private final CheckStyle  checkStyle;
+    @NotNull  private final CheckGuard  checkGuard;
+    @NotNull  private final FailureMode failureMode;
+    @NotNull  private final LogFormat   logFormat;
+    @Nullable private final File        logFile;
+    @Nullable private final File        cacheDir;
+
+    private final boolean failureEvents;
+    private final boolean messageTable;
+    private final boolean combineParameterChecks;
+    private final boolean elideDelegatedChecks;
     private final boolean verboseMode;
 
     public TrautePluginSettings(@NotNull Set<String> notNullAnnotations,
@@ -28,10 +37,28 @@ public class TrautePluginSettings {
                                 @NotNull Map<InstrumentationType, String> exceptionsToThrow,
                                 @NotNull Map<InstrumentationType, String> exceptionTextPatterns,
                                 @NotNull Map<InstrumentationType, Set<String>> notNullByDefaultAnnotations,
+                                @NotNull CheckStyle checkStyle,
+                                @NotNull CheckGuard checkGuard,
+                                @NotNull FailureMode failureMode,
+                                boolean failureEvents,
+                                boolean messageTable,
+                                boolean combineParameterChecks,
+                                boolean elideDelegatedChecks,
                                 @Nullable File logFile,
+                                @NotNull LogFormat logFormat,
+                                @Nullable File cacheDir,
                                 boolean verboseMode)
     {
+        this.checkStyle = checkStyle;
+        this.checkGuard = checkGuard;
+        this.failureMode = failureMode;
+        this.failureEvents = failureEvents;
+        this.messageTable = messageTable;
+        this.combineParameterChecks = combineParameterChecks;
+        this.elideDelegatedChecks = elideDelegatedChecks;
         this.logFile = logFile;
+        this.logFormat = logFormat;
+        this.cacheDir = cacheDir;
         this.notNullAnnotations.addAll(notNullAnnotations);
         this.nullableAnnotations.addAll(nullableAnnotations);
         this.instrumentationsToApply.addAll(instrumentationsToApply);
@@ -90,11 +117,75 @@ public class TrautePluginSettings {
         return notNullByDefaultAnnotations;
     }
 
+    @NotNull
+    public CheckStyle getCheckStyle() {
+        return checkStyle;
+    }
+
+    /**
+     * @return  a way to switch generated checks on and off at run time
+     */
+    @NotNull
+    public CheckGuard getCheckGuard() {
+        return checkGuard;
+    }
+
+    /**
+     * @return  a way to react on failed checks
+     */
+    @NotNull
+    public FailureMode getFailureMode() {
+        return failureMode;
+    }
+
+    /**
+     * @return  {@code true} if failed checks should commit {@code JDK Flight Recorder} events;
+     *          {@code false} otherwise
+     */
+    public boolean isFailureEvents() {
+        return failureEvents;
+    }
+
+    /**
+     * @return  {@code true} if failure messages should be kept in compact message tables which are loaded only
+     *          when a check fails; {@code false} otherwise
+     */
+    public boolean isMessageTable() {
+        return messageTable;
+    }
+
+    /**
+     * @return  {@code true} if checks for several parameters of the same method should share a single guard and
+     *          failure path; {@code false} otherwise
+     */
+    public boolean isCombineParameterChecks() {
+        return combineParameterChecks;
+    }
+
+    /**
+     * @return  {@code true} if parameter checks of methods and constructors which can't be called from outside
+     *          of their top-level class should be skipped when every call site passes a value which is already
+     *          checked or can't be {@code null}; {@code false} otherwise
+     */
+    public boolean isElideDelegatedChecks() {
+        return elideDelegatedChecks;
+    }
+
     @NotNull
     public Optional<File> getLogFile() {
         return Optional.ofNullable(logFile);
     }
 
+    @NotNull
+    public LogFormat getLogFormat() {
+        return logFormat;
+    }
+
+    @NotNull
+    public Optional<File> getCacheDir() {
+        return Optional.ofNullable(cacheDir);
+    }
+
     public boolean isVerboseMode() {
         return verboseMode;
     }
@@ -115,6 +115,22 @@ public class TrautePluginSettingsBuilder {
 
     public static final boolean DEFAULT_VERBOSE_MODE = false;
 
+    public static final LogFormat DEFAULT_LOG_FORMAT = LogFormat.TEXT;
+
+    public static final CheckStyle DEFAULT_CHECK_STYLE = CheckStyle.INLINE;
+
+    public static final CheckGuard DEFAULT_CHECK_GUARD = CheckGuard.NONE;
+
+    public static final FailureMode DEFAULT_FAILURE_MODE = FailureMode.THROW;
+
+    public static final boolean DEFAULT_FAILURE_EVENTS = false;
+
+    public static final boolean DEFAULT_MESSAGE_TABLE = false;
+
+    public static final boolean DEFAULT_COMBINE_PARAMETER_CHECKS = false;
+
+    public static final boolean DEFAULT_ELIDE_DELEGATED_CHECKS = false;
+
     private final Set<String>              notNullAnnotations      = new HashSet<>();
     private final Set<String>              nullableAnnotations     = new HashSet<>();
     private final Set<InstrumentationType> instrumentationsToApply = EnumSet.noneOf(InstrumentationType.class);
@@ -123,8 +139,17 @@ public class TrautePluginSettingsBuilder {
     private final Map<InstrumentationType, String>      exceptionTextPatterns       = new HashMap<>();
     private final Map<InstrumentationType, Set<String>> notNullByDefaultAnnotations = new HashMap<>();
 
-    @Nullable private File    logFile;
-    @Nullable private Boolean verbose;
+    @Nullable private CheckStyle  checkStyle;
+    @Nullable private CheckGuard  checkGuard;
+    @Nullable private FailureMode failureMode;
+    @Nullable private Boolean     failureEvents;
+    @Nullable private Boolean     messageTable;
+    @Nullable private Boolean     combineParameterChecks;
+    @Nullable private Boolean     elideDelegatedChecks;
+    @Nullable private File        logFile;
+    @Nullable private LogFormat   logFormat;
+    @Nullable private File        cacheDir;
+    @Nullable private Boolean     verbose;
 
     @NotNull
     public static TrautePluginSettingsBuilder settingsBuilder() {
@@ -173,12 +198,66 @@ public class TrautePluginSettingsBuilder {
         return this;
     }
 
+    @NotNull
+    public TrautePluginSettingsBuilder withCheckStyle(@NotNull CheckStyle style) {
+        checkStyle = style;
+        return this;
+    }
+
+    @NotNull
+    public TrautePluginSettingsBuilder withCheckGuard(@NotNull CheckGuard guard) {
+        checkGuard = guard;
+        return this;
+    }
+
+    @NotNull
+    public TrautePluginSettingsBuilder withFailureMode(@NotNull FailureMode mode) {
+        failureMode = mode;
+        return this;
+    }
+
+    @NotNull
+    public TrautePluginSettingsBuilder withFailureEvents(boolean failureEvents) {
+        this.failureEvents = failureEvents;
+        return this;
+    }
+
+    @NotNull
+    public TrautePluginSettingsBuilder withMessageTable(boolean messageTable) {
+        this.messageTable = messageTable;
+        return this;
+    }
+
+    @NotNull
+    public TrautePluginSettingsBuilder withCombineParameterChecks(boolean combine) {
+        combineParameterChecks = combine;
+        return this;
+    }
+
+    @NotNull
+    public TrautePluginSettingsBuilder withElideDelegatedChecks(boolean elide) {
+        elideDelegatedChecks = elide;
+        return this;
+    }
+
     @NotNull
     public TrautePluginSettingsBuilder withLogFile(@NotNull File file) {
         logFile = file;
         return this;
     }
 
+    @NotNull
+    public TrautePluginSettingsBuilder withLogFormat(@NotNull LogFormat format) {
+        logFormat = format;
+        return this;
+    }
+
+    @NotNull
+    public TrautePluginSettingsBuilder withCacheDir(@NotNull File dir) {
+        cacheDir = dir;
+        return this;
+    }
+
     @NotNull
     public TrautePluginSettingsBuilder withVerboseMode(boolean verbose) {
         this.verbose = verbose;
@@ -223,7 +302,18 @@ public class TrautePluginSettingsBuilder {
                                         exceptionsToThrow,
                                         exceptionTextPatterns,
                                         notNullByDefaultAnnotations,
+                                        checkStyle == null ? DEFAULT_CHECK_STYLE : checkStyle,
+                                        checkGuard == null ? DEFAULT_CHECK_GUARD : checkGuard,
+                                        failureMode == null ? DEFAULT_FAILURE_MODE : failureMode,
+                                        failureEvents == null ? DEFAULT_FAILURE_EVENTS : failureEvents,
+                                        messageTable == null ? DEFAULT_MESSAGE_TABLE : messageTable,
+                                        combineParameterChecks == null
+                                        ? DEFAULT_COMBINE_PARAMETER_CHECKS : combineParameterChecks,
+                                        elideDelegatedChecks == null
+                                        ? DEFAULT_ELIDE_DELEGATED_CHECKS : elideDelegatedChecks,
                                         logFile,
+                                        logFormat == null ? DEFAULT_LOG_FORMAT : logFormat,
+                                        cacheDir,
                                         verbose);
     }
 }
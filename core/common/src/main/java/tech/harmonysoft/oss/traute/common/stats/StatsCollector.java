@@ -8,7 +8,8 @@ import java.util.concurrent.ConcurrentMap;
 
 public class StatsCollector {
 
-    private final ConcurrentMap<InstrumentationType, Long> stats = new ConcurrentHashMap<>();
+    private final ConcurrentMap<InstrumentationType, Long> stats  = new ConcurrentHashMap<>();
+    private final ConcurrentMap<InstrumentationType, Long> elided = new ConcurrentHashMap<>();
 
     public void increment(@NotNull InstrumentationType type) {
         add(type, 1);
@@ -18,13 +19,34 @@ public class StatsCollector {
         stats.compute(type, (key, value) -> value == null ? count : value + count);
     }
 
+    /**
+     * Registers a check which is not generated because it can never fail.
+     *
+     * @param type  target check's type
+     */
+    public void incrementElided(@NotNull InstrumentationType type) {
+        addElided(type, 1);
+    }
+
+    public void addElided(@NotNull InstrumentationType type, long count) {
+        elided.compute(type, (key, value) -> value == null ? count : value + count);
+    }
+
     @NotNull
     public ConcurrentMap<InstrumentationType, Long> getStats() {
         return stats;
     }
 
+    /**
+     * @return  number of checks which are not generated because they can never fail
+     */
+    @NotNull
+    public ConcurrentMap<InstrumentationType, Long> getElidedStats() {
+        return elided;
+    }
+
     @Override
     public String toString() {
-        return stats.toString();
+        return elided.isEmpty() ? stats.toString() : stats + ", elided: " + elided;
     }
 }
@@ -92,6 +92,30 @@ public class TrauteConstants {
      */
     public static final String OPTION_LOG_FILE = "traute.log.file";
 
+    /**
+     * <p>Compiler's option name for specifying a format of the plugin's {@link #OPTION_LOG_FILE log file}.</p>
+     * <p>
+     *     Plain text is used by default. {@code 'json'} value means that every log record is written as
+     *     a single-line {@code JSON} object (<a href="http://jsonlines.org">JSON Lines</a>). Records about
+     *     added checks contain check type, source file, method and position there.
+     * </p>
+     */
+    public static final String OPTION_LOG_FORMAT = "traute.log.format";
+
+    /**
+     * <p>
+     *     Compiler's option name for specifying a directory where the plugin keeps data which can be reused
+     *     by subsequent compilations.
+     * </p>
+     * <p>
+     *     Package-level annotations like {@code javax.annotation.ParametersAreNonnullByDefault} declared in
+     *     class path jars are indexed once per jar then. An index is re-built automatically when its jar is
+     *     changed. The same directory might be shared by concurrent builds.
+     * </p>
+     * <p>No cache is used by default.</p>
+     */
+    public static final String OPTION_CACHE_DIR = "traute.cache.dir";
+
     /**
      * Compiler's option name to use for specifying instrumentation types to use
      *
@@ -100,6 +124,148 @@ public class TrauteConstants {
      */
     public static final String OPTION_INSTRUMENTATIONS_TO_USE = "traute.instrumentations";
 
+    /**
+     * <p>Compiler's option name for specifying a shape of the generated {@code null}-checks.</p>
+     * <p>
+     *     By default the exception is created and thrown right in the instrumented method
+     *     ({@code 'inline'}). {@code 'outOfLine'} value means that a check is just a comparison and a call to
+     *     a static failure method generated once per top-level class. That keeps instrumented methods small,
+     *     so, {@code JIT} is more likely to inline them. Checks inside interfaces are always generated inline.
+     * </p>
+     * <p>
+     *     {@code 'requireNonNull'} value means that checks are calls to
+     *     {@link java.util.Objects#requireNonNull(Object, String)}. Inline checks are generated if an exception
+     *     other than {@link NullPointerException} is {@link #OPTION_PREFIX_EXCEPTION_TO_THROW configured}.
+     * </p>
+     * <p>
+     *     {@code 'runtime'} value means that checks are calls to a static method of the {@code traute-runtime}
+     *     library which is declared free of side effects by the library's <i>ProGuard</i> rules, i.e. minified
+     *     builds don't have the checks at all.
+     * </p>
+     *
+     * @see tech.harmonysoft.oss.traute.common.settings.CheckStyle
+     */
+    public static final String OPTION_CHECK_STYLE = "traute.check.style";
+
+    /**
+     * <p>
+     *     Compiler's option name for switching generated checks on and off at run time without recompilation,
+     *     e.g. {@code -Atraute.check.guard=property}.
+     * </p>
+     * <p>
+     *     By default checks are always performed ({@code 'none'}). {@code 'property'} value means that checks
+     *     can be switched off by the {@link #CHECKS_SYSTEM_PROPERTY system properties}, {@code 'assertions'}
+     *     value means that checks are performed only when assertions are enabled ({@code -ea}). Every check is
+     *     wrapped into {@code if (<TopLevelClass>$traute$guard.ENABLED)} then, where the guard class is
+     *     a generated package-private class in the same source file.
+     * </p>
+     * <p>
+     *     {@code 'dynamic'} value means that checks can be switched on and off while the application is running,
+     *     through the {@code traute-runtime} library ({@code JMX} or its API).
+     * </p>
+     *
+     * @see tech.harmonysoft.oss.traute.common.settings.CheckGuard
+     */
+    public static final String OPTION_CHECK_GUARD = "traute.check.guard";
+
+    /**
+     * <p>
+     *     Name of the system property which switches {@link #OPTION_CHECK_GUARD guarded} checks on and off
+     *     at run time, e.g. {@code -Dtraute.checks=false}.
+     * </p>
+     * <p>
+     *     A package name might be appended to the property name in order to switch checks only in that package
+     *     and its sub-packages, e.g. {@code -Dtraute.checks.com.example.app=false}. The most specific property
+     *     wins. The properties are read once per top-level class, when its guard class is loaded.
+     * </p>
+     * <p>
+     *     {@code 'dynamic'} guard reads the same properties once per application, they define initial state
+     *     of the run time switches then.
+     * </p>
+     */
+    public static final String CHECKS_SYSTEM_PROPERTY = "traute.checks";
+
+    /**
+     * <p>
+     *     Compiler's option name for defining what happens when a check fails, e.g.
+     *     {@code -Atraute.failure.mode=record}.
+     * </p>
+     * <p>
+     *     By default an exception is thrown ({@code 'throw'}). {@code 'record'} value means that a failed check
+     *     is counted and logged by the {@code traute-runtime} library and the program continues, that's useful
+     *     for introducing the checks into existing code. Checks are generated as inline calls to the library
+     *     then, regardless of the {@link #OPTION_CHECK_STYLE check style} and
+     *     {@link #OPTION_MESSAGE_TABLE message table} settings.
+     * </p>
+     *
+     * @see tech.harmonysoft.oss.traute.common.settings.FailureMode
+     */
+    public static final String OPTION_FAILURE_MODE = "traute.failure.mode";
+
+    /**
+     * <p>
+     *     Compiler's option name for committing a {@code JDK Flight Recorder} event when a check fails, e.g.
+     *     {@code -Atraute.failure.events=true}.
+     * </p>
+     * <p>
+     *     When it's on, the failure path of every check calls the {@code traute-runtime} library before
+     *     the exception is thrown (or the failure is recorded). The library commits an event with the check site,
+     *     method, parameter and annotation, {@code JFR} adds the thread and the stack trace. Nothing is added to
+     *     the path where the checked value is not {@code null}, however, {@code requireNonNull}
+     *     {@link #OPTION_CHECK_STYLE checks} are generated as {@code 'inline'} then because they have no failure
+     *     path to put the call to.
+     * </p>
+     */
+    public static final String OPTION_FAILURE_EVENTS = "traute.failure.events";
+
+    /**
+     * <p>
+     *     Compiler's option name for keeping failure messages in compact message tables, e.g.
+     *     {@code -Atraute.message.table=true}.
+     * </p>
+     * <p>
+     *     When it's on, every check in a top-level class gets a small integer id and calls the class' failure
+     *     method with it. Exception messages of the class are kept in a word dictionary encoded string constant
+     *     of a separate holder class which is loaded only when a check fails, so, instrumented classes' constant
+     *     pools don't hold the messages. The checks are
+     *     {@link #OPTION_CHECK_STYLE out-of-line} then regardless of the configured check style, except the ones
+     *     inside interfaces which are always generated as usual.
+     * </p>
+     */
+    public static final String OPTION_MESSAGE_TABLE = "traute.message.table";
+
+    /**
+     * <p>
+     *     Compiler's option name for combining checks of several method parameters, e.g.
+     *     {@code -Atraute.parameter.checks.combined=true}.
+     * </p>
+     * <p>
+     *     When it's on, a method with more than one parameter to check gets a single guard like
+     *     {@code if (a == null || b == null || c == null)} and a single call to a generated failure method which
+     *     finds the first {@code null} argument and reports exactly the same message as a separate check would do.
+     * </p>
+     */
+    public static final String OPTION_COMBINE_PARAMETER_CHECKS = "traute.parameter.checks.combined";
+
+    /**
+     * <p>
+     *     Compiler's option name for skipping redundant parameter checks in delegating calls, e.g.
+     *     {@code -Atraute.parameter.checks.elide.delegated=true}.
+     * </p>
+     * <p>
+     *     When it's on, every top-level class is analyzed after its members are processed. A parameter check of
+     *     a {@code private} method or constructor (or a constructor of a {@code private} class) is skipped if
+     *     the member is called at least once and every call site in the class passes a value which is already
+     *     checked or can't be {@code null}, e.g. a checked parameter of the calling method, a literal or
+     *     a {@code new} expression. Additionally, a constructor parameter check is skipped if the parameter is
+     *     passed as is into a {@code this(...)} or {@code super(...)} call which checks it first.
+     * </p>
+     * <p>
+     *     Members which can be called from outside of the top-level class are never affected.
+     * </p>
+     */
+    public static final String OPTION_ELIDE_DELEGATED_CHECKS = "traute.parameter.checks.elide.delegated";
+
     /**
      * <p>
      *     Prefix for compiler's option prefix for specifying an exception to throw on failed
@@ -134,6 +300,18 @@ public class TrauteConstants {
      */
     public static final String VARIABLE_PARAMETER_NAME = "PARAMETER_NAME";
 
+    /**
+     * This text is replaced by the simple name of the method which {@code null}-check fails in the
+     * {@link InstrumentationType#METHOD_RETURN return check}.
+     */
+    public static final String VARIABLE_METHOD_NAME = "METHOD_NAME";
+
+    /**
+     * This text is replaced by the declared return type of the method which {@code null}-check fails in the
+     * {@link InstrumentationType#METHOD_RETURN return check}.
+     */
+    public static final String VARIABLE_RETURN_TYPE = "RETURN_TYPE";
+
     /**
      * This function capitalizes the variable inside it, e.g. {@code ${capitalize(PARAMETER_NAME)}} for
      * parameter {@code 'arg'} produced {@code 'Arg'}.
@@ -8,22 +8,31 @@ import com.sun.source.util.TaskListener;
 import com.sun.tools.javac.api.BasicJavacTask;
 import com.sun.tools.javac.processing.JavacProcessingEnvironment;
 import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.comp.Todo;
 import com.sun.tools.javac.util.Context;
 import com.sun.tools.javac.util.Log;
 import com.sun.tools.javac.util.Names;
+import com.sun.tools.javac.util.Options;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType;
+import tech.harmonysoft.oss.traute.common.settings.CheckGuard;
+import tech.harmonysoft.oss.traute.common.settings.FailureMode;
+import tech.harmonysoft.oss.traute.common.settings.CheckStyle;
+import tech.harmonysoft.oss.traute.common.settings.LogFormat;
 import tech.harmonysoft.oss.traute.common.settings.TrautePluginSettings;
 import tech.harmonysoft.oss.traute.common.settings.TrautePluginSettingsBuilder;
 import tech.harmonysoft.oss.traute.common.stats.StatsCollector;
 import tech.harmonysoft.oss.traute.common.util.TrauteConstants;
-import tech.harmonysoft.oss.traute.javac.common.CompilationUnitProcessingContext;
+import tech.harmonysoft.oss.traute.javac.common.CompilationSession;
 import tech.harmonysoft.oss.traute.javac.common.InstrumentationApplianceFinder;
+import tech.harmonysoft.oss.traute.javac.common.KnownAnnotations;
+import tech.harmonysoft.oss.traute.javac.common.PackageInfoCache;
 import tech.harmonysoft.oss.traute.javac.common.PackageInfoManager;
 import tech.harmonysoft.oss.traute.javac.instrumentation.Instrumentator;
 import tech.harmonysoft.oss.traute.javac.instrumentation.method.MethodReturnInstrumentator;
 import tech.harmonysoft.oss.traute.javac.instrumentation.method.ReturnToInstrumentInfo;
+import tech.harmonysoft.oss.traute.javac.instrumentation.parameter.CombinedParameterInstrumentator;
 import tech.harmonysoft.oss.traute.javac.instrumentation.parameter.ParameterInstrumentator;
 import tech.harmonysoft.oss.traute.javac.instrumentation.parameter.ParameterToInstrumentInfo;
 import tech.harmonysoft.oss.traute.javac.log.AbstractLogger;
@@ -32,7 +41,10 @@ import tech.harmonysoft.oss.traute.javac.log.FileLogger;
 import tech.harmonysoft.oss.traute.javac.log.TrautePluginLogger;
 import tech.harmonysoft.oss.traute.javac.text.ExceptionTextGeneratorManager;
 
+import javax.tools.JavaFileManager;
 import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
 import java.io.File;
 import java.io.PrintWriter;
 import java.io.StringWriter;
@@ -40,12 +52,12 @@ import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.util.*;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static java.lang.reflect.Modifier.*;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
+import static tech.harmonysoft.oss.traute.common.settings.TrautePluginSettingsBuilder.DEFAULT_LOG_FORMAT;
 import static tech.harmonysoft.oss.traute.common.settings.TrautePluginSettingsBuilder.settingsBuilder;
 import static tech.harmonysoft.oss.traute.common.util.TrauteConstants.OPTION_LOG_VERBOSE;
 import static tech.harmonysoft.oss.traute.common.util.TrauteConstants.OPTION_PREFIX_ANNOTATIONS_NOT_NULL_BY_DEFAULT;
@@ -100,13 +112,18 @@ import static tech.harmonysoft.oss.traute.javac.log.AbstractLogger.getProblemMes
  */
 public class TrauteJavacPlugin implements Plugin {
 
+    /** {@code COMPILATION} event kind, {@code null} if current {@code javac} doesn't have it. */
+    @Nullable private static final TaskEvent.Kind COMPILATION_EVENT_KIND = findEventKind("COMPILATION");
+
     private final AtomicReference<WeakReference<AbstractLogger>> loggerRef             = new AtomicReference<>();
     private final AtomicReference<TrautePluginSettings>          pluginSettingsRef     = new AtomicReference<>();
 
     private final Instrumentator<ParameterToInstrumentInfo> parameterInstrumentator = new ParameterInstrumentator();
     private final Instrumentator<ReturnToInstrumentInfo>    methodInstrumentator    = new MethodReturnInstrumentator();
     private final Set<String>                               pluginOptionKeys        = new HashSet<>();
-    private final PackageInfoManager                        packageInfoManager      = new PackageInfoManager();
+
+    private final CombinedParameterInstrumentator combinedParameterInstrumentator
+            = new CombinedParameterInstrumentator();
 
     public TrauteJavacPlugin() {
         pluginOptionKeys.addAll(collectPluginOptionKeys());
@@ -126,13 +143,28 @@ public class TrauteJavacPlugin implements Plugin {
             )));
         }
         Context context = ((BasicJavacTask) task).getContext();
-        AtomicBoolean contextClosed = new AtomicBoolean();
-        TrautePluginSettings settings = getPluginSettings(context);
-        pluginSettingsRef.set(settings);
+        CompilationSession session = createSession(task, context);
+        if (session == null) {
+            return;
+        }
+        AtomicReference<CompilationSession> sessionRef = new AtomicReference<>(session);
+        JavacProcessingEnvironment processingEnvironment = JavacProcessingEnvironment.instance(context);
         task.addTaskListener(new TaskListener() {
+
+            private boolean analysisStarted;
+
             @Override
             public void started(TaskEvent event) {
-                if (event.getKind() != TaskEvent.Kind.ENTER || isContextClosed()) {
+                CompilationSession session = sessionRef.get();
+                if (session == null) {
+                    return;
+                }
+                if (event.getKind() == TaskEvent.Kind.ANALYZE && !analysisStarted) {
+                    // All instrumentations are done before analysis, so, that's a good moment to write their logs
+                    analysisStarted = true;
+                    session.getLogger().flush();
+                }
+                if (event.getKind() != TaskEvent.Kind.ENTER || session.isContextClosed()) {
                     // The idea is to add our checks just after the parser builds an AST. Further on the code
                     // will also be analyzed for errors and included into resulting binary.
                     // We don't apply the instrumentations after TaskEvent.Kind.PARSE event because there is
@@ -142,49 +174,28 @@ public class TrauteJavacPlugin implements Plugin {
                     return;
                 }
 
-                Log log = Log.instance(context);
-                if (log == null) {
-                    throw new RuntimeException(AbstractLogger.getProblemMessage(
-                            "get a javac logger from the current javac context but got <null>"
-                    ));
-                }
-                TrautePluginLogger logger = getPluginLogger(settings.getLogFile().orElse(null), log);
+                TrautePluginLogger logger = session.getLogger();
                 CompilationUnitTree compilationUnit = event.getCompilationUnit();
                 if (compilationUnit == null) {
                     logger.reportDetails("get a prepared compilation unit object but got <null>");
                     return;
                 }
 
-                TreeMaker treeMaker = TreeMaker.instance(context);
-                if (treeMaker == null) {
-                    logger.reportDetails("get an AST factory from the current javac context but got <null>");
-                    return;
-                }
-                Names names = Names.instance(context);
-                if (names == null) {
-                    logger.reportDetails("get a name table from the current javac context but got <null>");
-                    return;
-                }
-                TrautePluginSettings pluginSettings = pluginSettingsRef.get();
                 StatsCollector statsCollector = new StatsCollector();
                 try {
                     compilationUnit.accept(new InstrumentationApplianceFinder(
-                            new CompilationUnitProcessingContext(pluginSettings,
-                                                                 treeMaker,
-                                                                 names,
-                                                                 logger,
-                                                                 statsCollector,
-                                                                 new ExceptionTextGeneratorManager(logger),
-                                                                 packageInfoManager),
+                            session.newCompilationUnitContext(statsCollector),
                             parameterInstrumentator,
+                            combinedParameterInstrumentator,
                             methodInstrumentator),null);
-                    if (pluginSettings.isVerboseMode()) {
+                    session.onCompilationUnitProcessed(statsCollector);
+                    if (session.getPluginSettings().isVerboseMode()) {
                         printInstrumentationResults(compilationUnit.getSourceFile(), statsCollector, logger);
                     }
                 } catch (Throwable e) {
                     StringWriter writer = new StringWriter();
                     e.printStackTrace(new PrintWriter(writer));
-                    log.rawError(-1, String.format(
+                    session.getLog().rawError(-1, String.format(
                             "Unexpected exception occurred on attempt to perform NotNull instrumentation for %s:%n%s",
                             event.getSourceFile(), writer
                     ));
@@ -193,53 +204,162 @@ public class TrauteJavacPlugin implements Plugin {
 
             @Override
             public void finished(TaskEvent event) {
-                if (event.getKind() != TaskEvent.Kind.PARSE || isContextClosed()) {
+                CompilationSession session = sessionRef.get();
+                if (session == null) {
                     return;
                 }
-                Log log = Log.instance(context);
-                if (log == null) {
-                    throw new RuntimeException(AbstractLogger.getProblemMessage(
-                            "get a javac logger from the current javac context but got <null>"
-                    ));
+                TaskEvent.Kind kind = event.getKind();
+                if (kind == TaskEvent.Kind.ANNOTATION_PROCESSING_ROUND || kind == TaskEvent.Kind.ANNOTATION_PROCESSING) {
+                    session.onAnnotationProcessing();
+                    return;
+                }
+                if (isCompilationFinished(event, processingEnvironment)) {
+                    sessionRef.set(null);
+                    if (session.getPluginSettings().isVerboseMode()) {
+                        printInstrumentationResults(session);
+                    }
+                    session.getLogger().flush();
+                    return;
+                }
+                if (kind != TaskEvent.Kind.PARSE || session.isContextClosed()) {
+                    return;
                 }
-                TrautePluginLogger logger = getPluginLogger(settings.getLogFile().orElse(null), log);
                 CompilationUnitTree compilationUnit = event.getCompilationUnit();
                 if (compilationUnit == null) {
-                    logger.reportDetails("get a prepared compilation unit object but got <null>");
+                    session.getLogger().reportDetails("get a prepared compilation unit object but got <null>");
                     return;
                 }
-                packageInfoManager.onCompilationUnit(compilationUnit);
+                session.getPackageInfoManager().onCompilationUnit(compilationUnit);
             }
+        });
+    }
 
-            /**
-             * We encountered a situation when target context is closed (internal state is {@code null}) but plugin's
-             * listener is called. That was the case for processing sources generated by an annotation processor.
-             * Unfortunately, there is no public API to check that, hence, we use this trick
-             * (see {@link Context#checkState(java.util.Map)}).
-             *
-             * @return      {@code true} if current context is closed; {@code false} otherwise
-             */
-            private boolean isContextClosed() {
-                if (contextClosed.get()) {
-                    return true;
-                }
-                try {
-                    Log.instance(context);
-                    return false;
-                } catch (Exception e) {
-                    contextClosed.set(true);
-                    return true;
-                }
+    /**
+     * Resolves everything the plugin needs for processing the given task.
+     *
+     * @param task      current {@code javac} task
+     * @param context   current {@code javac} task's context
+     * @return          a session for the given task; {@code null} if the plugin can't work in it
+     */
+    @Nullable
+    private CompilationSession createSession(@NotNull JavacTask task, @NotNull Context context) {
+        Log log = Log.instance(context);
+        if (log == null) {
+            throw new RuntimeException(AbstractLogger.getProblemMessage(
+                    "get a javac logger from the current javac context but got <null>"
+            ));
+        }
+        TrautePluginSettings settings = getPluginSettings(context);
+        pluginSettingsRef.set(settings);
+        TrautePluginLogger logger = getPluginLogger(settings.getLogFile().orElse(null), settings.getLogFormat(), log);
+
+        TreeMaker treeMaker = TreeMaker.instance(context);
+        if (treeMaker == null) {
+            logger.reportDetails("get an AST factory from the current javac context but got <null>");
+            return null;
+        }
+        Names names = Names.instance(context);
+        if (names == null) {
+            logger.reportDetails("get a name table from the current javac context but got <null>");
+            return null;
+        }
+
+        PackageInfoCache packageInfoCache = settings.getCacheDir().map(dir -> new PackageInfoCache(
+                dir,
+                getPath(context, StandardLocation.CLASS_PATH),
+                getPath(context, StandardLocation.SOURCE_PATH),
+                logger
+        )).orElse(null);
+        return new CompilationSession(context,
+                                      settings,
+                                      log,
+                                      treeMaker,
+                                      names,
+                                      logger,
+                                      new ExceptionTextGeneratorManager(settings, logger),
+                                      new PackageInfoManager(task.getElements(),
+                                                             context.get(JavaFileManager.class),
+                                                             packageInfoCache),
+                                      new KnownAnnotations(settings, names));
+    }
+
+    /**
+     * <p>
+     *     {@code javac} starting from version 9 notifies about the whole compilation end through a dedicated
+     *     {@code COMPILATION} event. There is no such event in {@code javac 8}, there we consider compilation
+     *     to be finished when a class is generated and there are no more classes to process.
+     * </p>
+     * <p>
+     *     Note: {@code javac 8} doesn't generate classes if there are compilation errors, so, we don't detect
+     *     compilation end then.
+     * </p>
+     *
+     * @param event                     finished {@code javac} event
+     * @param processingEnvironment     current task's processing environment
+     * @return                          {@code true} if given event denotes the whole compilation end
+     */
+    private static boolean isCompilationFinished(@NotNull TaskEvent event,
+                                                 @Nullable JavacProcessingEnvironment processingEnvironment)
+    {
+        if (COMPILATION_EVENT_KIND != null) {
+            return event.getKind() == COMPILATION_EVENT_KIND;
+        }
+        if (event.getKind() != TaskEvent.Kind.GENERATE || processingEnvironment == null) {
+            return false;
+        }
+        try {
+            // Annotation processing replaces javac context, that's why we get the current one from the environment
+            return Todo.instance(processingEnvironment.getContext()).isEmpty();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param context   current compilation's context
+     * @param location  target location
+     * @return          files which constitute given location in the current compilation
+     */
+    @NotNull
+    private static Collection<File> getPath(@NotNull Context context, @NotNull StandardLocation location) {
+        JavaFileManager fileManager = context.get(JavaFileManager.class);
+        if (fileManager instanceof StandardJavaFileManager) {
+            Iterable<? extends File> files = ((StandardJavaFileManager) fileManager).getLocation(location);
+            List<File> result = new ArrayList<>();
+            if (files != null) {
+                files.forEach(result::add);
             }
-        });
+            return result;
+        }
+
+        // Custom file managers don't expose their locations, so, we fall back to the command line options
+        Options options = Options.instance(context);
+        String path;
+        if (location == StandardLocation.CLASS_PATH) {
+            path = Optional.ofNullable(options.get("-classpath"))
+                           .orElseGet(() -> Optional.ofNullable(options.get("--class-path"))
+                                                    .orElseGet(() -> System.getProperty("java.class.path")));
+        } else {
+            path = Optional.ofNullable(options.get("-sourcepath")).orElseGet(() -> options.get("--source-path"));
+        }
+        if (path == null || path.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(path.split(File.pathSeparator))
+                     .filter(s -> !s.isEmpty())
+                     .map(File::new)
+                     .collect(toList());
     }
 
     @NotNull
-    private TrautePluginLogger getPluginLogger(@Nullable File logFile, @Nullable Log log) {
+    private TrautePluginLogger getPluginLogger(@Nullable File logFile,
+                                               @NotNull LogFormat logFormat,
+                                               @Nullable Log log)
+    {
         WeakReference<AbstractLogger> ref = loggerRef.get();
         AbstractLogger logger = null;
         if (logFile != null) {
-            logger = new FileLogger(logFile);
+            logger = new FileLogger(logFile, logFormat);
         } else if (log != null) {
             logger = new CompilerOutputLogger(log);
         }
@@ -263,7 +383,7 @@ public class TrauteJavacPlugin implements Plugin {
         Log log = Log.instance(context);
         TrautePluginLogger logger = null;
         if (log != null) {
-            logger = getPluginLogger(null, log);
+            logger = getPluginLogger(null, DEFAULT_LOG_FORMAT, log);
         }
 
         TrautePluginSettingsBuilder builder = settingsBuilder();
@@ -304,14 +424,25 @@ public class TrauteJavacPlugin implements Plugin {
             }
         }
 
+        LogFormat logFormat = getLogFormat(logger, options);
+        builder.withLogFormat(logFormat);
         String logFilePath = options.get(TrauteConstants.OPTION_LOG_FILE);
         if (logFilePath != null) {
             File file = new File(logFilePath);
-            logger = new FileLogger(file);
+            // The logger is cached, so, the messages below are written in the same batch as compilation logs
+            logger = getPluginLogger(file, logFormat, log);
             builder.withLogFile(file);
         }
 
         applyVerboseMode(logger, builder, options);
+        applyCacheDir(logger, builder, options);
+        applyCheckStyle(logger, builder, options);
+        applyCheckGuard(logger, builder, options);
+        applyFailureMode(logger, builder, options);
+        applyFailureEvents(logger, builder, options);
+        applyMessageTable(logger, builder, options);
+        applyCombineParameterChecks(logger, builder, options);
+        applyElideDelegatedChecks(logger, builder, options);
         applyNotNullAnnotations(logger, builder, options);
         applyNullableAnnotations(logger, builder, options);
         applyInstrumentations(logger, builder, options);
@@ -322,6 +453,27 @@ public class TrauteJavacPlugin implements Plugin {
         return builder.build();
     }
 
+    @NotNull
+    private static LogFormat getLogFormat(@Nullable TrautePluginLogger logger, @NotNull Map<String, String> options) {
+        String value = options.get(TrauteConstants.OPTION_LOG_FORMAT);
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_LOG_FORMAT;
+        }
+        LogFormat result = LogFormat.byOptionValue(value.trim());
+        if (result == null) {
+            if (logger != null) {
+                logger.report(String.format(
+                        "Unknown log format is defined through the '%s' option - '%s'. Known formats: %s",
+                        TrauteConstants.OPTION_LOG_FORMAT, value, Arrays.stream(LogFormat.values())
+                                                                        .map(LogFormat::getOptionValue)
+                                                                        .collect(joining(", "))
+                ));
+            }
+            return DEFAULT_LOG_FORMAT;
+        }
+        return result;
+    }
+
     private void applyInstrumentations(@Nullable TrautePluginLogger logger,
                                        @NotNull TrautePluginSettingsBuilder builder,
                                        @NotNull Map<String, String> options)
@@ -459,6 +611,143 @@ public class TrauteJavacPlugin implements Plugin {
         }
     }
 
+    private void applyCacheDir(@Nullable TrautePluginLogger logger,
+                               @NotNull TrautePluginSettingsBuilder builder,
+                               @NotNull Map<String, String> options)
+    {
+        String cacheDirPath = options.get(TrauteConstants.OPTION_CACHE_DIR);
+        if (cacheDirPath == null || cacheDirPath.trim().isEmpty()) {
+            return;
+        }
+        File dir = new File(cacheDirPath.trim());
+        builder.withCacheDir(dir);
+        if (logger != null) {
+            logger.info("using cache directory " + dir.getAbsolutePath());
+        }
+    }
+
+    private void applyCheckStyle(@Nullable TrautePluginLogger logger,
+                                 @NotNull TrautePluginSettingsBuilder builder,
+                                 @NotNull Map<String, String> options)
+    {
+        String value = options.get(TrauteConstants.OPTION_CHECK_STYLE);
+        if (value == null || value.trim().isEmpty()) {
+            return;
+        }
+        CheckStyle style = CheckStyle.byOptionValue(value.trim());
+        if (style == null) {
+            if (logger != null) {
+                logger.report(String.format(
+                        "Unknown check style is defined through the '%s' option - '%s'. Known styles: %s",
+                        TrauteConstants.OPTION_CHECK_STYLE, value, Arrays.stream(CheckStyle.values())
+                                                                         .map(CheckStyle::getOptionValue)
+                                                                         .collect(joining(", "))
+                ));
+            }
+            return;
+        }
+        builder.withCheckStyle(style);
+        if (logger != null) {
+            logger.info("using check style '" + style.getOptionValue() + "'");
+        }
+    }
+
+    private void applyCheckGuard(@Nullable TrautePluginLogger logger,
+                                 @NotNull TrautePluginSettingsBuilder builder,
+                                 @NotNull Map<String, String> options)
+    {
+        String value = options.get(TrauteConstants.OPTION_CHECK_GUARD);
+        if (value == null || value.trim().isEmpty()) {
+            return;
+        }
+        CheckGuard guard = CheckGuard.byOptionValue(value.trim());
+        if (guard == null) {
+            if (logger != null) {
+                logger.report(String.format(
+                        "Unknown check guard is defined through the '%s' option - '%s'. Known guards: %s",
+                        TrauteConstants.OPTION_CHECK_GUARD, value, Arrays.stream(CheckGuard.values())
+                                                                         .map(CheckGuard::getOptionValue)
+                                                                         .collect(joining(", "))
+                ));
+            }
+            return;
+        }
+        builder.withCheckGuard(guard);
+        if (logger != null) {
+            logger.info("using check guard '" + guard.getOptionValue() + "'");
+        }
+    }
+
+    private void applyFailureMode(@Nullable TrautePluginLogger logger,
+                                  @NotNull TrautePluginSettingsBuilder builder,
+                                  @NotNull Map<String, String> options)
+    {
+        String value = options.get(TrauteConstants.OPTION_FAILURE_MODE);
+        if (value == null || value.trim().isEmpty()) {
+            return;
+        }
+        FailureMode mode = FailureMode.byOptionValue(value.trim());
+        if (mode == null) {
+            if (logger != null) {
+                logger.report(String.format(
+                        "Unknown failure mode is defined through the '%s' option - '%s'. Known modes: %s",
+                        TrauteConstants.OPTION_FAILURE_MODE, value, Arrays.stream(FailureMode.values())
+                                                                          .map(FailureMode::getOptionValue)
+                                                                          .collect(joining(", "))
+                ));
+            }
+            return;
+        }
+        builder.withFailureMode(mode);
+        if (logger != null) {
+            logger.info("using failure mode '" + mode.getOptionValue() + "'");
+        }
+    }
+
+    private void applyFailureEvents(@Nullable TrautePluginLogger logger,
+                                    @NotNull TrautePluginSettingsBuilder builder,
+                                    @NotNull Map<String, String> options)
+    {
+        boolean failureEvents = "true".equalsIgnoreCase(options.get(TrauteConstants.OPTION_FAILURE_EVENTS));
+        if (failureEvents && logger != null) {
+            logger.info("failed checks commit JFR events");
+        }
+        builder.withFailureEvents(failureEvents);
+    }
+
+    private void applyMessageTable(@Nullable TrautePluginLogger logger,
+                                   @NotNull TrautePluginSettingsBuilder builder,
+                                   @NotNull Map<String, String> options)
+    {
+        boolean messageTable = "true".equalsIgnoreCase(options.get(TrauteConstants.OPTION_MESSAGE_TABLE));
+        if (messageTable && logger != null) {
+            logger.info("failure messages are moved to message tables");
+        }
+        builder.withMessageTable(messageTable);
+    }
+
+    private void applyCombineParameterChecks(@Nullable TrautePluginLogger logger,
+                                             @NotNull TrautePluginSettingsBuilder builder,
+                                             @NotNull Map<String, String> options)
+    {
+        boolean combine = "true".equalsIgnoreCase(options.get(TrauteConstants.OPTION_COMBINE_PARAMETER_CHECKS));
+        if (combine && logger != null) {
+            logger.info("method parameter checks are combined");
+        }
+        builder.withCombineParameterChecks(combine);
+    }
+
+    private void applyElideDelegatedChecks(@Nullable TrautePluginLogger logger,
+                                           @NotNull TrautePluginSettingsBuilder builder,
+                                           @NotNull Map<String, String> options)
+    {
+        boolean elide = "true".equalsIgnoreCase(options.get(TrauteConstants.OPTION_ELIDE_DELEGATED_CHECKS));
+        if (elide && logger != null) {
+            logger.info("redundant parameter checks in delegating calls are skipped");
+        }
+        builder.withElideDelegatedChecks(elide);
+    }
+
     private void applyVerboseMode(@Nullable TrautePluginLogger logger,
                                   @NotNull TrautePluginSettingsBuilder builder,
                                   @NotNull Map<String, String> options)
@@ -474,23 +763,10 @@ public class TrauteJavacPlugin implements Plugin {
                                              @NotNull StatsCollector statsCollector,
                                              @NotNull TrautePluginLogger logger)
     {
-
-        ConcurrentMap<InstrumentationType, Long> stats = statsCollector.getStats();
-        long totalInstrumentationsNumber = stats.entrySet()
-                                                .stream()
-                                                .mapToLong(Map.Entry::getValue)
-                                                .sum();
-        if (totalInstrumentationsNumber <= 0) {
+        long totalInstrumentationsNumber = getTotalInstrumentationsNumber(statsCollector);
+        if (totalInstrumentationsNumber <= 0 && statsCollector.getElidedStats().isEmpty()) {
             return;
         }
-        StringBuilder details = new StringBuilder();
-        for (InstrumentationType type : InstrumentationType.values()) {
-            Long count = stats.get(type);
-            if (count != null) {
-                details.append(type).append(": ").append(count).append(", ");
-            }
-        }
-        details.setLength(details.length() - 2);
 
         String fileName = file.toUri().getSchemeSpecificPart();
         while (fileName.startsWith("//")) {
@@ -498,10 +774,67 @@ public class TrauteJavacPlugin implements Plugin {
         }
         logger.info(String.format(
                 "added %d instrumentation%s to the class %s - %s",
-                totalInstrumentationsNumber, totalInstrumentationsNumber > 1 ? "s" : "", fileName, details)
+                totalInstrumentationsNumber, totalInstrumentationsNumber != 1 ? "s" : "", fileName,
+                getDetails(statsCollector))
         );
     }
 
+    private void printInstrumentationResults(@NotNull CompilationSession session) {
+        StatsCollector statsCollector = session.getStatsCollector();
+        long totalInstrumentationsNumber = getTotalInstrumentationsNumber(statsCollector);
+        if (totalInstrumentationsNumber <= 0 && statsCollector.getElidedStats().isEmpty()) {
+            return;
+        }
+        int filesNumber = session.getInstrumentedFilesNumber();
+        session.getLogger().info(String.format(
+                "added %d instrumentation%s to %d source file%s in total - %s",
+                totalInstrumentationsNumber, totalInstrumentationsNumber != 1 ? "s" : "",
+                filesNumber, filesNumber != 1 ? "s" : "", getDetails(statsCollector)
+        ));
+    }
+
+    private static long getTotalInstrumentationsNumber(@NotNull StatsCollector statsCollector) {
+        return statsCollector.getStats()
+                             .values()
+                             .stream()
+                             .mapToLong(Long::longValue)
+                             .sum();
+    }
+
+    @NotNull
+    private static String getDetails(@NotNull StatsCollector statsCollector) {
+        String result = getDetails(statsCollector.getStats());
+        if (!statsCollector.getElidedStats().isEmpty()) {
+            result += (result.isEmpty() ? "" : ", ") + "elided - " + getDetails(statsCollector.getElidedStats());
+        }
+        return result;
+    }
+
+    @NotNull
+    private static String getDetails(@NotNull ConcurrentMap<InstrumentationType, Long> stats) {
+        StringBuilder result = new StringBuilder();
+        for (InstrumentationType type : InstrumentationType.values()) {
+            Long count = stats.get(type);
+            if (count != null) {
+                result.append(type).append(": ").append(count).append(", ");
+            }
+        }
+        if (result.length() > 0) {
+            result.setLength(result.length() - 2);
+        }
+        return result.toString();
+    }
+
+    @Nullable
+    private static TaskEvent.Kind findEventKind(@NotNull String name) {
+        for (TaskEvent.Kind kind : TaskEvent.Kind.values()) {
+            if (kind.name().equals(name)) {
+                return kind;
+            }
+        }
+        return null;
+    }
+
     @NotNull
     private static Set<String> collectPluginOptionKeys() {
         Set<String> result = new HashSet<>();
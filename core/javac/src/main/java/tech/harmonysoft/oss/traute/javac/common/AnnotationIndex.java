@@ -0,0 +1,207 @@
+package tech.harmonysoft.oss.traute.javac.common;
+
+import com.sun.source.tree.ImportTree;
+import com.sun.source.tree.Tree;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ *     Maps annotation names used in a particular compilation unit to fully qualified names of the
+ *     {@link KnownAnnotations known annotations}.
+ * </p>
+ * <p>
+ *     The index is built once per compilation unit right after its imports are known. That way every
+ *     subsequent annotation lookup is a single hash probe instead of walking through all the imports.
+ *     Lookups work directly with {@code AST} elements and {@link Name names}, i.e. they don't allocate. The only
+ *     exception is a qualified name which is not a known annotation's {@code FQN}, e.g. {@code @Outer.NotNull}
+ *     for a nested annotation - it's resolved against the current package and the imports then.
+ * </p>
+ * <p>
+ *     Name resolution follows the java scoping rules: single-type imports shadow types from the same
+ *     package which, in turn, shadow types imported on demand (e.g. {@code import org.jetbrains.annotations.*}).
+ * </p>
+ * <p>Not thread-safe.</p>
+ */
+public class AnnotationIndex {
+
+    private final Map<Name/* simple name */, Name/* FQN */> bySimpleName = new HashMap<>();
+    private final List<Name/* package or type */>           onDemand     = new ArrayList<>();
+
+    @NotNull private final KnownAnnotations                    knownAnnotations;
+    @NotNull private final Names                               names;
+    @NotNull private final Collection<? extends ImportTree>    imports;
+    @Nullable private final Name                               packageName;
+
+    /**
+     * @param knownAnnotations  annotations which are interesting for the plugin
+     * @param names             current compilation's name table
+     * @param packageName       current compilation unit's package, {@code null} for the default package
+     * @param imports           imports declared in the current compilation unit
+     */
+    public AnnotationIndex(@NotNull KnownAnnotations knownAnnotations,
+                           @NotNull Names names,
+                           @Nullable Name packageName,
+                           @NotNull Collection<? extends ImportTree> imports)
+    {
+        this.knownAnnotations = knownAnnotations;
+        this.names = names;
+        this.packageName = packageName;
+        this.imports = imports;
+        for (ImportTree anImport : imports) {
+            JCTree.JCFieldAccess select = getSelect(anImport);
+            if (select != null && select.name == names.asterisk) {
+                Name container = TreeInfo.fullName(select.selected);
+                if (container != null) {
+                    bySimpleName.putAll(knownAnnotations.getByPackage(container));
+                    onDemand.add(container);
+                }
+            }
+        }
+        if (packageName != null) {
+            bySimpleName.putAll(knownAnnotations.getByPackage(packageName));
+        }
+        for (ImportTree anImport : imports) {
+            JCTree.JCFieldAccess select = getSelect(anImport);
+            if (select == null || select.name == names.asterisk) {
+                continue;
+            }
+            if (!knownAnnotations.containsSimpleName(select.name)) {
+                continue;
+            }
+            Name fqn = TreeInfo.fullName(select);
+            if (fqn != null && knownAnnotations.contains(fqn)) {
+                bySimpleName.put(select.name, fqn);
+            } else {
+                // A single-type import shadows an annotation with the same simple name from the other sources
+                bySimpleName.remove(select.name);
+            }
+        }
+    }
+
+    @Nullable
+    private static JCTree.JCFieldAccess getSelect(@NotNull ImportTree anImport) {
+        if (anImport.isStatic()) {
+            return null;
+        }
+        Tree identifier = anImport.getQualifiedIdentifier();
+        return identifier instanceof JCTree.JCFieldAccess ? (JCTree.JCFieldAccess) identifier : null;
+    }
+
+    /**
+     * Resolves given annotation type as it's written in source code.
+     *
+     * @param annotationType    annotation type {@code AST} element, e.g. {@code NotNull}
+     *                          or {@code org.jetbrains.annotations.NotNull}
+     * @return                  fully qualified name of the {@link KnownAnnotations known annotation}
+     *                          referenced by the given {@code AST} element (if any)
+     */
+    @Nullable
+    public Name resolve(@Nullable Tree annotationType) {
+        if (annotationType instanceof JCTree.JCIdent) {
+            return resolve(((JCTree.JCIdent) annotationType).name);
+        }
+        if (annotationType instanceof JCTree.JCFieldAccess) {
+            JCTree.JCFieldAccess select = (JCTree.JCFieldAccess) annotationType;
+            if (!knownAnnotations.containsSimpleName(select.name)) {
+                return null;
+            }
+            Name fqn = TreeInfo.fullName(select);
+            if (fqn == null) {
+                return null;
+            }
+            return knownAnnotations.contains(fqn) ? fqn : resolveQualified(fqn);
+        }
+        return null;
+    }
+
+    /**
+     * Resolves given annotation name as it's written in source code.
+     *
+     * @param annotationName    annotation name, e.g. {@code NotNull} or {@code org.jetbrains.annotations.NotNull}
+     * @return                  fully qualified name of the {@link KnownAnnotations known annotation}
+     *                          referenced by the given name (if any)
+     */
+    @Nullable
+    public Name resolve(@NotNull Name annotationName) {
+        Name result = bySimpleName.get(annotationName);
+        if (result != null) {
+            return result;
+        }
+        if (knownAnnotations.contains(annotationName)) {
+            return annotationName;
+        }
+        return annotationName.lastIndexOf((byte) '.') > 0 ? resolveQualified(annotationName) : null;
+    }
+
+    /**
+     * Resolves a qualified name which is not a known annotation's {@code FQN} as it's written in source code,
+     * e.g. {@code Outer.NotNull} for an annotation nested into a class from the current package or
+     * from an imported one.
+     *
+     * @param qualifiedName     qualified annotation name as it's written in source code
+     * @return                  fully qualified name of the {@link KnownAnnotations known annotation}
+     *                          referenced by the given name (if any)
+     */
+    @Nullable
+    private Name resolveQualified(@NotNull Name qualifiedName) {
+        String name = qualifiedName.toString();
+        int i = name.lastIndexOf('.');
+        if (i <= 0 || !knownAnnotations.containsSimpleName(names.fromString(name.substring(i + 1)))) {
+            return null;
+        }
+        int outermostEnd = name.indexOf('.');
+        Name imported = getImportedType(names.fromString(name.substring(0, outermostEnd)));
+        if (imported != null) {
+            // A single-type import of the outermost class shadows the types from the same package
+            return resolveCandidate(imported + name.substring(outermostEnd));
+        }
+        if (packageName != null) {
+            Name result = resolveCandidate(packageName + "." + name);
+            if (result != null) {
+                return result;
+            }
+        }
+        for (Name container : onDemand) {
+            Name result = resolveCandidate(container + "." + name);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Imports are looked through on every call - qualified annotation names are rare, so, we don't want to
+     * spend memory on indexing all imports of every compilation unit.
+     *
+     * @param simpleName    simple name of the type to find
+     * @return              {@code FQN} of the type with the given simple name from a single-type import (if any)
+     */
+    @Nullable
+    private Name getImportedType(@NotNull Name simpleName) {
+        for (ImportTree anImport : imports) {
+            JCTree.JCFieldAccess select = getSelect(anImport);
+            if (select != null && select.name == simpleName) {
+                return TreeInfo.fullName(select);
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private Name resolveCandidate(@NotNull String candidate) {
+        Name result = names.fromString(candidate);
+        return knownAnnotations.contains(result) ? result : null;
+    }
+}
@@ -0,0 +1,374 @@
+package tech.harmonysoft.oss.traute.javac.common;
+
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.TypeTag;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tech.harmonysoft.oss.traute.common.settings.CheckGuard;
+import tech.harmonysoft.oss.traute.common.settings.TrautePluginSettings;
+
+import static com.sun.tools.javac.util.List.nil;
+import static tech.harmonysoft.oss.traute.common.util.TrauteConstants.CHECKS_SYSTEM_PROPERTY;
+import static tech.harmonysoft.oss.traute.javac.util.InstrumentationUtil.buildExceptionClassExpression;
+
+/**
+ * <p>
+ *     Manages guard classes used by {@link CheckGuard guarded} checks. A guard class is generated once per
+ *     top-level class which has checks, is package-private and is located in the same compilation unit.
+ * </p>
+ * <p>
+ *     {@link CheckGuard#PROPERTY} guard class for the class {@code com.example.MyClass} looks as below:
+ * </p>
+ * <pre>
+ *     final class MyClass$traute$guard {
+ *
+ *         static final boolean ENABLED = isEnabled();
+ *
+ *         static boolean isEnabled() {
+ *             for (String property : new String[] { "traute.checks.com.example",
+ *                                                   "traute.checks.com",
+ *                                                   "traute.checks" })
+ *             {
+ *                 String value = System.getProperty(property);
+ *                 if (value != null) {
+ *                     return !"false".equalsIgnoreCase(value);
+ *                 }
+ *             }
+ *             return true;
+ *         }
+ *     }
+ * </pre>
+ * <p>
+ *     {@link CheckGuard#ASSERTIONS} guard class looks as below:
+ * </p>
+ * <pre>
+ *     final class MyClass$traute$guard {
+ *         static final boolean ENABLED = MyClass.class.desiredAssertionStatus();
+ *     }
+ * </pre>
+ * <p>
+ *     {@link CheckGuard#DYNAMIC} guard class looks as below, checks use {@code MyClass$traute$guard.isEnabled()}
+ *     as a guard then:
+ * </p>
+ * <pre>
+ *     final class MyClass$traute$guard {
+ *
+ *         static final MethodHandle SWITCH = getSwitch();
+ *
+ *         static MethodHandle getSwitch() {
+ *             try {
+ *                 return (MethodHandle) Class.forName("tech.harmonysoft.oss.traute.runtime.TrauteChecks")
+ *                                            .getMethod("getSwitch", String.class)
+ *                                            .invoke(null, "com.example.MyClass");
+ *             } catch (Exception e) {
+ *                 return MethodHandles.constant(boolean.class, true);
+ *             }
+ *         }
+ *
+ *         static boolean isEnabled() {
+ *             try {
+ *                 return (boolean) SWITCH.invokeExact();
+ *             } catch (Throwable e) {
+ *                 throw new IllegalStateException(e);
+ *             }
+ *         }
+ *     }
+ * </pre>
+ * <p>
+ *     The guard is a separate class, so, it's available for checks in interfaces as well and its initialization
+ *     doesn't depend on the top-level class initialization order.
+ * </p>
+ * <p>Not thread-safe, is expected to be used for a single compilation unit.</p>
+ */
+public class CheckGuardManager {
+
+    private static final String GUARD_CLASS_SUFFIX = "$traute$guard";
+    private static final String FIELD_NAME         = "ENABLED";
+    private static final String METHOD_NAME        = "isEnabled";
+    private static final String SWITCH_FIELD_NAME  = "SWITCH";
+    private static final String SWITCH_METHOD_NAME = "getSwitch";
+    private static final String RUNTIME_CLASS_NAME = "tech.harmonysoft.oss.traute.runtime.TrauteChecks";
+
+    @NotNull private final TrautePluginSettings pluginSettings;
+    @NotNull private final TreeMaker            astFactory;
+    @NotNull private final Names                symbolsTable;
+
+    @Nullable private JCTree.JCCompilationUnit compilationUnit;
+    @Nullable private JCTree.JCClassDecl       topLevelClass;
+
+    private boolean used;
+
+    public CheckGuardManager(@NotNull TrautePluginSettings pluginSettings,
+                             @NotNull TreeMaker astFactory,
+                             @NotNull Names symbolsTable)
+    {
+        this.pluginSettings = pluginSettings;
+        this.astFactory = astFactory;
+        this.symbolsTable = symbolsTable;
+    }
+
+    /**
+     * Is expected to be called before the given top-level class members are processed.
+     *
+     * @param compilationUnit   a compilation unit which contains the given class
+     * @param clazz             a top-level class to process
+     */
+    public void onTopLevelClassStart(@NotNull CompilationUnitTree compilationUnit, @NotNull ClassTree clazz) {
+        this.compilationUnit = null;
+        topLevelClass = null;
+        used = false;
+        if (pluginSettings.getCheckGuard() != CheckGuard.NONE
+            && compilationUnit instanceof JCTree.JCCompilationUnit
+            && clazz instanceof JCTree.JCClassDecl)
+        {
+            this.compilationUnit = (JCTree.JCCompilationUnit) compilationUnit;
+            topLevelClass = (JCTree.JCClassDecl) clazz;
+        }
+    }
+
+    /**
+     * Is expected to be called when all members of the {@link #onTopLevelClassStart(CompilationUnitTree, ClassTree)
+     * current top-level class} are processed. Adds a guard class to the compilation unit if any check of
+     * the current top-level class uses it.
+     */
+    public void onTopLevelClassEnd() {
+        JCTree.JCCompilationUnit unit = compilationUnit;
+        JCTree.JCClassDecl clazz = topLevelClass;
+        if (unit != null && clazz != null && used) {
+            astFactory.at(clazz.pos);
+            unit.defs = unit.defs.append(buildGuardClass(unit, clazz));
+        }
+        compilationUnit = null;
+        topLevelClass = null;
+        used = false;
+    }
+
+    /**
+     * @return  {@code true} if checks in the current top-level class should be guarded; {@code false} otherwise
+     */
+    public boolean isGuardAvailable() {
+        return topLevelClass != null;
+    }
+
+    /**
+     * @return  an expression which evaluates to {@code true} if checks of the current top-level class are
+     *          enabled at run time; {@code null} if the checks are not guarded
+     */
+    @Nullable
+    public JCTree.JCExpression getGuard() {
+        JCTree.JCClassDecl clazz = topLevelClass;
+        if (clazz == null) {
+            return null;
+        }
+        used = true;
+        if (pluginSettings.getCheckGuard() == CheckGuard.DYNAMIC) {
+            return astFactory.Apply(nil(),
+                                    astFactory.Select(astFactory.Ident(getGuardClassName(clazz)),
+                                                      symbolsTable.fromString(METHOD_NAME)),
+                                    nil());
+        }
+        return astFactory.Select(astFactory.Ident(getGuardClassName(clazz)), symbolsTable.fromString(FIELD_NAME));
+    }
+
+    @NotNull
+    private Name getGuardClassName(@NotNull JCTree.JCClassDecl clazz) {
+        return symbolsTable.fromString(clazz.name + GUARD_CLASS_SUFFIX);
+    }
+
+    @NotNull
+    private JCTree.JCExpression select(@NotNull String qualifiedName) {
+        return buildExceptionClassExpression(qualifiedName, astFactory, symbolsTable);
+    }
+
+    @NotNull
+    private JCTree.JCClassDecl buildGuardClass(@NotNull JCTree.JCCompilationUnit unit,
+                                               @NotNull JCTree.JCClassDecl clazz)
+    {
+        if (pluginSettings.getCheckGuard() == CheckGuard.DYNAMIC) {
+            return buildDynamicGuardClass(unit, clazz);
+        }
+        JCTree.JCExpression initializer;
+        List<JCTree> members = nil();
+        if (pluginSettings.getCheckGuard() == CheckGuard.ASSERTIONS) {
+            initializer = astFactory.Apply(nil(),
+                                           astFactory.Select(astFactory.Select(astFactory.Ident(clazz.name),
+                                                                               symbolsTable._class),
+                                                             symbolsTable.fromString("desiredAssertionStatus")),
+                                           nil());
+        } else {
+            Name methodName = symbolsTable.fromString(METHOD_NAME);
+            initializer = astFactory.Apply(nil(), astFactory.Ident(methodName), nil());
+            members = members.append(buildPropertyCheckMethod(methodName, unit));
+        }
+        JCTree.JCVariableDecl field = astFactory.VarDef(astFactory.Modifiers(Flags.STATIC | Flags.FINAL),
+                                                        symbolsTable.fromString(FIELD_NAME),
+                                                        astFactory.TypeIdent(TypeTag.BOOLEAN),
+                                                        initializer);
+        return astFactory.ClassDef(astFactory.Modifiers(Flags.FINAL),
+                                   getGuardClassName(clazz),
+                                   nil(),
+                                   null,
+                                   nil(),
+                                   members.prepend(field));
+    }
+
+    @NotNull
+    private JCTree.JCMethodDecl buildPropertyCheckMethod(@NotNull Name methodName,
+                                                         @NotNull JCTree.JCCompilationUnit unit)
+    {
+        List<JCTree.JCExpression> properties = nil();
+        Name packageName = getPackageName(unit);
+        if (packageName != null) {
+            for (String name = packageName.toString(); !name.isEmpty(); ) {
+                properties = properties.append(astFactory.Literal(TypeTag.CLASS,
+                                                                  CHECKS_SYSTEM_PROPERTY + "." + name));
+                int i = name.lastIndexOf('.');
+                name = i < 0 ? "" : name.substring(0, i);
+            }
+        }
+        properties = properties.append(astFactory.Literal(TypeTag.CLASS, CHECKS_SYSTEM_PROPERTY));
+
+        Name property = symbolsTable.fromString("property");
+        Name value = symbolsTable.fromString("value");
+        JCTree.JCStatement loop = astFactory.ForeachLoop(
+                astFactory.VarDef(astFactory.Modifiers(0), property, select("java.lang.String"), null),
+                astFactory.NewArray(select("java.lang.String"), nil(), properties),
+                astFactory.Block(0, List.of(
+                        astFactory.VarDef(astFactory.Modifiers(0),
+                                          value,
+                                          select("java.lang.String"),
+                                          astFactory.Apply(nil(),
+                                                           select("java.lang.System.getProperty"),
+                                                           List.of(astFactory.Ident(property)))),
+                        astFactory.If(
+                                astFactory.Parens(astFactory.Binary(JCTree.Tag.NE,
+                                                                    astFactory.Ident(value),
+                                                                    astFactory.Literal(TypeTag.BOT, null))),
+                                astFactory.Block(0, List.of(astFactory.Return(astFactory.Unary(
+                                        JCTree.Tag.NOT,
+                                        astFactory.Apply(nil(),
+                                                         astFactory.Select(astFactory.Literal(TypeTag.CLASS, "false"),
+                                                                           symbolsTable.fromString("equalsIgnoreCase")),
+                                                         List.of(astFactory.Ident(value)))
+                                )))),
+                                null
+                        )
+                ))
+        );
+        return astFactory.MethodDef(astFactory.Modifiers(Flags.STATIC),
+                                    methodName,
+                                    astFactory.TypeIdent(TypeTag.BOOLEAN),
+                                    nil(),
+                                    nil(),
+                                    nil(),
+                                    astFactory.Block(0, List.of(loop,
+                                                                astFactory.Return(astFactory.Literal(true)))),
+                                    null);
+    }
+
+    @NotNull
+    private JCTree.JCClassDecl buildDynamicGuardClass(@NotNull JCTree.JCCompilationUnit unit,
+                                                      @NotNull JCTree.JCClassDecl clazz)
+    {
+        Name packageName = getPackageName(unit);
+        String className = packageName == null ? clazz.name.toString() : packageName + "." + clazz.name;
+        Name switchField = symbolsTable.fromString(SWITCH_FIELD_NAME);
+        Name switchMethod = symbolsTable.fromString(SWITCH_METHOD_NAME);
+        Name error = symbolsTable.fromString("e");
+
+        // MethodHandle getSwitch() { try { return (MethodHandle) <reflective TrauteChecks.getSwitch()> } ... }
+        JCTree.JCExpression lookup = astFactory.Apply(
+                nil(),
+                astFactory.Select(
+                        astFactory.Apply(nil(),
+                                         select("java.lang.Class.forName"),
+                                         List.of(astFactory.Literal(TypeTag.CLASS, RUNTIME_CLASS_NAME))),
+                        symbolsTable.fromString("getMethod")),
+                List.of(astFactory.Literal(TypeTag.CLASS, SWITCH_METHOD_NAME),
+                        astFactory.Select(select("java.lang.String"), symbolsTable._class)));
+        JCTree.JCExpression invocation = astFactory.Apply(
+                nil(),
+                astFactory.Select(lookup, symbolsTable.fromString("invoke")),
+                List.of(astFactory.Literal(TypeTag.BOT, null), astFactory.Literal(TypeTag.CLASS, className)));
+        JCTree.JCStatement fallback = astFactory.Return(astFactory.Apply(
+                nil(),
+                select("java.lang.invoke.MethodHandles.constant"),
+                List.of(astFactory.Select(astFactory.TypeIdent(TypeTag.BOOLEAN), symbolsTable._class),
+                        astFactory.Literal(true))));
+        JCTree.JCMethodDecl getSwitch = astFactory.MethodDef(
+                astFactory.Modifiers(Flags.STATIC),
+                switchMethod,
+                select("java.lang.invoke.MethodHandle"),
+                nil(),
+                nil(),
+                nil(),
+                astFactory.Block(0, List.of(astFactory.Try(
+                        astFactory.Block(0, List.of(astFactory.Return(
+                                astFactory.TypeCast(select("java.lang.invoke.MethodHandle"), invocation)))),
+                        List.of(astFactory.Catch(
+                                astFactory.VarDef(astFactory.Modifiers(0), error, select("java.lang.Exception"), null),
+                                astFactory.Block(0, List.of(fallback)))),
+                        null))),
+                null);
+
+        // boolean isEnabled() { try { return (boolean) SWITCH.invokeExact(); } ... }
+        JCTree.JCMethodDecl isEnabled = astFactory.MethodDef(
+                astFactory.Modifiers(Flags.STATIC),
+                symbolsTable.fromString(METHOD_NAME),
+                astFactory.TypeIdent(TypeTag.BOOLEAN),
+                nil(),
+                nil(),
+                nil(),
+                astFactory.Block(0, List.of(astFactory.Try(
+                        astFactory.Block(0, List.of(astFactory.Return(astFactory.TypeCast(
+                                astFactory.TypeIdent(TypeTag.BOOLEAN),
+                                astFactory.Apply(nil(),
+                                                 astFactory.Select(astFactory.Ident(switchField),
+                                                                   symbolsTable.fromString("invokeExact")),
+                                                 nil()))))),
+                        List.of(astFactory.Catch(
+                                astFactory.VarDef(astFactory.Modifiers(0), error, select("java.lang.Throwable"), null),
+                                astFactory.Block(0, List.of(astFactory.Throw(astFactory.NewClass(
+                                        null,
+                                        nil(),
+                                        select("java.lang.IllegalStateException"),
+                                        List.of(astFactory.Ident(error)),
+                                        null)))))),
+                        null))),
+                null);
+
+        JCTree.JCVariableDecl field = astFactory.VarDef(
+                astFactory.Modifiers(Flags.STATIC | Flags.FINAL),
+                switchField,
+                select("java.lang.invoke.MethodHandle"),
+                astFactory.Apply(nil(), astFactory.Ident(switchMethod), nil()));
+        return astFactory.ClassDef(astFactory.Modifiers(Flags.FINAL),
+                                   getGuardClassName(clazz),
+                                   nil(),
+                                   null,
+                                   nil(),
+                                   List.of(field, getSwitch, isEnabled));
+    }
+
+    /**
+     * {@code JCCompilationUnit.pid} is moved to a separate package declaration node since {@code java 9}, so,
+     * the package name is taken through the public {@code API}.
+     *
+     * @param unit  a compilation unit
+     * @return      qualified name of the given unit's package; {@code null} for the default package
+     */
+    @Nullable
+    private static Name getPackageName(@NotNull CompilationUnitTree unit) {
+        ExpressionTree packageName = unit.getPackageName();
+        return packageName instanceof JCTree ? TreeInfo.fullName((JCTree) packageName) : null;
+    }
+}
@@ -0,0 +1,167 @@
+package tech.harmonysoft.oss.traute.javac.common;
+
+import com.sun.source.util.JavacTask;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.Log;
+import com.sun.tools.javac.util.Names;
+import org.jetbrains.annotations.NotNull;
+import tech.harmonysoft.oss.traute.common.settings.TrautePluginSettings;
+import tech.harmonysoft.oss.traute.common.stats.StatsCollector;
+import tech.harmonysoft.oss.traute.javac.log.TrautePluginLogger;
+import tech.harmonysoft.oss.traute.javac.text.ExceptionTextGeneratorManager;
+
+/**
+ * <p>
+ *     Holds everything the plugin needs for processing a single {@link JavacTask} - resolved {@code javac}
+ *     services, plugin settings, logger, exception text generators, package-level annotations etc.
+ * </p>
+ * <p>
+ *     A session is created once per task, that way per-compilation unit processing is limited to
+ *     the actual {@code AST} work. Also it aggregates instrumentation statistics for the whole task.
+ * </p>
+ * <p>Not thread-safe, {@code javac} notifies task listeners from a single thread.</p>
+ */
+public class CompilationSession {
+
+    private final StatsCollector statsCollector = new StatsCollector();
+
+    @NotNull private final Context                       context;
+    @NotNull private final TrautePluginSettings          pluginSettings;
+    @NotNull private final Log                           log;
+    @NotNull private final TreeMaker                     astFactory;
+    @NotNull private final Names                         symbolsTable;
+    @NotNull private final TrautePluginLogger            logger;
+    @NotNull private final ExceptionTextGeneratorManager exceptionTextGeneratorManager;
+    @NotNull private final PackageInfoManager            packageInfoManager;
+    @NotNull private final KnownAnnotations              knownAnnotations;
+
+    private int     instrumentedFilesNumber;
+    private boolean contextMightBeClosed;
+    private boolean contextClosed;
+
+    public CompilationSession(@NotNull Context context,
+                              @NotNull TrautePluginSettings pluginSettings,
+                              @NotNull Log log,
+                              @NotNull TreeMaker astFactory,
+                              @NotNull Names symbolsTable,
+                              @NotNull TrautePluginLogger logger,
+                              @NotNull ExceptionTextGeneratorManager exceptionTextGeneratorManager,
+                              @NotNull PackageInfoManager packageInfoManager,
+                              @NotNull KnownAnnotations knownAnnotations)
+    {
+        this.context = context;
+        this.pluginSettings = pluginSettings;
+        this.log = log;
+        this.astFactory = astFactory;
+        this.symbolsTable = symbolsTable;
+        this.logger = logger;
+        this.exceptionTextGeneratorManager = exceptionTextGeneratorManager;
+        this.packageInfoManager = packageInfoManager;
+        this.knownAnnotations = knownAnnotations;
+    }
+
+    /**
+     * @param unitStatsCollector    a collector for the target compilation unit's instrumentations
+     * @return                      a context for processing a single compilation unit
+     */
+    @NotNull
+    public CompilationUnitProcessingContext newCompilationUnitContext(@NotNull StatsCollector unitStatsCollector) {
+        return new CompilationUnitProcessingContext(pluginSettings,
+                                                    astFactory,
+                                                    symbolsTable,
+                                                    logger,
+                                                    unitStatsCollector,
+                                                    exceptionTextGeneratorManager,
+                                                    packageInfoManager,
+                                                    knownAnnotations);
+    }
+
+    /**
+     * Adds given compilation unit's instrumentation statistics to the session's total.
+     *
+     * @param unitStatsCollector    statistics for a processed compilation unit
+     */
+    public void onCompilationUnitProcessed(@NotNull StatsCollector unitStatsCollector) {
+        unitStatsCollector.getElidedStats().forEach(statsCollector::addElided);
+        if (unitStatsCollector.getStats().isEmpty()) {
+            return;
+        }
+        instrumentedFilesNumber++;
+        unitStatsCollector.getStats().forEach(statsCollector::add);
+    }
+
+    /**
+     * {@code javac} replaces the context between annotation processing rounds, so, the initial context might
+     * be closed after that. This method is expected to be called on every annotation processing round in order
+     * to start checking the context state.
+     */
+    public void onAnnotationProcessing() {
+        contextMightBeClosed = true;
+    }
+
+    /**
+     * <p>
+     *     We encountered a situation when target context is closed (internal state is {@code null}) but plugin's
+     *     listener is called. That was the case for processing sources generated by an annotation processor.
+     *     Unfortunately, there is no public API to check that, hence, we use this trick
+     *     (see {@link Context#checkState(java.util.Map)}).
+     * </p>
+     * <p>
+     *     The check is performed only if annotation processing has been {@link #onAnnotationProcessing() started}
+     *     as the context is never closed otherwise.
+     * </p>
+     *
+     * @return      {@code true} if current context is closed; {@code false} otherwise
+     */
+    public boolean isContextClosed() {
+        if (contextClosed) {
+            return true;
+        }
+        if (!contextMightBeClosed) {
+            return false;
+        }
+        try {
+            Log.instance(context);
+            return false;
+        } catch (Exception e) {
+            contextClosed = true;
+            return true;
+        }
+    }
+
+    @NotNull
+    public TrautePluginSettings getPluginSettings() {
+        return pluginSettings;
+    }
+
+    @NotNull
+    public Log getLog() {
+        return log;
+    }
+
+    @NotNull
+    public TrautePluginLogger getLogger() {
+        return logger;
+    }
+
+    @NotNull
+    public PackageInfoManager getPackageInfoManager() {
+        return packageInfoManager;
+    }
+
+    /**
+     * @return  instrumentation statistics for all compilation units processed so far
+     */
+    @NotNull
+    public StatsCollector getStatsCollector() {
+        return statsCollector;
+    }
+
+    /**
+     * @return  number of compilation units which got at least one instrumentation
+     */
+    public int getInstrumentedFilesNumber() {
+        return instrumentedFilesNumber;
+    }
+}
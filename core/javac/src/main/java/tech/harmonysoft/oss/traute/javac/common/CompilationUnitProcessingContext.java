@@ -1,24 +1,25 @@
 package tech.harmonysoft.oss.traute.javac.common;
 
 import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.LineMap;
+import com.sun.source.tree.Tree;
+import com.sun.tools.javac.tree.JCTree;
 import com.sun.tools.javac.tree.TreeMaker;
 import com.sun.tools.javac.util.Names;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType;
 import tech.harmonysoft.oss.traute.common.settings.TrautePluginSettings;
 import tech.harmonysoft.oss.traute.common.stats.StatsCollector;
+import tech.harmonysoft.oss.traute.javac.log.InstrumentationRecord;
 import tech.harmonysoft.oss.traute.javac.log.TrautePluginLogger;
 import tech.harmonysoft.oss.traute.javac.text.ExceptionTextGeneratorManager;
 
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * Holds data necessary for processing a {@link CompilationUnitTree} given by {@code javac}
  */
 public class CompilationUnitProcessingContext {
 
-    private final Set<String> imports = new HashSet<>();
-
     @NotNull private final TrautePluginSettings          pluginSettings;
     @NotNull private final TreeMaker                     astFactory;
     @NotNull private final Names                         symbolsTable;
@@ -26,6 +27,12 @@ public class CompilationUnitProcessingContext {
     @NotNull private final StatsCollector                statsCollector;
     @NotNull private final ExceptionTextGeneratorManager exceptionTextGeneratorManager;
     @NotNull private final PackageInfoManager            packageInfoManager;
+    @NotNull private final KnownAnnotations              knownAnnotations;
+    @NotNull private final FailureMethodManager          failureMethodManager;
+    @NotNull private final CheckGuardManager             checkGuardManager;
+
+    @Nullable private AnnotationIndex     annotationIndex;
+    @Nullable private CompilationUnitTree compilationUnit;
 
     public CompilationUnitProcessingContext(
             @NotNull TrautePluginSettings pluginSettings,
@@ -34,7 +41,8 @@ public class CompilationUnitProcessingContext {
             @NotNull TrautePluginLogger logger,
             @NotNull StatsCollector statsCollector,
             @NotNull ExceptionTextGeneratorManager exceptionTextGeneratorManager,
-            @NotNull PackageInfoManager packageInfoManager)
+            @NotNull PackageInfoManager packageInfoManager,
+            @NotNull KnownAnnotations knownAnnotations)
     {
         this.pluginSettings = pluginSettings;
         this.statsCollector = statsCollector;
@@ -43,10 +51,9 @@ public class CompilationUnitProcessingContext {
         this.logger = logger;
         this.exceptionTextGeneratorManager = exceptionTextGeneratorManager;
         this.packageInfoManager = packageInfoManager;
-    }
-
-    public void addImport(@NotNull String importText) {
-        imports.add(importText);
+        this.knownAnnotations = knownAnnotations;
+        failureMethodManager = new FailureMethodManager(pluginSettings, astFactory, symbolsTable);
+        checkGuardManager = new CheckGuardManager(pluginSettings, astFactory, symbolsTable);
     }
 
     @NotNull
@@ -55,8 +62,102 @@ public class CompilationUnitProcessingContext {
     }
 
     @NotNull
-    public Set<String> getImports() {
-        return imports;
+    public KnownAnnotations getKnownAnnotations() {
+        return knownAnnotations;
+    }
+
+    /**
+     * @return  annotation index for the current compilation unit
+     * @throws IllegalStateException    if the index is not built yet
+     */
+    @NotNull
+    public AnnotationIndex getAnnotationIndex() throws IllegalStateException {
+        if (annotationIndex == null) {
+            throw new IllegalStateException("Annotation index is requested before compilation unit's imports "
+                                            + "are processed");
+        }
+        return annotationIndex;
+    }
+
+    public void setAnnotationIndex(@NotNull AnnotationIndex annotationIndex) {
+        this.annotationIndex = annotationIndex;
+    }
+
+    public void setCompilationUnit(@NotNull CompilationUnitTree compilationUnit) {
+        this.compilationUnit = compilationUnit;
+    }
+
+    /**
+     * @param type      type of the check added for the given AST element
+     * @param method    qualified name of the method which contains the check (if available)
+     * @param tree      AST element which is checked
+     * @return          a record which describes the check in a form suitable for structured logging
+     */
+    @NotNull
+    public InstrumentationRecord newInstrumentationRecord(@NotNull InstrumentationType type,
+                                                          @Nullable String method,
+                                                          @NotNull Tree tree)
+    {
+        CompilationUnitTree compilationUnit = this.compilationUnit;
+        if (compilationUnit == null) {
+            return new InstrumentationRecord(type, "", method, -1, -1);
+        }
+        String file = compilationUnit.getSourceFile().toUri().getSchemeSpecificPart();
+        while (file.startsWith("//")) {
+            file = file.substring(1);
+        }
+        LineMap lineMap = compilationUnit.getLineMap();
+        if (lineMap == null || !(tree instanceof JCTree) || ((JCTree) tree).pos < 0) {
+            return new InstrumentationRecord(type, file, method, -1, -1);
+        }
+        int position = ((JCTree) tree).pos;
+        return new InstrumentationRecord(type,
+                                         file,
+                                         method,
+                                         lineMap.getLineNumber(position),
+                                         lineMap.getColumnNumber(position));
+    }
+
+    /**
+     * @return  a description of the check which is being built - the source file name qualified by the package
+     *          name, and the line and column of the checked element (the {@link #getAstFactory() AST factory}
+     *          position), e.g. {@code com.example.MyClass.java:12:30}
+     */
+    @NotNull
+    public String getCheckSite() {
+        return getCheckSite(astFactory.pos);
+    }
+
+    /**
+     * @param checkedElement    the checked element, e.g. a method parameter
+     * @return                  the same {@link #getCheckSite() description} but with the line and column of
+     *                          the given element - several checks might be built at the same
+     *                          {@link #getAstFactory() AST factory} position, e.g. a combined parameter check
+     */
+    @NotNull
+    public String getCheckSite(@NotNull Tree checkedElement) {
+        if (checkedElement instanceof JCTree && ((JCTree) checkedElement).pos >= 0) {
+            return getCheckSite(((JCTree) checkedElement).pos);
+        }
+        return getCheckSite();
+    }
+
+    @NotNull
+    private String getCheckSite(int position) {
+        CompilationUnitTree compilationUnit = this.compilationUnit;
+        if (compilationUnit == null) {
+            return "<unknown>";
+        }
+        String file = compilationUnit.getSourceFile().getName();
+        file = file.substring(Math.max(file.lastIndexOf('/'), file.lastIndexOf('\\')) + 1);
+        if (compilationUnit.getPackageName() != null) {
+            file = compilationUnit.getPackageName() + "." + file;
+        }
+        LineMap lineMap = compilationUnit.getLineMap();
+        if (lineMap == null || position < 0) {
+            return file;
+        }
+        return file + ":" + lineMap.getLineNumber(position) + ":" + lineMap.getColumnNumber(position);
     }
 
     @NotNull
@@ -88,4 +189,14 @@ public class CompilationUnitProcessingContext {
     public PackageInfoManager getPackageInfoManager() {
         return packageInfoManager;
     }
+
+    @NotNull
+    public FailureMethodManager getFailureMethodManager() {
+        return failureMethodManager;
+    }
+
+    @NotNull
+    public CheckGuardManager getCheckGuardManager() {
+        return checkGuardManager;
+    }
 }
@@ -0,0 +1,427 @@
+package tech.harmonysoft.oss.traute.javac.common;
+
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.tree.TreeScanner;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+import static tech.harmonysoft.oss.traute.javac.util.NullabilityUtil.isProvablyNotNull;
+
+/**
+ * <p>
+ *     Finds method parameter checks which are redundant because of the way the method is called from
+ *     the same top-level class. There are two cases:
+ * </p>
+ * <ol>
+ *   <li>
+ *       <b>confined member</b> - a {@code private} method, a {@code private} constructor, an enum constructor
+ *       or a constructor of a class which is {@code private}, local or nested into a {@code private} class.
+ *       Such a member can't be called from outside of its top-level class, so, all its call sites are in the
+ *       same compilation unit. A parameter check is redundant if the member is called at least once and every
+ *       call site passes a value which can't be {@code null} at that point - a checked parameter of the calling
+ *       method which is never re-assigned, a literal, a {@code new} expression etc;
+ *   </li>
+ *   <li>
+ *       <b>delegating constructor</b> - a constructor which passes its parameter as is to the first
+ *       statement's {@code this(...)} or {@code super(...)} call where the parameter is checked as well.
+ *       The delegate's check is executed first, so, the constructor's own check can never fail.
+ *   </li>
+ * </ol>
+ * <p>
+ *     Call sites are matched syntactically by a method name (a class name for constructors) and a number of
+ *     arguments, i.e. every call which might target the member is taken into account. A member is never
+ *     affected if it's referenced by a method reference, has a variable number of arguments or is annotated
+ *     (frameworks tend to call annotated members reflectively).
+ * </p>
+ * <p>Not thread-safe, is expected to be used for a single top-level class.</p>
+ */
+public class DelegatedCheckAnalyzer {
+
+    private final List<Member>                     members          = new ArrayList<>();
+    private final Map<String, List<boolean[]>>     callSites        = new HashMap<>();
+    private final Set<String>                      referencedNames  = new HashSet<>();
+    private final Map<Name, Integer>               classNames       = new HashMap<>();
+    private final Map<JCTree.JCMethodDecl, Set<Name>> assignedNames = new HashMap<>();
+
+    @NotNull private final Map<JCTree.JCMethodDecl, Set<Name>> checkedParameters;
+    @NotNull private final Names                               symbolsTable;
+
+    /**
+     * @param checkedParameters     names of the parameters to be checked per method of the top-level class
+     * @param symbolsTable          current compilation's symbols table
+     */
+    public DelegatedCheckAnalyzer(@NotNull Map<JCTree.JCMethodDecl, Set<Name>> checkedParameters,
+                                  @NotNull Names symbolsTable)
+    {
+        this.checkedParameters = checkedParameters;
+        this.symbolsTable = symbolsTable;
+    }
+
+    /**
+     * @param topLevelClass     a top-level class to analyze
+     * @return                  method parameters from the {@link #DelegatedCheckAnalyzer(Map, Names) given ones}
+     *                          which don't need to be checked
+     */
+    @NotNull
+    public Set<JCTree.JCVariableDecl> findRedundantChecks(@NotNull JCTree.JCClassDecl topLevelClass) {
+        new CallSiteScanner().scan(topLevelClass);
+        Set<JCTree.JCVariableDecl> checkedByCallers = new HashSet<>();
+        for (Member member : members) {
+            if (member.confined) {
+                checkedByCallers.addAll(findParametersCheckedByCallers(member));
+            }
+        }
+        // A delegate's parameter which is checked by its own delegate is still checked before the delegate
+        // returns, so, only the checks removed in favor of the callers are important here
+        Set<JCTree.JCVariableDecl> result = new HashSet<>(checkedByCallers);
+        for (Member member : members) {
+            if (member.delegatingCall != null) {
+                result.addAll(findParametersCheckedByDelegate(member, member.delegatingCall, checkedByCallers));
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private List<JCTree.JCVariableDecl> findParametersCheckedByCallers(@NotNull Member member) {
+        Set<Name> checked = checkedParameters.get(member.method);
+        if (checked == null || !member.isCandidate() || referencedNames.contains(member.getReferenceKey())) {
+            return Collections.emptyList();
+        }
+        List<boolean[]> sites = callSites.get(member.getCallKey());
+        if (sites == null || sites.isEmpty()) {
+            // Unused or called reflectively - keep the checks
+            return Collections.emptyList();
+        }
+        List<JCTree.JCVariableDecl> result = new ArrayList<>();
+        for (int i = 0; i < member.method.params.size(); i++) {
+            JCTree.JCVariableDecl parameter = member.method.params.get(i);
+            if (!checked.contains(parameter.name)) {
+                continue;
+            }
+            boolean allSitesPassNotNull = true;
+            for (boolean[] site : sites) {
+                if (!site[i]) {
+                    allSitesPassNotNull = false;
+                    break;
+                }
+            }
+            if (allSitesPassNotNull) {
+                result.add(parameter);
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private List<JCTree.JCVariableDecl> findParametersCheckedByDelegate(@NotNull Member member,
+                                                                        @NotNull JCTree.JCMethodInvocation call,
+                                                                        @NotNull Set<JCTree.JCVariableDecl> elided)
+    {
+        Set<Name> checked = checkedParameters.get(member.method);
+        Name targetClass = getDelegateClassName(member, call);
+        if (checked == null || targetClass == null) {
+            return Collections.emptyList();
+        }
+        String targetKey = getConstructorKey(targetClass, call.args.size());
+        List<Member> targets = new ArrayList<>();
+        for (Member candidate : members) {
+            if (candidate.constructor && targetKey.equals(candidate.getCallKey())) {
+                targets.add(candidate);
+            }
+        }
+        if (targets.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Name> assigned = getAssignedNames(member.method);
+        List<JCTree.JCVariableDecl> result = new ArrayList<>();
+        for (JCTree.JCVariableDecl parameter : member.method.params) {
+            if (!checked.contains(parameter.name) || assigned.contains(parameter.name)) {
+                continue;
+            }
+            for (int i = 0; i < call.args.size(); i++) {
+                JCTree.JCExpression argument = TreeInfo.skipParens(call.args.get(i));
+                if (argument instanceof JCTree.JCIdent
+                    && ((JCTree.JCIdent) argument).name == parameter.name
+                    && isCheckedByAll(targets, i, elided))
+                {
+                    result.add(parameter);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean isCheckedByAll(@NotNull List<Member> targets,
+                                   int parameterIndex,
+                                   @NotNull Set<JCTree.JCVariableDecl> elided)
+    {
+        for (Member target : targets) {
+            Set<Name> checked = checkedParameters.get(target.method);
+            if (checked == null || isVarargs(target.method)) {
+                return false;
+            }
+            JCTree.JCVariableDecl parameter = target.method.params.get(parameterIndex);
+            if (!checked.contains(parameter.name) || elided.contains(parameter)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Nullable
+    private Name getDelegateClassName(@NotNull Member member, @NotNull JCTree.JCMethodInvocation call) {
+        Name name = TreeInfo.name(call.meth);
+        if (name == symbolsTable._this) {
+            return member.owner.name;
+        }
+        JCTree.JCExpression superClass = member.owner.extending;
+        if (superClass instanceof JCTree.JCTypeApply) {
+            superClass = ((JCTree.JCTypeApply) superClass).clazz;
+        }
+        if (!(superClass instanceof JCTree.JCIdent)) {
+            return null;
+        }
+        Name superClassName = ((JCTree.JCIdent) superClass).name;
+        // Only a class declared once in the current top-level class is trusted, otherwise we can't be sure
+        // that the 'extends' clause refers to it
+        Integer declarations = classNames.get(superClassName);
+        return declarations != null && declarations == 1 ? superClassName : null;
+    }
+
+    @NotNull
+    private Set<Name> getAssignedNames(@NotNull JCTree.JCMethodDecl method) {
+        return assignedNames.computeIfAbsent(method, m -> {
+            Set<Name> result = new HashSet<>();
+            new TreeScanner() {
+                @Override
+                public void visitAssign(JCTree.JCAssign tree) {
+                    mayBeAdd(tree.lhs);
+                    super.visitAssign(tree);
+                }
+
+                @Override
+                public void visitAssignop(JCTree.JCAssignOp tree) {
+                    mayBeAdd(tree.lhs);
+                    super.visitAssignop(tree);
+                }
+
+                @Override
+                public void visitUnary(JCTree.JCUnary tree) {
+                    mayBeAdd(tree.arg);
+                    super.visitUnary(tree);
+                }
+
+                private void mayBeAdd(@NotNull JCTree.JCExpression target) {
+                    JCTree.JCExpression expression = TreeInfo.skipParens(target);
+                    if (expression instanceof JCTree.JCIdent) {
+                        result.add(((JCTree.JCIdent) expression).name);
+                    }
+                }
+            }.scan(m.body);
+            return result;
+        });
+    }
+
+    @NotNull
+    private static String getMethodKey(@NotNull Name name, int arity) {
+        return name + "(" + arity + ")";
+    }
+
+    @NotNull
+    private static String getConstructorKey(@NotNull Name className, int arity) {
+        return "new " + getMethodKey(className, arity);
+    }
+
+    private static boolean isVarargs(@NotNull JCTree.JCMethodDecl method) {
+        return !method.params.isEmpty() && (method.params.last().mods.flags & Flags.VARARGS) != 0;
+    }
+
+    @Nullable
+    private static Name getClassName(@Nullable JCTree.JCExpression type) {
+        if (type instanceof JCTree.JCTypeApply) {
+            return getClassName(((JCTree.JCTypeApply) type).clazz);
+        }
+        if (type instanceof JCTree.JCAnnotatedType) {
+            return getClassName(((JCTree.JCAnnotatedType) type).underlyingType);
+        }
+        return type == null ? null : TreeInfo.name(type);
+    }
+
+    private static class Member {
+
+        @NotNull  final JCTree.JCMethodDecl       method;
+        @NotNull  final JCTree.JCClassDecl        owner;
+        @Nullable final JCTree.JCMethodInvocation delegatingCall;
+
+        final boolean constructor;
+        final boolean confined;
+
+        Member(@NotNull JCTree.JCMethodDecl method,
+               @NotNull JCTree.JCClassDecl owner,
+               @Nullable JCTree.JCMethodInvocation delegatingCall,
+               boolean constructor,
+               boolean confined)
+        {
+            this.method = method;
+            this.owner = owner;
+            this.delegatingCall = delegatingCall;
+            this.constructor = constructor;
+            this.confined = confined;
+        }
+
+        boolean isCandidate() {
+            return method.mods.annotations.isEmpty() && !isVarargs(method);
+        }
+
+        @NotNull
+        String getCallKey() {
+            return constructor ? getConstructorKey(owner.name, method.params.size())
+                               : getMethodKey(method.name, method.params.size());
+        }
+
+        @NotNull
+        String getReferenceKey() {
+            return constructor ? "new " + owner.name : method.name.toString();
+        }
+    }
+
+    private class CallSiteScanner extends TreeScanner {
+
+        @Nullable private JCTree.JCClassDecl        currentClass;
+        @Nullable private JCTree.JCMethodDecl       currentMethod;
+        @Nullable private JCTree.JCMethodInvocation currentDelegatingCall;
+
+        private boolean confinedConstructors;
+
+        @Override
+        public void visitClassDef(JCTree.JCClassDecl tree) {
+            JCTree.JCClassDecl enclosingClass = currentClass;
+            JCTree.JCMethodDecl enclosingMethod = currentMethod;
+            JCTree.JCMethodInvocation enclosingDelegatingCall = currentDelegatingCall;
+            boolean enclosingConfinedConstructors = confinedConstructors;
+
+            boolean memberClass = enclosingClass == null || enclosingClass.defs.contains(tree);
+            confinedConstructors = (tree.mods.flags & (Flags.PRIVATE | Flags.ENUM)) != 0
+                                   || !memberClass
+                                   || (enclosingClass != null && enclosingConfinedConstructors);
+            if (tree.name.length() == 0) {
+                // Anonymous classes can't declare constructors
+                confinedConstructors = false;
+            } else {
+                classNames.merge(tree.name, 1, Integer::sum);
+            }
+            currentClass = tree;
+            currentMethod = null;
+            currentDelegatingCall = null;
+            try {
+                scan(tree.defs);
+            } finally {
+                currentClass = enclosingClass;
+                currentMethod = enclosingMethod;
+                currentDelegatingCall = enclosingDelegatingCall;
+                confinedConstructors = enclosingConfinedConstructors;
+            }
+        }
+
+        @Override
+        public void visitMethodDef(JCTree.JCMethodDecl tree) {
+            JCTree.JCClassDecl owner = currentClass;
+            if (owner == null || tree.body == null) {
+                return;
+            }
+            boolean constructor = tree.name == symbolsTable.init;
+            JCTree.JCMethodInvocation delegatingCall = constructor ? getDelegatingCall(tree.body) : null;
+            boolean confined = (tree.mods.flags & Flags.PRIVATE) != 0 || (constructor && confinedConstructors);
+            members.add(new Member(tree, owner, delegatingCall, constructor, confined));
+            currentMethod = tree;
+            currentDelegatingCall = delegatingCall;
+            try {
+                scan(tree.body);
+            } finally {
+                currentMethod = null;
+                currentDelegatingCall = null;
+            }
+        }
+
+        @Override
+        public void visitApply(JCTree.JCMethodInvocation tree) {
+            Name name = TreeInfo.name(tree.meth);
+            JCTree.JCClassDecl clazz = currentClass;
+            if (name == symbolsTable._this) {
+                if (clazz != null) {
+                    addCallSite(getConstructorKey(clazz.name, tree.args.size()), tree.args, tree != currentDelegatingCall);
+                }
+            } else if (name == symbolsTable._super) {
+                Name superClassName = clazz == null ? null : getClassName(clazz.extending);
+                if (superClassName != null) {
+                    addCallSite(getConstructorKey(superClassName, tree.args.size()),
+                                tree.args,
+                                tree != currentDelegatingCall);
+                }
+            } else if (name != null) {
+                addCallSite(getMethodKey(name, tree.args.size()), tree.args, true);
+            }
+            super.visitApply(tree);
+        }
+
+        @Override
+        public void visitNewClass(JCTree.JCNewClass tree) {
+            Name className = getClassName(tree.clazz);
+            if (className != null) {
+                addCallSite(getConstructorKey(className, tree.args.size()), tree.args, true);
+            }
+            super.visitNewClass(tree);
+        }
+
+        @Override
+        public void visitReference(JCTree.JCMemberReference tree) {
+            if (tree.name == symbolsTable.init) {
+                Name className = getClassName(tree.expr);
+                if (className != null) {
+                    referencedNames.add("new " + className);
+                }
+            } else {
+                referencedNames.add(tree.name.toString());
+            }
+            super.visitReference(tree);
+        }
+
+        private void addCallSite(@NotNull String key,
+                                 @NotNull com.sun.tools.javac.util.List<JCTree.JCExpression> arguments,
+                                 boolean parametersAreChecked)
+        {
+            JCTree.JCMethodDecl method = currentMethod;
+            Set<Name> checked = method == null || !parametersAreChecked ? null : checkedParameters.get(method);
+            boolean[] site = new boolean[arguments.size()];
+            int i = 0;
+            for (JCTree.JCExpression argument : arguments) {
+                site[i++] = isProvablyNotNull(argument, name -> checked != null
+                                                                 && checked.contains(name)
+                                                                 && !getAssignedNames(method).contains(name));
+            }
+            callSites.computeIfAbsent(key, k -> new ArrayList<>()).add(site);
+        }
+
+        @Nullable
+        private JCTree.JCMethodInvocation getDelegatingCall(@NotNull JCTree.JCBlock body) {
+            if (body.stats.isEmpty() || !(body.stats.head instanceof JCTree.JCExpressionStatement)) {
+                return null;
+            }
+            JCTree.JCExpression expression = ((JCTree.JCExpressionStatement) body.stats.head).expr;
+            if (!(expression instanceof JCTree.JCMethodInvocation)) {
+                return null;
+            }
+            JCTree.JCMethodInvocation call = (JCTree.JCMethodInvocation) expression;
+            Name name = TreeInfo.name(call.meth);
+            return name == symbolsTable._this || name == symbolsTable._super ? call : null;
+        }
+    }
+}
@@ -0,0 +1,508 @@
+package tech.harmonysoft.oss.traute.javac.common;
+
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.TypeTag;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType;
+import tech.harmonysoft.oss.traute.common.settings.TrautePluginSettings;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.sun.tools.javac.util.List.nil;
+import static tech.harmonysoft.oss.traute.javac.util.InstrumentationUtil.buildExceptionClassExpression;
+
+/**
+ * <p>
+ *     Manages static failure methods used by {@link tech.harmonysoft.oss.traute.common.settings.CheckStyle#OUT_OF_LINE
+ *     out-of-line checks}. A method is generated once per top-level class and instrumentation type, looks as below
+ *     and is called from a check only when the check fails:
+ * </p>
+ * <pre>
+ *     static void traute$fail$parameter(String message) {
+ *         NullPointerException exception = new NullPointerException(message);
+ *         StackTraceElement[] trace = exception.getStackTrace();
+ *         exception.setStackTrace(java.util.Arrays.copyOfRange(trace, 1, trace.length));
+ *         throw exception;
+ *     }
+ * </pre>
+ * <p>
+ *     The failure method's own frame is removed from the stack trace, that way the exception looks exactly as
+ *     the one thrown by an inline check. The method is package-private - a private method called from a nested
+ *     class would be accessed through a synthetic accessor method, i.e. through one more stack frame.
+ * </p>
+ * <p>
+ *     {@link TrautePluginSettings#isCombineParameterChecks() Combined checks} use a failure method which takes
+ *     the checked values and reports the first {@code null} one, it's generated once per top-level class and
+ *     number of the values:
+ * </p>
+ * <pre>
+ *     static void traute$fail$parameter$2(Object value0, Object value1, String message0, String message1) {
+ *         NullPointerException exception = new NullPointerException(value0 == null ? message0 : message1);
+ *         ...
+ *     }
+ * </pre>
+ * <p>
+ *     Interfaces can't hold such methods (private interface methods are not available in java 8), so,
+ *     no failure method is provided for them.
+ * </p>
+ * <p>
+ *     If {@link TrautePluginSettings#isMessageTable() message table} is used, checks pass a message id instead of
+ *     the message. The messages are kept in a holder class which is generated once per top-level class,
+ *     is package-private and is located in the same compilation unit. The failure method looks as below then:
+ * </p>
+ * <pre>
+ *     static void traute$fail$parameter(int id) {
+ *         NullPointerException exception = new NullPointerException(MyClass$traute$messages.get(id));
+ *         ...
+ *     }
+ *
+ *     final class MyClass$traute$messages {
+ *
+ *         static final String[] TABLE = "Argument\u0001 'p0\u0001' of type String\u0001 \u0021\u0022"
+ *                 .split("\u0001", -1);
+ *
+ *         static String get(int id) {
+ *             String codes = TABLE[3 + id];
+ *             String result = "";
+ *             for (int i = 0; i &lt; codes.length(); ++i) {
+ *                 result = result.concat(TABLE[codes.charAt(i) - 32]);
+ *             }
+ *             return result;
+ *         }
+ *     }
+ * </pre>
+ * <p>
+ *     The holder is referenced only from failure methods, so, it's loaded and initialized by the first failed
+ *     check - the top-level class' constant pool keeps message ids only. Messages of the same class are generated
+ *     from the same templates, i.e. they have a lot of words in common. So, the table keeps every distinct word
+ *     once and every message is encoded as a string of its words indices (shifted by {@value #WORD_INDEX_OFFSET},
+ *     that way an index below {@code 96} takes a single byte in the constant pool).
+ * </p>
+ * <p>Not thread-safe, is expected to be used for a single compilation unit.</p>
+ */
+public class FailureMethodManager {
+
+    private static final String  METHOD_NAME_PREFIX       = "traute$fail$";
+    private static final String  MESSAGE_CLASS_SUFFIX     = "$traute$messages";
+    private static final String  MESSAGE_TABLE_FIELD_NAME = "TABLE";
+    private static final String  MESSAGE_METHOD_NAME      = "get";
+    private static final Pattern WORD                     = Pattern.compile("\\W*\\w+|\\W+");
+    private static final int     WORD_INDEX_OFFSET        = 32;
+    private static final int     MAX_LITERAL_BYTES        = 0xFFFF;
+
+    private final Set<InstrumentationType> usedTypes        = EnumSet.noneOf(InstrumentationType.class);
+    private final Set<Integer>             usedValueCounts  = new TreeSet<>();
+    private final Map<String, Integer>     messageIds       = new LinkedHashMap<>();
+
+    @NotNull private final TrautePluginSettings pluginSettings;
+    @NotNull private final TreeMaker            astFactory;
+    @NotNull private final Names                symbolsTable;
+
+    @Nullable private JCTree.JCCompilationUnit compilationUnit;
+    @Nullable private JCTree.JCClassDecl       topLevelClass;
+
+    public FailureMethodManager(@NotNull TrautePluginSettings pluginSettings,
+                                @NotNull TreeMaker astFactory,
+                                @NotNull Names symbolsTable)
+    {
+        this.pluginSettings = pluginSettings;
+        this.astFactory = astFactory;
+        this.symbolsTable = symbolsTable;
+    }
+
+    /**
+     * Is expected to be called before the given top-level class members are processed.
+     *
+     * @param compilationUnit   a compilation unit which contains the given class
+     * @param clazz             a top-level class to process
+     */
+    public void onTopLevelClassStart(@NotNull CompilationUnitTree compilationUnit, @NotNull ClassTree clazz) {
+        this.compilationUnit = null;
+        topLevelClass = null;
+        usedTypes.clear();
+        usedValueCounts.clear();
+        messageIds.clear();
+        if (compilationUnit instanceof JCTree.JCCompilationUnit
+            && clazz instanceof JCTree.JCClassDecl
+            && (((JCTree.JCClassDecl) clazz).mods.flags & Flags.INTERFACE) == 0)
+        {
+            this.compilationUnit = (JCTree.JCCompilationUnit) compilationUnit;
+            topLevelClass = (JCTree.JCClassDecl) clazz;
+        }
+    }
+
+    /**
+     * Is expected to be called when all members of the {@link #onTopLevelClassStart(CompilationUnitTree, ClassTree)
+     * current top-level class} are processed. Adds failure methods used by the class checks to it and a message
+     * table holder class (if necessary) to the compilation unit.
+     */
+    public void onTopLevelClassEnd() {
+        JCTree.JCCompilationUnit unit = compilationUnit;
+        JCTree.JCClassDecl clazz = topLevelClass;
+        if (unit == null || clazz == null || (usedTypes.isEmpty() && usedValueCounts.isEmpty())) {
+            return;
+        }
+        astFactory.at(clazz.pos);
+        for (InstrumentationType type : usedTypes) {
+            clazz.defs = clazz.defs.append(buildFailureMethod(type, 0));
+        }
+        for (Integer valueCount : usedValueCounts) {
+            clazz.defs = clazz.defs.append(buildFailureMethod(InstrumentationType.METHOD_PARAMETER, valueCount));
+        }
+        if (pluginSettings.isMessageTable()) {
+            unit.defs = unit.defs.append(buildMessageTable(clazz));
+        }
+        compilationUnit = null;
+        topLevelClass = null;
+        usedTypes.clear();
+        usedValueCounts.clear();
+        messageIds.clear();
+    }
+
+    /**
+     * @return  {@code true} if the current top-level class can hold failure methods; {@code false} otherwise
+     */
+    public boolean isFailureMethodAvailable() {
+        return topLevelClass != null;
+    }
+
+    /**
+     * @param type  target instrumentation type
+     * @return      an expression which points to the failure method for the given instrumentation type in
+     *              the current top-level class; {@code null} if the class can't hold failure methods
+     */
+    @Nullable
+    public JCTree.JCExpression getFailureMethod(@NotNull InstrumentationType type) {
+        JCTree.JCClassDecl clazz = topLevelClass;
+        if (clazz == null) {
+            return null;
+        }
+        usedTypes.add(type);
+        return astFactory.Select(astFactory.Ident(clazz.name), getMethodName(type, 0));
+    }
+
+    /**
+     * @param valueCount    number of parameters checked by a combined check
+     * @return              an expression which points to the failure method for a combined check of the given
+     *                      number of parameters in the current top-level class; {@code null} if the class can't
+     *                      hold failure methods. The method takes the checked values followed by their
+     *                      {@link #getFailureMethodArgument(String) messages}
+     */
+    @Nullable
+    public JCTree.JCExpression getCombinedFailureMethod(int valueCount) {
+        JCTree.JCClassDecl clazz = topLevelClass;
+        if (clazz == null) {
+            return null;
+        }
+        usedValueCounts.add(valueCount);
+        return astFactory.Select(astFactory.Ident(clazz.name),
+                                 getMethodName(InstrumentationType.METHOD_PARAMETER, valueCount));
+    }
+
+    /**
+     * @param message   an exception message for a check in the current top-level class
+     * @return          an argument to pass to the {@link #getFailureMethod(InstrumentationType) failure method} -
+     *                  either the message itself or its id in the current class' message table
+     */
+    @NotNull
+    public JCTree.JCExpression getFailureMethodArgument(@NotNull String message) {
+        if (!pluginSettings.isMessageTable()) {
+            return astFactory.Literal(TypeTag.CLASS, message);
+        }
+        Integer id = messageIds.get(message);
+        if (id == null) {
+            id = messageIds.size();
+            messageIds.put(message, id);
+        }
+        return astFactory.Literal(id);
+    }
+
+    @NotNull
+    private Name getMethodName(@NotNull InstrumentationType type, int valueCount) {
+        String name = METHOD_NAME_PREFIX + type.getShortName();
+        return symbolsTable.fromString(valueCount > 0 ? name + "$" + valueCount : name);
+    }
+
+    @NotNull
+    private Name getMessageClassName(@NotNull JCTree.JCClassDecl clazz) {
+        return symbolsTable.fromString(clazz.name + MESSAGE_CLASS_SUFFIX);
+    }
+
+    @NotNull
+    private JCTree.JCExpression select(@NotNull String qualifiedName) {
+        return buildExceptionClassExpression(qualifiedName, astFactory, symbolsTable);
+    }
+
+    /**
+     * @param type          target instrumentation type
+     * @param valueCount    number of values checked by a combined check; {@code 0} for a regular failure method
+     * @return              a failure method for the given arguments
+     */
+    @NotNull
+    private JCTree.JCMethodDecl buildFailureMethod(@NotNull InstrumentationType type, int valueCount) {
+        Name exception = symbolsTable.fromString("exception");
+        Name trace = symbolsTable.fromString("trace");
+        String exceptionClass = pluginSettings.getExceptionToThrow(type);
+        boolean messageTable = pluginSettings.isMessageTable();
+        String messagePrefix = messageTable ? "id" : "message";
+
+        List<JCTree.JCVariableDecl> values = nil();
+        List<JCTree.JCVariableDecl> messages = nil();
+        JCTree.JCExpression message = null;
+        for (int i = Math.max(valueCount, 1) - 1; i >= 0; i--) {
+            Name messageName = symbolsTable.fromString(valueCount > 0 ? messagePrefix + i : messagePrefix);
+            messages = messages.prepend(astFactory.VarDef(astFactory.Modifiers(Flags.PARAMETER),
+                                                          messageName,
+                                                          messageTable ? astFactory.TypeIdent(TypeTag.INT)
+                                                                       : select("java.lang.String"),
+                                                          null));
+            if (valueCount > 0) {
+                Name value = symbolsTable.fromString("value" + i);
+                values = values.prepend(astFactory.VarDef(astFactory.Modifiers(Flags.PARAMETER),
+                                                          value,
+                                                          select("java.lang.Object"),
+                                                          null));
+                JCTree.JCExpression isNull = astFactory.Binary(JCTree.Tag.EQ,
+                                                               astFactory.Ident(value),
+                                                               astFactory.Literal(TypeTag.BOT, null));
+                message = message == null ? astFactory.Ident(messageName)
+                                          : astFactory.Conditional(isNull, astFactory.Ident(messageName), message);
+            } else {
+                message = astFactory.Ident(messageName);
+            }
+        }
+        List<JCTree.JCStatement> selection = nil();
+        if (valueCount > 0) {
+            // The message is selected before the exception object is created - branches taken while
+            // the uninitialized exception is on the operand stack need big stack map frames
+            Name selected = symbolsTable.fromString(messagePrefix);
+            selection = List.of(astFactory.VarDef(astFactory.Modifiers(0),
+                                                  selected,
+                                                  messageTable ? astFactory.TypeIdent(TypeTag.INT)
+                                                               : select("java.lang.String"),
+                                                  message));
+            message = astFactory.Ident(selected);
+        }
+        if (messageTable && topLevelClass != null) {
+            message = astFactory.Apply(nil(),
+                                       astFactory.Select(astFactory.Ident(getMessageClassName(topLevelClass)),
+                                                         symbolsTable.fromString(MESSAGE_METHOD_NAME)),
+                                       List.of(message));
+        }
+        List<JCTree.JCStatement> statements = selection.appendList(List.of(
+                astFactory.VarDef(
+                        astFactory.Modifiers(0),
+                        exception,
+                        select(exceptionClass),
+                        astFactory.NewClass(null,
+                                            nil(),
+                                            select(exceptionClass),
+                                            List.of(message),
+                                            null)
+                ),
+                astFactory.VarDef(
+                        astFactory.Modifiers(0),
+                        trace,
+                        astFactory.TypeArray(select("java.lang.StackTraceElement")),
+                        astFactory.Apply(nil(),
+                                         astFactory.Select(astFactory.Ident(exception),
+                                                           symbolsTable.fromString("getStackTrace")),
+                                         nil())
+                ),
+                astFactory.Exec(astFactory.Apply(
+                        nil(),
+                        astFactory.Select(astFactory.Ident(exception), symbolsTable.fromString("setStackTrace")),
+                        List.of(astFactory.Apply(
+                                nil(),
+                                select("java.util.Arrays.copyOfRange"),
+                                List.of(astFactory.Ident(trace),
+                                        astFactory.Literal(1),
+                                        astFactory.Select(astFactory.Ident(trace), symbolsTable.length))
+                        ))
+                )),
+                astFactory.Throw(astFactory.Ident(exception))
+        ));
+        return astFactory.MethodDef(astFactory.Modifiers(Flags.STATIC),
+                                    getMethodName(type, valueCount),
+                                    astFactory.TypeIdent(TypeTag.VOID),
+                                    nil(),
+                                    values.appendList(messages),
+                                    nil(),
+                                    astFactory.Block(0, statements),
+                                    null);
+    }
+
+    /**
+     * @param clazz     current top-level class
+     * @return          a class which holds and decodes messages of the given class' checks
+     */
+    @NotNull
+    private JCTree.JCClassDecl buildMessageTable(@NotNull JCTree.JCClassDecl clazz) {
+        Map<String, Integer> words = new LinkedHashMap<>();
+        java.util.List<String> codes = new ArrayList<>(messageIds.size());
+        for (String message : messageIds.keySet()) {
+            StringBuilder code = new StringBuilder();
+            Matcher matcher = WORD.matcher(message);
+            while (matcher.find()) {
+                Integer index = words.get(matcher.group());
+                if (index == null) {
+                    index = words.size();
+                    words.put(matcher.group(), index);
+                }
+                if (index + WORD_INDEX_OFFSET > Character.MAX_VALUE) {
+                    throw new IllegalStateException(String.format(
+                            "Failure messages of class %s have too many distinct words to be put to a message table",
+                            topLevelClass == null ? null : topLevelClass.name
+                    ));
+                }
+                code.append((char) (index + WORD_INDEX_OFFSET));
+            }
+            codes.add(code.toString());
+        }
+        String separator = getSeparator();
+        java.util.List<String> entries = new ArrayList<>(words.keySet());
+        entries.addAll(codes);
+        String encoded = String.join(separator, entries);
+
+        Name table = symbolsTable.fromString(MESSAGE_TABLE_FIELD_NAME);
+        Name id = symbolsTable.fromString("id");
+        Name code = symbolsTable.fromString("codes");
+        Name result = symbolsTable.fromString("result");
+        Name i = symbolsTable.fromString("i");
+        JCTree.JCVariableDecl field = astFactory.VarDef(
+                astFactory.Modifiers(Flags.STATIC | Flags.FINAL),
+                table,
+                astFactory.TypeArray(select("java.lang.String")),
+                astFactory.Apply(nil(),
+                                 astFactory.Select(buildLiteral(encoded), symbolsTable.fromString("split")),
+                                 List.of(astFactory.Literal(TypeTag.CLASS, separator), astFactory.Literal(-1)))
+        );
+        List<JCTree.JCStatement> statements = List.of(
+                astFactory.VarDef(astFactory.Modifiers(0),
+                                  code,
+                                  select("java.lang.String"),
+                                  astFactory.Indexed(astFactory.Ident(table), astFactory.Binary(
+                                          JCTree.Tag.PLUS, astFactory.Literal(words.size()), astFactory.Ident(id)
+                                  ))),
+                astFactory.VarDef(astFactory.Modifiers(0),
+                                  result,
+                                  select("java.lang.String"),
+                                  astFactory.Literal(TypeTag.CLASS, "")),
+                astFactory.ForLoop(
+                        List.of(astFactory.VarDef(astFactory.Modifiers(0),
+                                                  i,
+                                                  astFactory.TypeIdent(TypeTag.INT),
+                                                  astFactory.Literal(0))),
+                        astFactory.Binary(JCTree.Tag.LT, astFactory.Ident(i), call(code, "length")),
+                        List.of(astFactory.Exec(astFactory.Unary(JCTree.Tag.PREINC, astFactory.Ident(i)))),
+                        astFactory.Exec(astFactory.Assign(astFactory.Ident(result), call(
+                                result,
+                                "concat",
+                                astFactory.Indexed(astFactory.Ident(table),
+                                                   astFactory.Binary(JCTree.Tag.MINUS,
+                                                                     call(code, "charAt", astFactory.Ident(i)),
+                                                                     astFactory.Literal(WORD_INDEX_OFFSET)))
+                        )))
+                ),
+                astFactory.Return(astFactory.Ident(result))
+        );
+        JCTree.JCMethodDecl method = astFactory.MethodDef(
+                astFactory.Modifiers(Flags.STATIC),
+                symbolsTable.fromString(MESSAGE_METHOD_NAME),
+                select("java.lang.String"),
+                nil(),
+                List.of(astFactory.VarDef(astFactory.Modifiers(Flags.PARAMETER),
+                                          id,
+                                          astFactory.TypeIdent(TypeTag.INT),
+                                          null)),
+                nil(),
+                astFactory.Block(0, statements),
+                null
+        );
+        return astFactory.ClassDef(astFactory.Modifiers(Flags.FINAL),
+                                   getMessageClassName(clazz),
+                                   nil(),
+                                   null,
+                                   nil(),
+                                   List.of(field, method));
+    }
+
+    @NotNull
+    private JCTree.JCExpression call(@NotNull Name target, @NotNull String method, JCTree.JCExpression... arguments) {
+        return astFactory.Apply(nil(),
+                                astFactory.Select(astFactory.Ident(target), symbolsTable.fromString(method)),
+                                List.from(arguments));
+    }
+
+    /**
+     * @return  a control character which is not used in the current class' messages
+     */
+    @NotNull
+    private String getSeparator() {
+        for (char c = '\u0001'; c < WORD_INDEX_OFFSET; c++) {
+            boolean used = false;
+            for (String message : messageIds.keySet()) {
+                if (message.indexOf(c) >= 0) {
+                    used = true;
+                    break;
+                }
+            }
+            if (!used) {
+                return String.valueOf(c);
+            }
+        }
+        throw new IllegalStateException(String.format(
+                "Failure messages of class %s use all control characters, can't put them to a message table",
+                topLevelClass == null ? null : topLevelClass.name
+        ));
+    }
+
+    /**
+     * A string constant must take less than {@value #MAX_LITERAL_BYTES} bytes in a class file, longer strings
+     * are built from several literals through {@link String#concat(String)} which is not folded by the compiler.
+     *
+     * @param value     a string to represent
+     * @return          an expression which evaluates to the given string
+     */
+    @NotNull
+    private JCTree.JCExpression buildLiteral(@NotNull String value) {
+        JCTree.JCExpression result = null;
+        int start = 0;
+        int bytes = 0;
+        for (int i = 0; i <= value.length(); i++) {
+            int charBytes = i == value.length() ? 0 : getModifiedUtf8Length(value.charAt(i));
+            if (i == value.length() || bytes + charBytes >= MAX_LITERAL_BYTES) {
+                JCTree.JCExpression chunk = astFactory.Literal(TypeTag.CLASS, value.substring(start, i));
+                result = result == null ? chunk : astFactory.Apply(
+                        nil(), astFactory.Select(result, symbolsTable.fromString("concat")), List.of(chunk)
+                );
+                start = i;
+                bytes = 0;
+            }
+            bytes += charBytes;
+        }
+        return result;
+    }
+
+    private static int getModifiedUtf8Length(char c) {
+        if (c != 0 && c < 0x80) {
+            return 1;
+        }
+        return c < 0x800 ? 2 : 3;
+    }
+}
@@ -4,73 +4,150 @@ import com.sun.source.tree.*;
 import com.sun.source.util.TreeScanner;
 import com.sun.tools.javac.code.Flags;
 import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
 import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import tech.harmonysoft.oss.traute.common.settings.FailureMode;
 import tech.harmonysoft.oss.traute.common.settings.TrautePluginSettings;
 import tech.harmonysoft.oss.traute.javac.instrumentation.Instrumentator;
 import tech.harmonysoft.oss.traute.javac.instrumentation.method.ReturnToInstrumentInfo;
+import tech.harmonysoft.oss.traute.javac.instrumentation.parameter.CombinedParameterInstrumentator;
 import tech.harmonysoft.oss.traute.javac.instrumentation.parameter.ParameterToInstrumentInfo;
+import tech.harmonysoft.oss.traute.javac.util.InstrumentationUtil;
 
 import javax.lang.model.element.Modifier;
 import javax.tools.JavaCompiler;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.function.Supplier;
 
-import static java.util.Collections.emptySet;
 import static tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType.METHOD_PARAMETER;
 import static tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType.METHOD_RETURN;
-import static tech.harmonysoft.oss.traute.common.util.TrauteConstants.METHOD_RETURN_TYPES_TO_SKIP;
-import static tech.harmonysoft.oss.traute.common.util.TrauteConstants.PRIMITIVE_TYPES;
 
 /**
- * Inspects {@code AST} built by {@link JavaCompiler}, finds places where to apply {@code null}-checks
- * and notifies given instrumentators about them.
+ * <p>
+ *     Inspects {@code AST} built by {@link JavaCompiler}, finds places where to apply {@code null}-checks
+ *     and notifies given instrumentators about them.
+ * </p>
+ * <p>
+ *     The scanning skips the subtrees which can't hold target {@code AST} elements: annotations, types
+ *     (including the ones inside expressions, e.g. cast and {@code instanceof} types), imports, class and
+ *     method headers. Method parameters are instrumented based on the method header only.
+ * </p>
+ * <p>
+ *     Method bodies and field initializers are still walked statement by statement and expression by
+ *     expression - an anonymous class might be declared in any expression and its methods need checks too.
+ *     When {@code return} expressions of the current method are not checked, the walk doesn't track
+ *     enclosing statements and doesn't analyze the method's {@code return} expressions, but its cost is
+ *     still proportional to the size of the bodies.
+ * </p>
  */
 public class InstrumentationApplianceFinder extends TreeScanner<Void, Void> {
 
-    private final Stack<Tree>    parents                    = new Stack<>();
-    private final Stack<String>  classNames                 = new Stack<>();
-    private final Stack<Boolean> processingInterface        = new Stack<>();
-    private final Stack<String>  parametersNotNullByDefault = new Stack<>();
-    private final Stack<String>  returnNotNullByDefault     = new Stack<>();
+    private static final Supplier<String> NO_METHOD_NAME = () -> null;
+
+    private final Stack<Tree>         parents                    = new Stack<>();
+    private final Stack<CharSequence> classNames                 = new Stack<>();
+    private final Stack<Boolean>      processingInterface        = new Stack<>();
+    private final Stack<String>       parametersNotNullByDefault = new Stack<>();
+    private final Stack<String>       returnNotNullByDefault     = new Stack<>();
+
+    private final Map<JCTree.JCMethodDecl, SortedSet<ParameterToInstrumentInfo>> deferredParameterChecks
+            = new LinkedHashMap<>();
 
     @NotNull private final CompilationUnitProcessingContext          context;
     @NotNull private final Instrumentator<ParameterToInstrumentInfo> parameterInstrumenter;
+    @NotNull private final CombinedParameterInstrumentator           combinedParameterInstrumenter;
     @NotNull private final Instrumentator<ReturnToInstrumentInfo>    returnInstrumenter;
-
-    private String              packageName;
-    private String              methodName;
-    private JCTree.JCExpression methodReturnType;
-    private String              methodNotNullAnnotation;
-    private int                 tmpVariableCounter;
-    private int                 anonymousClassCounter;
-    private boolean             instrumentReturnExpression;
+    @NotNull private final Names                                     names;
+    @NotNull private final Name                                      voidName;
+
+    private CompilationUnitTree  compilationUnit;
+    private String               packageName;
+    private Name                 methodName;
+    private Supplier<String>     qualifiedMethodName        = NO_METHOD_NAME;
+    private JCTree.JCExpression  methodReturnType;
+    private Name                 methodNotNullAnnotation;
+    private Set<JCTree.JCReturn> notNullReturns = Collections.emptySet();
+    private int                  tmpVariableCounter;
+    private int                  anonymousClassCounter;
+    private boolean              instrumentReturnExpression;
 
     public InstrumentationApplianceFinder(@NotNull CompilationUnitProcessingContext context,
                                           @NotNull Instrumentator<ParameterToInstrumentInfo> parameterInstrumentator,
+                                          @NotNull CombinedParameterInstrumentator combinedParameterInstrumentator,
                                           @NotNull Instrumentator<ReturnToInstrumentInfo> returnInstrumentator)
     {
         this.context = context;
         this.parameterInstrumenter = parameterInstrumentator;
+        this.combinedParameterInstrumenter = combinedParameterInstrumentator;
         this.returnInstrumenter = returnInstrumentator;
+        names = context.getSymbolsTable();
+        voidName = names.fromString(Void.class.getSimpleName());
     }
 
     @Override
     public Void visitCompilationUnit(CompilationUnitTree node, Void aVoid) {
-        ExpressionTree packageName = node.getPackageName();
+        ExpressionTree packageNameExpression = node.getPackageName();
+        Name packageName = packageNameExpression instanceof JCTree
+                           ? TreeInfo.fullName((JCTree) packageNameExpression)
+                           : null;
         this.packageName = packageName == null ? "" : packageName.toString();
-        Set<String> packageAnnotations = context.getPackageInfoManager().getPackageAnnotations(this.packageName);
-        String location = this.packageName.isEmpty() ? "default package" : this.packageName + " package";
-        return withDefaultNotNullAnnotations(packageAnnotations,
-                                             location,
-                                             () -> super.visitCompilationUnit(node, aVoid));
+        AnnotationIndex index = new AnnotationIndex(context.getKnownAnnotations(),
+                                                    names,
+                                                    packageName,
+                                                    node.getImports());
+        context.setAnnotationIndex(index);
+        context.setCompilationUnit(node);
+        compilationUnit = node;
+
+        Name parameterDefaultAnnotation = null;
+        Name returnDefaultAnnotation = null;
+        KnownAnnotations knownAnnotations = context.getKnownAnnotations();
+        for (String annotation : context.getPackageInfoManager().getPackageAnnotations(this.packageName)) {
+            Name resolved = index.resolve(names.fromString(annotation));
+            if (resolved == null) {
+                continue;
+            }
+            if (parameterDefaultAnnotation == null
+                && knownAnnotations.getNotNullByDefault(METHOD_PARAMETER).contains(resolved))
+            {
+                parameterDefaultAnnotation = resolved;
+            }
+            if (returnDefaultAnnotation == null
+                && knownAnnotations.getNotNullByDefault(METHOD_RETURN).contains(resolved))
+            {
+                returnDefaultAnnotation = resolved;
+            }
+        }
+        return withDefaultNotNullAnnotations(
+                parameterDefaultAnnotation,
+                returnDefaultAnnotation,
+                () -> this.packageName.isEmpty() ? "default package" : this.packageName + " package",
+                () -> scan(node.getTypeDecls(), aVoid)
+        );
+    }
+
+    @Override
+    public Void visitImport(ImportTree node, Void aVoid) {
+        // Imports are processed during the annotation index construction
+        return null;
+    }
+
+    @Override
+    public Void visitAnnotation(AnnotationTree node, Void aVoid) {
+        // Annotations can't hold anything to instrument
+        return null;
     }
 
     @Override
     public Void visitClass(ClassTree node, Void aVoid) {
-        String className = node.getSimpleName().toString();
-        if (className.isEmpty()) {
+        CharSequence className = node.getSimpleName();
+        // javac names implement CharSequence methods through a string built on every call
+        if (className instanceof Name ? ((Name) className).isEmpty() : className.length() == 0) {
             className = "$" + ++anonymousClassCounter;
         }
 
@@ -81,85 +158,171 @@ public class InstrumentationApplianceFinder extends TreeScanner<Void, Void> {
         } else {
             processingInterface = modifiers.toString().contains("interface");
         }
+        boolean topLevelClass = classNames.isEmpty();
+        if (topLevelClass) {
+            context.getFailureMethodManager().onTopLevelClassStart(compilationUnit, node);
+            context.getCheckGuardManager().onTopLevelClassStart(compilationUnit, node);
+        }
         classNames.push(className);
         this.processingInterface.push(processingInterface);
 
+        // A local or anonymous class might be defined inside a method body, we want to continue
+        // processing the enclosing method properly when the class is processed
+        Name enclosingMethodName = methodName;
+        Supplier<String> enclosingQualifiedMethodName = qualifiedMethodName;
+        JCTree.JCExpression enclosingMethodReturnType = methodReturnType;
+        Name enclosingMethodNotNullAnnotation = methodNotNullAnnotation;
+        int enclosingMethodTmpVariableCounter = tmpVariableCounter;
+        Set<JCTree.JCReturn> enclosingMethodNotNullReturns = notNullReturns;
+        boolean enclosingMethodInstrumentReturnExpression = instrumentReturnExpression;
+        instrumentReturnExpression = false;
         try {
+            CharSequence name = className;
             return withDefaultNotNullAnnotations(modifiers,
-                                                 className + " class",
-                                                 () -> super.visitClass(node, aVoid));
+                                                 () -> name + " class",
+                                                 () -> scan(node.getMembers(), aVoid));
         } finally {
             classNames.pop();
             this.processingInterface.pop();
+            if (topLevelClass) {
+                instrumentDeferredParameterChecks(node);
+                context.getFailureMethodManager().onTopLevelClassEnd();
+                context.getCheckGuardManager().onTopLevelClassEnd();
+            }
+            methodName = enclosingMethodName;
+            qualifiedMethodName = enclosingQualifiedMethodName;
+            methodReturnType = enclosingMethodReturnType;
+            methodNotNullAnnotation = enclosingMethodNotNullAnnotation;
+            tmpVariableCounter = enclosingMethodTmpVariableCounter;
+            notNullReturns = enclosingMethodNotNullReturns;
+            instrumentReturnExpression = enclosingMethodInstrumentReturnExpression;
         }
     }
 
+    @Override
+    public Void visitVariable(VariableTree node, Void aVoid) {
+        // Only initializer might hold something interesting, e.g. an anonymous class
+        return scan(node.getInitializer(), aVoid);
+    }
+
+    @Override
+    public Void visitLambdaExpression(LambdaExpressionTree node, Void aVoid) {
+        // 'return' expressions inside a lambda body belong to the lambda, not to the enclosing method
+        boolean enclosingMethodInstrumentReturnExpression = instrumentReturnExpression;
+        instrumentReturnExpression = false;
+        try {
+            return scan(node.getBody(), aVoid);
+        } finally {
+            instrumentReturnExpression = enclosingMethodInstrumentReturnExpression;
+        }
+    }
+
+    @Override
+    public Void visitTypeCast(TypeCastTree node, Void aVoid) {
+        // Types can't hold anything to instrument
+        return scan(node.getExpression(), aVoid);
+    }
+
+    @Override
+    public Void visitInstanceOf(InstanceOfTree node, Void aVoid) {
+        return scan(node.getExpression(), aVoid);
+    }
+
+    @Override
+    public Void visitNewClass(NewClassTree node, Void aVoid) {
+        // The instantiated type and type arguments are skipped, an anonymous class body is processed as a class
+        scan(node.getEnclosingExpression(), aVoid);
+        scan(node.getArguments(), aVoid);
+        return scan(node.getClassBody(), aVoid);
+    }
+
+    @Override
+    public Void visitNewArray(NewArrayTree node, Void aVoid) {
+        scan(node.getDimensions(), aVoid);
+        return scan(node.getInitializers(), aVoid);
+    }
+
+    @Override
+    public Void visitMethodInvocation(MethodInvocationTree node, Void aVoid) {
+        scan(node.getMethodSelect(), aVoid);
+        return scan(node.getArguments(), aVoid);
+    }
+
+    @Override
+    public Void visitMemberReference(MemberReferenceTree node, Void aVoid) {
+        return scan(node.getQualifierExpression(), aVoid);
+    }
+
     private <T> T withDefaultNotNullAnnotations(@Nullable ModifiersTree modifiers,
-                                               @NotNull String location,
+                                               @NotNull Supplier<String> location,
                                                @NotNull Callable<T> action)
     {
-        return withDefaultNotNullAnnotations(extractAnnotations(modifiers), location, action);
+        KnownAnnotations knownAnnotations = context.getKnownAnnotations();
+        return withDefaultNotNullAnnotations(findMatch(modifiers, knownAnnotations.getNotNullByDefault(METHOD_PARAMETER)),
+                                             findMatch(modifiers, knownAnnotations.getNotNullByDefault(METHOD_RETURN)),
+                                             location,
+                                             action);
     }
 
-    private <T> T withDefaultNotNullAnnotations(@NotNull Set<String> annotations,
-                                               @NotNull String location,
+    private <T> T withDefaultNotNullAnnotations(@Nullable Name parameterNotNullByDefaultAnnotation,
+                                               @Nullable Name returnNotNullByDefaultAnnotation,
+                                               @NotNull Supplier<String> location,
                                                @NotNull Callable<T> action)
     {
-        TrautePluginSettings settings = context.getPluginSettings();
-
-        Optional<String> parameterNotNullByDefaultAnnotation = findMatch(
-                annotations,
-                settings.getNotNullByDefaultAnnotations(METHOD_PARAMETER)
-        );
-        parameterNotNullByDefaultAnnotation.ifPresent(s -> parametersNotNullByDefault.push(String.format(
-                "%s annotation on the %s", s, location)));
-        Optional<String> returnNotNullByDefaultAnnotation = findMatch(
-                annotations,
-                settings.getNotNullByDefaultAnnotations(METHOD_RETURN)
-        );
-        returnNotNullByDefaultAnnotation.ifPresent(s -> returnNotNullByDefault.push(String.format(
-                "%s annotation on the %s", s, location)));
+        if (parameterNotNullByDefaultAnnotation != null) {
+            parametersNotNullByDefault.push(String.format("%s annotation on the %s",
+                                                          parameterNotNullByDefaultAnnotation, location.get()));
+        }
+        if (returnNotNullByDefaultAnnotation != null) {
+            returnNotNullByDefault.push(String.format("%s annotation on the %s",
+                                                      returnNotNullByDefaultAnnotation, location.get()));
+        }
         try {
             return action.call();
         } catch (Exception e) {
             throw new IllegalStateException(e);
         } finally {
-            if (parameterNotNullByDefaultAnnotation.isPresent()) {
+            if (parameterNotNullByDefaultAnnotation != null) {
                 parametersNotNullByDefault.pop();
             }
-            if (returnNotNullByDefaultAnnotation.isPresent()) {
+            if (returnNotNullByDefaultAnnotation != null) {
                 returnNotNullByDefault.pop();
             }
         }
     }
 
-    @Override
-    public Void visitImport(ImportTree node, Void v) {
-        if (!node.isStatic()) {
-            context.addImport(node.getQualifiedIdentifier().toString());
-        }
-        return v;
-    }
-
     @Override
     public Void visitMethod(MethodTree method, Void v) {
-        methodName = method.getName().toString();
+        methodName = (Name) method.getName();
+        qualifiedMethodName = new QualifiedMethodName(packageName,
+                                                      classNames.toArray(new CharSequence[classNames.size()]),
+                                                      methodName);
         return withDefaultNotNullAnnotations(
-                method.getModifiers(), getQualifiedMethodName() + " method", () -> {
+                method.getModifiers(), () -> getQualifiedMethodName() + " method", () -> {
                     instrumentReturnExpression = shouldInstrumentReturnExpression(method);
+                    Set<Name> checkedParameters = Collections.emptySet();
                     if (shouldInstrumentMethodParameters(method)) {
                         JCTree.JCBlock methodBody = getMethodBody(method);
                         if (methodBody != null) {
-                            instrumentMethodParameters(method, methodBody);
+                            checkedParameters = instrumentMethodParameters(method, methodBody);
                         }
                     }
+                    if (instrumentReturnExpression && method instanceof JCTree.JCMethodDecl) {
+                        // The body is analyzed before any 'return' is instrumented
+                        notNullReturns = new NotNullReturnAnalyzer(checkedParameters)
+                                .findNotNullReturns((JCTree.JCMethodDecl) method);
+                    }
                     try {
-                        return super.visitMethod(method, v);
+                        // Parameters are already processed, so, the body is the only thing left. It's walked
+                        // for 'return' expressions to check and for nested classes
+                        return scan(method.getBody(), v);
                     } finally {
                         methodReturnType = null;
                         methodNotNullAnnotation = null;
                         methodName = null;
+                        qualifiedMethodName = NO_METHOD_NAME;
                         instrumentReturnExpression = false;
+                        notNullReturns = Collections.emptySet();
                         tmpVariableCounter = 1;
                     }
                 });
@@ -222,7 +385,15 @@ public class InstrumentationApplianceFinder extends TreeScanner<Void, Void> {
         return null;
     }
 
-    private void instrumentMethodParameters(@NotNull MethodTree method, @NotNull JCTree.JCBlock bodyBlock) {
+    /**
+     * Adds checks for the given method's parameters.
+     *
+     * @param method        target method
+     * @param bodyBlock     target method's body
+     * @return              names of the parameters which are guaranteed to be checked on the method entry
+     */
+    @NotNull
+    private Set<Name> instrumentMethodParameters(@NotNull MethodTree method, @NotNull JCTree.JCBlock bodyBlock) {
         SortedSet<ParameterToInstrumentInfo> variablesToCheck = new TreeSet<>(
                 // There is a possible case that more than one method parameter is marked by a NotNull annotation.
                 // We want to add null-checks in reverse order then, i.e. for the last parameter marked
@@ -237,28 +408,111 @@ public class InstrumentationApplianceFinder extends TreeScanner<Void, Void> {
                 continue;
             }
             Tree type = variable.getType();
-            if (type != null && PRIMITIVE_TYPES.contains(type.toString())) {
+            if (type != null && type.getKind() == Tree.Kind.PRIMITIVE_TYPE) {
                 continue;
             }
             Annotations annotations = findAnnotation(variable.getModifiers());
-            if (annotations.notNull.isPresent()
-                || (!parametersNotNullByDefault.isEmpty()) && !annotations.nullable.isPresent())
+            if (annotations.notNull != null
+                || (!parametersNotNullByDefault.isEmpty()) && annotations.nullable == null)
             {
 
                 String notNullByDefaultAnnotationDescription =
                         parametersNotNullByDefault.isEmpty() ? null : parametersNotNullByDefault.peek();
                 variablesToCheck.add(new ParameterToInstrumentInfo(context,
-                                                                   annotations.notNull.orElse(null),
+                                                                   lazyString(annotations.notNull),
                                                                    notNullByDefaultAnnotationDescription,
                                                                    variable,
                                                                    bodyBlock,
-                                                                   getQualifiedMethodName(),
+                                                                   qualifiedMethodName,
                                                                    parameterIndex,
                                                                    parametersNumber,
                                                                    method.getReturnType() == null));
             }
         }
 
+        // A recorded failure doesn't stop the method, so, a check never guarantees anything in the record mode
+        boolean recordFailures = context.getPluginSettings().getFailureMode() == FailureMode.RECORD;
+        if (context.getPluginSettings().isElideDelegatedChecks()
+            && !recordFailures
+            && method instanceof JCTree.JCMethodDecl)
+        {
+            // Call sites of the method are known only when the whole top-level class is processed
+            deferredParameterChecks.put((JCTree.JCMethodDecl) method, variablesToCheck);
+        } else {
+            instrumentParameters(variablesToCheck);
+        }
+        if (recordFailures) {
+            return Collections.emptySet();
+        }
+        // Checks skipped in favor of the callers still guarantee that the parameters are not null
+        Set<Name> result = new HashSet<>();
+        for (ParameterToInstrumentInfo info : variablesToCheck) {
+            result.add((Name) info.getMethodParameter().getName());
+        }
+        return result;
+    }
+
+    /**
+     * Instruments method parameters {@link #instrumentMethodParameters(MethodTree, JCTree.JCBlock) collected}
+     * for the given top-level class except the ones which are found to be
+     * {@link DelegatedCheckAnalyzer already checked by callers}.
+     *
+     * @param topLevelClass     a top-level class which members are processed
+     */
+    private void instrumentDeferredParameterChecks(@NotNull ClassTree topLevelClass) {
+        if (deferredParameterChecks.isEmpty()) {
+            return;
+        }
+        Set<JCTree.JCVariableDecl> redundantChecks = Collections.emptySet();
+        if (topLevelClass instanceof JCTree.JCClassDecl) {
+            Map<JCTree.JCMethodDecl, Set<Name>> checkedParameters = new HashMap<>();
+            deferredParameterChecks.forEach((method, infos) -> {
+                Set<Name> parameters = new HashSet<>();
+                for (ParameterToInstrumentInfo info : infos) {
+                    parameters.add((Name) info.getMethodParameter().getName());
+                }
+                checkedParameters.put(method, parameters);
+            });
+            redundantChecks = new DelegatedCheckAnalyzer(checkedParameters, names)
+                    .findRedundantChecks((JCTree.JCClassDecl) topLevelClass);
+        }
+        boolean verbose = context.getPluginSettings().isVerboseMode();
+        for (SortedSet<ParameterToInstrumentInfo> infos : deferredParameterChecks.values()) {
+            SortedSet<ParameterToInstrumentInfo> toInstrument = new TreeSet<>(infos.comparator());
+            for (ParameterToInstrumentInfo info : infos) {
+                if (!redundantChecks.contains(info.getMethodParameter())) {
+                    toInstrument.add(info);
+                    continue;
+                }
+                context.getStatsCollector().incrementElided(METHOD_PARAMETER);
+                if (verbose) {
+                    String methodName = info.getQualifiedMethodName();
+                    context.getLogger().info(String.format(
+                            "skipped a null-check for argument '%s'%s - it's already checked by the callers",
+                            info.getMethodParameter().getName(),
+                            methodName == null ? "" : " in the method " + methodName + "()"
+                    ));
+                }
+            }
+            instrumentParameters(toInstrument);
+        }
+        deferredParameterChecks.clear();
+    }
+
+    private void instrumentParameters(@NotNull SortedSet<ParameterToInstrumentInfo> variablesToCheck) {
+        TrautePluginSettings settings = context.getPluginSettings();
+        // Separate 'runtime' checks are kept - a combined check can't be removed by a shrinker
+        if (variablesToCheck.size() > 1
+            && settings.isCombineParameterChecks()
+            && !InstrumentationUtil.isRuntimeStyle(settings, METHOD_PARAMETER))
+        {
+            List<ParameterToInstrumentInfo> parameters = new ArrayList<>(variablesToCheck);
+            Collections.reverse(parameters);
+            mayBeSetPosition(parameters.get(0).getMethodParameter(), context.getAstFactory());
+            combinedParameterInstrumenter.instrument(parameters);
+            return;
+        }
+
         for (ParameterToInstrumentInfo info : variablesToCheck) {
             mayBeSetPosition(info.getMethodParameter(), context.getAstFactory());
             parameterInstrumenter.instrument(info);
@@ -268,26 +522,53 @@ public class InstrumentationApplianceFinder extends TreeScanner<Void, Void> {
     private boolean mayBeInstrumentReturnType(@NotNull MethodTree method) {
         Tree returnType = method.getReturnType();
         if (returnType == null
-            || METHOD_RETURN_TYPES_TO_SKIP.contains(returnType.toString())
-            || (!(returnType instanceof JCTree.JCExpression)))
+            || (!(returnType instanceof JCTree.JCExpression))
+            || isReturnTypeToSkip((JCTree.JCExpression) returnType))
         {
             return false;
         }
 
         Annotations annotations = findAnnotation(method.getModifiers());
-        if (annotations.notNull.isPresent()
-            || (!returnNotNullByDefault.isEmpty() && !annotations.nullable.isPresent()))
+        if (annotations.notNull != null
+            || (!returnNotNullByDefault.isEmpty() && annotations.nullable == null))
         {
-            methodNotNullAnnotation = annotations.notNull.orElse(null);
+            methodNotNullAnnotation = annotations.notNull;
             methodReturnType = (JCTree.JCExpression) returnType;
             return true;
         }
         return false;
     }
 
+    /**
+     * Checks if given method return type can't hold {@code null}, i.e. it's a primitive,
+     * {@code void} or {@link Void}.
+     *
+     * @param returnType    method return type to check
+     * @return              {@code true} if return expressions of the given type should not be checked
+     */
+    private boolean isReturnTypeToSkip(@NotNull JCTree.JCExpression returnType) {
+        if (returnType.getKind() == Tree.Kind.PRIMITIVE_TYPE) {
+            return true;
+        }
+        if (returnType instanceof JCTree.JCIdent) {
+            return ((JCTree.JCIdent) returnType).name == voidName;
+        }
+        if (returnType instanceof JCTree.JCFieldAccess) {
+            JCTree.JCFieldAccess select = (JCTree.JCFieldAccess) returnType;
+            return select.name == voidName && TreeInfo.fullName(select.selected) == names.java_lang;
+        }
+        return false;
+    }
+
+    @Nullable
+    private static Supplier<String> lazyString(@Nullable Name name) {
+        return name == null ? null : name::toString;
+    }
+
     @NotNull
-    private String getTmpVariableName() {
-        return "tmpTrauteVar" + ++tmpVariableCounter;
+    private Supplier<String> getTmpVariableName() {
+        int index = ++tmpVariableCounter;
+        return () -> "tmpTrauteVar" + index;
     }
 
     private void mayBeSetPosition(@NotNull Tree astNode, @NotNull TreeMaker astFactory) {
@@ -308,38 +589,32 @@ public class InstrumentationApplianceFinder extends TreeScanner<Void, Void> {
      */
     @NotNull
     private Annotations findAnnotation(@Nullable ModifiersTree modifiers) {
-        Set<String> annotationsInSource = extractAnnotations(modifiers);
-        if (annotationsInSource.isEmpty()) {
+        if (modifiers == null || modifiers.getAnnotations().isEmpty()) {
             return Annotations.EMPTY;
         }
-        return new Annotations(findMatch(annotationsInSource, context.getPluginSettings().getNotNullAnnotations()),
-                               findMatch(annotationsInSource, context.getPluginSettings().getNullableAnnotations()));
-    }
-
-    @NotNull
-    private Set<String> extractAnnotations(@Nullable ModifiersTree modifiers) {
-        if (modifiers == null) {
-            return emptySet();
-        }
-        java.util.List<? extends AnnotationTree> annotations = modifiers.getAnnotations();
-        if (annotations == null) {
-            return emptySet();
-        }
-        Set<String> result = new HashSet<>();
-        for (AnnotationTree annotation : annotations) {
-            Tree type = annotation.getAnnotationType();
-            if (type != null) {
-                result.add(type.toString());
+        KnownAnnotations knownAnnotations = context.getKnownAnnotations();
+        AnnotationIndex index = context.getAnnotationIndex();
+        Name notNull = null;
+        Name nullable = null;
+        for (AnnotationTree annotation : modifiers.getAnnotations()) {
+            Name resolved = index.resolve(annotation.getAnnotationType());
+            if (resolved == null) {
+                continue;
+            }
+            if (notNull == null && knownAnnotations.getNotNull().contains(resolved)) {
+                notNull = resolved;
+            }
+            if (nullable == null && knownAnnotations.getNullable().contains(resolved)) {
+                nullable = resolved;
             }
         }
-        return result;
+        return notNull == null && nullable == null ? Annotations.EMPTY : new Annotations(notNull, nullable);
     }
 
     /**
      * <p>
-     *     Checks if any of the given 'annotations to check' matches any of the
-     *     {@code target annotations}
-     *     considering {@link CompilationUnitProcessingContext#getImports() available imports}.
+     *     Checks if any of the given {@code AST} element's annotations matches any of the
+     *     {@code target annotations} considering current compilation unit's {@link AnnotationIndex}.
      * </p>
      * <p>
      *     Example:
@@ -351,70 +626,35 @@ public class InstrumentationApplianceFinder extends TreeScanner<Void, Void> {
      *     We expect to find a match for the {@code org.jetbrains.annotations.NotNull} then.
      * </p>
      *
-     * @param annotationsToCheck    annotations to match against the given 'target annotations'
-     * @param targetAnnotations     target annotations to check against the given {@code annotations to check}
+     * @param modifiers             {@code AST} element's modifiers which annotations should be checked
+     * @param targetAnnotations     target annotations to check against
      * @return                      a matched annotation (if any)
      */
-    @NotNull
-    private Optional<String> findMatch(@NotNull Collection<String> annotationsToCheck,
-                                       @NotNull Set<String> targetAnnotations)
-    {
-        for (String annotationInSource : annotationsToCheck) {
-            if (targetAnnotations.contains(annotationInSource)) {
-                // Qualified annotation, like 'void test(@javax.annotation.Nonnul String s) {}'
-                return Optional.of(annotationInSource);
-            }
-            if (packageName != null) {
-                String candidate = String.format("%s.%s", packageName, annotationInSource);
-                if (targetAnnotations.contains(candidate)) {
-                    return Optional.of(candidate);
-                }
-            }
-            for (String anImport : context.getImports()) {
-                // Support an import like 'import org.jetbrains.annotations.*;'
-                if (anImport.endsWith(".*")) {
-                    String candidate = anImport.substring(0, anImport.length() - 1) + annotationInSource;
-                    if (targetAnnotations.contains(candidate)) {
-                        return Optional.of(candidate);
-                    }
-                    continue;
-                }
-                if (!targetAnnotations.contains(anImport)) {
-                    continue;
-                }
-                if (anImport.endsWith(annotationInSource)) {
-                    return Optional.of(anImport);
-                }
+    @Nullable
+    private Name findMatch(@Nullable ModifiersTree modifiers, @NotNull Set<Name> targetAnnotations) {
+        if (modifiers == null || targetAnnotations.isEmpty()) {
+            return null;
+        }
+        AnnotationIndex index = context.getAnnotationIndex();
+        for (AnnotationTree annotation : modifiers.getAnnotations()) {
+            Name candidate = index.resolve(annotation.getAnnotationType());
+            if (candidate != null && targetAnnotations.contains(candidate)) {
+                return candidate;
             }
         }
-        return Optional.empty();
+        return null;
     }
 
     @Nullable
     private String getQualifiedMethodName() {
-        StringBuilder buffer = new StringBuilder();
-        if (packageName != null) {
-            buffer.append(packageName).append(".");
-        }
-        if (!classNames.isEmpty()) {
-            List<String> list = new ArrayList<>(classNames);
-            for (String className : list) {
-                if (className.startsWith("$")) {
-                    // We want to show class name like 'MyCLass$1' instead of 'MyClass$1'
-                    buffer.setLength(buffer.length() - 1);
-                }
-                buffer.append(className).append(".");
-            }
-        }
-        if (methodName == null || buffer.length() == 0) {
-            return null;
-        }
-        buffer.append(methodName);
-        return buffer.toString();
+        return qualifiedMethodName.get();
     }
 
     @Override
     public Void visitBlock(BlockTree node, Void aVoid) {
+        if (!instrumentReturnExpression) {
+            return super.visitBlock(node, aVoid);
+        }
         parents.push(node);
         try {
             return super.visitBlock(node, aVoid);
@@ -425,6 +665,9 @@ public class InstrumentationApplianceFinder extends TreeScanner<Void, Void> {
 
     @Override
     public Void visitIf(IfTree node, Void aVoid) {
+        if (!instrumentReturnExpression) {
+            return super.visitIf(node, aVoid);
+        }
         parents.push(node);
         try {
             return super.visitIf(node, aVoid);
@@ -435,6 +678,9 @@ public class InstrumentationApplianceFinder extends TreeScanner<Void, Void> {
 
     @Override
     public Void visitForLoop(ForLoopTree node, Void aVoid) {
+        if (!instrumentReturnExpression) {
+            return super.visitForLoop(node, aVoid);
+        }
         parents.push(node);
         try {
             return super.visitForLoop(node, aVoid);
@@ -445,6 +691,9 @@ public class InstrumentationApplianceFinder extends TreeScanner<Void, Void> {
 
     @Override
     public Void visitEnhancedForLoop(EnhancedForLoopTree node, Void aVoid) {
+        if (!instrumentReturnExpression) {
+            return super.visitEnhancedForLoop(node, aVoid);
+        }
         parents.push(node);
         try {
             return super.visitEnhancedForLoop(node, aVoid);
@@ -455,6 +704,9 @@ public class InstrumentationApplianceFinder extends TreeScanner<Void, Void> {
 
     @Override
     public Void visitWhileLoop(WhileLoopTree node, Void aVoid) {
+        if (!instrumentReturnExpression) {
+            return super.visitWhileLoop(node, aVoid);
+        }
         parents.push(node);
         try {
             return super.visitWhileLoop(node, aVoid);
@@ -465,6 +717,9 @@ public class InstrumentationApplianceFinder extends TreeScanner<Void, Void> {
 
     @Override
     public Void visitDoWhileLoop(DoWhileLoopTree node, Void aVoid) {
+        if (!instrumentReturnExpression) {
+            return super.visitDoWhileLoop(node, aVoid);
+        }
         parents.push(node);
         try {
             return super.visitDoWhileLoop(node, aVoid);
@@ -475,6 +730,9 @@ public class InstrumentationApplianceFinder extends TreeScanner<Void, Void> {
 
     @Override
     public Void visitCase(CaseTree node, Void aVoid) {
+        if (!instrumentReturnExpression) {
+            return super.visitCase(node, aVoid);
+        }
         parents.push(node);
         try {
             return super.visitCase(node, aVoid);
@@ -490,32 +748,82 @@ public class InstrumentationApplianceFinder extends TreeScanner<Void, Void> {
             && methodReturnType != null
             && !parents.isEmpty())
         {
+            if (notNullReturns.contains(node)) {
+                context.getStatsCollector().incrementElided(METHOD_RETURN);
+                if (context.getPluginSettings().isVerboseMode()) {
+                    context.getLogger().info(String.format(
+                            "skipped a null-check for 'return' expression in method %s() - the value can't be null",
+                            getQualifiedMethodName()
+                    ));
+                }
+                return super.visitReturn(node, aVoid);
+            }
             mayBeSetPosition(node, context.getAstFactory());
             String notNullByDefaultDescription = returnNotNullByDefault.isEmpty() ? null
                                                                                   : returnNotNullByDefault.peek();
             returnInstrumenter.instrument(new ReturnToInstrumentInfo(context,
-                                                                     methodNotNullAnnotation,
+                                                                     lazyString(methodNotNullAnnotation),
                                                                      notNullByDefaultDescription,
                                                                      node,
                                                                      methodReturnType,
                                                                      getTmpVariableName(),
                                                                      parents.peek(),
-                                                                     getQualifiedMethodName()));
+                                                                     qualifiedMethodName));
         }
         return super.visitReturn(node, aVoid);
     }
 
-    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
     private static class Annotations {
 
-        public static final Annotations EMPTY = new Annotations(Optional.empty(), Optional.empty());
+        public static final Annotations EMPTY = new Annotations(null, null);
 
-        @NotNull public final Optional<String> notNull;
-        @NotNull public final Optional<String> nullable;
+        @Nullable public final Name notNull;
+        @Nullable public final Name nullable;
 
-        public Annotations(@NotNull Optional<String> notNull, @NotNull Optional<String> nullable) {
+        public Annotations(@Nullable Name notNull, @Nullable Name nullable) {
             this.notNull = notNull;
             this.nullable = nullable;
         }
     }
+
+    /**
+     * Builds a qualified method name on the first request, the name is needed only for the generated
+     * messages and logging, i.e. it's not built for the methods which get no checks.
+     */
+    private static class QualifiedMethodName implements Supplier<String> {
+
+        @NotNull private final String         packageName;
+        @NotNull private final CharSequence[] classNames;
+        @NotNull private final Name           methodName;
+
+        private String result;
+
+        QualifiedMethodName(@NotNull String packageName, @NotNull CharSequence[] classNames, @NotNull Name methodName) {
+            this.packageName = packageName;
+            this.classNames = classNames;
+            this.methodName = methodName;
+        }
+
+        @Override
+        public String get() {
+            if (result == null) {
+                result = build();
+            }
+            return result;
+        }
+
+        @NotNull
+        private String build() {
+            StringBuilder buffer = new StringBuilder();
+            buffer.append(packageName).append(".");
+            for (CharSequence className : classNames) {
+                if (className.length() > 0 && className.charAt(0) == '$') {
+                    // We want to show class name like 'MyCLass$1' instead of 'MyClass$1'
+                    buffer.setLength(buffer.length() - 1);
+                }
+                buffer.append(className).append(".");
+            }
+            return buffer.append(methodName).toString();
+        }
+    }
 }
@@ -0,0 +1,264 @@
+package tech.harmonysoft.oss.traute.javac.common;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tech.harmonysoft.oss.traute.common.util.TrauteConstants;
+
+import javax.tools.JavaFileObject;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * <p>Holds annotations of all {@code package-info} classes located in a single jar.</p>
+ * <p>
+ *     An index is built by scanning the jar once and is stored in a cache directory afterwards. Subsequent
+ *     compilations memory-map the stored index instead of re-scanning the jar. Every stored index keeps
+ *     absolute jar path, its size and last modification time, a stale index is silently re-built.
+ * </p>
+ * <p>
+ *     Stored indices are never modified in place - a new index is written into a temporary file which is
+ *     atomically moved to the target location then. That way concurrent builds which share the same cache
+ *     directory never observe partially written data.
+ * </p>
+ * <p>Index file format (all numbers are big-endian):</p>
+ * <pre>
+ *   int     magic
+ *   int     format version
+ *   long    jar size
+ *   long    jar last modification time (millis)
+ *   string  jar absolute path
+ *   int     packages number
+ *   package[packages number]
+ *
+ *   package:
+ *     string  package name
+ *     int     annotations number ({@value #SOURCE_ONLY} if the jar contains {@code package-info.java} only)
+ *     string[annotations number]
+ *
+ *   string:
+ *     short   UTF-8 bytes number
+ *     byte[]  UTF-8 bytes
+ * </pre>
+ * <p>Thread-safe.</p>
+ */
+class JarPackageIndex {
+
+    private static final int MAGIC       = 0x54524155;
+    private static final int VERSION     = 1;
+    private static final int SOURCE_ONLY = -1;
+
+    private static final String CLASS_SUFFIX  = TrauteConstants.PACKAGE_INFO + JavaFileObject.Kind.CLASS.extension;
+    private static final String SOURCE_SUFFIX = TrauteConstants.PACKAGE_INFO + JavaFileObject.Kind.SOURCE.extension;
+
+    private final Map<String/* package */, Set<String>/* annotations */> annotations = new HashMap<>();
+    private final Set<String/* package */>                               sourceOnly  = new HashSet<>();
+
+    private JarPackageIndex() {
+    }
+
+    /**
+     * Reads an index for the given jar from the given cache directory, re-builds and stores it if necessary.
+     *
+     * @param jar           target jar
+     * @param cacheDir      directory which holds stored indices
+     * @return              an index for the given jar
+     * @throws IOException  in case of a problem on reading the jar
+     */
+    @NotNull
+    static JarPackageIndex load(@NotNull Path jar, @NotNull Path cacheDir) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String path = jar.toAbsolutePath().toString();
+        Path indexFile = cacheDir.resolve(getIndexFileName(jar.getFileName().toString(), path));
+
+        if (Files.isRegularFile(indexFile)) {
+            JarPackageIndex stored = read(indexFile, path, size, lastModified);
+            if (stored != null) {
+                return stored;
+            }
+        }
+
+        JarPackageIndex result = build(jar);
+        result.store(indexFile, path, size, lastModified);
+        return result;
+    }
+
+    @NotNull
+    private static String getIndexFileName(@NotNull String jarName, @NotNull String jarPath) {
+        // 64-bit FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < jarPath.length(); i++) {
+            hash ^= jarPath.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return String.format("%s-%016x.idx", jarName, hash);
+    }
+
+    @Nullable
+    private static JarPackageIndex read(@NotNull Path indexFile,
+                                        @NotNull String jarPath,
+                                        long jarSize,
+                                        long jarLastModified)
+    {
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC
+                || buffer.getInt() != VERSION
+                || buffer.getLong() != jarSize
+                || buffer.getLong() != jarLastModified
+                || !jarPath.equals(readString(buffer)))
+            {
+                return null;
+            }
+            JarPackageIndex result = new JarPackageIndex();
+            int packagesNumber = buffer.getInt();
+            for (int i = 0; i < packagesNumber; i++) {
+                String packageName = readString(buffer);
+                int annotationsNumber = buffer.getInt();
+                if (annotationsNumber == SOURCE_ONLY) {
+                    result.sourceOnly.add(packageName);
+                    continue;
+                }
+                Set<String> annotations = new HashSet<>();
+                for (int j = 0; j < annotationsNumber; j++) {
+                    annotations.add(readString(buffer));
+                }
+                result.annotations.put(packageName, unmodifiableSet(annotations));
+            }
+            return result;
+        } catch (IOException | RuntimeException e) {
+            // The index is corrupted or produced by an incompatible plugin version, it will be re-built
+            return null;
+        }
+    }
+
+    @NotNull
+    private static String readString(@NotNull ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @NotNull
+    private static JarPackageIndex build(@NotNull Path jar) throws IOException {
+        JarPackageIndex result = new JarPackageIndex();
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (name.startsWith("META-INF/")) {
+                    continue;
+                }
+                if (name.endsWith("/" + CLASS_SUFFIX)) {
+                    String packageName = getPackageName(name, CLASS_SUFFIX);
+                    byte[] classFile;
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        classFile = readFully(in);
+                    }
+                    result.annotations.put(packageName,
+                                           unmodifiableSet(new HashSet<>(PackageInfoClassReader.readAnnotations(classFile))));
+                } else if (name.endsWith("/" + SOURCE_SUFFIX)) {
+                    result.sourceOnly.add(getPackageName(name, SOURCE_SUFFIX));
+                }
+            }
+        }
+        result.sourceOnly.removeAll(result.annotations.keySet());
+        return result;
+    }
+
+    @NotNull
+    private static String getPackageName(@NotNull String entryName, @NotNull String suffix) {
+        return entryName.substring(0, entryName.length() - suffix.length() - 1).replace('/', '.');
+    }
+
+    @NotNull
+    static byte[] readFully(@NotNull InputStream in) throws IOException {
+        ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            bOut.write(buffer, 0, read);
+        }
+        return bOut.toByteArray();
+    }
+
+    private void store(@NotNull Path indexFile, @NotNull String jarPath, long jarSize, long jarLastModified) {
+        Path tmpFile = null;
+        try {
+            ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bOut);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(jarSize);
+            out.writeLong(jarLastModified);
+            writeString(out, jarPath);
+            out.writeInt(annotations.size() + sourceOnly.size());
+            for (Map.Entry<String, Set<String>> entry : annotations.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (String annotation : entry.getValue()) {
+                    writeString(out, annotation);
+                }
+            }
+            for (String packageName : sourceOnly) {
+                writeString(out, packageName);
+                out.writeInt(SOURCE_ONLY);
+            }
+            out.flush();
+
+            tmpFile = Files.createTempFile(indexFile.getParent(), indexFile.getFileName().toString(), ".tmp");
+            Files.write(tmpFile, bOut.toByteArray());
+            try {
+                Files.move(tmpFile, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmpFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            tmpFile = null;
+        } catch (IOException e) {
+            // The index is still usable for the current compilation, we just try to store it next time
+        } finally {
+            if (tmpFile != null) {
+                try {
+                    Files.deleteIfExists(tmpFile);
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+
+    private static void writeString(@NotNull DataOutputStream out, @NotNull String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * @param packageName   target package
+     * @return              annotations of the given package's {@code package-info.class} if it's located
+     *                      in the current jar; {@code null} otherwise
+     */
+    @Nullable
+    Set<String> getAnnotations(@NotNull String packageName) {
+        return annotations.get(packageName);
+    }
+
+    /**
+     * @param packageName   target package
+     * @return              {@code true} if current jar contains {@code package-info.java} but not
+     *                      {@code package-info.class} for the given package
+     */
+    boolean hasSourceOnly(@NotNull String packageName) {
+        return sourceOnly.contains(packageName);
+    }
+}
@@ -0,0 +1,122 @@
+package tech.harmonysoft.oss.traute.javac.common;
+
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+import org.jetbrains.annotations.NotNull;
+import tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType;
+import tech.harmonysoft.oss.traute.common.settings.TrautePluginSettings;
+
+import java.util.*;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * <p>
+ *     Holds all annotations which are interesting for the plugin (configured {@code NotNull}, {@code Nullable}
+ *     and {@code NotNullByDefault} annotations) as {@code javac} {@link Name names}, grouped by their packages.
+ * </p>
+ * <p>
+ *     The data is prepared once per compilation from the {@link TrautePluginSettings} and is used as a basis
+ *     for building {@link AnnotationIndex per-compilation unit indices}. As all names are taken from the
+ *     compilation's {@link Names name table}, they can be compared by identity.
+ * </p>
+ * <p>Thread-safe.</p>
+ */
+public class KnownAnnotations {
+
+    private final Map<InstrumentationType, Set<Name>> notNullByDefault = new EnumMap<>(InstrumentationType.class);
+
+    @NotNull private final Map<Name/* package */, Map<Name/* simple name */, Name /* FQN */>> byPackage;
+    @NotNull private final Set<Name>                                                      simpleNames;
+    @NotNull private final Set<Name>                                                      all;
+    @NotNull private final Set<Name>                                                      notNull;
+    @NotNull private final Set<Name>                                                      nullable;
+
+    public KnownAnnotations(@NotNull TrautePluginSettings settings, @NotNull Names names) {
+        notNull = toNames(settings.getNotNullAnnotations(), names);
+        nullable = toNames(settings.getNullableAnnotations(), names);
+        Set<Name> all = new HashSet<>();
+        all.addAll(notNull);
+        all.addAll(nullable);
+        for (Map.Entry<InstrumentationType, Set<String>> entry : settings.getNotNullByDefaultAnnotations().entrySet()) {
+            if (entry.getValue() != null) {
+                Set<Name> annotations = toNames(entry.getValue(), names);
+                notNullByDefault.put(entry.getKey(), annotations);
+                all.addAll(annotations);
+            }
+        }
+
+        Map<Name, Map<Name, Name>> byPackage = new HashMap<>();
+        Set<Name> simpleNames = new HashSet<>();
+        for (Name annotation : all) {
+            String fqn = annotation.toString();
+            int i = fqn.lastIndexOf('.');
+            if (i <= 0 || i >= fqn.length() - 1) {
+                continue;
+            }
+            Name simpleName = names.fromString(fqn.substring(i + 1));
+            simpleNames.add(simpleName);
+            byPackage.computeIfAbsent(names.fromString(fqn.substring(0, i)), p -> new HashMap<>())
+                     .put(simpleName, annotation);
+        }
+        byPackage.replaceAll((p, annotations) -> unmodifiableMap(annotations));
+
+        this.all = unmodifiableSet(all);
+        this.simpleNames = unmodifiableSet(simpleNames);
+        this.byPackage = unmodifiableMap(byPackage);
+    }
+
+    @NotNull
+    private static Set<Name> toNames(@NotNull Collection<String> annotations, @NotNull Names names) {
+        Set<Name> result = new HashSet<>();
+        for (String annotation : annotations) {
+            result.add(names.fromString(annotation));
+        }
+        return unmodifiableSet(result);
+    }
+
+    /**
+     * @param fqn   fully qualified annotation name to check
+     * @return      {@code true} if given annotation is known to the plugin
+     */
+    public boolean contains(@NotNull Name fqn) {
+        return all.contains(fqn);
+    }
+
+    /**
+     * @param simpleName    simple annotation name to check
+     * @return              {@code true} if there is a known annotation with the given simple name
+     */
+    public boolean containsSimpleName(@NotNull Name simpleName) {
+        return simpleNames.contains(simpleName);
+    }
+
+    /**
+     * @param packageName   target package (or a type in case of nested annotations)
+     * @return              known annotations declared in the given package, keyed by their simple names
+     */
+    @NotNull
+    public Map<Name, Name> getByPackage(@NotNull Name packageName) {
+        Map<Name, Name> result = byPackage.get(packageName);
+        return result == null ? emptyMap() : result;
+    }
+
+    @NotNull
+    public Set<Name> getNotNull() {
+        return notNull;
+    }
+
+    @NotNull
+    public Set<Name> getNullable() {
+        return nullable;
+    }
+
+    @NotNull
+    public Set<Name> getNotNullByDefault(@NotNull InstrumentationType type) {
+        Set<Name> result = notNullByDefault.get(type);
+        return result == null ? emptySet() : result;
+    }
+}
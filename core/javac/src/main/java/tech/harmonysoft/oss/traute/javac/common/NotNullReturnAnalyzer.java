@@ -0,0 +1,283 @@
+package tech.harmonysoft.oss.traute.javac.common;
+
+import com.sun.source.tree.Tree;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.tree.TreeScanner;
+import com.sun.tools.javac.util.Name;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+import static tech.harmonysoft.oss.traute.javac.util.NullabilityUtil.isProvablyNotNull;
+
+/**
+ * <p>
+ *     Finds {@code return} statements of a method which can't return {@code null}, e.g. {@code return this},
+ *     {@code return new Foo()}, {@code return "prefix" + value}, {@code return 1} or {@code return local}
+ *     where every value assigned to the {@code local} variable is non-{@code null}.
+ * </p>
+ * <p>
+ *     The analysis is local to the method and works on non-attributed {@code AST}, so, it's conservative:
+ * </p>
+ * <ul>
+ *   <li>
+ *       a name is resolved to a local variable only if such a variable is declared in an enclosing scope
+ *       before the {@code return}, otherwise it's treated as a field;
+ *   </li>
+ *   <li>
+ *       all local variables with the same name are treated as a single variable - every initializer and every
+ *       assignment to any of them has to be non-{@code null}. Variables declared without initializer are
+ *       fine - the compiler guarantees that they're assigned before use;
+ *   </li>
+ *   <li>
+ *       a parameter is non-{@code null} if it's checked on method entry and all assignments to it are
+ *       non-{@code null} as well;
+ *   </li>
+ *   <li>
+ *       lambda parameters, {@code catch} parameters, enhanced {@code for} variables and everything declared
+ *       in local and anonymous classes are never considered to be non-{@code null}.
+ *   </li>
+ * </ul>
+ * <p>Not thread-safe, is expected to be used for a single method.</p>
+ */
+public class NotNullReturnAnalyzer {
+
+    /** Values of these variables are known to be non-{@code null} if they are assigned only non-null values */
+    private final Set<Name>        candidates     = new HashSet<>();
+    /** Variables which might hold {@code null} whatever is assigned to them */
+    private final Set<Name>        unknown        = new HashSet<>();
+    /** Variables of primitive types */
+    private final Set<Name>        primitives     = new HashSet<>();
+    /** Variables of reference types */
+    private final Set<Name>        references     = new HashSet<>();
+    /** Values assigned to local variables with local variables visible at the assignment point */
+    private final List<Assignment> assignments    = new ArrayList<>();
+    /** Returned values with local variables visible at the return point */
+    private final List<Assignment> returnedValues = new ArrayList<>();
+
+    @NotNull private final Set<Name> checkedParameters;
+
+    /**
+     * @param checkedParameters     names of the method parameters which are checked on method entry
+     */
+    public NotNullReturnAnalyzer(@NotNull Set<Name> checkedParameters) {
+        this.checkedParameters = checkedParameters;
+    }
+
+    /**
+     * @param method    a method to analyze
+     * @return          {@code return} statements of the given method which return non-{@code null} values
+     */
+    @NotNull
+    public Set<JCTree.JCReturn> findNotNullReturns(@NotNull JCTree.JCMethodDecl method) {
+        if (method.body == null) {
+            return Collections.emptySet();
+        }
+        new BodyScanner().scan(method);
+
+        candidates.removeAll(unknown);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Assignment assignment : assignments) {
+                if (candidates.contains(assignment.variable) && !isNotNull(assignment)) {
+                    candidates.remove(assignment.variable);
+                    changed = true;
+                }
+            }
+        }
+
+        Set<JCTree.JCReturn> result = new HashSet<>();
+        for (Assignment returnedValue : returnedValues) {
+            if (isNotNull(returnedValue)) {
+                result.add((JCTree.JCReturn) returnedValue.target);
+            }
+        }
+        return result;
+    }
+
+    private boolean isNotNull(@NotNull Assignment assignment) {
+        return isProvablyNotNull(assignment.value, name -> assignment.visibleVariables.contains(name)
+                                                           && !unknown.contains(name)
+                                                           && (candidates.contains(name)
+                                                               || (primitives.contains(name)
+                                                                   && !references.contains(name))));
+    }
+
+    private static class Assignment {
+
+        @NotNull  final JCTree              target;
+        @NotNull  final JCTree.JCExpression value;
+        @NotNull  final Set<Name>           visibleVariables;
+        @Nullable final Name                variable;
+
+        Assignment(@NotNull JCTree target,
+                   @NotNull JCTree.JCExpression value,
+                   @NotNull Set<Name> visibleVariables,
+                   @Nullable Name variable)
+        {
+            this.target = target;
+            this.value = value;
+            this.visibleVariables = visibleVariables;
+            this.variable = variable;
+        }
+    }
+
+    private class BodyScanner extends TreeScanner {
+
+        private final Deque<List<Name>> scopes = new ArrayDeque<>();
+
+        /** Number of enclosing local or anonymous classes and lambdas */
+        private int nestingLevel;
+
+        @Override
+        public void visitMethodDef(JCTree.JCMethodDecl tree) {
+            if (nestingLevel > 0) {
+                super.visitMethodDef(tree);
+                return;
+            }
+            scopes.push(new ArrayList<>());
+            for (JCTree.JCVariableDecl parameter : tree.params) {
+                declare(parameter.name);
+                if (isPrimitive(parameter)) {
+                    primitives.add(parameter.name);
+                    continue;
+                }
+                references.add(parameter.name);
+                if (checkedParameters.contains(parameter.name)) {
+                    candidates.add(parameter.name);
+                } else {
+                    unknown.add(parameter.name);
+                }
+            }
+            scan(tree.body);
+            scopes.pop();
+        }
+
+        @Override
+        public void visitVarDef(JCTree.JCVariableDecl tree) {
+            super.visitVarDef(tree);
+            if (nestingLevel > 0) {
+                references.add(tree.name);
+                unknown.add(tree.name);
+                return;
+            }
+            declare(tree.name);
+            if (isPrimitive(tree)) {
+                primitives.add(tree.name);
+                return;
+            }
+            references.add(tree.name);
+            candidates.add(tree.name);
+            if (tree.init != null) {
+                assignments.add(new Assignment(tree, tree.init, getVisibleVariables(), tree.name));
+            }
+        }
+
+        @Override
+        public void visitAssign(JCTree.JCAssign tree) {
+            super.visitAssign(tree);
+            JCTree.JCExpression variable = TreeInfo.skipParens(tree.lhs);
+            if (variable instanceof JCTree.JCIdent) {
+                Name name = ((JCTree.JCIdent) variable).name;
+                assignments.add(new Assignment(tree, tree.rhs, getVisibleVariables(), name));
+            }
+        }
+
+        @Override
+        public void visitReturn(JCTree.JCReturn tree) {
+            super.visitReturn(tree);
+            if (nestingLevel == 0 && tree.expr != null) {
+                returnedValues.add(new Assignment(tree, tree.expr, getVisibleVariables(), null));
+            }
+        }
+
+        @Override
+        public void visitBlock(JCTree.JCBlock tree) {
+            inScope(() -> super.visitBlock(tree));
+        }
+
+        @Override
+        public void visitForLoop(JCTree.JCForLoop tree) {
+            inScope(() -> super.visitForLoop(tree));
+        }
+
+        @Override
+        public void visitForeachLoop(JCTree.JCEnhancedForLoop tree) {
+            unknown.add(tree.var.name);
+            inScope(() -> super.visitForeachLoop(tree));
+        }
+
+        @Override
+        public void visitSwitch(JCTree.JCSwitch tree) {
+            inScope(() -> super.visitSwitch(tree));
+        }
+
+        @Override
+        public void visitTry(JCTree.JCTry tree) {
+            // Resources are visible only inside the 'try' block
+            inScope(() -> {
+                scan(tree.resources);
+                scan(tree.body);
+            });
+            scan(tree.catchers);
+            scan(tree.finalizer);
+        }
+
+        @Override
+        public void visitCatch(JCTree.JCCatch tree) {
+            unknown.add(tree.param.name);
+            inScope(() -> super.visitCatch(tree));
+        }
+
+        @Override
+        public void visitLambda(JCTree.JCLambda tree) {
+            nested(() -> super.visitLambda(tree));
+        }
+
+        @Override
+        public void visitClassDef(JCTree.JCClassDecl tree) {
+            nested(() -> super.visitClassDef(tree));
+        }
+
+        private void inScope(@NotNull Runnable action) {
+            scopes.push(new ArrayList<>());
+            try {
+                action.run();
+            } finally {
+                scopes.pop();
+            }
+        }
+
+        private void nested(@NotNull Runnable action) {
+            nestingLevel++;
+            try {
+                inScope(action);
+            } finally {
+                nestingLevel--;
+            }
+        }
+
+        private void declare(@NotNull Name name) {
+            List<Name> scope = scopes.peek();
+            if (scope != null) {
+                scope.add(name);
+            }
+        }
+
+        @NotNull
+        private Set<Name> getVisibleVariables() {
+            Set<Name> result = new HashSet<>();
+            for (List<Name> scope : scopes) {
+                result.addAll(scope);
+            }
+            return result;
+        }
+
+        private boolean isPrimitive(@NotNull JCTree.JCVariableDecl variable) {
+            return variable.vartype != null && variable.vartype.getKind() == Tree.Kind.PRIMITIVE_TYPE;
+        }
+    }
+}
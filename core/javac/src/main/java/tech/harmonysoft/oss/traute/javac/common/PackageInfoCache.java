@@ -0,0 +1,141 @@
+package tech.harmonysoft.oss.traute.javac.common;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tech.harmonysoft.oss.traute.common.util.TrauteConstants;
+import tech.harmonysoft.oss.traute.javac.log.TrautePluginLogger;
+
+import javax.tools.JavaFileObject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Collections.emptySet;
+
+/**
+ * <p>
+ *     Answers which annotations are applied to {@code package-info} classes located at the compilation
+ *     class path by using {@link JarPackageIndex per-jar indices} stored in a
+ *     {@link TrauteConstants#OPTION_CACHE_DIR cache directory}.
+ * </p>
+ * <p>
+ *     The lookup mirrors {@code javac} behavior - the first {@code package-info} met at the class path wins.
+ *     Directories are not indexed as their content is likely to change between compilations, so, if
+ *     a directory contains a {@code package-info} for the target package or a jar can't be indexed, the answer
+ *     is unknown and {@code javac} should be consulted.
+ * </p>
+ * <p>Thread-safe.</p>
+ */
+public class PackageInfoCache {
+
+    private static final String CLASS_SUFFIX  = TrauteConstants.PACKAGE_INFO + JavaFileObject.Kind.CLASS.extension;
+    private static final String SOURCE_SUFFIX = TrauteConstants.PACKAGE_INFO + JavaFileObject.Kind.SOURCE.extension;
+
+    /** Stands for a class path entry which content can't be determined. */
+    private static final Object UNKNOWN = new Object();
+
+    @NotNull private final Path               cacheDir;
+    @NotNull private final Collection<File>   classPath;
+    @NotNull private final Collection<File>   sourcePath;
+    @NotNull private final TrautePluginLogger logger;
+
+    /** Indexed class path entries, {@code null} until the first lookup. */
+    @Nullable private List<Object> entries;
+    private boolean                disabled;
+
+    /**
+     * @param cacheDir      directory to store jar indices
+     * @param classPath     compilation class path
+     * @param sourcePath    compilation source path
+     * @param logger        logger to use
+     */
+    public PackageInfoCache(@NotNull File cacheDir,
+                            @NotNull Collection<File> classPath,
+                            @NotNull Collection<File> sourcePath,
+                            @NotNull TrautePluginLogger logger)
+    {
+        this.cacheDir = cacheDir.toPath();
+        this.classPath = classPath;
+        this.sourcePath = sourcePath;
+        this.logger = logger;
+    }
+
+    /**
+     * @param packageName   target package name
+     * @return              annotations of the target package's {@code package-info} (empty set if there is no
+     *                      {@code package-info} for it at the class path); {@code null} if that can't be
+     *                      determined from the cache
+     */
+    @Nullable
+    public synchronized Set<String> getPackageAnnotations(@NotNull String packageName) {
+        List<Object> entries = getEntries();
+        if (entries == null) {
+            return null;
+        }
+        String relativePath = packageName.replace('.', File.separatorChar) + File.separatorChar;
+        for (Object entry : entries) {
+            if (entry instanceof JarPackageIndex) {
+                JarPackageIndex index = (JarPackageIndex) entry;
+                if (index.hasSourceOnly(packageName)) {
+                    return null;
+                }
+                Set<String> result = index.getAnnotations(packageName);
+                if (result != null) {
+                    return result;
+                }
+            } else if (entry == UNKNOWN || hasPackageInfo((File) entry, relativePath)) {
+                return null;
+            }
+        }
+        for (File entry : sourcePath) {
+            if (entry.isFile() || hasPackageInfo(entry, relativePath)) {
+                return null;
+            }
+        }
+        return emptySet();
+    }
+
+    private static boolean hasPackageInfo(@NotNull File dir, @NotNull String relativePath) {
+        return new File(dir, relativePath + CLASS_SUFFIX).isFile()
+               || new File(dir, relativePath + SOURCE_SUFFIX).isFile();
+    }
+
+    /**
+     * @return      {@link JarPackageIndex indices} for the jars at the class path and {@link File directories}
+     *              at the class path; {@code null} if the cache is not usable
+     */
+    @Nullable
+    private List<Object> getEntries() {
+        if (entries != null || disabled) {
+            return entries;
+        }
+        try {
+            Files.createDirectories(cacheDir);
+        } catch (IOException e) {
+            logger.report(String.format("Can't use directory %s for caching package-level annotations - %s. "
+                                        + "Proceeding without the cache", cacheDir, e));
+            disabled = true;
+            return null;
+        }
+        List<Object> result = new ArrayList<>();
+        for (File file : classPath) {
+            if (file.isDirectory()) {
+                result.add(file);
+            } else if (file.isFile()) {
+                try {
+                    result.add(JarPackageIndex.load(file.toPath(), cacheDir));
+                } catch (IOException e) {
+                    // We can't say anything about a broken jar, let javac decide what to do with it
+                    result.add(UNKNOWN);
+                }
+            }
+        }
+        entries = result;
+        return result;
+    }
+}
@@ -0,0 +1,210 @@
+package tech.harmonysoft.oss.traute.javac.common;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ *     Extracts names of the annotations applied to a {@code package-info.class} directly from its binary
+ *     representation, i.e. without loading it or involving {@code javac} symbol table.
+ * </p>
+ * <p>
+ *     Only the data necessary for that is parsed - constant pool, class-level {@code RuntimeVisibleAnnotations}
+ *     and {@code RuntimeInvisibleAnnotations} attributes. Everything else is skipped.
+ * </p>
+ * <p>Thread-safe.</p>
+ */
+class PackageInfoClassReader {
+
+    private static final int    CLASS_FILE_MAGIC              = 0xCAFEBABE;
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS   = "RuntimeVisibleAnnotations";
+    private static final String RUNTIME_INVISIBLE_ANNOTATIONS = "RuntimeInvisibleAnnotations";
+
+    private static final int CONSTANT_UTF8                 = 1;
+    private static final int CONSTANT_INTEGER              = 3;
+    private static final int CONSTANT_FLOAT                = 4;
+    private static final int CONSTANT_LONG                 = 5;
+    private static final int CONSTANT_DOUBLE               = 6;
+    private static final int CONSTANT_CLASS                = 7;
+    private static final int CONSTANT_STRING               = 8;
+    private static final int CONSTANT_FIELD_REF            = 9;
+    private static final int CONSTANT_METHOD_REF           = 10;
+    private static final int CONSTANT_INTERFACE_METHOD_REF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE        = 12;
+    private static final int CONSTANT_METHOD_HANDLE        = 15;
+    private static final int CONSTANT_METHOD_TYPE          = 16;
+    private static final int CONSTANT_DYNAMIC              = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC       = 18;
+    private static final int CONSTANT_MODULE               = 19;
+    private static final int CONSTANT_PACKAGE              = 20;
+
+    private PackageInfoClassReader() {
+    }
+
+    /**
+     * @param classFile     binary content of a {@code package-info.class}
+     * @return              fully qualified names of the annotations applied to the package
+     * @throws IOException  in case given data is not a valid class file
+     */
+    @NotNull
+    static List<String> readAnnotations(@NotNull byte[] classFile) throws IOException {
+        try {
+            return doReadAnnotations(ByteBuffer.wrap(classFile));
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed class file", e);
+        }
+    }
+
+    @NotNull
+    private static List<String> doReadAnnotations(@NotNull ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != CLASS_FILE_MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        skip(buffer, 4); // minor and major versions
+
+        int constantPoolSize = u2(buffer);
+        String[] utf8 = new String[constantPoolSize];
+        for (int i = 1; i < constantPoolSize; i++) {
+            int tag = u1(buffer);
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    utf8[i] = readUtf8(buffer);
+                    break;
+                case CONSTANT_CLASS:
+                case CONSTANT_STRING:
+                case CONSTANT_METHOD_TYPE:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    skip(buffer, 2);
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    skip(buffer, 3);
+                    break;
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                case CONSTANT_FIELD_REF:
+                case CONSTANT_METHOD_REF:
+                case CONSTANT_INTERFACE_METHOD_REF:
+                case CONSTANT_NAME_AND_TYPE:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    skip(buffer, 4);
+                    break;
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    skip(buffer, 8);
+                    i++; // Eight-byte constants take two constant pool entries
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+
+        skip(buffer, 6); // access flags, this class, super class
+        skip(buffer, u2(buffer) * 2); // interfaces
+        skipMembers(buffer); // fields
+        skipMembers(buffer); // methods
+
+        List<String> result = new ArrayList<>();
+        int attributesCount = u2(buffer);
+        for (int i = 0; i < attributesCount; i++) {
+            String name = utf8[u2(buffer)];
+            int length = buffer.getInt();
+            if (!RUNTIME_VISIBLE_ANNOTATIONS.equals(name) && !RUNTIME_INVISIBLE_ANNOTATIONS.equals(name)) {
+                skip(buffer, length);
+                continue;
+            }
+            int annotationsCount = u2(buffer);
+            for (int j = 0; j < annotationsCount; j++) {
+                String descriptor = utf8[u2(buffer)];
+                if (descriptor != null && descriptor.startsWith("L") && descriptor.endsWith(";")) {
+                    result.add(descriptor.substring(1, descriptor.length() - 1).replace('/', '.').replace('$', '.'));
+                }
+                skipElementValuePairs(buffer);
+            }
+        }
+        return result;
+    }
+
+    private static void skipMembers(@NotNull ByteBuffer buffer) {
+        int count = u2(buffer);
+        for (int i = 0; i < count; i++) {
+            skip(buffer, 6); // access flags, name, descriptor
+            skipAttributes(buffer);
+        }
+    }
+
+    private static void skipAttributes(@NotNull ByteBuffer buffer) {
+        int count = u2(buffer);
+        for (int i = 0; i < count; i++) {
+            skip(buffer, 2);
+            skip(buffer, buffer.getInt());
+        }
+    }
+
+    private static void skipAnnotation(@NotNull ByteBuffer buffer) throws IOException {
+        skip(buffer, 2); // type
+        skipElementValuePairs(buffer);
+    }
+
+    private static void skipElementValuePairs(@NotNull ByteBuffer buffer) throws IOException {
+        int count = u2(buffer);
+        for (int i = 0; i < count; i++) {
+            skip(buffer, 2); // name
+            skipElementValue(buffer);
+        }
+    }
+
+    private static void skipElementValue(@NotNull ByteBuffer buffer) throws IOException {
+        char tag = (char) u1(buffer);
+        switch (tag) {
+            case 'B': case 'C': case 'D': case 'F': case 'I': case 'J': case 'S': case 'Z': case 's': case 'c':
+                skip(buffer, 2);
+                break;
+            case 'e':
+                skip(buffer, 4);
+                break;
+            case '@':
+                skipAnnotation(buffer);
+                break;
+            case '[':
+                int count = u2(buffer);
+                for (int i = 0; i < count; i++) {
+                    skipElementValue(buffer);
+                }
+                break;
+            default:
+                throw new IOException("Unknown annotation element value tag '" + tag + "'");
+        }
+    }
+
+    @NotNull
+    private static String readUtf8(@NotNull ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+        int length = u2(buffer);
+        skip(buffer, length);
+        // Class files use 'modified UTF-8' encoding which is supported by DataInput
+        byte[] data = new byte[length + 2];
+        buffer.position(start);
+        buffer.get(data);
+        return new DataInputStream(new ByteArrayInputStream(data)).readUTF();
+    }
+
+    private static int u1(@NotNull ByteBuffer buffer) {
+        return buffer.get() & 0xFF;
+    }
+
+    private static int u2(@NotNull ByteBuffer buffer) {
+        return buffer.getShort() & 0xFFFF;
+    }
+
+    private static void skip(@NotNull ByteBuffer buffer, int bytesNumber) {
+        buffer.position(buffer.position() + bytesNumber);
+    }
+}
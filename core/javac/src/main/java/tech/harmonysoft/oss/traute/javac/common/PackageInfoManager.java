@@ -3,38 +3,139 @@ package tech.harmonysoft.oss.traute.javac.common;
 import com.sun.source.tree.*;
 import com.sun.source.util.TreeScanner;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import tech.harmonysoft.oss.traute.common.util.TrauteConstants;
 
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.tools.JavaFileManager;
 import javax.tools.JavaFileObject;
-import java.lang.annotation.Annotation;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableSet;
 import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toSet;
 
+/**
+ * <p>Provides package-level annotations, e.g. {@code javax.annotation.ParametersAreNonnullByDefault}.</p>
+ * <p>
+ *     Annotations are taken from {@code package-info.java} files which are compiled in the current session
+ *     (see {@link #onCompilationUnit(CompilationUnitTree)}). If there is no such file for a particular
+ *     package, {@code javac} symbol table is consulted, i.e. {@code package-info.class} files are looked up
+ *     at the compilation class path (including dependency jars). Lookup results are cached, including
+ *     negative ones.
+ * </p>
+ * <p>
+ *     {@code javac} starting from version 9 doesn't allow to use the symbol table before the
+ *     {@code ENTER} phase is finished, and the checks are built earlier than that. A {@code package-info.class}
+ *     is read from the compilation class path through the {@link JavaFileManager file manager} then.
+ * </p>
+ * <p>
+ *     If a {@link PackageInfoCache persistent cache} is configured, it's asked before {@code javac}.
+ * </p>
+ * <p>Thread-safe.</p>
+ */
 public class PackageInfoManager {
 
     private static final String SUFFIX = TrauteConstants.PACKAGE_INFO + JavaFileObject.Kind.SOURCE.extension;
 
-    private final ConcurrentMap<String/* package name */, Set<String> /* annotations */> packageAnnotations
+    private final ConcurrentMap<String/* package name */, Set<String> /* annotations */> sourcePackageAnnotations
             = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String/* package name */, Set<String> /* annotations */> compiledPackageAnnotations
+            = new ConcurrentHashMap<>();
+
+    @NotNull  private final Elements         elements;
+    @Nullable private final JavaFileManager  fileManager;
+    @Nullable private final PackageInfoCache cache;
+
+    public PackageInfoManager(@NotNull Elements elements,
+                              @Nullable JavaFileManager fileManager,
+                              @Nullable PackageInfoCache cache)
+    {
+        this.elements = elements;
+        this.fileManager = fileManager;
+        this.cache = cache;
+    }
 
     @NotNull
     public Set<String> getPackageAnnotations(@NotNull String packageName) {
-        return packageAnnotations.computeIfAbsent(packageName, p -> {
-            try {
-                Class<?> clazz = Class.forName(packageName + "." + TrauteConstants.PACKAGE_INFO);
-                Annotation[] annotations = clazz.getAnnotations();
-                if (annotations != null) {
-                    return Arrays.stream(annotations).map(a -> a.annotationType().getName()).collect(toSet());
-                }
-            } catch (ClassNotFoundException ignore) {
+        Set<String> result = sourcePackageAnnotations.get(packageName);
+        if (result != null) {
+            return result;
+        }
+        if (packageName.isEmpty()) {
+            // There is no package-info for the default package
+            return emptySet();
+        }
+        return compiledPackageAnnotations.computeIfAbsent(packageName, this::getCompiledPackageAnnotations);
+    }
+
+    @NotNull
+    private Set<String> getCompiledPackageAnnotations(@NotNull String packageName) {
+        if (cache != null) {
+            Set<String> cached = cache.getPackageAnnotations(packageName);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        PackageElement packageElement;
+        try {
+            packageElement = elements.getPackageElement(packageName);
+        } catch (IllegalStateException e) {
+            // javac 9+ before the end of the ENTER phase
+            return readPackageAnnotations(packageName);
+        } catch (RuntimeException e) {
+            // javac reports broken class files through its own exceptions, we just consider such packages
+            // to have no annotations
+            return emptySet();
+        }
+        if (packageElement == null) {
+            return emptySet();
+        }
+        List<? extends AnnotationMirror> annotations = packageElement.getAnnotationMirrors();
+        if (annotations == null || annotations.isEmpty()) {
+            return emptySet();
+        }
+        Set<String> result = new HashSet<>();
+        for (AnnotationMirror annotation : annotations) {
+            Element element = annotation.getAnnotationType().asElement();
+            if (element instanceof TypeElement) {
+                result.add(((TypeElement) element).getQualifiedName().toString());
+            }
+        }
+        return unmodifiableSet(result);
+    }
+
+    @NotNull
+    private Set<String> readPackageAnnotations(@NotNull String packageName) {
+        if (fileManager == null) {
+            return emptySet();
+        }
+        try {
+            JavaFileObject file = fileManager.getJavaFileForInput(StandardLocation.CLASS_PATH,
+                                                                  packageName + "." + TrauteConstants.PACKAGE_INFO,
+                                                                  JavaFileObject.Kind.CLASS);
+            if (file == null) {
+                return emptySet();
+            }
+            byte[] classFile;
+            try (InputStream in = file.openInputStream()) {
+                classFile = JarPackageIndex.readFully(in);
             }
+            List<String> annotations = PackageInfoClassReader.readAnnotations(classFile);
+            return annotations.isEmpty() ? emptySet() : unmodifiableSet(new HashSet<>(annotations));
+        } catch (IOException | RuntimeException e) {
+            // The same as for the symbol table - such packages are considered to have no annotations
             return emptySet();
-        });
+        }
     }
 
     public void onCompilationUnit(@NotNull CompilationUnitTree compilationUnit) {
@@ -95,6 +196,7 @@ public class PackageInfoManager {
             }
         }
         resultingPackageAnnotations.addAll(packageAnnotationsInSource);
-        packageAnnotations.computeIfAbsent(packageName, p -> new HashSet<>()).addAll(resultingPackageAnnotations);
+        sourcePackageAnnotations.computeIfAbsent(packageName, p -> ConcurrentHashMap.newKeySet())
+                                .addAll(resultingPackageAnnotations);
     }
 }
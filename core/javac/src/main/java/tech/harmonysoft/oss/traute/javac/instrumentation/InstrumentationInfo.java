@@ -1,6 +1,7 @@
 package tech.harmonysoft.oss.traute.javac.instrumentation;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import tech.harmonysoft.oss.traute.javac.common.CompilationUnitProcessingContext;
 import tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType;
 
@@ -30,4 +31,10 @@ public interface InstrumentationInfo {
      * @return {@code NotNullByDefault} annotation description which implies the instrumentation (if any)
      */
     String getNotNullByDefaultAnnotationDescription();
+
+    /**
+     * @return  qualified name of the method which holds the instrumented element (if that information is available)
+     */
+    @Nullable
+    String getQualifiedMethodName();
 }
@@ -39,6 +39,15 @@ import static tech.harmonysoft.oss.traute.common.instrumentation.Instrumentation
  *         return tmpVar;
  *     }
  * </pre>
+ * <p>
+ *     If {@link tech.harmonysoft.oss.traute.common.settings.CheckStyle#REQUIRE_NON_NULL requireNonNull} check style
+ *     is used, the instrumented code is {@code return Objects.requireNonNull(doCompute(), "[the details]");}
+ * </p>
+ * <p>
+ *     {@link tech.harmonysoft.oss.traute.common.settings.CheckStyle#RUNTIME runtime} checks keep the temporary
+ *     variable - {@code TrauteNullChecks.checkNotNull(tmpVar, "[the details]");} is a separate statement which
+ *     result is not used, so, a shrinker can remove it.
+ * </p>
  * <p>Thread-safe.</p>
  */
 public class MethodReturnInstrumentator extends AbstractInstrumentator<ReturnToInstrumentInfo> {
@@ -93,9 +102,20 @@ public class MethodReturnInstrumentator extends AbstractInstrumentator<ReturnToI
         TreeMaker factory = context.getAstFactory();
         Names symbolsTable = context.getSymbolsTable();
         ExceptionTextGenerator<ReturnToInstrumentInfo> generator =
-                context.getExceptionTextGeneratorManager().getGenerator(METHOD_RETURN, context.getPluginSettings());
+                context.getExceptionTextGeneratorManager().getGenerator(METHOD_RETURN);
         String errorMessage = generator.generate(info);
 
+        if (InstrumentationUtil.isRequireNonNullStyle(context.getPluginSettings(), METHOD_RETURN)
+            && !InstrumentationUtil.isMessageTableAvailable(context)
+            && !context.getCheckGuardManager().isGuardAvailable())
+        {
+            // No temporary variable is necessary here - 'return requireNonNull(expression, message)'
+            return Optional.of(List.of(factory.Return(InstrumentationUtil.buildRequireNonNull(factory,
+                                                                                              symbolsTable,
+                                                                                              returnJcExpression,
+                                                                                              errorMessage))));
+        }
+
         List<JCTree.JCStatement> result = List.of(
                 factory.VarDef(
                         factory.Modifiers(0),
@@ -104,12 +124,9 @@ public class MethodReturnInstrumentator extends AbstractInstrumentator<ReturnToI
                         returnJcExpression
                 )
         );
-        String exceptionToThrow = info.getContext().getPluginSettings().getExceptionToThrow(METHOD_RETURN);
-        result = result.append(InstrumentationUtil.buildVarCheck(factory,
-                                                                 symbolsTable,
-                                                                 info.getTmpVariableName(),
-                                                                 errorMessage,
-                                                                 exceptionToThrow));
+        result = result.append(InstrumentationUtil.buildVarCheck(info,
+                                                                 symbolsTable.fromString(info.getTmpVariableName()),
+                                                                 errorMessage));
         result = result.append(
                 factory.Return(
                         factory.Ident(symbolsTable.fromString(info.getTmpVariableName()))));
@@ -121,7 +138,10 @@ public class MethodReturnInstrumentator extends AbstractInstrumentator<ReturnToI
         if (context.getPluginSettings().isVerboseMode()) {
             String methodName = info.getQualifiedMethodName();
             if (methodName != null) {
-                context.getLogger().info("added a null-check for 'return' expression in method " + methodName + "()");
+                context.getLogger().info(
+                        "added a null-check for 'return' expression in method " + methodName + "()",
+                        context.newInstrumentationRecord(METHOD_RETURN, methodName, info.getReturnExpression())
+                );
             }
         }
     }
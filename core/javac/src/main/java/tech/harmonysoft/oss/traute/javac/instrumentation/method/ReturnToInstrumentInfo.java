@@ -9,21 +9,28 @@ import tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType;
 import tech.harmonysoft.oss.traute.javac.instrumentation.InstrumentationInfo;
 import tech.harmonysoft.oss.traute.javac.common.CompilationUnitProcessingContext;
 
+import java.util.function.Supplier;
+
 /**
- * A utility data class for describing a 'return' method expression to be instrumented.
+ * <p>A utility data class for describing a 'return' method expression to be instrumented.</p>
+ * <p>
+ *     Textual properties might be given as {@link Supplier suppliers}, they are evaluated only when requested,
+ *     i.e. when a check is actually generated.
+ * </p>
  */
 public class ReturnToInstrumentInfo implements InstrumentationInfo {
 
     @NotNull private final CompilationUnitProcessingContext context;
     @NotNull private final ReturnTree                       returnExpression;
     @NotNull private final JCTree.JCExpression              returnType;
-    @NotNull private final String                           tmpVariableName;
+    @NotNull private final Supplier<String>                 tmpVariableNameSupplier;
     @NotNull private final Tree                             parent;
+    @NotNull private final Supplier<String>                 qualifiedMethodName;
 
-    @Nullable private final String qualifiedMethodName;
+    @Nullable private final Supplier<String> notNullAnnotation;
+    @Nullable private final String           notNullByDefaultAnnotationDescription;
 
-    private final String notNullAnnotation;
-    private final String notNullByDefaultAnnotationDescription;
+    private String tmpVariableName;
 
     public ReturnToInstrumentInfo(@NotNull CompilationUnitProcessingContext context,
                                   @Nullable String notNullAnnotation,
@@ -33,18 +40,37 @@ public class ReturnToInstrumentInfo implements InstrumentationInfo {
                                   @NotNull String tmpVariableName,
                                   @NotNull Tree parent,
                                   @Nullable String qualifiedMethodName)
+    {
+        this(context,
+             notNullAnnotation == null ? null : () -> notNullAnnotation,
+             notNullByDefaultAnnotationDescription,
+             returnExpression,
+             returnType,
+             () -> tmpVariableName,
+             parent,
+             () -> qualifiedMethodName);
+    }
+
+    public ReturnToInstrumentInfo(@NotNull CompilationUnitProcessingContext context,
+                                  @Nullable Supplier<String> notNullAnnotation,
+                                  @Nullable String notNullByDefaultAnnotationDescription,
+                                  @NotNull ReturnTree returnExpression,
+                                  @NotNull JCTree.JCExpression returnType,
+                                  @NotNull Supplier<String> tmpVariableName,
+                                  @NotNull Tree parent,
+                                  @NotNull Supplier<String> qualifiedMethodName)
     {
         if (notNullAnnotation == null && notNullByDefaultAnnotationDescription == null) {
             throw new IllegalArgumentException(String.format(
                     "Detected an invalid attempt to instrument a method return - either NotNull annotation or "
-                    + "NotNullByDefault annotations are undefined. Method: %s()", qualifiedMethodName));
+                    + "NotNullByDefault annotations are undefined. Method: %s()", qualifiedMethodName.get()));
         }
         this.context = context;
         this.notNullAnnotation = notNullAnnotation;
         this.notNullByDefaultAnnotationDescription = notNullByDefaultAnnotationDescription;
         this.returnExpression = returnExpression;
         this.returnType = returnType;
-        this.tmpVariableName = tmpVariableName;
+        this.tmpVariableNameSupplier = tmpVariableName;
         this.parent = parent;
         this.qualifiedMethodName = qualifiedMethodName;
     }
@@ -63,7 +89,7 @@ public class ReturnToInstrumentInfo implements InstrumentationInfo {
 
     @Override
     public String getNotNullAnnotation() {
-        return notNullAnnotation;
+        return notNullAnnotation == null ? null : notNullAnnotation.get();
     }
 
     @Override
@@ -121,6 +147,9 @@ public class ReturnToInstrumentInfo implements InstrumentationInfo {
      */
     @NotNull
     public String getTmpVariableName() {
+        if (tmpVariableName == null) {
+            tmpVariableName = tmpVariableNameSupplier.get();
+        }
         return tmpVariableName;
     }
 
@@ -136,8 +165,23 @@ public class ReturnToInstrumentInfo implements InstrumentationInfo {
      * @return  qualified method name which {@code NotNull} parameter should be instrumented
      *          (if that information is available)
      */
+    @Override
     @Nullable
     public String getQualifiedMethodName() {
-        return qualifiedMethodName;
+        return qualifiedMethodName.get();
+    }
+
+    /**
+     * @return  simple name of the method which {@code return} should be instrumented
+     *          (if that information is available)
+     */
+    @Nullable
+    public String getMethodName() {
+        String qualifiedMethodName = getQualifiedMethodName();
+        if (qualifiedMethodName == null) {
+            return null;
+        }
+        int i = qualifiedMethodName.lastIndexOf('.');
+        return i < 0 ? qualifiedMethodName : qualifiedMethodName.substring(i + 1);
     }
 }
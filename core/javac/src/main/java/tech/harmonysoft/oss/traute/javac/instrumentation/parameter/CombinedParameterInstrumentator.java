@@ -0,0 +1,71 @@
+package tech.harmonysoft.oss.traute.javac.instrumentation.parameter;
+
+import com.sun.tools.javac.util.Name;
+import org.jetbrains.annotations.NotNull;
+import tech.harmonysoft.oss.traute.javac.common.CompilationUnitProcessingContext;
+import tech.harmonysoft.oss.traute.javac.text.ExceptionTextGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType.METHOD_PARAMETER;
+import static tech.harmonysoft.oss.traute.javac.instrumentation.parameter.ParameterInstrumentator.addCheck;
+import static tech.harmonysoft.oss.traute.javac.instrumentation.parameter.ParameterInstrumentator.getName;
+import static tech.harmonysoft.oss.traute.javac.instrumentation.parameter.ParameterInstrumentator.mayBeLogInstrumentation;
+import static tech.harmonysoft.oss.traute.javac.util.InstrumentationUtil.buildCombinedVarCheck;
+
+/**
+ * <p>
+ *     Enhances target method in a way to include a single {@code null}-check for several method parameters
+ *     if {@link tech.harmonysoft.oss.traute.common.settings.TrautePluginSettings#isCombineParameterChecks()
+ *     combined checks} are configured.
+ * </p>
+ * <pre>
+ * Source code:
+ *     public void test(&#064;NotNull String a, &#064;NotNull String b) {
+ *         // body
+ *     }
+ * </pre>
+ * <pre>
+ * Instrumented code:
+ *     public void test(&#064;NotNull String a, &#064;NotNull String b) {
+ *         if (a == null || b == null) {
+ *             traute$fail$parameter$2(a, b, "[details for a]", "[details for b]");
+ *         }
+ *         // body
+ *     }
+ * </pre>
+ * <p>
+ *     The guard is compiled into a single conditional jump per parameter to the shared failure path, and
+ *     the {@link tech.harmonysoft.oss.traute.javac.common.FailureMethodManager failure method} reports the first
+ *     {@code null} parameter exactly as a separate check would do.
+ * </p>
+ * <p>Thread-safe.</p>
+ */
+public class CombinedParameterInstrumentator {
+
+    /**
+     * Adds a combined check for the given parameters of the same method.
+     *
+     * @param parameters    parameters to check in the order of their declaration
+     */
+    public void instrument(@NotNull List<ParameterToInstrumentInfo> parameters) {
+        if (parameters.isEmpty()) {
+            return;
+        }
+        CompilationUnitProcessingContext context = parameters.get(0).getContext();
+        ExceptionTextGenerator<ParameterToInstrumentInfo> generator =
+                context.getExceptionTextGeneratorManager().getGenerator(METHOD_PARAMETER);
+        List<Name> parameterNames = new ArrayList<>(parameters.size());
+        List<String> errorMessages = new ArrayList<>(parameters.size());
+        for (ParameterToInstrumentInfo info : parameters) {
+            parameterNames.add(getName(info, context.getSymbolsTable()));
+            errorMessages.add(generator.generate(info));
+        }
+        addCheck(parameters.get(0), buildCombinedVarCheck(parameters, parameterNames, errorMessages));
+        for (int i = 0; i < parameters.size(); i++) {
+            mayBeLogInstrumentation(parameters.get(i), parameterNames.get(i));
+            context.getStatsCollector().increment(METHOD_PARAMETER);
+        }
+    }
+}
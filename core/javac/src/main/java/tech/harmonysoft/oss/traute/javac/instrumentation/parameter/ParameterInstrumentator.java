@@ -1,11 +1,9 @@
 package tech.harmonysoft.oss.traute.javac.instrumentation.parameter;
 
-import com.sun.source.tree.ExpressionStatementTree;
-import com.sun.source.tree.ExpressionTree;
-import com.sun.source.tree.MethodInvocationTree;
 import com.sun.tools.javac.tree.JCTree;
-import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.tree.TreeInfo;
 import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.Name;
 import com.sun.tools.javac.util.Names;
 import org.jetbrains.annotations.NotNull;
 import tech.harmonysoft.oss.traute.javac.text.ExceptionTextGenerator;
@@ -23,18 +21,29 @@ public class ParameterInstrumentator extends AbstractInstrumentator<ParameterToI
 
     @Override
     protected boolean mayBeInstrument(@NotNull ParameterToInstrumentInfo info) {
-        String parameterName = info.getMethodParameter().getName().toString();
         CompilationUnitProcessingContext context = info.getContext();
         ExceptionTextGenerator<ParameterToInstrumentInfo> generator =
-                context.getExceptionTextGeneratorManager().getGenerator(METHOD_PARAMETER, context.getPluginSettings());
+                context.getExceptionTextGeneratorManager().getGenerator(METHOD_PARAMETER);
         String errorMessage = generator.generate(info);
-        TreeMaker factory = context.getAstFactory();
         Names symbolsTable = context.getSymbolsTable();
+        Name parameterName = getName(info, symbolsTable);
+        JCTree.JCStatement varCheck = buildVarCheck(info, parameterName, errorMessage);
+        addCheck(info, varCheck);
+        mayBeLogInstrumentation(info, parameterName);
+        return true;
+    }
+
+    /**
+     * Adds the given check to the beginning of the target method's body. Constructor's {@code this(...)} or
+     * {@code super(...)} call is kept the first statement.
+     *
+     * @param info      target parameter info
+     * @param check     a check to add
+     */
+    static void addCheck(@NotNull ParameterToInstrumentInfo info, @NotNull JCTree.JCStatement check) {
         JCTree.JCBlock body = info.getBody();
-        String exceptionToThrow = info.getContext().getPluginSettings().getExceptionToThrow(METHOD_PARAMETER);
-        JCTree.JCIf varCheck = buildVarCheck(factory, symbolsTable, parameterName, errorMessage, exceptionToThrow);
-        if (info.isConstructor() && isFirstStatementThisOrSuperCall(body)) {
-            List<JCTree.JCStatement> newStatements = List.of(varCheck);
+        if (info.isConstructor() && isFirstStatementThisOrSuperCall(body, info.getContext().getSymbolsTable())) {
+            List<JCTree.JCStatement> newStatements = List.of(check);
             List<JCTree.JCStatement> statements = body.getStatements();
             for (int i = 1; i < statements.size(); i++) {
                 newStatements = newStatements.append(statements.get(i));
@@ -42,36 +51,40 @@ public class ParameterInstrumentator extends AbstractInstrumentator<ParameterToI
             newStatements = newStatements.prepend(statements.get(0));
             body.stats = newStatements;
         } else {
-            body.stats = body.stats.prepend(varCheck);
+            body.stats = body.stats.prepend(check);
         }
+    }
 
+    static void mayBeLogInstrumentation(@NotNull ParameterToInstrumentInfo info, @NotNull Name parameterName) {
+        CompilationUnitProcessingContext context = info.getContext();
         if (context.getPluginSettings().isVerboseMode()) {
             String methodName = info.getQualifiedMethodName();
             String methodNotice = methodName == null ? "" : " in the method " + methodName + "()";
-            context.getLogger().info(String.format(
-                    "added a null-check for argument '%s'%s",
-                    parameterName, methodNotice
-            ));
+            context.getLogger().info(
+                    String.format("added a null-check for argument '%s'%s", parameterName, methodNotice),
+                    context.newInstrumentationRecord(METHOD_PARAMETER, methodName, info.getMethodParameter())
+            );
         }
-        return true;
     }
 
-    private static boolean isFirstStatementThisOrSuperCall(@NotNull JCTree.JCBlock body) {
+    @NotNull
+    static Name getName(@NotNull ParameterToInstrumentInfo info, @NotNull Names symbolsTable) {
+        javax.lang.model.element.Name name = info.getMethodParameter().getName();
+        return name instanceof Name ? (Name) name : symbolsTable.fromString(name.toString());
+    }
+
+    private static boolean isFirstStatementThisOrSuperCall(@NotNull JCTree.JCBlock body, @NotNull Names symbolsTable) {
         List<JCTree.JCStatement> statements = body.getStatements();
         if (statements.isEmpty()) {
             return false;
         }
-        JCTree.JCStatement expressionCandidate = statements.get(0);
-        if (expressionCandidate instanceof ExpressionStatementTree) {
-            ExpressionStatementTree expression = (ExpressionStatementTree) expressionCandidate;
-            ExpressionTree methodInvocationCandidate = expression.getExpression();
-            if (methodInvocationCandidate instanceof MethodInvocationTree) {
-                MethodInvocationTree methodInvocation = (MethodInvocationTree) methodInvocationCandidate;
-                ExpressionTree methodSelect = methodInvocation.getMethodSelect();
-                if (methodSelect != null) {
-                    String select = methodSelect.toString();
-                    return "this".equals(select) || "super".equals(select);
-                }
+        JCTree.JCStatement expressionCandidate = statements.head;
+        if (expressionCandidate instanceof JCTree.JCExpressionStatement) {
+            JCTree.JCExpression expression = ((JCTree.JCExpressionStatement) expressionCandidate).expr;
+            if (expression instanceof JCTree.JCMethodInvocation) {
+                // Both 'this(...)', 'super(...)' and qualified 'outer.super(...)' are covered here
+                Name name = TreeInfo.name(((JCTree.JCMethodInvocation) expression).meth);
+                return name == symbolsTable._this || name == symbolsTable._super;
             }
         }
         return false;
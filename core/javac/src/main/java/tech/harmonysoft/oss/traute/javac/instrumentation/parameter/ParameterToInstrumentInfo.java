@@ -8,8 +8,14 @@ import tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType;
 import tech.harmonysoft.oss.traute.javac.instrumentation.InstrumentationInfo;
 import tech.harmonysoft.oss.traute.javac.common.CompilationUnitProcessingContext;
 
+import java.util.function.Supplier;
+
 /**
- * A utility data class for describing a method parameter marked by a {@code NotNull} annotation.
+ * <p>A utility data class for describing a method parameter marked by a {@code NotNull} annotation.</p>
+ * <p>
+ *     Textual properties might be given as {@link Supplier suppliers}, they are evaluated only when requested,
+ *     i.e. when a check is actually generated.
+ * </p>
  */
 public class ParameterToInstrumentInfo implements InstrumentationInfo {
 
@@ -17,10 +23,9 @@ public class ParameterToInstrumentInfo implements InstrumentationInfo {
     @NotNull private final VariableTree                     methodParameter;
     @NotNull private final JCTree.JCBlock                   body;
 
-    private final String notNullAnnotation;
-    private final String notNullByDefaultAnnotationDescription;
-
-    @Nullable private final String qualifiedMethodName;
+    @Nullable private final Supplier<String> notNullAnnotation;
+    @Nullable private final String           notNullByDefaultAnnotationDescription;
+    @NotNull  private final Supplier<String> qualifiedMethodName;
 
     private final int     methodParameterIndex;
     private final int     methodParametersNumber;
@@ -35,12 +40,33 @@ public class ParameterToInstrumentInfo implements InstrumentationInfo {
                                      int methodParameterIndex,
                                      int methodParametersNumber,
                                      boolean constructor)
+    {
+        this(compilationUnitProcessingContext,
+             notNullAnnotation == null ? null : () -> notNullAnnotation,
+             notNullByDefaultAnnotationDescription,
+             methodParameter,
+             body,
+             () -> qualifiedMethodName,
+             methodParameterIndex,
+             methodParametersNumber,
+             constructor);
+    }
+
+    public ParameterToInstrumentInfo(@NotNull CompilationUnitProcessingContext compilationUnitProcessingContext,
+                                     @Nullable Supplier<String> notNullAnnotation,
+                                     @Nullable String notNullByDefaultAnnotationDescription,
+                                     @NotNull VariableTree methodParameter,
+                                     @NotNull JCTree.JCBlock body,
+                                     @NotNull Supplier<String> qualifiedMethodName,
+                                     int methodParameterIndex,
+                                     int methodParametersNumber,
+                                     boolean constructor)
     {
         if (notNullAnnotation == null && notNullByDefaultAnnotationDescription == null) {
             throw new IllegalArgumentException(String.format(
                     "Detected an invalid attempt to instrument a method parameter - either NotNull annotation or "
                     + "NotNullByDefault annotations are undefined. Method: %s(), parameter: %s",
-                    qualifiedMethodName, methodParameter.getName()));
+                    qualifiedMethodName.get(), methodParameter.getName()));
         }
         this.compilationUnitProcessingContext = compilationUnitProcessingContext;
         this.notNullAnnotation = notNullAnnotation;
@@ -67,7 +93,7 @@ public class ParameterToInstrumentInfo implements InstrumentationInfo {
 
     @Override
     public String getNotNullAnnotation() {
-        return notNullAnnotation;
+        return notNullAnnotation == null ? null : notNullAnnotation.get();
     }
 
     @Override
@@ -95,9 +121,10 @@ public class ParameterToInstrumentInfo implements InstrumentationInfo {
      * @return  qualified method name which {@code NotNull} parameter should be instrumented
      *          (if that information is available)
      */
+    @Override
     @Nullable
     public String getQualifiedMethodName() {
-        return qualifiedMethodName;
+        return qualifiedMethodName.get();
     }
 
     /**
@@ -44,6 +44,17 @@ public abstract class AbstractLogger implements TrautePluginLogger {
         }
     }
 
+    /**
+     * Logs given message as-is, implementations which support structured output are free to override this.
+     *
+     * @param message   a message to log
+     * @param record    structured details about the check
+     */
+    @Override
+    public void info(@NotNull String message, @NotNull InstrumentationRecord record) {
+        info(message);
+    }
+
     protected abstract void warn(@NotNull String message);
 
     @NotNull
@@ -34,4 +34,9 @@ public class CompilerOutputLogger extends AbstractLogger {
     public void warn(@NotNull String message) {
         log.rawWarning(-1, message);
     }
+
+    @Override
+    public void flush() {
+        log.flush();
+    }
 }
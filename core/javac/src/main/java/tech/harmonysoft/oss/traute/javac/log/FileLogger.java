@@ -1,23 +1,57 @@
 package tech.harmonysoft.oss.traute.javac.log;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tech.harmonysoft.oss.traute.common.settings.LogFormat;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * <p>Writes plugin's logs to the given file.</p>
+ * <p>
+ *     Messages are buffered in memory and appended to the file on {@link #flush()}, when the buffer exceeds
+ *     {@link #FLUSH_THRESHOLD} or when a problem is reported. Several {@code javac} tasks (in the same or different
+ *     processes) might use the same file - every flush is guarded by a file lock, so, the records are not mixed.
+ * </p>
+ * <p>Thread-safe.</p>
+ */
 public class FileLogger extends AbstractLogger {
 
-    @NotNull private final File file;
+    /** Number of buffered chars which triggers writing to the file. */
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+    /**
+     * {@link FileChannel#lock() File locks} are held on behalf of the whole process, so, an attempt to acquire
+     * a lock already held by another thread fails. That's why we use an additional in-process lock per file.
+     */
+    private static final ConcurrentMap<String, Object> FILE_LOCKS = new ConcurrentHashMap<>();
+
+    private final StringBuilder buffer = new StringBuilder();
 
-    public FileLogger(@NotNull File file) {
+    @NotNull private final File      file;
+    @NotNull private final String    path;
+    @NotNull private final LogFormat format;
+
+    public FileLogger(@NotNull File file, @NotNull LogFormat format) {
         ensureFileExists(file);
         this.file = file;
+        this.format = format;
+        path = file.getAbsolutePath();
     }
 
     private static void ensureFileExists(@NotNull File file) {
-        File dir = file.getParentFile();
+        File dir = file.getAbsoluteFile().getParentFile();
         if (dir.isDirectory()) {
             return;
         }
@@ -30,30 +64,103 @@ public class FileLogger extends AbstractLogger {
     @Override
     @NotNull
     public Object getKey() {
-        return file.getAbsolutePath().intern();
+        return (path + ':' + format).intern();
     }
 
     @Override
     protected void warn(@NotNull String message) {
-        println(message, "WARN");
+        println(message, "WARN", null);
+        flush();
     }
 
     @Override
     public void info(@NotNull String message) {
-        println(message, "INFO");
+        println(message, "INFO", null);
+    }
+
+    @Override
+    public void info(@NotNull String message, @NotNull InstrumentationRecord record) {
+        println(message, "INFO", record);
+    }
+
+    private synchronized void println(@NotNull String message,
+                                      @NotNull String logLevel,
+                                      @Nullable InstrumentationRecord record)
+    {
+        if (format == LogFormat.JSON) {
+            appendJson(message, logLevel, record);
+        } else {
+            buffer.append('[').append(logLevel).append("] ").append(message);
+        }
+        buffer.append(System.lineSeparator());
+        if (buffer.length() >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    private void appendJson(@NotNull String message, @NotNull String logLevel, @Nullable InstrumentationRecord record) {
+        buffer.append("{\"level\":\"").append(logLevel).append('"');
+        if (record != null) {
+            buffer.append(",\"type\":\"").append(record.getType()).append('"');
+            buffer.append(",\"file\":");
+            appendJsonString(record.getFile());
+            if (record.getMethod() != null) {
+                buffer.append(",\"method\":");
+                appendJsonString(record.getMethod());
+            }
+            if (record.getLine() > 0) {
+                buffer.append(",\"line\":").append(record.getLine());
+            }
+            if (record.getColumn() > 0) {
+                buffer.append(",\"column\":").append(record.getColumn());
+            }
+        }
+        buffer.append(",\"message\":");
+        appendJsonString(message);
+        buffer.append('}');
+    }
+
+    private void appendJsonString(@NotNull String s) {
+        buffer.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': buffer.append("\\\""); break;
+                case '\\': buffer.append("\\\\"); break;
+                case '\n': buffer.append("\\n"); break;
+                case '\r': buffer.append("\\r"); break;
+                case '\t': buffer.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        buffer.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        buffer.append(c);
+                    }
+            }
+        }
+        buffer.append('"');
     }
 
-    private void println(@NotNull String message, @NotNull String logLevel) {
-        try {
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, true))) {
-                writer.write('[');
-                writer.write(logLevel);
-                writer.write("] ");
-                writer.write(message);
-                writer.newLine();
+    @Override
+    public synchronized void flush() {
+        if (buffer.length() == 0) {
+            return;
+        }
+        ByteBuffer data = ByteBuffer.wrap(buffer.toString().getBytes(UTF_8));
+        buffer.setLength(0);
+        synchronized (FILE_LOCKS.computeIfAbsent(path, key -> new Object())) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), CREATE, WRITE, APPEND)) {
+                FileLock lock = channel.lock();
+                try {
+                    while (data.hasRemaining()) {
+                        channel.write(data);
+                    }
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
             }
-        } catch (IOException e) {
-            throw new RuntimeException(e);
         }
     }
 }
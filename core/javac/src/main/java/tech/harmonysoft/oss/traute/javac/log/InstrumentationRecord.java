@@ -0,0 +1,67 @@
+package tech.harmonysoft.oss.traute.javac.log;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType;
+
+/**
+ * Describes a check added by the plugin, allows to log it in a structured way.
+ */
+public class InstrumentationRecord {
+
+    @NotNull private final InstrumentationType type;
+    @NotNull private final String              file;
+
+    @Nullable private final String method;
+
+    private final long line;
+    private final long column;
+
+    /**
+     * @param type      added check's type
+     * @param file      path to the source file which contains the check
+     * @param method    qualified name of the method which contains the check (if available)
+     * @param line      one-based line number of the checked element in the source file, negative if unknown
+     * @param column    one-based column number of the checked element in the source file, negative if unknown
+     */
+    public InstrumentationRecord(@NotNull InstrumentationType type,
+                                 @NotNull String file,
+                                 @Nullable String method,
+                                 long line,
+                                 long column)
+    {
+        this.type = type;
+        this.file = file;
+        this.method = method;
+        this.line = line;
+        this.column = column;
+    }
+
+    @NotNull
+    public InstrumentationType getType() {
+        return type;
+    }
+
+    @NotNull
+    public String getFile() {
+        return file;
+    }
+
+    @Nullable
+    public String getMethod() {
+        return method;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public long getColumn() {
+        return column;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s check in %s:%d:%d", type, file, line, column);
+    }
+}
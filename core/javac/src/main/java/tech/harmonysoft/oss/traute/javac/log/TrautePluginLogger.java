@@ -9,6 +9,14 @@ public interface TrautePluginLogger {
 
     void info(@NotNull String message);
 
+    /**
+     * Logs an information message about a check added by the plugin.
+     *
+     * @param message   a message to log
+     * @param record    structured details about the check
+     */
+    void info(@NotNull String message, @NotNull InstrumentationRecord record);
+
     /**
      * Delegates to the {@link #report(String)} but adds more generic info to the given problem details
      *
@@ -22,4 +30,9 @@ public interface TrautePluginLogger {
      * @param message   a message to report
      */
     void report(@NotNull String message);
+
+    /**
+     * Asks to write all buffered messages to the underlying storage.
+     */
+    void flush();
 }
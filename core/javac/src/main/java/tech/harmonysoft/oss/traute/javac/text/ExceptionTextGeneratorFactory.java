@@ -4,12 +4,24 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType;
 import tech.harmonysoft.oss.traute.common.util.TrauteConstants;
+import tech.harmonysoft.oss.traute.javac.instrumentation.method.ReturnToInstrumentInfo;
 import tech.harmonysoft.oss.traute.javac.instrumentation.parameter.ParameterToInstrumentInfo;
 import tech.harmonysoft.oss.traute.javac.log.TrautePluginLogger;
 
 import java.util.*;
 import java.util.function.Function;
 
+/**
+ * <p>
+ *     Compiles custom exception text patterns like {@code '${capitalize(PARAMETER_NAME)} must not be null'}
+ *     into {@link ExceptionTextGenerator generators}.
+ * </p>
+ * <p>
+ *     A pattern is parsed only once - resulting generator holds an immutable sequence of text segments where
+ *     every variable is already bound to its {@link ExceptionTextGeneratorSpi value provider} and functions
+ *     to apply. That way generating a text for particular check doesn't involve any parsing.
+ * </p>
+ */
 public class ExceptionTextGeneratorFactory {
 
     private final Map<InstrumentationType, ExceptionTextGeneratorSpi<?>> spis           = new HashMap<>();
@@ -18,6 +30,8 @@ public class ExceptionTextGeneratorFactory {
     public ExceptionTextGeneratorFactory() {
         spis.put(InstrumentationType.METHOD_PARAMETER, new ParameterCheckExceptionTextGeneratorSpi());
         contextClasses.put(InstrumentationType.METHOD_PARAMETER, ParameterToInstrumentInfo.class);
+        spis.put(InstrumentationType.METHOD_RETURN, new ReturnCheckExceptionTextGeneratorSpi());
+        contextClasses.put(InstrumentationType.METHOD_RETURN, ReturnToInstrumentInfo.class);
     }
 
     @SuppressWarnings("unchecked")
@@ -52,7 +66,7 @@ public class ExceptionTextGeneratorFactory {
                 generators.add(c -> snippet);
             }
             start = end + 2;
-            end = pattern.indexOf("}");
+            end = pattern.indexOf('}', start);
             if (end < 0) {
                 if (logger != null) {
                     logger.report(String.format(
@@ -142,13 +156,15 @@ public class ExceptionTextGeneratorFactory {
 
         String finalVarName = varName;
         Collections.reverse(functions);
-        return context -> {
-            String s = spi.getVariableValue(finalVarName, context);
-            for (Function<String, String> function : functions) {
-                s = function.apply(s);
-            }
-            return s;
-        };
+        Function<String, String> transformation = Function.identity();
+        for (Function<String, String> function : functions) {
+            transformation = transformation.andThen(function);
+        }
+        Function<String, String> finalTransformation = transformation;
+        if (functions.isEmpty()) {
+            return context -> spi.getVariableValue(finalVarName, context);
+        }
+        return context -> finalTransformation.apply(spi.getVariableValue(finalVarName, context));
     }
 
     @NotNull
@@ -6,15 +6,18 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
 
+/**
+ * <p>Generates exception text by concatenating results of the pre-compiled text segments.</p>
+ * <p>Thread-safe.</p>
+ */
 public class ExceptionTextGeneratorImpl<T> implements ExceptionTextGenerator<T> {
 
-    private final List<Function<T, String>> generators = new ArrayList<>();
-
-    @NotNull private final Class<T> contextClass;
+    @NotNull private final List<Function<T, String>> generators;
+    @NotNull private final Class<T>                  contextClass;
 
     public ExceptionTextGeneratorImpl(@NotNull Class<T> contextClass, @NotNull List<Function<T, String>> generators) {
         this.contextClass = contextClass;
-        this.generators.addAll(generators);
+        this.generators = new ArrayList<>(generators);
     }
 
     @SuppressWarnings("unchecked")
@@ -28,6 +31,9 @@ public class ExceptionTextGeneratorImpl<T> implements ExceptionTextGenerator<T>
             ));
         }
         T typedContext = (T) context;
+        if (generators.size() == 1) {
+            return generators.get(0).apply(typedContext);
+        }
         StringBuilder buffer = new StringBuilder();
         for (Function<T, String> generator : generators) {
             buffer.append(generator.apply(typedContext));
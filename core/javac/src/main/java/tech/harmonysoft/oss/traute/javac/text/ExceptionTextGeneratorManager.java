@@ -6,12 +6,21 @@ import tech.harmonysoft.oss.traute.common.settings.TrautePluginSettings;
 import tech.harmonysoft.oss.traute.javac.log.TrautePluginLogger;
 
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * <p>Provides {@link ExceptionTextGenerator exception text generators} for all instrumentation types.</p>
+ * <p>
+ *     Custom exception text patterns are {@link ExceptionTextGeneratorFactory compiled} only once - when
+ *     the manager is created. It's supposed that a single manager instance is shared by all compilation
+ *     units processed within the same compilation.
+ * </p>
+ * <p>Thread-safe.</p>
+ */
 public class ExceptionTextGeneratorManager {
 
     private static final Map<InstrumentationType, ExceptionTextGenerator<?>> DEFAULT_GENERATORS = new HashMap<>();
@@ -27,28 +36,27 @@ public class ExceptionTextGeneratorManager {
         }
     }
 
-    private final ConcurrentMap<InstrumentationType, ExceptionTextGenerator<?>> generators = new ConcurrentHashMap<>();
+    @NotNull private final Map<InstrumentationType, ExceptionTextGenerator<?>> generators;
 
-    private final ExceptionTextGeneratorFactory factory = new ExceptionTextGeneratorFactory();
-
-    @NotNull private final TrautePluginLogger logger;
-
-    public ExceptionTextGeneratorManager(@NotNull TrautePluginLogger logger) {
-        this.logger = logger;
+    public ExceptionTextGeneratorManager(@NotNull TrautePluginSettings settings,
+                                         @NotNull TrautePluginLogger logger)
+    {
+        ExceptionTextGeneratorFactory factory = new ExceptionTextGeneratorFactory();
+        Map<InstrumentationType, ExceptionTextGenerator<?>> generators = new EnumMap<>(InstrumentationType.class);
+        for (InstrumentationType type : InstrumentationType.values()) {
+            String pattern = settings.getExceptionTextPattern(type);
+            ExceptionTextGenerator<?> generator = null;
+            if (pattern != null) {
+                generator = factory.build(type, pattern, logger).orElse(null);
+            }
+            generators.put(type, generator == null ? DEFAULT_GENERATORS.get(type) : generator);
+        }
+        this.generators = unmodifiableMap(generators);
     }
 
     @SuppressWarnings("unchecked")
     @NotNull
-    public <T> ExceptionTextGenerator<T> getGenerator(@NotNull InstrumentationType type,
-                                                      @NotNull TrautePluginSettings settings)
-    {
-        return (ExceptionTextGenerator<T>) generators.computeIfAbsent(type, k -> {
-            String pattern = settings.getExceptionTextPattern(type);
-            if (pattern == null) {
-                return DEFAULT_GENERATORS.get(type);
-            }
-            Optional<ExceptionTextGenerator<?>> o = factory.build(type, pattern, logger);
-            return o.orElse(DEFAULT_GENERATORS.get(type));
-        });
+    public <T> ExceptionTextGenerator<T> getGenerator(@NotNull InstrumentationType type) {
+        return (ExceptionTextGenerator<T>) generators.get(type);
     }
 }
@@ -0,0 +1,41 @@
+package tech.harmonysoft.oss.traute.javac.text;
+
+import org.jetbrains.annotations.NotNull;
+import tech.harmonysoft.oss.traute.common.util.TrauteConstants;
+import tech.harmonysoft.oss.traute.javac.instrumentation.method.ReturnToInstrumentInfo;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+
+public class ReturnCheckExceptionTextGeneratorSpi implements ExceptionTextGeneratorSpi<ReturnToInstrumentInfo> {
+
+    private final Set<String> supportedVariables = new HashSet<>(asList(
+            TrauteConstants.VARIABLE_METHOD_NAME,
+            TrauteConstants.VARIABLE_RETURN_TYPE
+    ));
+
+    @NotNull
+    @Override
+    public Set<String> getSupportedVariables() {
+        return supportedVariables;
+    }
+
+    @NotNull
+    @Override
+    public String getVariableValue(@NotNull String variableName, @NotNull ReturnToInstrumentInfo context) {
+        switch (variableName) {
+            case TrauteConstants.VARIABLE_METHOD_NAME:
+                String methodName = context.getMethodName();
+                return methodName == null ? "" : methodName;
+            case TrauteConstants.VARIABLE_RETURN_TYPE:
+                return context.getReturnType().toString();
+            default:
+                throw new IllegalArgumentException(String.format(
+                        "Can't map variable with name '%s' to data from the %s. Make sure to use only supported "
+                        + "variables: %s", variableName, context.getClass().getName(), getSupportedVariables()
+                ));
+        }
+    }
+}
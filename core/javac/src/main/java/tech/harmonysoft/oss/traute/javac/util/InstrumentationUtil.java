@@ -4,16 +4,453 @@ import com.sun.tools.javac.code.TypeTag;
 import com.sun.tools.javac.tree.JCTree;
 import com.sun.tools.javac.tree.TreeMaker;
 import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.Name;
 import com.sun.tools.javac.util.Names;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType;
+import tech.harmonysoft.oss.traute.common.settings.CheckStyle;
+import tech.harmonysoft.oss.traute.common.settings.FailureMode;
+import tech.harmonysoft.oss.traute.common.settings.TrautePluginSettings;
+import tech.harmonysoft.oss.traute.javac.common.CompilationUnitProcessingContext;
+import tech.harmonysoft.oss.traute.javac.common.FailureMethodManager;
+import tech.harmonysoft.oss.traute.javac.instrumentation.InstrumentationInfo;
+import tech.harmonysoft.oss.traute.javac.instrumentation.parameter.ParameterToInstrumentInfo;
+
+import java.util.ArrayList;
 
 import static com.sun.tools.javac.util.List.nil;
 
 public class InstrumentationUtil {
 
+    private static final String NPE_QUALIFIED_NAME              = NullPointerException.class.getName();
+    private static final String COMBINED_CHECK_MESSAGE_VARIABLE = "traute$message";
+    private static final String RECORD_METHOD_NAME              =
+            "tech.harmonysoft.oss.traute.runtime.TrauteViolations.record";
+    private static final String EVENT_METHOD_NAME               =
+            "tech.harmonysoft.oss.traute.runtime.TrauteEvents.checkFailed";
+    private static final String RUNTIME_CHECK_METHOD_NAME       =
+            "tech.harmonysoft.oss.traute.runtime.TrauteNullChecks.checkNotNull";
+    private static final int    RETURN_EVENT_INDEX              = -1;
+
     private InstrumentationUtil() {
     }
 
+    /**
+     * @param settings  plugin settings
+     * @param type      target instrumentation type
+     * @return          {@code true} if checks of the given type should be generated as
+     *                  {@link java.util.Objects#requireNonNull(Object, String)} calls; {@code false} if another
+     *                  style is configured or the failure path needs to do something before the exception is
+     *                  thrown, e.g. {@link TrautePluginSettings#isFailureEvents() commit an event}
+     */
+    public static boolean isRequireNonNullStyle(@NotNull TrautePluginSettings settings,
+                                                @NotNull InstrumentationType type)
+    {
+        return isNpeCallStyle(settings, type, CheckStyle.REQUIRE_NON_NULL);
+    }
+
+    /**
+     * @param settings  plugin settings
+     * @param type      target instrumentation type
+     * @return          {@code true} if checks of the given type should be generated as
+     *                  {@code TrauteNullChecks.checkNotNull()} calls which can be removed by a shrinker;
+     *                  {@code false} if another style is configured or the failure path needs to do something
+     *                  before the exception is thrown
+     */
+    public static boolean isRuntimeStyle(@NotNull TrautePluginSettings settings,
+                                         @NotNull InstrumentationType type)
+    {
+        return isNpeCallStyle(settings, type, CheckStyle.RUNTIME);
+    }
+
+    private static boolean isNpeCallStyle(@NotNull TrautePluginSettings settings,
+                                          @NotNull InstrumentationType type,
+                                          @NotNull CheckStyle style)
+    {
+        if (settings.getCheckStyle() != style
+            || settings.getFailureMode() == FailureMode.RECORD
+            || settings.isFailureEvents())
+        {
+            return false;
+        }
+        String exceptionToThrow = settings.getExceptionToThrow(type);
+        return TrautePluginSettings.DEFAULT_EXCEPTION_TO_THROW.equals(exceptionToThrow)
+               || NPE_QUALIFIED_NAME.equals(exceptionToThrow);
+    }
+
+    /**
+     * @param context   current compilation unit processing context
+     * @return          {@code true} if checks in the current top-level class should take failure messages from
+     *                  a {@link TrautePluginSettings#isMessageTable() message table}
+     */
+    public static boolean isMessageTableAvailable(@NotNull CompilationUnitProcessingContext context) {
+        return context.getPluginSettings().isMessageTable()
+               && context.getFailureMethodManager().isFailureMethodAvailable();
+    }
+
+    /**
+     * Builds a {@code null}-check for the given variable in accordance with the
+     * {@link TrautePluginSettings#getCheckStyle() configured style},
+     * {@link TrautePluginSettings#isMessageTable() message table},
+     * {@link TrautePluginSettings#getCheckGuard() check guard},
+     * {@link TrautePluginSettings#getFailureMode() failure mode} and
+     * {@link TrautePluginSettings#isFailureEvents() failure events} settings.
+     *
+     * @param info          the checked element
+     * @param variableName  a variable name to use
+     * @param errorMessage  an error message to use
+     * @return              a statement which checks the given variable
+     */
+    @NotNull
+    public static JCTree.JCStatement buildVarCheck(@NotNull InstrumentationInfo info,
+                                                   @NotNull Name variableName,
+                                                   @NotNull String errorMessage)
+    {
+        CompilationUnitProcessingContext context = info.getContext();
+        InstrumentationType type = info.getType();
+        TreeMaker factory = context.getAstFactory();
+        Names symbolsTable = context.getSymbolsTable();
+        TrautePluginSettings settings = context.getPluginSettings();
+        FailureMethodManager failureMethodManager = context.getFailureMethodManager();
+        if (settings.getFailureMode() == FailureMode.RECORD) {
+            return mayBeGuard(context, mayBeAddFailureEvent(info, factory.If(
+                    factory.Parens(buildNullComparison(factory, variableName)),
+                    factory.Block(0, List.of(buildRecord(info, factory.Literal(TypeTag.CLASS, errorMessage)))),
+                    null
+            )));
+        }
+        if (settings.isMessageTable() || settings.getCheckStyle() == CheckStyle.OUT_OF_LINE) {
+            JCTree.JCExpression failureMethod = failureMethodManager.getFailureMethod(type);
+            if (failureMethod != null) {
+                return mayBeGuard(context, mayBeAddFailureEvent(info, buildOutOfLineVarCheck(
+                        factory,
+                        variableName,
+                        failureMethodManager.getFailureMethodArgument(errorMessage),
+                        failureMethod
+                )));
+            }
+        }
+        if (isRequireNonNullStyle(settings, type)) {
+            return mayBeGuard(context, factory.Exec(buildRequireNonNull(factory,
+                                                                        symbolsTable,
+                                                                        factory.Ident(variableName),
+                                                                        errorMessage)));
+        }
+        if (isRuntimeStyle(settings, type)) {
+            return mayBeGuard(context, factory.Exec(factory.Apply(
+                    nil(),
+                    buildExceptionClassExpression(RUNTIME_CHECK_METHOD_NAME, factory, symbolsTable),
+                    List.of(factory.Ident(variableName), factory.Literal(TypeTag.CLASS, errorMessage))
+            )));
+        }
+        String exceptionToThrow = settings.getExceptionToThrow(type);
+        return mayBeGuard(context, mayBeAddFailureEvent(
+                info, buildVarCheck(factory, symbolsTable, variableName, errorMessage, exceptionToThrow)
+        ));
+    }
+
+    /**
+     * Adds a {@link #buildFailureEvent(InstrumentationInfo) failure event} to the beginning of the given
+     * check's failure block if {@link TrautePluginSettings#isFailureEvents() failure events} are on.
+     *
+     * @param info      the checked element
+     * @param check     a check which {@code 'then'} part is a block
+     * @return          the given check
+     */
+    @NotNull
+    private static JCTree.JCIf mayBeAddFailureEvent(@NotNull InstrumentationInfo info, @NotNull JCTree.JCIf check) {
+        if (info.getContext().getPluginSettings().isFailureEvents()) {
+            JCTree.JCBlock failure = (JCTree.JCBlock) check.thenpart;
+            failure.stats = failure.stats.prepend(buildFailureEvent(info));
+        }
+        return check;
+    }
+
+    /**
+     * Wraps the given check into {@code if ([guard]) { [check] }} if checks in the current top-level class are
+     * {@link TrautePluginSettings#getCheckGuard() guarded}.
+     *
+     * @param context   current compilation unit processing context
+     * @param check     a check to guard
+     * @return          a guarded check if the guard is configured; the given check otherwise
+     */
+    @NotNull
+    private static JCTree.JCStatement mayBeGuard(@NotNull CompilationUnitProcessingContext context,
+                                                 @NotNull JCTree.JCStatement check)
+    {
+        JCTree.JCExpression guard = context.getCheckGuardManager().getGuard();
+        if (guard == null) {
+            return check;
+        }
+        TreeMaker factory = context.getAstFactory();
+        return factory.If(factory.Parens(guard), factory.Block(0, List.of(check)), null);
+    }
+
+    /**
+     * Builds a single {@code null}-check for several variables which looks as below:
+     * <pre>
+     *     if (a == null || b == null || c == null) {
+     *         traute$fail$parameter$3(a, b, c, [message-a], [message-b], [message-c]);
+     *     }
+     * </pre>
+     * <p>
+     *     The {@link FailureMethodManager#getCombinedFailureMethod(int) failure method} selects the message of
+     *     the first {@code null} variable, i.e. the check costs a load and a jump per variable and a single call.
+     *     If the current class can't hold failure methods, the message is selected in place:
+     * </p>
+     * <pre>
+     *     if (a == null || b == null || c == null) {
+     *         String traute$message = a == null ? [message-a] : b == null ? [message-b] : [message-c];
+     *         throw new [exception](traute$message);
+     *     }
+     * </pre>
+     * <p>
+     *     Failures which are {@link FailureMode#RECORD recorded} and
+     *     {@link TrautePluginSettings#isFailureEvents() failure events} are reported per parameter, so that every
+     *     parameter keeps its own check site - the failure path starts with
+     *     {@code if (a == null) { [event-a] [record-a] } else if (b == null) { ... } else { ... }} then.
+     * </p>
+     *
+     * @param infos         the checked parameters
+     * @param variableNames names of the variables to check, one per parameter
+     * @param errorMessages error messages to use, one per parameter
+     * @return              a statement which checks the given variables
+     */
+    @NotNull
+    public static JCTree.JCStatement buildCombinedVarCheck(@NotNull java.util.List<ParameterToInstrumentInfo> infos,
+                                                           @NotNull java.util.List<Name> variableNames,
+                                                           @NotNull java.util.List<String> errorMessages)
+    {
+        if (variableNames.isEmpty()
+            || variableNames.size() != errorMessages.size()
+            || variableNames.size() != infos.size())
+        {
+            throw new IllegalArgumentException(String.format(
+                    "Expected to get the same non-zero number of parameters, variables and messages but got "
+                    + "%d, %s and %s", infos.size(), variableNames, errorMessages
+            ));
+        }
+        CompilationUnitProcessingContext context = infos.get(0).getContext();
+        InstrumentationType type = infos.get(0).getType();
+        TreeMaker factory = context.getAstFactory();
+        Names symbolsTable = context.getSymbolsTable();
+        TrautePluginSettings settings = context.getPluginSettings();
+        FailureMethodManager failureMethodManager = context.getFailureMethodManager();
+        boolean record = settings.getFailureMode() == FailureMode.RECORD;
+        JCTree.JCExpression failureMethod = null;
+        if (!record) {
+            failureMethod = failureMethodManager.getCombinedFailureMethod(variableNames.size());
+        }
+
+        JCTree.JCExpression condition = null;
+        for (int i = variableNames.size() - 1; i >= 0; i--) {
+            Name variableName = variableNames.get(i);
+            condition = condition == null
+                        ? buildNullComparison(factory, variableName)
+                        : factory.Binary(JCTree.Tag.OR, buildNullComparison(factory, variableName), condition);
+        }
+
+        List<JCTree.JCStatement> failure = nil();
+        if (failureMethod != null) {
+            List<JCTree.JCExpression> values = nil();
+            List<JCTree.JCExpression> messages = nil();
+            for (int i = variableNames.size() - 1; i >= 0; i--) {
+                values = values.prepend(factory.Ident(variableNames.get(i)));
+                messages = messages.prepend(failureMethodManager.getFailureMethodArgument(errorMessages.get(i)));
+            }
+            failure = List.of(factory.Exec(factory.Apply(nil(), failureMethod, values.appendList(messages))));
+        } else if (!record) {
+            failure = buildCombinedFailure(context, type, variableNames, errorMessages);
+        }
+        if (record || settings.isFailureEvents()) {
+            failure = failure.prepend(buildPerParameterFailure(infos, variableNames, errorMessages, record));
+        }
+        return mayBeGuard(context, factory.If(factory.Parens(condition), factory.Block(0, failure), null));
+    }
+
+    /**
+     * Builds a part of a {@link #buildCombinedVarCheck(java.util.List, java.util.List, java.util.List)
+     * combined check's} failure path which reports the first {@code null} variable with the check site of
+     * its own parameter:
+     * <pre>
+     *     if (a == null) {
+     *         [event-a]
+     *         [record-a]
+     *     } else if (b == null) {
+     *         ...
+     *     } else {
+     *         ...
+     *     }
+     * </pre>
+     *
+     * @param infos         the checked parameters
+     * @param variableNames names of the checked variables, one per parameter
+     * @param errorMessages error messages to use, one per parameter
+     * @param record        {@code true} if the failure should be {@link FailureMode#RECORD recorded}
+     * @return              a statement to execute when one of the variables is {@code null}
+     */
+    @NotNull
+    private static JCTree.JCStatement buildPerParameterFailure(@NotNull java.util.List<ParameterToInstrumentInfo> infos,
+                                                               @NotNull java.util.List<Name> variableNames,
+                                                               @NotNull java.util.List<String> errorMessages,
+                                                               boolean record)
+    {
+        CompilationUnitProcessingContext context = infos.get(0).getContext();
+        TreeMaker factory = context.getAstFactory();
+        boolean events = context.getPluginSettings().isFailureEvents();
+        JCTree.JCStatement result = null;
+        for (int i = infos.size() - 1; i >= 0; i--) {
+            List<JCTree.JCStatement> statements = nil();
+            if (record) {
+                statements = statements.prepend(buildRecord(infos.get(i),
+                                                            factory.Literal(TypeTag.CLASS, errorMessages.get(i))));
+            }
+            if (events) {
+                statements = statements.prepend(buildFailureEvent(infos.get(i)));
+            }
+            JCTree.JCStatement branch = factory.Block(0, statements);
+            result = result == null
+                     ? branch
+                     : factory.If(factory.Parens(buildNullComparison(factory, variableNames.get(i))), branch, result);
+        }
+        return result;
+    }
+
+    /**
+     * Builds a failure path of a {@link #buildCombinedVarCheck(java.util.List, java.util.List, java.util.List)
+     * combined check} which selects the message in place.
+     *
+     * @param context       current compilation unit processing context
+     * @param type          instrumentation type of the check
+     * @param variableNames names of the checked variables
+     * @param errorMessages error messages to use, one per variable
+     * @return              statements to execute when one of the variables is {@code null}
+     */
+    @NotNull
+    private static List<JCTree.JCStatement> buildCombinedFailure(@NotNull CompilationUnitProcessingContext context,
+                                                                 @NotNull InstrumentationType type,
+                                                                 @NotNull java.util.List<Name> variableNames,
+                                                                 @NotNull java.util.List<String> errorMessages)
+    {
+        TreeMaker factory = context.getAstFactory();
+        Names symbolsTable = context.getSymbolsTable();
+        JCTree.JCExpression failureArgument = null;
+        for (int i = variableNames.size() - 1; i >= 0; i--) {
+            JCTree.JCExpression argument = factory.Literal(TypeTag.CLASS, errorMessages.get(i));
+            failureArgument = failureArgument == null
+                              ? argument
+                              : factory.Conditional(buildNullComparison(factory, variableNames.get(i)),
+                                                    argument,
+                                                    failureArgument);
+        }
+        // The message is selected before the exception object is created - branches taken while
+        // the uninitialized exception is on the operand stack need big stack map frames
+        Name message = symbolsTable.fromString(COMBINED_CHECK_MESSAGE_VARIABLE);
+        return List.of(
+                factory.VarDef(factory.Modifiers(0),
+                               message,
+                               buildExceptionClassExpression("java.lang.String", factory, symbolsTable),
+                               failureArgument),
+                factory.Throw(factory.NewClass(
+                        null,
+                        nil(),
+                        buildExceptionClassExpression(context.getPluginSettings().getExceptionToThrow(type),
+                                                      factory,
+                                                      symbolsTable),
+                        List.of(factory.Ident(message)),
+                        null
+                ))
+        );
+    }
+
+    /**
+     * Builds a statement which reports a failed check to the violations registry of the {@code traute-runtime}
+     * library in the {@link FailureMode#RECORD record mode}:
+     * <pre>
+     *     tech.harmonysoft.oss.traute.runtime.TrauteViolations.record([check-site], [given-message]);
+     * </pre>
+     *
+     * @param info      the checked element
+     * @param message   an error message expression
+     * @return          a statement which records a failed check
+     */
+    @NotNull
+    private static JCTree.JCStatement buildRecord(@NotNull InstrumentationInfo info,
+                                                  @NotNull JCTree.JCExpression message)
+    {
+        CompilationUnitProcessingContext context = info.getContext();
+        TreeMaker factory = context.getAstFactory();
+        return factory.Exec(factory.Apply(
+                nil(),
+                buildExceptionClassExpression(RECORD_METHOD_NAME, factory, context.getSymbolsTable()),
+                List.of(factory.Literal(TypeTag.CLASS, getCheckSite(info)), message)
+        ));
+    }
+
+    /**
+     * Builds a statement which commits a {@code JFR} event through the {@code traute-runtime} library when
+     * {@link TrautePluginSettings#isFailureEvents() failure events} are on:
+     * <pre>
+     *     tech.harmonysoft.oss.traute.runtime.TrauteEvents.checkFailed(
+     *         [check-site], [qualified-method-name], [parameter-index], [parameter-name], [annotation]
+     *     );
+     * </pre>
+     * <p>{@code return} checks use {@code -1} as a parameter index and {@code null} as a parameter name.</p>
+     *
+     * @param info  the checked element
+     * @return      a statement which reports a failed check of the given element
+     */
+    @NotNull
+    private static JCTree.JCStatement buildFailureEvent(@NotNull InstrumentationInfo info) {
+        CompilationUnitProcessingContext context = info.getContext();
+        TreeMaker factory = context.getAstFactory();
+        int parameterIndex = RETURN_EVENT_INDEX;
+        String parameterName = null;
+        if (info instanceof ParameterToInstrumentInfo) {
+            ParameterToInstrumentInfo parameterInfo = (ParameterToInstrumentInfo) info;
+            parameterIndex = parameterInfo.getMethodParameterIndex();
+            parameterName = parameterInfo.getMethodParameter().getName().toString();
+        }
+        String annotation = info.getNotNullAnnotation();
+        if (annotation == null) {
+            annotation = info.getNotNullByDefaultAnnotationDescription();
+        }
+        return factory.Exec(factory.Apply(
+                nil(),
+                buildExceptionClassExpression(EVENT_METHOD_NAME, factory, context.getSymbolsTable()),
+                List.of(factory.Literal(TypeTag.CLASS, getCheckSite(info)),
+                        buildStringLiteral(factory, info.getQualifiedMethodName()),
+                        factory.Literal(TypeTag.INT, parameterIndex),
+                        buildStringLiteral(factory, parameterName),
+                        buildStringLiteral(factory, annotation))
+        ));
+    }
+
+    /**
+     * @param info  the checked element
+     * @return      {@link CompilationUnitProcessingContext#getCheckSite() check site} of the given element,
+     *              parameters use their own positions as a combined check is built once for all of them
+     */
+    @NotNull
+    private static String getCheckSite(@NotNull InstrumentationInfo info) {
+        CompilationUnitProcessingContext context = info.getContext();
+        if (info instanceof ParameterToInstrumentInfo) {
+            return context.getCheckSite(((ParameterToInstrumentInfo) info).getMethodParameter());
+        }
+        return context.getCheckSite();
+    }
+
+    @NotNull
+    private static JCTree.JCExpression buildStringLiteral(@NotNull TreeMaker factory, @Nullable String value) {
+        return value == null ? factory.Literal(TypeTag.BOT, null) : factory.Literal(TypeTag.CLASS, value);
+    }
+
+    @NotNull
+    private static JCTree.JCExpression buildNullComparison(@NotNull TreeMaker factory, @NotNull Name variableName) {
+        return factory.Binary(JCTree.Tag.EQ, factory.Ident(variableName), factory.Literal(TypeTag.BOT, null));
+    }
+
     /**
      * Builds an {@code AST 'if'} element which looks as below:
      * <pre>
@@ -35,14 +472,33 @@ public class InstrumentationUtil {
                                             @NotNull String variableName,
                                             @NotNull String errorMessage,
                                             @NotNull String exceptionToThrow)
+    {
+        return buildVarCheck(factory, symbolsTable, symbolsTable.fromString(variableName), errorMessage, exceptionToThrow);
+    }
+
+    /**
+     * Same as {@link #buildVarCheck(TreeMaker, Names, String, String, String)} but works with a variable name
+     * from the given symbols table.
+     *
+     * @param factory           an {@code AST} factory to use
+     * @param symbolsTable      a symbols table to use
+     * @param variableName      a variable name to use
+     * @param errorMessage      an error message to use
+     * @param exceptionToThrow  an exception to throw in case of failed check
+     * @return                  an {@code AST 'if'} for the parameters above
+     */
+    @NotNull
+    public static JCTree.JCIf buildVarCheck(@NotNull TreeMaker factory,
+                                            @NotNull Names symbolsTable,
+                                            @NotNull Name variableName,
+                                            @NotNull String errorMessage,
+                                            @NotNull String exceptionToThrow)
     {
         return factory.If(
                 factory.Parens(
                         factory.Binary(
                                 JCTree.Tag.EQ,
-                                factory.Ident(
-                                        symbolsTable.fromString(variableName)
-                                ),
+                                factory.Ident(variableName),
                                 factory.Literal(TypeTag.BOT, null))
                 ),
                 factory.Block(0, List.of(
@@ -60,6 +516,67 @@ public class InstrumentationUtil {
         );
     }
 
+    /**
+     * Builds an {@code AST 'if'} element which looks as below:
+     * <pre>
+     *     if ([given-variable-name] == null) {
+     *         [given-failure-method]([given-failure-argument]);
+     *     }
+     * </pre>
+     *
+     * @param factory           an {@code AST} factory to use
+     * @param variableName      a variable name to use
+     * @param failureArgument   an error message or its id in a message table
+     * @param failureMethod     a static method which throws an exception for the given argument
+     * @return                  an {@code AST 'if'} for the parameters above
+     */
+    @NotNull
+    public static JCTree.JCIf buildOutOfLineVarCheck(@NotNull TreeMaker factory,
+                                                     @NotNull Name variableName,
+                                                     @NotNull JCTree.JCExpression failureArgument,
+                                                     @NotNull JCTree.JCExpression failureMethod)
+    {
+        return factory.If(
+                factory.Parens(
+                        factory.Binary(
+                                JCTree.Tag.EQ,
+                                factory.Ident(variableName),
+                                factory.Literal(TypeTag.BOT, null))
+                ),
+                factory.Block(0, List.of(
+                        factory.Exec(
+                                factory.Apply(nil(),
+                                              failureMethod,
+                                              List.of(failureArgument))
+                        )
+                )),
+                null
+        );
+    }
+
+    /**
+     * Builds an {@code AST} element which looks as below:
+     * <pre>
+     *     java.util.Objects.requireNonNull([given-expression], [given-error-message])
+     * </pre>
+     *
+     * @param factory       an {@code AST} factory to use
+     * @param symbolsTable  a symbols table to use
+     * @param expression    an expression to check
+     * @param errorMessage  an error message to use
+     * @return              an {@code AST} method call for the parameters above
+     */
+    @NotNull
+    public static JCTree.JCMethodInvocation buildRequireNonNull(@NotNull TreeMaker factory,
+                                                                @NotNull Names symbolsTable,
+                                                                @NotNull JCTree.JCExpression expression,
+                                                                @NotNull String errorMessage)
+    {
+        return factory.Apply(nil(),
+                             buildExceptionClassExpression("java.util.Objects.requireNonNull", factory, symbolsTable),
+                             List.of(expression, factory.Literal(TypeTag.CLASS, errorMessage)));
+    }
+
     @NotNull
     public static JCTree.JCExpression buildExceptionClassExpression(@NotNull String exceptionClass,
                                                                     @NotNull TreeMaker factory,
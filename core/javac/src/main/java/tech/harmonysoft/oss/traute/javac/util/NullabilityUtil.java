@@ -0,0 +1,79 @@
+package tech.harmonysoft.oss.traute.javac.util;
+
+import com.sun.source.tree.Tree;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.util.Name;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Predicate;
+
+/**
+ * Holds utility methods for reasoning about {@code null} values in {@code AST} before it's attributed,
+ * i.e. only syntactic information is available.
+ */
+public class NullabilityUtil {
+
+    private NullabilityUtil() {
+    }
+
+    /**
+     * <p>
+     *     Checks if given expression can't evaluate to {@code null}. The check is conservative, i.e. {@code false}
+     *     is returned for everything which is not evident from the expression itself. Following expressions are
+     *     considered to be non-{@code null}:
+     * </p>
+     * <ul>
+     *   <li>non-{@code null} literals - they're either strings or primitives which are boxed when necessary;</li>
+     *   <li>{@code new} expressions (both objects and arrays), lambdas and method references;</li>
+     *   <li>{@code this}, {@code Outer.this} and class literals;</li>
+     *   <li>
+     *       unary and binary operations and compound assignments - their results are either primitives
+     *       or strings;
+     *   </li>
+     *   <li>variables accepted by the given predicate;</li>
+     *   <li>parenthesized expressions, casts, assignments and conditionals built from the expressions above.</li>
+     * </ul>
+     *
+     * @param expression        an expression to check
+     * @param notNullVariable   a predicate which tells if a variable with the given name is known to be
+     *                          non-{@code null} at the expression's location
+     * @return                  {@code true} if given expression can't evaluate to {@code null}
+     */
+    public static boolean isProvablyNotNull(@NotNull JCTree.JCExpression expression,
+                                            @NotNull Predicate<Name> notNullVariable)
+    {
+        if (expression instanceof JCTree.JCParens) {
+            return isProvablyNotNull(((JCTree.JCParens) expression).expr, notNullVariable);
+        }
+        if (expression instanceof JCTree.JCTypeCast) {
+            return isProvablyNotNull(((JCTree.JCTypeCast) expression).expr, notNullVariable);
+        }
+        if (expression instanceof JCTree.JCAssign) {
+            return isProvablyNotNull(((JCTree.JCAssign) expression).rhs, notNullVariable);
+        }
+        if (expression instanceof JCTree.JCConditional) {
+            JCTree.JCConditional conditional = (JCTree.JCConditional) expression;
+            return isProvablyNotNull(conditional.truepart, notNullVariable)
+                   && isProvablyNotNull(conditional.falsepart, notNullVariable);
+        }
+        if (expression instanceof JCTree.JCLiteral) {
+            return expression.getKind() != Tree.Kind.NULL_LITERAL;
+        }
+        if (expression instanceof JCTree.JCIdent) {
+            Name name = ((JCTree.JCIdent) expression).name;
+            return name.contentEquals("this") || notNullVariable.test(name);
+        }
+        if (expression instanceof JCTree.JCFieldAccess) {
+            Name name = ((JCTree.JCFieldAccess) expression).name;
+            return name.contentEquals("this") || name.contentEquals("class");
+        }
+        return expression instanceof JCTree.JCNewClass
+               || expression instanceof JCTree.JCNewArray
+               || expression instanceof JCTree.JCLambda
+               || expression instanceof JCTree.JCMemberReference
+               || expression instanceof JCTree.JCBinary
+               || expression instanceof JCTree.JCUnary
+               || expression instanceof JCTree.JCAssignOp
+               || expression instanceof JCTree.JCInstanceOf;
+    }
+}
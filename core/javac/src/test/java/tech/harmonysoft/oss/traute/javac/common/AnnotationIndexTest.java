@@ -0,0 +1,169 @@
+package tech.harmonysoft.oss.traute.javac.common;
+
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.util.JavacTask;
+import com.sun.tools.javac.api.BasicJavacTask;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static tech.harmonysoft.oss.traute.common.settings.TrautePluginSettingsBuilder.settingsBuilder;
+
+class AnnotationIndexTest {
+
+    private Names               names;
+    private CompilationUnitTree compilationUnit;
+
+    @Test
+    public void qualifiedName() {
+        AnnotationIndex index = buildIndex("package my.app;");
+        assertEquals("org.jetbrains.annotations.NotNull", resolve(index, "org.jetbrains.annotations.NotNull"));
+        assertNull(resolve(index, "org.jetbrains.annotations.Contract"));
+    }
+
+    @Test
+    public void singleTypeImport() {
+        AnnotationIndex index = buildIndex("package my.app; import java.util.List; "
+                                           + "import org.jetbrains.annotations.NotNull;");
+        assertEquals("org.jetbrains.annotations.NotNull", resolve(index, "NotNull"));
+    }
+
+    @Test
+    public void wildcardImport() {
+        AnnotationIndex index = buildIndex("package my.app; import java.util.*; import javax.validation.constraints.*;");
+        assertEquals("javax.validation.constraints.NotNull", resolve(index, "NotNull"));
+    }
+
+    @Test
+    public void staticImportIsIgnored() {
+        AnnotationIndex index = buildIndex("package my.app; import static org.jetbrains.annotations.NotNull;");
+        assertNull(resolve(index, "NotNull"));
+    }
+
+    @Test
+    public void samePackage() {
+        AnnotationIndex index = buildIndex("package my.company;");
+        assertEquals("my.company.NotNull", resolve(index, "NotNull"));
+    }
+
+    @Test
+    public void defaultPackage() {
+        AnnotationIndex index = buildIndex("import org.jetbrains.annotations.*;");
+        assertEquals("org.jetbrains.annotations.NotNull", resolve(index, "NotNull"));
+    }
+
+    @Test
+    public void samePackageShadowsWildcardImport() {
+        AnnotationIndex index = buildIndex("package my.company; import org.jetbrains.annotations.*;");
+        assertEquals("my.company.NotNull", resolve(index, "NotNull"));
+    }
+
+    @Test
+    public void singleTypeImportShadowsSamePackage() {
+        AnnotationIndex index = buildIndex("package my.company; import org.jetbrains.annotations.NotNull;");
+        assertEquals("org.jetbrains.annotations.NotNull", resolve(index, "NotNull"));
+    }
+
+    @Test
+    public void unknownSingleTypeImportShadowsWildcardImport() {
+        AnnotationIndex index = buildIndex("package my.app; import org.jetbrains.annotations.*; import other.NotNull;");
+        assertNull(resolve(index, "NotNull"));
+    }
+
+    @Test
+    public void unknownSimpleName() {
+        AnnotationIndex index = buildIndex("package my.app; import org.jetbrains.annotations.NotNull;");
+        assertNull(resolve(index, "Nonnull"));
+    }
+
+    @Test
+    public void nestedAnnotationFromSamePackage() {
+        AnnotationIndex index = buildIndex("package my.company;");
+        assertEquals("my.company.Outer.NotNull", resolve(index, "Outer.NotNull"));
+    }
+
+    @Test
+    public void nestedAnnotationFromSamePackageInTree() {
+        AnnotationIndex index = buildIndex("package my.company;");
+        JCTree.JCClassDecl testClass = (JCTree.JCClassDecl) compilationUnit.getTypeDecls().get(0);
+        JCTree.JCMethodDecl method = (JCTree.JCMethodDecl) testClass.getMembers().get(0);
+        JCTree annotationType = method.getParameters().get(0).getModifiers().getAnnotations().get(0).annotationType;
+        Name result = index.resolve(annotationType);
+        assertEquals("my.company.Outer.NotNull", result == null ? null : result.toString());
+    }
+
+    @Test
+    public void nestedAnnotationFromImportedClass() {
+        AnnotationIndex index = buildIndex("package my.app; import my.company.Outer;");
+        assertEquals("my.company.Outer.NotNull", resolve(index, "Outer.NotNull"));
+    }
+
+    @Test
+    public void nestedAnnotationFromWildcardImport() {
+        AnnotationIndex index = buildIndex("package my.app; import my.company.*;");
+        assertEquals("my.company.Outer.NotNull", resolve(index, "Outer.NotNull"));
+    }
+
+    @Test
+    public void nestedAnnotationFromUnknownClass() {
+        AnnotationIndex index = buildIndex("package my.app; import other.Outer;");
+        assertNull(resolve(index, "Outer.NotNull"));
+    }
+
+    @NotNull
+    private AnnotationIndex buildIndex(@NotNull String header) {
+        compilationUnit = parse(header + " class Test { void test(@Outer.NotNull String s) {} }");
+        KnownAnnotations knownAnnotations = new KnownAnnotations(
+                settingsBuilder().withNotNullAnnotations("org.jetbrains.annotations.NotNull",
+                                                         "javax.validation.constraints.NotNull",
+                                                         "my.company.NotNull",
+                                                         "my.company.Outer.NotNull")
+                                 .build(),
+                names
+        );
+        JCTree packageName = (JCTree) compilationUnit.getPackageName();
+        return new AnnotationIndex(knownAnnotations,
+                                   names,
+                                   packageName == null ? null : TreeInfo.fullName(packageName),
+                                   compilationUnit.getImports());
+    }
+
+    @NotNull
+    private CompilationUnitTree parse(@NotNull String text) {
+        JavaFileObject source = new SimpleJavaFileObject(URI.create("string:///Test.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return text;
+            }
+        };
+        JavacTask task = (JavacTask) ToolProvider.getSystemJavaCompiler().getTask(
+                null, null, null, null, null, singletonList(source)
+        );
+        try {
+            CompilationUnitTree result = task.parse().iterator().next();
+            names = Names.instance(((BasicJavacTask) task).getContext());
+            return result;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Nullable
+    private String resolve(@NotNull AnnotationIndex index, @NotNull String annotation) {
+        Name result = index.resolve(names.fromString(annotation));
+        return result == null ? null : result.toString();
+    }
+}
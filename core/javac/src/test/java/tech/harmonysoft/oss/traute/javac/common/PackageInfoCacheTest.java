@@ -0,0 +1,131 @@
+package tech.harmonysoft.oss.traute.javac.common;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.harmonysoft.oss.traute.javac.log.TrautePluginLogger;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class PackageInfoCacheTest {
+
+    private static final String PACKAGE            = "tech.harmonysoft.oss.traute.test.fixture";
+    private static final String PACKAGE_INFO_ENTRY = PACKAGE.replace('.', '/') + "/package-info.class";
+    private static final String ANNOTATION         = "javax.annotation.ParametersAreNonnullByDefault";
+
+    private File rootDir;
+    private File cacheDir;
+    private File jar;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        rootDir = Files.createTempDirectory("traute-cache").toFile();
+        cacheDir = new File(rootDir, "cache");
+        jar = new File(rootDir, "lib.jar");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        delete(rootDir);
+    }
+
+    @Test
+    public void packageInfoInJar() throws IOException {
+        writeJar(jar, singletonMap(PACKAGE_INFO_ENTRY, getPackageInfoClass()));
+        assertEquals(singleton(ANNOTATION), newCache(jar).getPackageAnnotations(PACKAGE));
+        File[] indices = cacheDir.listFiles();
+        assertNotNull(indices);
+        assertEquals(1, indices.length);
+    }
+
+    @Test
+    public void noPackageInfo() throws IOException {
+        writeJar(jar, singletonMap("my/app/Service.class", new byte[] { 1, 2, 3 }));
+        assertEquals(Collections.emptySet(), newCache(jar).getPackageAnnotations("my.app"));
+    }
+
+    @Test
+    public void storedIndexIsReused() throws IOException {
+        writeJar(jar, singletonMap(PACKAGE_INFO_ENTRY, getPackageInfoClass()));
+        long lastModified = jar.lastModified();
+        newCache(jar).getPackageAnnotations(PACKAGE);
+
+        // Corrupt the jar but keep its size and modification time, the stored index is expected to be used
+        Files.write(jar.toPath(), new byte[(int) jar.length()]);
+        assertTrue(jar.setLastModified(lastModified));
+        assertEquals(singleton(ANNOTATION), newCache(jar).getPackageAnnotations(PACKAGE));
+    }
+
+    @Test
+    public void staleIndexIsRebuilt() throws IOException {
+        writeJar(jar, singletonMap(PACKAGE_INFO_ENTRY, getPackageInfoClass()));
+        long lastModified = jar.lastModified();
+        newCache(jar).getPackageAnnotations(PACKAGE);
+
+        writeJar(jar, singletonMap(PACKAGE.replace('.', '/') + "/Service.class", new byte[] { 1, 2, 3 }));
+        assertTrue(jar.setLastModified(lastModified + 2000));
+        assertEquals(Collections.emptySet(), newCache(jar).getPackageAnnotations(PACKAGE));
+    }
+
+    @Test
+    public void packageInfoInDirectoryIsNotCached() throws IOException {
+        File classesDir = new File(rootDir, "classes");
+        File packageInfo = new File(classesDir, PACKAGE_INFO_ENTRY);
+        assertTrue(packageInfo.getParentFile().mkdirs());
+        Files.write(packageInfo.toPath(), getPackageInfoClass());
+        assertNull(newCache(classesDir).getPackageAnnotations(PACKAGE));
+    }
+
+    @NotNull
+    private PackageInfoCache newCache(@NotNull File classPathEntry) {
+        return new PackageInfoCache(cacheDir, singletonList(classPathEntry), emptyList(), mock(TrautePluginLogger.class));
+    }
+
+    @NotNull
+    private static byte[] getPackageInfoClass() throws IOException {
+        try (InputStream in = PackageInfoCacheTest.class.getResourceAsStream("/" + PACKAGE_INFO_ENTRY)) {
+            assertNotNull(in);
+            ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                bOut.write(buffer, 0, read);
+            }
+            return bOut.toByteArray();
+        }
+    }
+
+    private static void writeJar(@NotNull File jar, @NotNull Map<String, byte[]> entries) throws IOException {
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                out.putNextEntry(new ZipEntry(entry.getKey()));
+                out.write(entry.getValue());
+                out.closeEntry();
+            }
+        }
+    }
+
+    private static void delete(@NotNull File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+}
@@ -104,6 +104,49 @@ public class JavacTestCompiler implements TestCompiler {
                 String.format("-A%s=%s", TrauteConstants.OPTION_LOG_FILE, file.getAbsolutePath())
         ));
 
+        if (settings.getLogFormat() != DEFAULT_LOG_FORMAT) {
+            result.add(String.format("-A%s=%s",
+                                     TrauteConstants.OPTION_LOG_FORMAT,
+                                     settings.getLogFormat().getOptionValue()));
+        }
+
+        if (settings.getCheckStyle() != DEFAULT_CHECK_STYLE) {
+            result.add(String.format("-A%s=%s",
+                                     TrauteConstants.OPTION_CHECK_STYLE,
+                                     settings.getCheckStyle().getOptionValue()));
+        }
+
+        if (settings.getCheckGuard() != DEFAULT_CHECK_GUARD) {
+            result.add(String.format("-A%s=%s",
+                                     TrauteConstants.OPTION_CHECK_GUARD,
+                                     settings.getCheckGuard().getOptionValue()));
+        }
+
+        if (settings.getFailureMode() != DEFAULT_FAILURE_MODE) {
+            result.add(String.format("-A%s=%s",
+                                     TrauteConstants.OPTION_FAILURE_MODE,
+                                     settings.getFailureMode().getOptionValue()));
+        }
+
+        if (settings.isFailureEvents()) {
+            result.add(String.format("-A%s=true", TrauteConstants.OPTION_FAILURE_EVENTS));
+        }
+
+        if (settings.isMessageTable()) {
+            result.add(String.format("-A%s=true", TrauteConstants.OPTION_MESSAGE_TABLE));
+        }
+
+        if (settings.isCombineParameterChecks()) {
+            result.add(String.format("-A%s=true", TrauteConstants.OPTION_COMBINE_PARAMETER_CHECKS));
+        }
+        if (settings.isElideDelegatedChecks()) {
+            result.add(String.format("-A%s=true", TrauteConstants.OPTION_ELIDE_DELEGATED_CHECKS));
+        }
+
+        settings.getCacheDir().ifPresent(dir -> result.add(
+                String.format("-A%s=%s", TrauteConstants.OPTION_CACHE_DIR, dir.getAbsolutePath())
+        ));
+
         for (InstrumentationType instrumentationType : instrumentationTypes) {
             String exceptionToThrow = settings.getExceptionToThrow(instrumentationType);
             if (!TrautePluginSettings.DEFAULT_EXCEPTION_TO_THROW.equals(exceptionToThrow)) {
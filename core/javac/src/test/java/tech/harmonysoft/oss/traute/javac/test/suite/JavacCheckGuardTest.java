@@ -0,0 +1,9 @@
+package tech.harmonysoft.oss.traute.javac.test.suite;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import tech.harmonysoft.oss.traute.javac.test.impl.TrauteJavacExtension;
+import tech.harmonysoft.oss.traute.test.suite.CheckGuardTest;
+
+@ExtendWith(TrauteJavacExtension.class)
+public class JavacCheckGuardTest extends CheckGuardTest {
+}
@@ -0,0 +1,9 @@
+package tech.harmonysoft.oss.traute.javac.test.suite;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import tech.harmonysoft.oss.traute.javac.test.impl.TrauteJavacExtension;
+import tech.harmonysoft.oss.traute.test.suite.ReturnCheckElisionTest;
+
+@ExtendWith(TrauteJavacExtension.class)
+public class JavacReturnCheckElisionTest extends ReturnCheckElisionTest {
+}
@@ -1,22 +1,26 @@
 package tech.harmonysoft.oss.traute.javac.text;
 
+import com.sun.source.tree.ReturnTree;
+import com.sun.source.tree.Tree;
 import com.sun.source.tree.VariableTree;
 import com.sun.tools.javac.tree.JCTree;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 import tech.harmonysoft.oss.traute.javac.common.CompilationUnitProcessingContext;
+import tech.harmonysoft.oss.traute.javac.instrumentation.method.ReturnToInstrumentInfo;
 import tech.harmonysoft.oss.traute.javac.instrumentation.parameter.ParameterToInstrumentInfo;
 
 import javax.lang.model.element.Name;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType.METHOD_PARAMETER;
-import static tech.harmonysoft.oss.traute.common.util.TrauteConstants.FUNCTION_CAPITALIZE;
-import static tech.harmonysoft.oss.traute.common.util.TrauteConstants.VARIABLE_PARAMETER_NAME;
+import static tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType.METHOD_RETURN;
+import static tech.harmonysoft.oss.traute.common.util.TrauteConstants.*;
 
 @SuppressWarnings("unchecked")
 class ExceptionTextGeneratorFactoryTest {
@@ -62,6 +66,51 @@ class ExceptionTextGeneratorFactoryTest {
                         "abc A xyz");
     }
 
+    @Test
+    public void multipleVariables() {
+        doTestParameter(String.format("${%s} ${%s(%s)}", VARIABLE_PARAMETER_NAME,
+                                      FUNCTION_CAPITALIZE, VARIABLE_PARAMETER_NAME),
+                        "arg",
+                        "arg Arg");
+    }
+
+    @Test
+    public void unclosedVariable() {
+        assertFalse(factory.build(METHOD_PARAMETER, "abc ${" + VARIABLE_PARAMETER_NAME, null).isPresent());
+    }
+
+    @Test
+    public void unknownVariable() {
+        assertFalse(factory.build(METHOD_PARAMETER, "${" + VARIABLE_RETURN_TYPE + "}", null).isPresent());
+    }
+
+    @Test
+    public void returnVariables() {
+        Optional<ExceptionTextGenerator<?>> o = factory.build(
+                METHOD_RETURN,
+                String.format("${%s}() must not return null %s", VARIABLE_METHOD_NAME, VARIABLE_RETURN_TYPE),
+                null
+        );
+        assertTrue(o.isPresent());
+        JCTree.JCExpression returnType = mock(JCTree.JCExpression.class);
+        when(returnType.toString()).thenReturn("String");
+        ReturnToInstrumentInfo info = new ReturnToInstrumentInfo(mock(CompilationUnitProcessingContext.class),
+                                                                 NotNull.class.getName(),
+                                                                 null,
+                                                                 mock(ReturnTree.class),
+                                                                 returnType,
+                                                                 "tmpVar",
+                                                                 mock(Tree.class),
+                                                                 "my.app.Service.fetch");
+        ExceptionTextGenerator generator = o.get();
+        assertEquals("fetch() must not return null RETURN_TYPE", generator.generate(info));
+
+        o = factory.build(METHOD_RETURN, String.format("${%s} ${%s}", VARIABLE_RETURN_TYPE, VARIABLE_METHOD_NAME), null);
+        assertTrue(o.isPresent());
+        generator = o.get();
+        assertEquals("String fetch", generator.generate(info));
+    }
+
     private void doTestParameter(@NotNull String pattern, @NotNull String variableName, @NotNull String expected) {
         Optional<ExceptionTextGenerator<?>> o = factory.build(METHOD_PARAMETER, pattern, null);
         assertTrue(o.isPresent());
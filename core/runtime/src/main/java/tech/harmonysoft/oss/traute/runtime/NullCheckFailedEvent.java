@@ -0,0 +1,59 @@
+package tech.harmonysoft.oss.traute.runtime;
+
+import jdk.jfr.*;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code JFR} event committed by {@link TrauteEvents}. The class is loaded only when the {@code jdk.jfr} API
+ * is available.
+ */
+@Name(TrauteEvents.EVENT_NAME)
+@Label("Null-Check Failed")
+@Category("Traute")
+@Description("A null-check generated by the Traute javac plugin failed")
+@StackTrace
+final class NullCheckFailedEvent extends Event {
+
+    @Label("Site")
+    @Description("Source file qualified by its package name, line and column of the checked element")
+    String site;
+
+    @Label("Class")
+    String className;
+
+    @Label("Method")
+    String methodName;
+
+    @Label("Parameter Index")
+    @Description("Zero-based index of the checked parameter, -1 for a return value")
+    int parameterIndex;
+
+    @Label("Parameter")
+    String parameterName;
+
+    @Label("Annotation")
+    @Description("NotNull annotation or NotNullByDefault annotation description which caused the check")
+    String annotation;
+
+    static void commit(@Nullable String site,
+                       @Nullable String method,
+                       int parameterIndex,
+                       @Nullable String parameterName,
+                       @Nullable String annotation)
+    {
+        NullCheckFailedEvent event = new NullCheckFailedEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.site = site;
+        if (method != null) {
+            int i = method.lastIndexOf('.');
+            event.className = i < 0 ? null : method.substring(0, i);
+            event.methodName = method.substring(i + 1);
+        }
+        event.parameterIndex = parameterIndex;
+        event.parameterName = parameterName;
+        event.annotation = annotation;
+        event.commit();
+    }
+}
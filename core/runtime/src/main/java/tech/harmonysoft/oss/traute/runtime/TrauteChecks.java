@@ -0,0 +1,205 @@
+package tech.harmonysoft.oss.traute.runtime;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.management.ObjectName;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * <p>
+ *     Holds run time switches for {@code null}-checks generated with the {@code 'dynamic'} check guard
+ *     ({@code -Atraute.check.guard=dynamic}). Every instrumented top-level class gets a switch on its first
+ *     check, the switch is a {@link MutableCallSite} which target is a constant {@code true} or {@code false}.
+ *     {@code JIT} compiles checks of a class with a constant switch as if the switch value was known at compile
+ *     time, i.e. switched off checks cost nothing. When a switch is flipped, the call site target is changed,
+ *     the code which depends on it is deoptimized and compiled again with the new value.
+ * </p>
+ * <p>
+ *     Checks are switched by rules - a rule is a class name or a package name prefix and a flag. The most
+ *     specific rule for a class wins, checks are on if there are no rules for a class. Initial rules are
+ *     taken from the system properties:
+ * </p>
+ * <ul>
+ *   <li>{@code -Dtraute.checks=false} - switches off all checks;</li>
+ *   <li>{@code -Dtraute.checks.com.example.app=false} - switches off checks in classes from the
+ *       {@code com.example.app} package and its sub-packages;</li>
+ * </ul>
+ * <p>
+ *     Rules can be changed at run time through the static methods of the current class or through
+ *     the {@link TrauteChecksMXBean JMX bean} registered under the {@value #OBJECT_NAME} name.
+ * </p>
+ * <p>Thread-safe.</p>
+ */
+public final class TrauteChecks {
+
+    /** Name of the {@link TrauteChecksMXBean} registered in the platform {@code MBean} server. */
+    public static final String OBJECT_NAME = "tech.harmonysoft.oss.traute:type=Checks";
+
+    /** Name of the system property which defines initial rules. */
+    public static final String PROPERTY = "traute.checks";
+
+    private static final String GLOBAL_RULE = "";
+
+    /** The same handles are used by all switches, that way a target change can be detected by identity. */
+    private static final MethodHandle ON  = MethodHandles.constant(boolean.class, true);
+    private static final MethodHandle OFF = MethodHandles.constant(boolean.class, false);
+
+    private static final Map<String, Boolean>         RULES    = new HashMap<>();
+    private static final Map<String, MutableCallSite> SWITCHES = new HashMap<>();
+
+    static {
+        Properties properties = System.getProperties();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.equals(PROPERTY)) {
+                RULES.put(GLOBAL_RULE, parse(properties.getProperty(name)));
+            } else if (name.startsWith(PROPERTY + ".")) {
+                RULES.put(name.substring(PROPERTY.length() + 1), parse(properties.getProperty(name)));
+            }
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new TrauteChecksControl(),
+                                                                     new ObjectName(OBJECT_NAME));
+        } catch (Exception ignore) {
+            // The bean might be already registered by another class loader or JMX might be unavailable,
+            // the switches still can be controlled through the static methods then
+        }
+    }
+
+    private TrauteChecks() {
+    }
+
+    /**
+     * Is called by generated code when checks of the given class are about to be performed for the first time.
+     *
+     * @param className     a qualified name of the top-level class which holds checks
+     * @return              a method handle of type {@code ()boolean} which returns {@code true} if checks of
+     *                      the given class are on at the moment; the handle is expected to be stored in
+     *                      a {@code static final} field
+     */
+    @NotNull
+    public static MethodHandle getSwitch(@NotNull String className) {
+        synchronized (RULES) {
+            MutableCallSite callSite = SWITCHES.get(className);
+            if (callSite == null) {
+                callSite = new MutableCallSite(constant(isEnabled(className)));
+                SWITCHES.put(className, callSite);
+            }
+            return callSite.dynamicInvoker();
+        }
+    }
+
+    /**
+     * Switches on checks in the given package, its sub-packages or in the given class.
+     *
+     * @param prefix    a package or class name, an empty string means all classes
+     */
+    public static void enable(@NotNull String prefix) {
+        setRule(prefix, true);
+    }
+
+    /**
+     * Switches off checks in the given package, its sub-packages or in the given class.
+     *
+     * @param prefix    a package or class name, an empty string means all classes
+     */
+    public static void disable(@NotNull String prefix) {
+        setRule(prefix, false);
+    }
+
+    /**
+     * Removes a rule for the given prefix, checks affected by it are switched according to the less specific
+     * rules then.
+     *
+     * @param prefix    a package or class name, an empty string means the global rule
+     */
+    public static void reset(@NotNull String prefix) {
+        setRule(prefix, null);
+    }
+
+    /**
+     * @param className     a qualified top-level class name
+     * @return              {@code true} if checks of the given class are on; {@code false} otherwise
+     */
+    public static boolean isEnabled(@NotNull String className) {
+        synchronized (RULES) {
+            for (String prefix = className; ; prefix = getParent(prefix)) {
+                Boolean rule = RULES.get(prefix);
+                if (rule != null) {
+                    return rule;
+                }
+                if (prefix.isEmpty()) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return  current rules sorted by their prefixes, an empty prefix stands for the global rule
+     */
+    @NotNull
+    public static SortedMap<String, Boolean> getRules() {
+        synchronized (RULES) {
+            return new TreeMap<>(RULES);
+        }
+    }
+
+    /**
+     * @return  qualified names of the classes which checks are controlled by the switches
+     */
+    @NotNull
+    public static SortedSet<String> getClasses() {
+        synchronized (RULES) {
+            return new TreeSet<>(SWITCHES.keySet());
+        }
+    }
+
+    private static void setRule(@NotNull String prefix, Boolean enabled) {
+        String rule = prefix.trim();
+        synchronized (RULES) {
+            if (enabled == null) {
+                RULES.remove(rule);
+            } else {
+                RULES.put(rule, enabled);
+            }
+            List<MutableCallSite> changed = new ArrayList<>();
+            for (Map.Entry<String, MutableCallSite> entry : SWITCHES.entrySet()) {
+                if (!matches(rule, entry.getKey())) {
+                    continue;
+                }
+                MutableCallSite callSite = entry.getValue();
+                MethodHandle target = constant(isEnabled(entry.getKey()));
+                if (callSite.getTarget() != target) {
+                    callSite.setTarget(target);
+                    changed.add(callSite);
+                }
+            }
+            if (!changed.isEmpty()) {
+                MutableCallSite.syncAll(changed.toArray(new MutableCallSite[changed.size()]));
+            }
+        }
+    }
+
+    private static boolean matches(@NotNull String prefix, @NotNull String className) {
+        return prefix.isEmpty() || className.equals(prefix) || className.startsWith(prefix + ".");
+    }
+
+    @NotNull
+    private static String getParent(@NotNull String name) {
+        int i = name.lastIndexOf('.');
+        return i < 0 ? GLOBAL_RULE : name.substring(0, i);
+    }
+
+    private static boolean parse(@NotNull String value) {
+        return !"false".equalsIgnoreCase(value.trim());
+    }
+
+    @NotNull
+    private static MethodHandle constant(boolean value) {
+        return value ? ON : OFF;
+    }
+}
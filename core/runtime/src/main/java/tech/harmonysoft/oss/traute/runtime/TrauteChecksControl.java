@@ -0,0 +1,37 @@
+package tech.harmonysoft.oss.traute.runtime;
+
+import java.util.Map;
+import java.util.Set;
+
+class TrauteChecksControl implements TrauteChecksMXBean {
+
+    @Override
+    public void enable(String prefix) {
+        TrauteChecks.enable(prefix);
+    }
+
+    @Override
+    public void disable(String prefix) {
+        TrauteChecks.disable(prefix);
+    }
+
+    @Override
+    public void reset(String prefix) {
+        TrauteChecks.reset(prefix);
+    }
+
+    @Override
+    public boolean isEnabled(String className) {
+        return TrauteChecks.isEnabled(className);
+    }
+
+    @Override
+    public Map<String, Boolean> getRules() {
+        return TrauteChecks.getRules();
+    }
+
+    @Override
+    public Set<String> getClasses() {
+        return TrauteChecks.getClasses();
+    }
+}
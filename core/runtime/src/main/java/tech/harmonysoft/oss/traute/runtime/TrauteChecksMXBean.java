@@ -0,0 +1,47 @@
+package tech.harmonysoft.oss.traute.runtime;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ *     Management interface for the {@link TrauteChecks run time check switches}, is registered in the platform
+ *     {@code MBean} server under the {@value TrauteChecks#OBJECT_NAME} name, i.e. checks can be switched
+ *     from {@code jconsole}, {@code VisualVM} or any other {@code JMX} client.
+ * </p>
+ * <p>
+ *     A {@code prefix} argument is a package or class name, an empty string stands for all classes.
+ * </p>
+ */
+public interface TrauteChecksMXBean {
+
+    /**
+     * @see TrauteChecks#enable(String)
+     */
+    void enable(String prefix);
+
+    /**
+     * @see TrauteChecks#disable(String)
+     */
+    void disable(String prefix);
+
+    /**
+     * @see TrauteChecks#reset(String)
+     */
+    void reset(String prefix);
+
+    /**
+     * @see TrauteChecks#isEnabled(String)
+     */
+    boolean isEnabled(String className);
+
+    /**
+     * @see TrauteChecks#getRules()
+     */
+    Map<String, Boolean> getRules();
+
+    /**
+     * @see TrauteChecks#getClasses()
+     */
+    Set<String> getClasses();
+}
@@ -0,0 +1,79 @@
+package tech.harmonysoft.oss.traute.runtime;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>
+ *     Commits {@code JDK Flight Recorder} events for failed {@code null}-checks generated with
+ *     the {@code -Atraute.failure.events=true} option. Such checks call {@link #checkFailed(String, String, int,
+ *     String, String)} before the exception is thrown (or the failure is {@link TrauteViolations recorded}),
+ *     so, contract violations show up in continuous recordings together with {@code GC}, locks and latency data
+ *     even if the exception is swallowed or wrapped later on.
+ * </p>
+ * <p>
+ *     The events are named {@value #EVENT_NAME}, they are enabled by default and hold the check site, class,
+ *     method, parameter and annotation, the thread and the stack trace are added by {@code JFR}. Nothing is done
+ *     if the current {@code JVM} has no {@code jdk.jfr} API ({@code JDK 8} before {@code 8u262}) or the events
+ *     are switched off in the recording settings.
+ * </p>
+ * <p>Thread-safe.</p>
+ */
+public final class TrauteEvents {
+
+    /** Name of the {@code JFR} event type committed for failed checks. */
+    public static final String EVENT_NAME = "tech.harmonysoft.oss.traute.NullCheckFailed";
+
+    /** {@link #checkFailed(String, String, int, String, String) Parameter index} used for {@code return} checks. */
+    public static final int RETURN_INDEX = -1;
+
+    private static final boolean AVAILABLE = isJfrAvailable();
+
+    private TrauteEvents() {
+    }
+
+    /**
+     * Is called by generated code when a check fails.
+     *
+     * @param site              a check site, a source file qualified by its package name, line and column of
+     *                          the checked element, e.g. {@code com.example.MyClass.java:12:30}
+     * @param method            a qualified name of the method which holds the check, e.g.
+     *                          {@code com.example.MyClass.service}, if known
+     * @param parameterIndex    a zero-based index of the checked parameter or {@value #RETURN_INDEX} for
+     *                          a {@code return} check
+     * @param parameterName     a name of the checked parameter, {@code null} for a {@code return} check
+     * @param annotation        the annotation which caused the check - a {@code NotNull} annotation or
+     *                          a {@code NotNullByDefault} annotation description
+     */
+    public static void checkFailed(@Nullable String site,
+                                   @Nullable String method,
+                                   int parameterIndex,
+                                   @Nullable String parameterName,
+                                   @Nullable String annotation)
+    {
+        if (!AVAILABLE) {
+            return;
+        }
+        try {
+            NullCheckFailedEvent.commit(site, method, parameterIndex, parameterName, annotation);
+        } catch (LinkageError ignore) {
+            // JFR classes are present but can't be used, e.g. the module is not resolved,
+            // the check's exception is more important than the event
+        }
+    }
+
+    /**
+     * @return  {@code true} if the current {@code JVM} provides the {@code JFR} events API
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package tech.harmonysoft.oss.traute.runtime;
+
+/**
+ * <p>
+ *     Target of {@code null}-checks generated with the {@code 'runtime'} check style
+ *     ({@code -Atraute.check.style=runtime}), every such check is a single call:
+ * </p>
+ * <pre>
+ *     tech.harmonysoft.oss.traute.runtime.TrauteNullChecks.checkNotNull(arg, "[problem details]");
+ * </pre>
+ * <p>
+ *     The method has no side effects except the thrown exception and its result is not used, so, a shrinker
+ *     is allowed to remove the calls together with their messages - the library bundles
+ *     <a href="https://www.guardsquare.com/manual/configuration/usage">ProGuard</a> rules
+ *     ({@code META-INF/proguard/traute-runtime.pro}) which declare that through {@code -assumenosideeffects}.
+ *     They are picked up by <i>ProGuard</i> and <i>R8</i> automatically, e.g. by minified <i>Android</i>
+ *     release builds, while non-minified builds keep the checks.
+ * </p>
+ * <p>Thread-safe.</p>
+ */
+public final class TrauteNullChecks {
+
+    private TrauteNullChecks() {
+    }
+
+    /**
+     * Throws a {@link NullPointerException} with the given message if the given value is {@code null}.
+     *
+     * @param value     a value to check
+     * @param message   problem details
+     * @throws NullPointerException     if the given value is {@code null}
+     */
+    public static void checkNotNull(Object value, String message) {
+        if (value == null) {
+            throw new NullPointerException(message);
+        }
+    }
+}
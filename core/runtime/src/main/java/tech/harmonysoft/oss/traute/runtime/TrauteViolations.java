@@ -0,0 +1,150 @@
+package tech.harmonysoft.oss.traute.runtime;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ *     Registry of failed {@code null}-checks generated with the {@code 'record'} failure mode
+ *     ({@code -Atraute.failure.mode=record}). Such checks don't throw, they call {@link #record(String, String)}
+ *     and the program continues.
+ * </p>
+ * <p>
+ *     Every check site has its own {@link Violation#getCount() counter} which is a {@code LongAdder}, sites
+ *     are held in a {@link ConcurrentHashMap}, so, recording is lock-free and threads which hit different sites
+ *     or even the same site don't contend on a shared memory location.
+ * </p>
+ * <p>
+ *     A warning is logged through {@code java.util.logging} (the {@value #LOGGER_NAME} logger) when a site fails
+ *     for the first time and then for every N'th failure on average, where N is defined by the
+ *     {@value #REPORT_INTERVAL_PROPERTY} system property ({@value #DEFAULT_REPORT_INTERVAL} by default).
+ *     The failures to report are sampled - an exact 'every N'th' rule would require a shared counter
+ *     on the hot path. A reported warning holds an exception created at the check site, so, the stack trace
+ *     shows how the {@code null} got there.
+ * </p>
+ * <p>Thread-safe.</p>
+ */
+public final class TrauteViolations {
+
+    /** Name of the logger used for reporting failed checks. */
+    public static final String LOGGER_NAME = "tech.harmonysoft.oss.traute";
+
+    /**
+     * Name of the system property which defines how often repeated failures of a check are reported,
+     * {@code 0} means that only the first failure is reported.
+     */
+    public static final String REPORT_INTERVAL_PROPERTY = "traute.violations.report.interval";
+
+    public static final int DEFAULT_REPORT_INTERVAL = 1000;
+
+    private static final ConcurrentMap<String, Violation> VIOLATIONS = new ConcurrentHashMap<>();
+
+    private static final Logger LOGGER = Logger.getLogger(LOGGER_NAME);
+
+    private static volatile int reportInterval = Integer.getInteger(REPORT_INTERVAL_PROPERTY,
+                                                                    DEFAULT_REPORT_INTERVAL);
+
+    private TrauteViolations() {
+    }
+
+    /**
+     * Is called by generated code when a check fails.
+     *
+     * @param site      a check site, a source file qualified by its package name, line and column of the checked
+     *                  element, e.g. {@code com.example.MyClass.java:12:30}
+     * @param message   the message which would be used for the exception
+     */
+    public static void record(@NotNull String site, @NotNull String message) {
+        Violation violation = VIOLATIONS.get(site);
+        if (violation == null) {
+            Violation candidate = new Violation(site, message);
+            violation = VIOLATIONS.putIfAbsent(site, candidate);
+            if (violation == null) {
+                candidate.increment();
+                report(candidate);
+                return;
+            }
+        }
+        violation.increment();
+        int interval = reportInterval;
+        if (interval > 0 && ThreadLocalRandom.current().nextInt(interval) == 0) {
+            report(violation);
+        }
+    }
+
+    /**
+     * @return  current failure counts sorted by check sites; the map is a copy, counts of the sites which are
+     *          failing at the moment might be a bit behind
+     */
+    @NotNull
+    public static SortedMap<String, Violation> snapshot() {
+        SortedMap<String, Violation> result = new TreeMap<>();
+        for (Map.Entry<String, Violation> entry : VIOLATIONS.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().copy());
+        }
+        return result;
+    }
+
+    /**
+     * @return  total number of failures recorded for all sites
+     */
+    public static long getTotalCount() {
+        long result = 0;
+        for (Violation violation : VIOLATIONS.values()) {
+            result += violation.getCount();
+        }
+        return result;
+    }
+
+    /**
+     * Forgets all recorded failures, e.g. between test runs. Failures which are recorded concurrently with
+     * the call might be either kept or dropped.
+     */
+    public static void reset() {
+        VIOLATIONS.clear();
+    }
+
+    /**
+     * @param interval  how often repeated failures of a check should be reported, {@code 0} means that only
+     *                  the first failure is reported
+     * @see #REPORT_INTERVAL_PROPERTY
+     */
+    public static void setReportInterval(int interval) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("Report interval can't be negative but got " + interval);
+        }
+        reportInterval = interval;
+    }
+
+    private static void report(@NotNull Violation violation) {
+        if (!LOGGER.isLoggable(Level.WARNING)) {
+            return;
+        }
+        long count = violation.getCount();
+        LogRecord record = new LogRecord(Level.WARNING, String.format(
+                "Null-check failed at %s (%d time%s so far): %s",
+                violation.getSite(), count, count == 1 ? "" : "s", violation.getMessage()
+        ));
+        record.setLoggerName(LOGGER_NAME);
+        NullPointerException exception = new NullPointerException(violation.getMessage());
+        StackTraceElement[] trace = exception.getStackTrace();
+        // Drop the registry frames - the trace starts at the failed check then
+        int skip = 0;
+        while (skip < trace.length && TrauteViolations.class.getName().equals(trace[skip].getClassName())) {
+            skip++;
+        }
+        exception.setStackTrace(Arrays.copyOfRange(trace, skip, trace.length));
+        record.setThrown(exception);
+        LOGGER.log(record);
+    }
+}
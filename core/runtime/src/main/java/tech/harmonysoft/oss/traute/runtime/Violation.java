@@ -0,0 +1,73 @@
+package tech.harmonysoft.oss.traute.runtime;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Failures of a single check recorded by {@link TrauteViolations}. Instances returned by
+ * {@link TrauteViolations#snapshot()} are immutable.
+ */
+public final class Violation {
+
+    @NotNull private final String site;
+    @NotNull private final String message;
+
+    private final LongAdder counter;
+    private final long      count;
+
+    Violation(@NotNull String site, @NotNull String message) {
+        this.site = site;
+        this.message = message;
+        counter = new LongAdder();
+        count = -1;
+    }
+
+    private Violation(@NotNull String site, @NotNull String message, long count) {
+        this.site = site;
+        this.message = message;
+        this.count = count;
+        counter = null;
+    }
+
+    /**
+     * @return  the check site, e.g. {@code com.example.MyClass.java:12:30}
+     */
+    @NotNull
+    public String getSite() {
+        return site;
+    }
+
+    /**
+     * @return  the message of the first recorded failure
+     */
+    @NotNull
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return  number of the failures
+     */
+    public long getCount() {
+        LongAdder counter = this.counter;
+        return counter == null ? count : counter.sum();
+    }
+
+    void increment() {
+        LongAdder counter = this.counter;
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    @NotNull
+    Violation copy() {
+        return new Violation(site, message, getCount());
+    }
+
+    @Override
+    public String toString() {
+        return site + " - " + getCount() + ": " + message;
+    }
+}
@@ -0,0 +1,13 @@
+# Consumer rules which are applied by ProGuard and R8 when an application which depends on traute-runtime
+# is minified, e.g. in Android release builds.
+
+# Null-checks generated with the 'runtime' check style (-Atraute.check.style=runtime) are removed together
+# with their messages.
+-assumenosideeffects class tech.harmonysoft.oss.traute.runtime.TrauteNullChecks {
+    public static void checkNotNull(java.lang.Object, java.lang.String);
+}
+
+# JMX and JFR are not available on Android, the classes which use them are not needed by the checks above.
+-dontwarn java.lang.management.**
+-dontwarn javax.management.**
+-dontwarn jdk.jfr.**
@@ -254,6 +254,41 @@ public abstract class AbstractExternalSystemTestCompiler implements TestCompiler
                 file -> result.add(String.format("-A%s=%s", OPTION_LOG_FILE, file.getAbsolutePath()))
         );
 
+        if (settings.getLogFormat() != DEFAULT_LOG_FORMAT) {
+            result.add(String.format("-A%s=%s", OPTION_LOG_FORMAT, settings.getLogFormat().getOptionValue()));
+        }
+
+        if (settings.getCheckStyle() != DEFAULT_CHECK_STYLE) {
+            result.add(String.format("-A%s=%s", OPTION_CHECK_STYLE, settings.getCheckStyle().getOptionValue()));
+        }
+
+        if (settings.getCheckGuard() != DEFAULT_CHECK_GUARD) {
+            result.add(String.format("-A%s=%s", OPTION_CHECK_GUARD, settings.getCheckGuard().getOptionValue()));
+        }
+
+        if (settings.getFailureMode() != DEFAULT_FAILURE_MODE) {
+            result.add(String.format("-A%s=%s", OPTION_FAILURE_MODE, settings.getFailureMode().getOptionValue()));
+        }
+
+        if (settings.isFailureEvents()) {
+            result.add(String.format("-A%s=true", OPTION_FAILURE_EVENTS));
+        }
+
+        if (settings.isMessageTable()) {
+            result.add(String.format("-A%s=true", OPTION_MESSAGE_TABLE));
+        }
+
+        if (settings.isCombineParameterChecks()) {
+            result.add(String.format("-A%s=true", OPTION_COMBINE_PARAMETER_CHECKS));
+        }
+        if (settings.isElideDelegatedChecks()) {
+            result.add(String.format("-A%s=true", OPTION_ELIDE_DELEGATED_CHECKS));
+        }
+
+        settings.getCacheDir().ifPresent(
+                dir -> result.add(String.format("-A%s=%s", OPTION_CACHE_DIR, dir.getAbsolutePath()))
+        );
+
         settings.getExceptionsToThrow()
                 .forEach((key, value) -> result.add(String.format("-A%s%s=%s",
                                                                   OPTION_PREFIX_EXCEPTION_TO_THROW,
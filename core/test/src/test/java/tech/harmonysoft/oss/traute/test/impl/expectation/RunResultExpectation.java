@@ -14,6 +14,8 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 public class RunResultExpectation implements Expectation<RunResult> {
 
+    private static final String RUNTIME_PACKAGE = "tech.harmonysoft.oss.traute.runtime.";
+
     @Nullable private final String exceptionClass;
     @Nullable private final String   exceptionMessageSnippet;
     @Nullable private final String   exceptionMessageText;
@@ -100,7 +102,7 @@ public class RunResultExpectation implements Expectation<RunResult> {
             StringWriter stringWriter = new StringWriter();
             actual.printStackTrace(new PrintWriter(stringWriter));
             stringWriter.flush();
-            int lineNumber = actual.getStackTrace()[0].getLineNumber();
+            int lineNumber = getThrownAtLine(actual);
             if (lineNumber != thrownAtLine) {
                 fail(String.format(
                         "Expected that running the program below throws %s exception from line %d but it's thrown "
@@ -111,6 +113,23 @@ public class RunResultExpectation implements Expectation<RunResult> {
         }
     }
 
+    /**
+     * @param exception     an exception thrown by the tested code
+     * @return              line number of the top stack frame which belongs to the tested code. Frames of
+     *                      the JDK and Traute runtime methods which throw on behalf of the tested code (e.g.
+     *                      {@code java.util.Objects.requireNonNull()}) are skipped
+     */
+    private static int getThrownAtLine(@NotNull Throwable exception) {
+        StackTraceElement[] stackTrace = exception.getStackTrace();
+        for (StackTraceElement element : stackTrace) {
+            String className = element.getClassName();
+            if (!className.startsWith("java.") && !className.startsWith(RUNTIME_PACKAGE)) {
+                return element.getLineNumber();
+            }
+        }
+        return stackTrace[0].getLineNumber();
+    }
+
     @NotNull
     private String getExpectedExceptionDetails() {
         StringBuilder result = new StringBuilder();
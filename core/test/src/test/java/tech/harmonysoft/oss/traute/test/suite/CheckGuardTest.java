@@ -0,0 +1,332 @@
+package tech.harmonysoft.oss.traute.test.suite;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.harmonysoft.oss.traute.common.settings.CheckGuard;
+import tech.harmonysoft.oss.traute.common.settings.CheckStyle;
+import tech.harmonysoft.oss.traute.runtime.TrauteChecks;
+
+import static tech.harmonysoft.oss.traute.common.util.TrauteConstants.CHECKS_SYSTEM_PROPERTY;
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.CLASS_NAME;
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.METHOD_NAME;
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.PACKAGE;
+import static tech.harmonysoft.oss.traute.test.util.TestUtil.*;
+
+/**
+ * Holds tests for {@link CheckGuard guarded checks}. Every test source is loaded by a new class loader,
+ * so, system properties are read again for every test.
+ */
+public abstract class CheckGuardTest extends AbstractTrauteTest {
+
+    private static final String PACKAGE_PROPERTY        = CHECKS_SYSTEM_PROPERTY + "." + PACKAGE;
+    private static final String PARENT_PACKAGE_PROPERTY =
+            CHECKS_SYSTEM_PROPERTY + "." + PACKAGE.substring(0, PACKAGE.lastIndexOf('.'));
+
+    @BeforeEach
+    public void enableGuard() {
+        settingsBuilder.withCheckGuard(CheckGuard.PROPERTY);
+    }
+
+    @AfterEach
+    public void clearProperties() {
+        System.clearProperty(CHECKS_SYSTEM_PROPERTY);
+        System.clearProperty(PACKAGE_PROPERTY);
+        System.clearProperty(PARENT_PACKAGE_PROPERTY);
+    }
+
+    @AfterEach
+    public void resetSwitches() {
+        for (String prefix : TrauteChecks.getRules().keySet()) {
+            TrauteChecks.reset(prefix);
+        }
+    }
+
+    @Test
+    public void property_enabledByDefault() {
+        String testSource = prepareParameterSource();
+        expectNpeFromParameterCheck(testSource, "i1", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void property_disabledGlobally() {
+        System.setProperty(CHECKS_SYSTEM_PROPERTY, "false");
+        doTest(prepareParameterSource());
+    }
+
+    @Test
+    public void property_disabledForPackage() {
+        System.setProperty(PACKAGE_PROPERTY, "false");
+        doTest(prepareParameterSource());
+    }
+
+    @Test
+    public void property_disabledForParentPackage() {
+        System.setProperty(PARENT_PACKAGE_PROPERTY, "FALSE");
+        doTest(prepareParameterSource());
+    }
+
+    @Test
+    public void property_disabledForAnotherPackage() {
+        System.setProperty(PACKAGE_PROPERTY + ".another", "false");
+        String testSource = prepareParameterSource();
+        expectNpeFromParameterCheck(testSource, "i1", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void property_packageOverridesGlobal() {
+        System.setProperty(CHECKS_SYSTEM_PROPERTY, "false");
+        System.setProperty(PACKAGE_PROPERTY, "true");
+        String testSource = prepareParameterSource();
+        expectNpeFromParameterCheck(testSource, "i1", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void property_return() {
+        System.setProperty(CHECKS_SYSTEM_PROPERTY, "false");
+        doTest(prepareReturnTestSource("return count();"));
+    }
+
+    @Test
+    public void property_returnEnabled() {
+        String testSource = prepareReturnTestSource("return count();");
+        expectNpeFromReturnCheck(testSource, "count()", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void property_requireNonNullReturn() {
+        settingsBuilder.withCheckStyle(CheckStyle.REQUIRE_NON_NULL);
+        System.setProperty(CHECKS_SYSTEM_PROPERTY, "false");
+        doTest(prepareReturnTestSource("return count();"));
+    }
+
+    @Test
+    public void property_outOfLine() {
+        settingsBuilder.withCheckStyle(CheckStyle.OUT_OF_LINE);
+        String testSource = prepareParameterSource();
+        expectNpeFromParameterCheck(testSource, "i1", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void property_messageTableDisabled() {
+        settingsBuilder.withMessageTable(true);
+        System.setProperty(CHECKS_SYSTEM_PROPERTY, "false");
+        doTest(prepareParameterSource());
+    }
+
+    @Test
+    public void property_combinedChecks() {
+        settingsBuilder.withCombineParameterChecks(true);
+        String testSource = prepareParameterTestSource(
+                NotNull.class.getName(),
+                String.format("public void %s(@NotNull Integer i1, @NotNull Integer i2) {}", METHOD_NAME),
+                "1, null"
+        );
+        expectNpeFromParameterCheck(testSource, "i2", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void property_combinedChecksDisabled() {
+        settingsBuilder.withCombineParameterChecks(true);
+        System.setProperty(CHECKS_SYSTEM_PROPERTY, "false");
+        doTest(prepareParameterTestSource(
+                NotNull.class.getName(),
+                String.format("public void %s(@NotNull Integer i1, @NotNull Integer i2) {}", METHOD_NAME),
+                "1, null"
+        ));
+    }
+
+    @Test
+    public void property_interface() {
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public interface %s {\n" +
+                "\n" +
+                "  default void test(@NotNull String param) {\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    new %s() {}.test(null);\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, CLASS_NAME);
+        expectNpeFromParameterCheck(testSource, "param", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void property_noChecks_noGuardClass() {
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  public static void main(String[] args) throws Exception {\n" +
+                "    try {\n" +
+                "      Class.forName(\"%s$traute$guard\");\n" +
+                "    } catch (Throwable e) {\n" +
+                "      return;\n" +
+                "    }\n" +
+                "    throw new IllegalStateException(\"unexpected guard class\");\n" +
+                "  }\n" +
+                "}", PACKAGE, CLASS_NAME, QUALIFIED_CLASS_NAME);
+        doTest(testSource);
+    }
+
+    @Test
+    public void assertions() {
+        settingsBuilder.withCheckGuard(CheckGuard.ASSERTIONS);
+        // Assertion status of the test class is defined by the test JVM arguments, so, we check that
+        // the parameter check is performed if and only if 'assert' statements of the same class are
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  public static void test(@NotNull String param) {\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    boolean assertionsEnabled = false;\n" +
+                "    assert assertionsEnabled = true;\n" +
+                "    boolean checked = false;\n" +
+                "    try {\n" +
+                "      test(null);\n" +
+                "    } catch (NullPointerException e) {\n" +
+                "      checked = true;\n" +
+                "    }\n" +
+                "    if (checked != assertionsEnabled) {\n" +
+                "      throw new IllegalStateException(\"assertions: \" + assertionsEnabled + \", checked: \" + checked);\n" +
+                "    }\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME);
+        doTest(testSource);
+    }
+
+    @Test
+    public void dynamic_enabledByDefault() {
+        settingsBuilder.withCheckGuard(CheckGuard.DYNAMIC);
+        String testSource = prepareParameterSource();
+        expectNpeFromParameterCheck(testSource, "i1", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void dynamic_disabledGlobally() {
+        settingsBuilder.withCheckGuard(CheckGuard.DYNAMIC);
+        TrauteChecks.disable("");
+        doTest(prepareParameterSource());
+    }
+
+    @Test
+    public void dynamic_disabledForPackage() {
+        settingsBuilder.withCheckGuard(CheckGuard.DYNAMIC);
+        TrauteChecks.disable(PACKAGE);
+        doTest(prepareParameterSource());
+    }
+
+    @Test
+    public void dynamic_disabledForClass() {
+        settingsBuilder.withCheckGuard(CheckGuard.DYNAMIC);
+        TrauteChecks.disable(QUALIFIED_CLASS_NAME);
+        doTest(prepareParameterSource());
+    }
+
+    @Test
+    public void dynamic_disabledForAnotherPackage() {
+        settingsBuilder.withCheckGuard(CheckGuard.DYNAMIC);
+        TrauteChecks.disable(PACKAGE + ".another");
+        String testSource = prepareParameterSource();
+        expectNpeFromParameterCheck(testSource, "i1", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void dynamic_classOverridesPackage() {
+        settingsBuilder.withCheckGuard(CheckGuard.DYNAMIC);
+        TrauteChecks.disable(PACKAGE);
+        TrauteChecks.enable(QUALIFIED_CLASS_NAME);
+        String testSource = prepareParameterSource();
+        expectNpeFromParameterCheck(testSource, "i1", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void dynamic_return() {
+        settingsBuilder.withCheckGuard(CheckGuard.DYNAMIC);
+        TrauteChecks.disable(PACKAGE);
+        doTest(prepareReturnTestSource("return count();"));
+    }
+
+    @Test
+    public void dynamic_switchedThroughJmx() {
+        settingsBuilder.withCheckGuard(CheckGuard.DYNAMIC);
+        // The test source doesn't depend on the runtime library, it toggles its own checks through JMX
+        // after they are hot, i.e. compiled by JIT
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "import java.lang.management.ManagementFactory;\n" +
+                "import javax.management.ObjectName;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  public static void test(@NotNull String param) {\n" +
+                "  }\n" +
+                "\n" +
+                "  private static boolean checked(int iterations) {\n" +
+                "    boolean result = false;\n" +
+                "    for (int i = 0; i < iterations; i++) {\n" +
+                "      try {\n" +
+                "        test(i %% 2 == 0 ? \"\" : null);\n" +
+                "        result = false;\n" +
+                "      } catch (NullPointerException e) {\n" +
+                "        result = true;\n" +
+                "      }\n" +
+                "    }\n" +
+                "    return result;\n" +
+                "  }\n" +
+                "\n" +
+                "  private static void toggle(String operation) throws Exception {\n" +
+                "    ManagementFactory.getPlatformMBeanServer().invoke(new ObjectName(\"%s\"),\n" +
+                "                                                      operation,\n" +
+                "                                                      new Object[] { \"%s\" },\n" +
+                "                                                      new String[] { String.class.getName() });\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) throws Exception {\n" +
+                "    if (!checked(20000)) {\n" +
+                "      throw new IllegalStateException(\"expected enabled checks\");\n" +
+                "    }\n" +
+                "    toggle(\"disable\");\n" +
+                "    if (checked(20000)) {\n" +
+                "      throw new IllegalStateException(\"expected disabled checks\");\n" +
+                "    }\n" +
+                "    toggle(\"reset\");\n" +
+                "    if (!checked(2)) {\n" +
+                "      throw new IllegalStateException(\"expected enabled checks after reset\");\n" +
+                "    }\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, TrauteChecks.OBJECT_NAME, PACKAGE);
+        doTest(testSource);
+    }
+
+    @NotNull
+    private static String prepareParameterSource() {
+        return prepareParameterTestSource(NotNull.class.getName(),
+                                          String.format("public void %s(@NotNull Integer i1) {}", METHOD_NAME),
+                                          "null");
+    }
+}
@@ -0,0 +1,353 @@
+package tech.harmonysoft.oss.traute.test.suite;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType;
+import tech.harmonysoft.oss.traute.common.settings.CheckStyle;
+
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.CLASS_NAME;
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.METHOD_NAME;
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.PACKAGE;
+import static tech.harmonysoft.oss.traute.test.util.TestUtil.*;
+
+/**
+ * Holds tests which check {@link CheckStyle non-default check styles}.
+ */
+public abstract class CheckStyleTest extends AbstractTrauteTest {
+
+    @Test
+    public void outOfLine_parameter() {
+        settingsBuilder.withCheckStyle(CheckStyle.OUT_OF_LINE);
+        String testSource = prepareParameterTestSource(
+                NotNull.class.getName(),
+                String.format("public void %s(@NotNull Integer i1, @NotNull Integer i2) {}", METHOD_NAME),
+                "1, null"
+        );
+        expectNpeFromParameterCheck(testSource, "i2", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void outOfLine_return() {
+        settingsBuilder.withCheckStyle(CheckStyle.OUT_OF_LINE);
+        String testSource = prepareReturnTestSource("return count();");
+        expectNpeFromReturnCheck(testSource, "count()", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void outOfLine_failureMethodIsGenerated() {
+        settingsBuilder.withCheckStyle(CheckStyle.OUT_OF_LINE);
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  public void test(@NotNull String param) {\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) throws Exception {\n" +
+                "    int modifiers = %s.class.getDeclaredMethod(\"traute$fail$parameter\", String.class)\n" +
+                "                            .getModifiers();\n" +
+                "    throw new IllegalStateException(String.valueOf(java.lang.reflect.Modifier.isStatic(modifiers)));\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, CLASS_NAME);
+        expectRunResult.withExceptionClass(IllegalStateException.class)
+                       .withExceptionMessage("true");
+        doTest(testSource);
+    }
+
+    @Test
+    public void outOfLine_nonDefaultExceptionToThrow() {
+        settingsBuilder.withCheckStyle(CheckStyle.OUT_OF_LINE)
+                       .withExceptionToThrow(InstrumentationType.METHOD_PARAMETER,
+                                             IllegalArgumentException.class.getName());
+        String testSource = prepareParameterTestSource(
+                NotNull.class.getName(),
+                String.format("public void %s(@NotNull Integer i1) {}", METHOD_NAME),
+                "null"
+        );
+        expectRunResult.withExceptionClass(IllegalArgumentException.class)
+                       .withExceptionMessageSnippet("i1")
+                       .atLine(findLineNumber(testSource, "i1"));
+        doTest(testSource);
+    }
+
+    @Test
+    public void outOfLine_constructorThis() {
+        settingsBuilder.withCheckStyle(CheckStyle.OUT_OF_LINE);
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  public %s(@NotNull Integer intParam) {\n" +
+                "    this(1.0);\n" +
+                "  }\n" +
+                "\n" +
+                "  public %s(Double numberParam) {\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    Integer i = null;\n" +
+                "    new %s(i);\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, CLASS_NAME, CLASS_NAME, CLASS_NAME);
+        expectNpeFromParameterCheck(testSource, "intParam", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void outOfLine_anonymousClass() {
+        settingsBuilder.withCheckStyle(CheckStyle.OUT_OF_LINE);
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import java.util.ArrayList;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "  public void test() {\n" +
+                "    new ArrayList() {\n" +
+                "      public boolean contains(@%s Object param) {\n" +
+                "        return false;\n" +
+                "      }\n" +
+                "    }.contains(null);\n" +
+                "  }\n" +
+                "  public static void main(String[] args) {\n" +
+                "    new %s().test();\n" +
+                "  }\n" +
+                "}", PACKAGE, CLASS_NAME, NotNull.class.getName(), CLASS_NAME);
+        expectNpeFromParameterCheck(testSource, "param", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void outOfLine_innerClass() {
+        settingsBuilder.withCheckStyle(CheckStyle.OUT_OF_LINE);
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  class Inner {\n" +
+                "    @NotNull\n" +
+                "    String test() {\n" +
+                "      return System.getProperty(\"unknown-property\");\n" +
+                "    }\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    new %s().new Inner().test();\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, CLASS_NAME);
+        expectNpeFromReturnCheck(testSource, "System.getProperty", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void outOfLine_enum() {
+        settingsBuilder.withCheckStyle(CheckStyle.OUT_OF_LINE);
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public enum %s {\n" +
+                "\n" +
+                "  INSTANCE;\n" +
+                "\n" +
+                "  public void test(@NotNull String param) {\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    INSTANCE.test(null);\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME);
+        expectNpeFromParameterCheck(testSource, "param", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void outOfLine_interfaceFallsBackToInline() {
+        settingsBuilder.withCheckStyle(CheckStyle.OUT_OF_LINE);
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public interface %s {\n" +
+                "\n" +
+                "  default void test(@NotNull String param) {\n" +
+                "  }\n" +
+                "\n" +
+                "  class Impl implements %s {\n" +
+                "    void test2(@NotNull String param2) {\n" +
+                "    }\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    try {\n" +
+                "      new Impl().test(null);\n" +
+                "    } catch (NullPointerException e) {\n" +
+                "      new Impl().test2(null);\n" +
+                "    }\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, CLASS_NAME);
+        expectNpeFromParameterCheck(testSource, "param2", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void requireNonNull_parameter() {
+        settingsBuilder.withCheckStyle(CheckStyle.REQUIRE_NON_NULL);
+        String testSource = prepareParameterTestSource(
+                NotNull.class.getName(),
+                String.format("public void %s(@NotNull Integer i1, @NotNull Integer i2) {}", METHOD_NAME),
+                "1, null"
+        );
+        expectNpeFromParameterCheck(testSource, "i2", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void requireNonNull_return() {
+        settingsBuilder.withCheckStyle(CheckStyle.REQUIRE_NON_NULL);
+        String testSource = prepareReturnTestSource("return count();");
+        expectNpeFromReturnCheck(testSource, "count()", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void requireNonNull_returnWithoutTemporaryVariable() {
+        settingsBuilder.withCheckStyle(CheckStyle.REQUIRE_NON_NULL);
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "import java.util.function.Supplier;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  @NotNull\n" +
+                "  public Supplier<String> test(boolean flag) {\n" +
+                "    return flag ? () -> \"ok\" : null;\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    if (!\"ok\".equals(new %s().test(true).get())) {\n" +
+                "      throw new IllegalStateException();\n" +
+                "    }\n" +
+                "    new %s().test(false);\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, CLASS_NAME, CLASS_NAME);
+        expectNpeFromReturnCheck(testSource, "flag ?", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void requireNonNull_constructorSuper() {
+        settingsBuilder.withCheckStyle(CheckStyle.REQUIRE_NON_NULL);
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  public %s(@NotNull Integer intParam) {\n" +
+                "    super();\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    new %s(null);\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, CLASS_NAME, CLASS_NAME);
+        expectNpeFromParameterCheck(testSource, "intParam", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void requireNonNull_nonNpeFallsBackToInline() {
+        settingsBuilder.withCheckStyle(CheckStyle.REQUIRE_NON_NULL)
+                       .withExceptionToThrow(InstrumentationType.METHOD_PARAMETER,
+                                             IllegalArgumentException.class.getSimpleName());
+        String testSource = prepareParameterTestSource(
+                NotNull.class.getName(),
+                String.format("public void %s(@NotNull Integer i1) {}", METHOD_NAME),
+                "null"
+        );
+        expectRunResult.withExceptionClass(IllegalArgumentException.class)
+                       .withExceptionMessageSnippet("i1")
+                       .atLine(findLineNumber(testSource, "i1"));
+        doTest(testSource);
+    }
+
+    @Test
+    public void runtime_parameter() {
+        settingsBuilder.withCheckStyle(CheckStyle.RUNTIME);
+        String testSource = prepareParameterTestSource(
+                NotNull.class.getName(),
+                String.format("public void %s(@NotNull Integer i1, @NotNull Integer i2) {}", METHOD_NAME),
+                "1, null"
+        );
+        expectNpeFromParameterCheck(testSource, "i2", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void runtime_return() {
+        settingsBuilder.withCheckStyle(CheckStyle.RUNTIME);
+        String testSource = prepareReturnTestSource("return count();");
+        expectNpeFromReturnCheck(testSource, "count()", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void runtime_checkIsRuntimeCall() {
+        settingsBuilder.withCheckStyle(CheckStyle.RUNTIME)
+                       .withCombineParameterChecks(true);
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  public void test(@NotNull String first, @NotNull String second) {\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    try {\n" +
+                "      new %s().test(\"first\", null);\n" +
+                "    } catch (NullPointerException e) {\n" +
+                "      throw new IllegalStateException(e.getStackTrace()[0].getClassName());\n" +
+                "    }\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, CLASS_NAME);
+        expectRunResult.withExceptionClass(IllegalStateException.class)
+                       .withExceptionMessage("tech.harmonysoft.oss.traute.runtime.TrauteNullChecks");
+        doTest(testSource);
+    }
+
+    @Test
+    public void runtime_nonNpeFallsBackToInline() {
+        settingsBuilder.withCheckStyle(CheckStyle.RUNTIME)
+                       .withExceptionToThrow(InstrumentationType.METHOD_PARAMETER,
+                                             IllegalArgumentException.class.getSimpleName());
+        String testSource = prepareParameterTestSource(
+                NotNull.class.getName(),
+                String.format("public void %s(@NotNull Integer i1) {}", METHOD_NAME),
+                "null"
+        );
+        expectRunResult.withExceptionClass(IllegalArgumentException.class)
+                       .withExceptionMessageSnippet("i1")
+                       .atLine(findLineNumber(testSource, "i1"));
+        doTest(testSource);
+    }
+}
@@ -0,0 +1,232 @@
+package tech.harmonysoft.oss.traute.test.suite;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType;
+import tech.harmonysoft.oss.traute.common.settings.CheckStyle;
+import tech.harmonysoft.oss.traute.common.settings.FailureMode;
+import tech.harmonysoft.oss.traute.runtime.TrauteViolations;
+import tech.harmonysoft.oss.traute.runtime.Violation;
+
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.CLASS_NAME;
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.METHOD_NAME;
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.PACKAGE;
+import static tech.harmonysoft.oss.traute.test.util.TestUtil.*;
+
+/**
+ * Holds tests for {@link tech.harmonysoft.oss.traute.common.settings.TrautePluginSettings#isCombineParameterChecks()
+ * combined parameter checks}.
+ */
+public abstract class CombinedParameterCheckTest extends AbstractTrauteTest {
+
+    private static final String THREE_PARAMETERS_METHOD = String.format(
+            "public void %s(@NotNull Integer i1, @NotNull Integer i2, @NotNull Integer i3) {}", METHOD_NAME
+    );
+
+    @BeforeEach
+    public void enableCombinedChecks() {
+        settingsBuilder.withCombineParameterChecks(true);
+    }
+
+    @Test
+    public void firstParameter() {
+        String testSource = prepareParameterTestSource(NotNull.class.getName(), THREE_PARAMETERS_METHOD, "null, 2, 3");
+        expectNpeFromParameterCheck(testSource, "i1", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void middleParameter() {
+        String testSource = prepareParameterTestSource(NotNull.class.getName(), THREE_PARAMETERS_METHOD, "1, null, 3");
+        expectNpeFromParameterCheck(testSource, "i2", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void lastParameter() {
+        String testSource = prepareParameterTestSource(NotNull.class.getName(), THREE_PARAMETERS_METHOD, "1, 2, null");
+        expectNpeFromParameterCheck(testSource, "i3", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void firstNullParameterIsReported() {
+        String testSource = prepareParameterTestSource(NotNull.class.getName(),
+                                                       THREE_PARAMETERS_METHOD,
+                                                       "1, null, null");
+        expectNpeFromParameterCheck(testSource, "i2", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void noNullParameters() {
+        String testSource = prepareParameterTestSource(NotNull.class.getName(), THREE_PARAMETERS_METHOD, "1, 2, 3");
+        doTest(testSource);
+    }
+
+    @Test
+    public void sameMessage() {
+        String testSource = prepareParameterTestSource(
+                NotNull.class.getName(),
+                String.format("public void %s(@NotNull String s, int i, @NotNull Integer j) {}", METHOD_NAME),
+                "\"s\", 1, null"
+        );
+        expectRunResult.withExceptionClass(NullPointerException.class)
+                       .withExceptionMessage(
+                               "Argument 'j' of type Integer (#2 out of 3, zero-based) is marked by @"
+                               + NotNull.class.getName() + " but got null for it"
+                       );
+        doTest(testSource);
+    }
+
+    @Test
+    public void constructorSuper() {
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  public %s(@NotNull Integer first, @NotNull Integer second) {\n" +
+                "    super();\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    new %s(1, null);\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, CLASS_NAME, CLASS_NAME);
+        expectRunResult.withExceptionClass(NullPointerException.class)
+                       .withExceptionMessageSnippet("second")
+                       .atLine(findLineNumber(testSource, "first"));
+        doTest(testSource);
+    }
+
+    @Test
+    public void nonDefaultExceptionToThrow() {
+        settingsBuilder.withExceptionToThrow(InstrumentationType.METHOD_PARAMETER,
+                                             IllegalArgumentException.class.getName());
+        String testSource = prepareParameterTestSource(NotNull.class.getName(), THREE_PARAMETERS_METHOD, "1, null, 3");
+        expectRunResult.withExceptionClass(IllegalArgumentException.class)
+                       .withExceptionMessageSnippet("i2")
+                       .atLine(findLineNumber(testSource, "i2"));
+        doTest(testSource);
+    }
+
+    @Test
+    public void outOfLine() {
+        settingsBuilder.withCheckStyle(CheckStyle.OUT_OF_LINE);
+        String testSource = prepareParameterTestSource(NotNull.class.getName(), THREE_PARAMETERS_METHOD, "1, null, 3");
+        expectNpeFromParameterCheck(testSource, "i2", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void requireNonNull() {
+        settingsBuilder.withCheckStyle(CheckStyle.REQUIRE_NON_NULL);
+        String testSource = prepareParameterTestSource(NotNull.class.getName(), THREE_PARAMETERS_METHOD, "1, 2, null");
+        expectNpeFromParameterCheck(testSource, "i3", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void messageTable() {
+        settingsBuilder.withMessageTable(true);
+        String testSource = prepareParameterTestSource(NotNull.class.getName(), THREE_PARAMETERS_METHOD, "1, null, 3");
+        expectNpeFromParameterCheck(testSource, "i2", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void recordMode() {
+        settingsBuilder.withFailureMode(FailureMode.RECORD);
+        String testSource = prepareParameterTestSource(
+                NotNull.class.getName(),
+                String.format("public void %s(@NotNull Integer i1,\n@NotNull Integer i2) {}", METHOD_NAME),
+                "null, 2);\n" +
+                "    new Test().test(1, null"
+        );
+        Logger logger = Logger.getLogger(TrauteViolations.LOGGER_NAME);
+        boolean useParentHandlers = logger.getUseParentHandlers();
+        logger.setUseParentHandlers(false);
+        TrauteViolations.reset();
+        try {
+            doTest(testSource);
+            Map<String, Violation> violations = TrauteViolations.snapshot();
+            assertEquals(2, violations.size(), violations.toString());
+            assertViolation(violations, findLineNumber(testSource, "Integer i1"), "'i1'");
+            assertViolation(violations, findLineNumber(testSource, "Integer i2"), "'i2'");
+        } finally {
+            TrauteViolations.reset();
+            logger.setUseParentHandlers(useParentHandlers);
+        }
+    }
+
+    @Test
+    public void severalParameterCounts() {
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  public void test(@NotNull String top1, @NotNull String top2, @NotNull String top3) {\n" +
+                "  }\n" +
+                "\n" +
+                "  static class Nested {\n" +
+                "    void test(@NotNull String nested1, @NotNull String nested2) {\n" +
+                "    }\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    new %s().test(\"1\", \"2\", \"3\");\n" +
+                "    new Nested().test(null, \"2\");\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, CLASS_NAME);
+        expectNpeFromParameterCheck(testSource, "nested1", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void interfaceMethod() {
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public interface %s {\n" +
+                "\n" +
+                "  default void test(@NotNull String param1, @NotNull String param2) {\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    new %s() {}.test(\"1\", null);\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, CLASS_NAME);
+        expectNpeFromParameterCheck(testSource, "param2", expectRunResult);
+        doTest(testSource);
+    }
+
+    private static void assertViolation(@NotNull Map<String, Violation> violations,
+                                        int line,
+                                        @NotNull String messageSnippet)
+    {
+        String sitePrefix = String.format("%s.java:%d:", QUALIFIED_CLASS_NAME, line);
+        for (Violation violation : violations.values()) {
+            if (violation.getSite().startsWith(sitePrefix)) {
+                assertEquals(1, violation.getCount(), violations.toString());
+                assertTrue(violation.getMessage().contains(messageSnippet), violations.toString());
+                return;
+            }
+        }
+        fail(String.format("No violation is recorded for site %s: %s", sitePrefix, violations));
+    }
+}
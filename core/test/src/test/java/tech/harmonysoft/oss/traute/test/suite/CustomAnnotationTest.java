@@ -8,6 +8,7 @@ import javax.annotation.Nonnull;
 
 import static tech.harmonysoft.oss.traute.test.util.TestConstants.CLASS_NAME;
 import static tech.harmonysoft.oss.traute.test.util.TestConstants.METHOD_NAME;
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.PACKAGE;
 import static tech.harmonysoft.oss.traute.test.util.TestUtil.*;
 
 /**
@@ -102,4 +103,27 @@ public abstract class CustomAnnotationTest extends AbstractTrauteTest {
         expectNpeFromParameterCheck(testSource, "i1", expectRunResult);
         doTest(String.format("%s.%s", packageName, CLASS_NAME), testSource);
     }
+
+    @Test
+    public void samePackage_nestedAnnotation() {
+        settingsBuilder.withNotNullAnnotations(String.format("%s.%s.Outer.NN", PACKAGE, CLASS_NAME));
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  public static class Outer {\n" +
+                "    public @interface NN {}\n" +
+                "  }\n" +
+                "\n" +
+                "  public void test(@%s.Outer.NN String param) {\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    new %s().test(null);\n" +
+                "  }\n" +
+                "}", PACKAGE, CLASS_NAME, CLASS_NAME, CLASS_NAME);
+        expectNpeFromParameterCheck(testSource, "param", expectRunResult);
+        doTest(testSource);
+    }
 }
@@ -0,0 +1,259 @@
+package tech.harmonysoft.oss.traute.test.suite;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.CLASS_NAME;
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.PACKAGE;
+import static tech.harmonysoft.oss.traute.test.util.TestUtil.expectNpeFromParameterCheck;
+
+/**
+ * Holds tests for {@link tech.harmonysoft.oss.traute.common.settings.TrautePluginSettings#isElideDelegatedChecks()
+ * skipping parameter checks in delegating calls}.
+ */
+public abstract class DelegatedCheckElisionTest extends AbstractTrauteTest {
+
+    /**
+     * Calls the {@code helper(String)} method reflectively with a {@code null} argument. Reflective calls are
+     * not visible to the analysis, that's how we check if the helper's parameter check is skipped.
+     */
+    private static final String CALL_HELPER_WITH_NULL =
+            "    try {\n" +
+            "      %s.class.getDeclaredMethod(\"helper\", String.class).invoke(null, (Object) null);\n" +
+            "    } catch (java.lang.reflect.InvocationTargetException e) {\n" +
+            "      throw (RuntimeException) e.getCause();\n" +
+            "    }\n";
+
+    private static final String HELPER_BODY = " {\n" +
+                                              "    throw new IllegalStateException(\"unchecked\");\n" +
+                                              "  }\n";
+
+    @BeforeEach
+    public void enableElision() {
+        settingsBuilder.withElideDelegatedChecks(true);
+    }
+
+    @Test
+    public void privateMethod_checkedParameterIsPassed() {
+        doHelperTest("  public static void test(@NotNull String s) {\n" +
+                     "    helper(s);\n" +
+                     "  }\n",
+                     "private",
+                     false);
+    }
+
+    @Test
+    public void privateMethod_literalIsPassed() {
+        doHelperTest("  public static void test() {\n" +
+                     "    helper(\"literal\");\n" +
+                     "    helper(\"a\" + 1);\n" +
+                     "    helper(new String());\n" +
+                     "  }\n",
+                     "private",
+                     false);
+    }
+
+    @Test
+    public void privateMethod_uncheckedParameterIsPassed() {
+        doHelperTest("  public static void test(@NotNull String s, String t) {\n" +
+                     "    helper(s);\n" +
+                     "    helper(t);\n" +
+                     "  }\n",
+                     "private",
+                     true);
+    }
+
+    @Test
+    public void privateMethod_reassignedParameterIsPassed() {
+        doHelperTest("  public static void test(@NotNull String s) {\n" +
+                     "    s = System.getProperty(\"unknown-property\");\n" +
+                     "    helper(s);\n" +
+                     "  }\n",
+                     "private",
+                     true);
+    }
+
+    @Test
+    public void privateMethod_nullIsPassed() {
+        doHelperTest("  public static void test(@NotNull String s) {\n" +
+                     "    helper(s);\n" +
+                     "    helper(null);\n" +
+                     "  }\n",
+                     "private",
+                     true);
+    }
+
+    @Test
+    public void privateMethod_noCalls() {
+        doHelperTest("", "private", true);
+    }
+
+    @Test
+    public void privateMethod_methodReference() {
+        doHelperTest("  public static void test(@NotNull String s) {\n" +
+                     "    helper(s);\n" +
+                     "    java.util.function.Consumer<String> consumer = " + CLASS_NAME + "::helper;\n" +
+                     "  }\n",
+                     "private",
+                     true);
+    }
+
+    @Test
+    public void packagePrivateMethod() {
+        doHelperTest("  public static void test(@NotNull String s) {\n" +
+                     "    helper(s);\n" +
+                     "  }\n",
+                     "",
+                     true);
+    }
+
+    @Test
+    public void privateMethod_callFromAnonymousClass() {
+        doHelperTest("  public static Runnable test(@NotNull String s) {\n" +
+                     "    return new Runnable() {\n" +
+                     "      String s = null;\n" +
+                     "      public void run() {\n" +
+                     "        helper(s);\n" +
+                     "      }\n" +
+                     "    };\n" +
+                     "  }\n",
+                     "private",
+                     true);
+    }
+
+    @Test
+    public void constructorChain() {
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  private %s(@NotNull String value, int i) {\n" +
+                "  }\n" +
+                "\n" +
+                "  public %s(@NotNull String name) {\n" +
+                "    this(name, 1);\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    new %s(null);\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, CLASS_NAME, CLASS_NAME, CLASS_NAME);
+        settingsBuilder.withVerboseMode(true);
+        expectCompilationResult.withText("skipped a null-check for argument 'name'", true);
+        expectNpeFromParameterCheck(testSource, "value", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void constructorChain_delegateDoesNotCheck() {
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  public %s(@NotNull String name) {\n" +
+                "    this(name, 1);\n" +
+                "  }\n" +
+                "\n" +
+                "  private %s(String value, int i) {\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    new %s(null);\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, CLASS_NAME, CLASS_NAME, CLASS_NAME);
+        expectNpeFromParameterCheck(testSource, "name", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void privateNestedClassConstructor() {
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  private static class Nested {\n" +
+                "    Nested(@NotNull String nestedParam) {\n" +
+                "    }\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void test(@NotNull String s) {\n" +
+                "    new Nested(s);\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    test(\"ok\");\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME);
+        settingsBuilder.withVerboseMode(true);
+        expectCompilationResult.withText("skipped a null-check for argument 'nestedParam'", true);
+        doTest(testSource);
+    }
+
+    @Test
+    public void combinedChecks() {
+        settingsBuilder.withCombineParameterChecks(true);
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  private static void helper(@NotNull String s1, @NotNull String s2, @NotNull String s3) {\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void test(@NotNull String s, String t) {\n" +
+                "    helper(s, t, t);\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    test(\"ok\", null);\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME);
+        expectNpeFromParameterCheck(testSource, "s2", expectRunResult);
+        doTest(testSource);
+    }
+
+    /**
+     * Compiles a class with the {@code helper(@NotNull String s)} method and the given callers,
+     * then calls the helper reflectively with {@code null}.
+     *
+     * @param callers           caller methods' source code
+     * @param helperModifier    the helper's access modifier
+     * @param checkExpected     {@code true} if the helper's parameter is expected to be checked
+     */
+    private void doHelperTest(@NotNull String callers, @NotNull String helperModifier, boolean checkExpected) {
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  %s static void helper(@NotNull String helperParam)" + HELPER_BODY +
+                "\n" +
+                callers +
+                "\n" +
+                "  public static void main(String[] args) throws Exception {\n" +
+                CALL_HELPER_WITH_NULL +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, helperModifier, CLASS_NAME);
+        if (checkExpected) {
+            expectNpeFromParameterCheck(testSource, "helperParam", expectRunResult);
+        } else {
+            expectRunResult.withExceptionClass(IllegalStateException.class)
+                           .withExceptionMessage("unchecked");
+        }
+        doTest(testSource);
+    }
+}
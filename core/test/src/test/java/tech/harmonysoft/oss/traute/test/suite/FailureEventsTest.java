@@ -0,0 +1,292 @@
+package tech.harmonysoft.oss.traute.test.suite;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.harmonysoft.oss.traute.common.settings.CheckGuard;
+import tech.harmonysoft.oss.traute.common.settings.CheckStyle;
+import tech.harmonysoft.oss.traute.common.settings.FailureMode;
+import tech.harmonysoft.oss.traute.runtime.TrauteEvents;
+import tech.harmonysoft.oss.traute.runtime.TrauteViolations;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static tech.harmonysoft.oss.traute.common.util.TrauteConstants.CHECKS_SYSTEM_PROPERTY;
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.*;
+import static tech.harmonysoft.oss.traute.test.util.TestUtil.*;
+
+/**
+ * Holds tests for {@link tech.harmonysoft.oss.traute.common.settings.TrautePluginSettings#isFailureEvents()
+ * JFR events} committed by failed checks. Test sources are loaded by a class loader which delegates to
+ * the current one, so, their events get into a recording started by the test. The tests are skipped if
+ * the current {@code JVM} has no {@code JFR}.
+ */
+public abstract class FailureEventsTest extends AbstractTrauteTest {
+
+    private Recording recording;
+
+    @BeforeEach
+    public void startRecording() {
+        assumeTrue(TrauteEvents.isAvailable(), "JFR is not available in the current JVM");
+        settingsBuilder.withFailureEvents(true);
+        recording = new Recording();
+        recording.enable(TrauteEvents.EVENT_NAME);
+        recording.start();
+    }
+
+    @AfterEach
+    public void stopRecording() {
+        if (recording != null) {
+            recording.close();
+        }
+        TrauteViolations.reset();
+        System.clearProperty(CHECKS_SYSTEM_PROPERTY);
+    }
+
+    @Test
+    public void parameter() {
+        String testSource = prepareParameterSource();
+        expectNpeFromParameterCheck(testSource, "i1", expectRunResult);
+        doTest(testSource);
+        RecordedEvent event = getSingleEvent();
+        String site = getString(event, "site");
+        if (site != null) {
+            assertTrue(site.startsWith(String.format(
+                    "%s.java:%d:", QUALIFIED_CLASS_NAME, findLineNumber(testSource, "Integer i1"))), site);
+        }
+        assertStringField(QUALIFIED_CLASS_NAME, event, "className");
+        assertStringField(METHOD_NAME, event, "methodName");
+        assertEquals(0, event.getInt("parameterIndex"));
+        assertStringField("i1", event, "parameterName");
+        assertStringField(NotNull.class.getName(), event, "annotation");
+        assertEquals(Thread.currentThread().getName(), event.getThread().getJavaName());
+        List<String> frames = event.getStackTrace().getFrames().stream()
+                                   .map(RecordedFrame::getMethod)
+                                   .map(method -> method.getType().getName() + "." + method.getName())
+                                   .collect(toList());
+        assertTrue(frames.contains(QUALIFIED_CLASS_NAME + "." + METHOD_NAME), frames.toString());
+    }
+
+    @Test
+    public void returnValue() {
+        String testSource = prepareReturnTestSource("return count();");
+        expectNpeFromReturnCheck(testSource, "return count()", expectRunResult);
+        doTest(testSource);
+        RecordedEvent event = getSingleEvent();
+        assertStringField(QUALIFIED_CLASS_NAME, event, "className");
+        assertStringField("test", event, "methodName");
+        assertEquals(TrauteEvents.RETURN_INDEX, event.getInt("parameterIndex"));
+        assertNull(event.getString("parameterName"));
+        assertStringField(NotNull.class.getName(), event, "annotation");
+    }
+
+    @Test
+    public void successfulCheck() {
+        doTest(prepareParameterTestSource(NotNull.class.getName(),
+                                          String.format("public void %s(@NotNull Integer i1) {}", METHOD_NAME),
+                                          "1"));
+        assertTrue(getEvents().isEmpty());
+    }
+
+    @Test
+    public void outOfLine() {
+        settingsBuilder.withCheckStyle(CheckStyle.OUT_OF_LINE);
+        String testSource = prepareParameterSource();
+        expectNpeFromParameterCheck(testSource, "i1", expectRunResult);
+        doTest(testSource);
+        assertStringField("i1", getSingleEvent(), "parameterName");
+    }
+
+    @Test
+    public void requireNonNull() {
+        settingsBuilder.withCheckStyle(CheckStyle.REQUIRE_NON_NULL);
+        String testSource = prepareReturnTestSource("return count();");
+        expectNpeFromReturnCheck(testSource, "return count()", expectRunResult);
+        doTest(testSource);
+        assertEquals(TrauteEvents.RETURN_INDEX, getSingleEvent().getInt("parameterIndex"));
+    }
+
+    @Test
+    public void messageTable() {
+        settingsBuilder.withMessageTable(true);
+        String testSource = prepareParameterSource();
+        expectNpeFromParameterCheck(testSource, "i1", expectRunResult);
+        doTest(testSource);
+        assertStringField("i1", getSingleEvent(), "parameterName");
+    }
+
+    @Test
+    public void combinedChecks() {
+        settingsBuilder.withCombineParameterChecks(true);
+        String testSource = prepareParameterTestSource(
+                NotNull.class.getName(),
+                String.format("public void %s(@NotNull Integer i1,\n@NotNull Integer i2,\n@NotNull Integer i3) {}",
+                              METHOD_NAME),
+                "1, null, null"
+        );
+        expectRunResult.withExceptionClass(NullPointerException.class).withExceptionMessageSnippet("i2");
+        doTest(testSource);
+        RecordedEvent event = getSingleEvent();
+        assertEquals(1, event.getInt("parameterIndex"));
+        assertStringField("i2", event, "parameterName");
+    }
+
+    @Test
+    public void combinedChecksSites() {
+        settingsBuilder.withCombineParameterChecks(true);
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  public void %s(@NotNull Integer i1,\n" +
+                "                   @NotNull Integer i2) {\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    try {\n" +
+                "      new %s().%s(null, 2);\n" +
+                "    } catch (NullPointerException e) {\n" +
+                "    }\n" +
+                "    new %s().%s(1, null);\n" +
+                "  }\n" +
+                "}",
+                PACKAGE, NotNull.class.getName(), CLASS_NAME, METHOD_NAME,
+                CLASS_NAME, METHOD_NAME, CLASS_NAME, METHOD_NAME);
+        expectRunResult.withExceptionClass(NullPointerException.class).withExceptionMessageSnippet("i2");
+        doTest(testSource);
+        List<RecordedEvent> events = getEvents();
+        assertEquals(2, events.size(), events.toString());
+        String[] parameters = { "i1", "i2" };
+        for (int i = 0; i < parameters.length; i++) {
+            RecordedEvent event = events.get(i);
+            assertEquals(i, event.getInt("parameterIndex"));
+            String site = getString(event, "site");
+            if (site != null) {
+                assertTrue(site.startsWith(String.format(
+                        "%s.java:%d:", QUALIFIED_CLASS_NAME, findLineNumber(testSource, "Integer " + parameters[i]))),
+                           site);
+            }
+        }
+    }
+
+    @Test
+    public void notNullByDefault() {
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "@javax.annotation.ParametersAreNonnullByDefault\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  public void %s(Integer i1) {\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    new %s().%s(null);\n" +
+                "  }\n" +
+                "}", PACKAGE, CLASS_NAME, METHOD_NAME, CLASS_NAME, METHOD_NAME);
+        expectNpeFromParameterCheck(testSource, "i1", expectRunResult);
+        doTest(testSource);
+        String annotation = getString(getSingleEvent(), "annotation");
+        if (annotation != null) {
+            assertTrue(annotation.contains("ParametersAreNonnullByDefault"), annotation);
+        }
+    }
+
+    @Test
+    public void recordMode() {
+        settingsBuilder.withFailureMode(FailureMode.RECORD);
+        doTest(prepareParameterSource());
+        assertStringField("i1", getSingleEvent(), "parameterName");
+        assertEquals(1, TrauteViolations.getTotalCount());
+    }
+
+    @Test
+    public void guarded() {
+        settingsBuilder.withCheckGuard(CheckGuard.PROPERTY);
+        System.setProperty(CHECKS_SYSTEM_PROPERTY, "false");
+        doTest(prepareParameterSource());
+        assertTrue(getEvents().isEmpty());
+    }
+
+    @Test
+    public void off() {
+        settingsBuilder.withFailureEvents(false);
+        String testSource = prepareParameterSource();
+        expectNpeFromParameterCheck(testSource, "i1", expectRunResult);
+        doTest(testSource);
+        assertTrue(getEvents().isEmpty());
+    }
+
+    private static void assertStringField(@NotNull String expected,
+                                          @NotNull RecordedEvent event,
+                                          @NotNull String field)
+    {
+        String actual = getString(event, field);
+        if (actual != null) {
+            assertEquals(expected, actual, event.toString());
+        }
+    }
+
+    /**
+     * {@code JFR} of {@code JDK 8} loses pooled (longer than 16 characters) string values of events which are
+     * committed into a recording started after another recording in the same {@code JVM}, they are read as
+     * {@code null} then. Such values are skipped on {@code JDK 8}, later {@code JDK}s are checked strictly.
+     *
+     * @param event     an event to read
+     * @param field     a string field name
+     * @return          the field's value; {@code null} if the value is lost by {@code JDK 8}
+     */
+    private static String getString(@NotNull RecordedEvent event, @NotNull String field) {
+        String result = event.getString(field);
+        if (result == null && !"1.8".equals(System.getProperty("java.specification.version"))) {
+            fail(String.format("Field '%s' is not set: %s", field, event));
+        }
+        return result;
+    }
+
+    @NotNull
+    private RecordedEvent getSingleEvent() {
+        List<RecordedEvent> events = getEvents();
+        assertEquals(1, events.size(), events.toString());
+        return events.get(0);
+    }
+
+    @NotNull
+    private List<RecordedEvent> getEvents() {
+        recording.stop();
+        try {
+            Path file = Files.createTempFile("traute", ".jfr");
+            try {
+                recording.dump(file);
+                return RecordingFile.readAllEvents(file).stream()
+                                    .filter(event -> TrauteEvents.EVENT_NAME.equals(event.getEventType().getName()))
+                                    .collect(toList());
+            } finally {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't read JFR events", e);
+        }
+    }
+
+    @NotNull
+    private static String prepareParameterSource() {
+        return prepareParameterTestSource(NotNull.class.getName(),
+                                          String.format("public void %s(@NotNull Integer i1) {}", METHOD_NAME),
+                                          "null");
+    }
+}
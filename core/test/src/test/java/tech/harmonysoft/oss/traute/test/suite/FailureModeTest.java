@@ -0,0 +1,232 @@
+package tech.harmonysoft.oss.traute.test.suite;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.harmonysoft.oss.traute.common.settings.CheckGuard;
+import tech.harmonysoft.oss.traute.common.settings.CheckStyle;
+import tech.harmonysoft.oss.traute.common.settings.FailureMode;
+import tech.harmonysoft.oss.traute.runtime.TrauteViolations;
+import tech.harmonysoft.oss.traute.runtime.Violation;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static tech.harmonysoft.oss.traute.common.util.TrauteConstants.CHECKS_SYSTEM_PROPERTY;
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.METHOD_NAME;
+import static tech.harmonysoft.oss.traute.test.util.TestUtil.*;
+
+/**
+ * Holds tests for the {@link FailureMode#RECORD record failure mode}. Test sources are loaded by a class loader
+ * which delegates to the current one, so, failures recorded by them are visible through {@link TrauteViolations}.
+ */
+public abstract class FailureModeTest extends AbstractTrauteTest {
+
+    private final java.util.List<LogRecord> logRecords = new ArrayList<>();
+    private final Handler                   logHandler = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            logRecords.add(record);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private boolean useParentHandlers;
+
+    @BeforeEach
+    public void setUpRecording() {
+        settingsBuilder.withFailureMode(FailureMode.RECORD);
+        TrauteViolations.reset();
+        Logger logger = Logger.getLogger(TrauteViolations.LOGGER_NAME);
+        useParentHandlers = logger.getUseParentHandlers();
+        logger.setUseParentHandlers(false);
+        logger.addHandler(logHandler);
+    }
+
+    @AfterEach
+    public void tearDownRecording() {
+        Logger logger = Logger.getLogger(TrauteViolations.LOGGER_NAME);
+        logger.removeHandler(logHandler);
+        logger.setUseParentHandlers(useParentHandlers);
+        TrauteViolations.reset();
+        TrauteViolations.setReportInterval(TrauteViolations.DEFAULT_REPORT_INTERVAL);
+        System.clearProperty(CHECKS_SYSTEM_PROPERTY);
+    }
+
+    @Test
+    public void parameter() {
+        String testSource = prepareParameterSource();
+        doTest(testSource);
+        Violation violation = getSingleViolation();
+        assertEquals(1, violation.getCount());
+        assertTrue(violation.getSite().startsWith(String.format(
+                "%s.java:%d:", QUALIFIED_CLASS_NAME, findLineNumber(testSource, "Integer i1"))),
+                   violation.getSite());
+        assertTrue(violation.getMessage().contains("'i1'"), violation.getMessage());
+    }
+
+    @Test
+    public void returnValue() {
+        String testSource = prepareReturnTestSource("return count();");
+        doTest(testSource);
+        Violation violation = getSingleViolation();
+        assertTrue(violation.getSite().startsWith(String.format(
+                "%s.java:%d:", QUALIFIED_CLASS_NAME, findLineNumber(testSource, "return count()"))),
+                   violation.getSite());
+    }
+
+    @Test
+    public void countedPerSite() {
+        doTest(prepareParameterTestSource(
+                NotNull.class.getName(),
+                String.format("public void %s(@NotNull Integer i1,\n@NotNull Integer i2) {}", METHOD_NAME),
+                "null, null);\n" +
+                "    for (int i = 0; i < 4; i++) {\n" +
+                "      new Test().test(null, 1);\n" +
+                "    }\n" +
+                "    new Test().test(1, 1"
+        ));
+        Map<String, Violation> violations = TrauteViolations.snapshot();
+        assertEquals(2, violations.size(), violations.toString());
+        java.util.List<Violation> values = new ArrayList<>(violations.values());
+        assertEquals(5, values.get(0).getCount(), violations.toString());
+        assertTrue(values.get(0).getMessage().contains("'i1'"), violations.toString());
+        assertEquals(1, values.get(1).getCount(), violations.toString());
+        assertTrue(values.get(1).getMessage().contains("'i2'"), violations.toString());
+        assertEquals(6, TrauteViolations.getTotalCount());
+    }
+
+    @Test
+    public void firstFailureIsReported() {
+        TrauteViolations.setReportInterval(0);
+        doTest(prepareParameterTestSource(
+                NotNull.class.getName(),
+                String.format("public void %s(@NotNull Integer i1) {}", METHOD_NAME),
+                "null);\n" +
+                "    new Test().test(null"
+        ));
+        assertEquals(2, getSingleViolation().getCount());
+        assertEquals(1, logRecords.size());
+        LogRecord record = logRecords.get(0);
+        assertTrue(record.getMessage().contains(getSingleViolation().getSite()), record.getMessage());
+        assertNotNull(record.getThrown());
+        StackTraceElement[] trace = record.getThrown().getStackTrace();
+        assertTrue(trace.length > 0);
+        assertEquals(QUALIFIED_CLASS_NAME, trace[0].getClassName());
+    }
+
+    @Test
+    public void everyFailureIsReported() {
+        TrauteViolations.setReportInterval(1);
+        doTest(prepareParameterTestSource(
+                NotNull.class.getName(),
+                String.format("public void %s(@NotNull Integer i1) {}", METHOD_NAME),
+                "null);\n" +
+                "    new Test().test(null"
+        ));
+        assertEquals(2, logRecords.size());
+    }
+
+    @Test
+    public void outOfLine() {
+        settingsBuilder.withCheckStyle(CheckStyle.OUT_OF_LINE);
+        doTest(prepareParameterSource());
+        assertEquals(1, getSingleViolation().getCount());
+    }
+
+    @Test
+    public void requireNonNull() {
+        settingsBuilder.withCheckStyle(CheckStyle.REQUIRE_NON_NULL);
+        doTest(prepareReturnTestSource("return count();"));
+        assertEquals(1, getSingleViolation().getCount());
+    }
+
+    @Test
+    public void messageTable() {
+        settingsBuilder.withMessageTable(true);
+        doTest(prepareParameterSource());
+        assertTrue(getSingleViolation().getMessage().contains("'i1'"));
+    }
+
+    @Test
+    public void combinedChecks() {
+        settingsBuilder.withCombineParameterChecks(true);
+        doTest(prepareParameterTestSource(
+                NotNull.class.getName(),
+                String.format("public void %s(@NotNull Integer i1, @NotNull Integer i2) {}", METHOD_NAME),
+                "1, null"
+        ));
+        assertTrue(getSingleViolation().getMessage().contains("'i2'"));
+    }
+
+    @Test
+    public void delegatedChecksAreKept() {
+        settingsBuilder.withElideDelegatedChecks(true);
+        doTest(prepareParameterTestSource(
+                NotNull.class.getName(),
+                String.format("public void %s(@NotNull Integer i1) {\n" +
+                              "  delegate(i1);\n" +
+                              "}\n" +
+                              "\n" +
+                              "private void delegate(@NotNull Integer i2) {\n" +
+                              "}", METHOD_NAME),
+                "null"
+        ));
+        assertEquals(2, TrauteViolations.snapshot().size(), TrauteViolations.snapshot().toString());
+    }
+
+    @Test
+    public void returnedParameterIsChecked() {
+        String notNull = NotNull.class.getName();
+        doTest(prepareReturnTestSource("return value(null);\n" +
+                                       "}\n" +
+                                       "\n" +
+                                       "@" + notNull + "\n" +
+                                       "private Integer value(@" + notNull + " Integer i) {\n" +
+                                       "  return i;"));
+        assertEquals(3, TrauteViolations.snapshot().size(), TrauteViolations.snapshot().toString());
+    }
+
+    @Test
+    public void guarded() {
+        settingsBuilder.withCheckGuard(CheckGuard.PROPERTY);
+        System.setProperty(CHECKS_SYSTEM_PROPERTY, "false");
+        doTest(prepareParameterSource());
+        assertTrue(TrauteViolations.snapshot().isEmpty());
+    }
+
+    @Test
+    public void throwMode() {
+        settingsBuilder.withFailureMode(FailureMode.THROW);
+        String testSource = prepareParameterSource();
+        expectNpeFromParameterCheck(testSource, "i1", expectRunResult);
+        doTest(testSource);
+        assertTrue(TrauteViolations.snapshot().isEmpty());
+    }
+
+    @NotNull
+    private static Violation getSingleViolation() {
+        Map<String, Violation> violations = TrauteViolations.snapshot();
+        assertEquals(1, violations.size(), violations.toString());
+        return violations.values().iterator().next();
+    }
+
+    @NotNull
+    private static String prepareParameterSource() {
+        return prepareParameterTestSource(NotNull.class.getName(),
+                                          String.format("public void %s(@NotNull Integer i1) {}", METHOD_NAME),
+                                          "null");
+    }
+}
@@ -4,6 +4,7 @@ import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import tech.harmonysoft.oss.traute.common.settings.LogFormat;
 import tech.harmonysoft.oss.traute.test.fixture.NN;
 
 import javax.tools.JavaFileObject;
@@ -11,6 +12,7 @@ import javax.tools.JavaFileObject;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static tech.harmonysoft.oss.traute.test.util.TestConstants.CLASS_NAME;
@@ -33,12 +35,12 @@ public abstract class LoggingTest extends AbstractTrauteTest {
                 "\n" +
                 "  @NotNull\n" +
                 "  public Integer test(@NotNull Integer i1, @NotNull Integer i2) {\n" +
-                "    return i1 + i2;\n" +
+                "    return Integer.sum(i1, i2);\n" +
                 "  }\n" +
                 "\n" +
                 "  @NotNull\n" +
                 "  private Integer negative(@NotNull Integer i) {\n" +
-                "      return -1 * i;\n" +
+                "      return Integer.valueOf(-1 * i);\n" +
                 "  }\n" +
                 "\n" +
                 "  public static void main(String[] args) {\n" +
@@ -73,17 +75,17 @@ public abstract class LoggingTest extends AbstractTrauteTest {
                 "\n" +
                 "  @NotNull\n" +
                 "  public Integer test(@NotNull Integer i1, @NotNull Integer i2) {\n" +
-                "    return i1 + i2;\n" +
+                "    return Integer.sum(i1, i2);\n" +
                 "  }\n" +
                 "\n" +
                 "  class Inner {\n" +
                 "    @NotNull\n" +
-                "    String inner(@NotNull String s) { return s + 1;}\n" +
+                "    String inner(@NotNull String s) { return s.concat(\"1\");}\n" +
                 "  }\n" +
                 "\n" +
                 "  static class StaticInner {\n" +
                 "    @NotNull\n" +
-                "    String staticInner(@NotNull String s) { return s + 2;}\n" +
+                "    String staticInner(@NotNull String s) { return s.concat(\"2\");}\n" +
                 "  }\n" +
                 "\n" +
                 "  public static void main(String[] args) {\n" +
@@ -98,6 +100,28 @@ public abstract class LoggingTest extends AbstractTrauteTest {
         doCompile(testSource);
     }
 
+    @Test
+    public void verbose_compilationStats() {
+        settingsBuilder.withVerboseMode(true);
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  @NotNull\n" +
+                "  public Integer test(@NotNull Integer i1, @NotNull Integer i2) {\n" +
+                "    return Integer.sum(i1, i2);\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME);
+
+        expectCompilationResult.withText(
+                "added 3 instrumentations to 1 source file in total - METHOD_PARAMETER: 2, METHOD_RETURN: 1"
+        );
+        doCompile(testSource);
+    }
+
     @Test
     public void customSetting_annotations() {
         settingsBuilder.withNotNullAnnotations(NN.class.getName());
@@ -133,6 +157,30 @@ public abstract class LoggingTest extends AbstractTrauteTest {
                    String.format("Expected text '%s' to contain '%s'", logs, toContain));
     }
 
+    @Test
+    public void logFile_json() throws IOException {
+        File logFile = Files.createTempFile("", "traute.log").toFile();
+        settingsBuilder.withLogFile(logFile)
+                       .withLogFormat(LogFormat.JSON)
+                       .withVerboseMode(true);
+        doCompile(prepareParameterTestSource(NotNull.class.getName(),
+                                             "public void test(@NotNull Integer i) {}",
+                                             "1"));
+
+        List<String> lines = Files.readAllLines(logFile.toPath());
+        assertTrue(lines.stream().allMatch(line -> line.startsWith("{\"level\":\"") && line.endsWith("}")),
+                   String.format("Expected all lines to be JSON objects but got %s", lines));
+        String expectedRecord = String.format(
+                "\\{\"level\":\"INFO\",\"type\":\"METHOD_PARAMETER\",\"file\":\".*?/%s/%s%s\","
+                + "\"method\":\"%s.%s.test\",\"line\":\\d+,\"column\":\\d+,"
+                + "\"message\":\"added a null-check for argument 'i' in the method %s.%s.test\\(\\)\"\\}",
+                PACKAGE.replaceAll("\\.", "/"), CLASS_NAME, JavaFileObject.Kind.SOURCE.extension,
+                PACKAGE, CLASS_NAME, PACKAGE, CLASS_NAME
+        );
+        assertTrue(lines.stream().anyMatch(line -> line.matches(expectedRecord)),
+                   String.format("Expected to find a record matching '%s' in %s", expectedRecord, lines));
+    }
+
     @Test
     public void innerClass() {
         settingsBuilder.withVerboseMode(true);
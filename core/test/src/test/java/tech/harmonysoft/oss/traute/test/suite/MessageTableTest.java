@@ -0,0 +1,231 @@
+package tech.harmonysoft.oss.traute.test.suite;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType;
+import tech.harmonysoft.oss.traute.common.settings.CheckStyle;
+
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.CLASS_NAME;
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.METHOD_NAME;
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.PACKAGE;
+import static tech.harmonysoft.oss.traute.test.util.TestUtil.*;
+
+/**
+ * Holds tests for {@link tech.harmonysoft.oss.traute.common.settings.TrautePluginSettings#isMessageTable()
+ * failure messages kept in message tables}.
+ */
+public abstract class MessageTableTest extends AbstractTrauteTest {
+
+    @BeforeEach
+    public void enableMessageTable() {
+        settingsBuilder.withMessageTable(true);
+    }
+
+    @Test
+    public void parameter() {
+        String testSource = prepareParameterTestSource(
+                NotNull.class.getName(),
+                String.format("public void %s(@NotNull Integer i1, @NotNull Integer i2, @NotNull Integer i3) {}",
+                              METHOD_NAME),
+                "1, 2, null"
+        );
+        expectNpeFromParameterCheck(testSource, "i3", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void methodReturn() {
+        String testSource = prepareReturnTestSource("return count();");
+        expectNpeFromReturnCheck(testSource, "count()", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void messagesAreMovedToTable() {
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  public void test(@NotNull String param) {\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) throws Exception {\n" +
+                "    %s.class.getDeclaredMethod(\"traute$fail$parameter\", int.class);\n" +
+                "    java.lang.reflect.Method table = Class.forName(\"%s.%s$traute$messages\")\n" +
+                "                                          .getDeclaredMethod(\"get\", int.class);\n" +
+                "    table.setAccessible(true);\n" +
+                "    throw new IllegalStateException((String) table.invoke(null, 0));\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, CLASS_NAME, PACKAGE, CLASS_NAME);
+        expectRunResult.withExceptionClass(IllegalStateException.class)
+                       .withExceptionMessageSnippet("'param'");
+        doTest(testSource);
+    }
+
+    @Test
+    public void tableIsLoadedOnFailure() {
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  public void test(@NotNull String param) {\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) throws Exception {\n" +
+                "    java.lang.reflect.Method loaded = ClassLoader.class.getDeclaredMethod(\"findLoadedClass\",\n" +
+                "                                                                          String.class);\n" +
+                "    loaded.setAccessible(true);\n" +
+                "    String table = \"%s.%s$traute$messages\";\n" +
+                "    new %s().test(\"ok\");\n" +
+                "    if (loaded.invoke(%s.class.getClassLoader(), table) != null) {\n" +
+                "      throw new IllegalStateException(\"message table is loaded before a failure\");\n" +
+                "    }\n" +
+                "    try {\n" +
+                "      new %s().test(null);\n" +
+                "    } catch (NullPointerException e) {\n" +
+                "      if (loaded.invoke(%s.class.getClassLoader(), table) != null) {\n" +
+                "        throw new IllegalStateException(\"message table is loaded on failure: \" + e.getMessage());\n" +
+                "      }\n" +
+                "    }\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, PACKAGE, CLASS_NAME, CLASS_NAME, CLASS_NAME,
+                CLASS_NAME, CLASS_NAME);
+        expectRunResult.withExceptionClass(IllegalStateException.class)
+                       .withExceptionMessageSnippet("'param'");
+        doTest(testSource);
+    }
+
+    @Test
+    public void largeTable() {
+        // Distinct words don't fit into single byte codes and the table doesn't fit into a single string constant
+        StringBuilder methods = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            methods.append(String.format("  public void test%d(@NotNull String %s) {\n  }\n\n",
+                                         i, getLongName(i)));
+        }
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "%s" +
+                "  public static void main(String[] args) {\n" +
+                "    new %s().test299(null);\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, methods, CLASS_NAME);
+        expectNpeFromParameterCheck(testSource, getLongName(299), expectRunResult);
+        doTest(testSource);
+    }
+
+    @NotNull
+    private static String getLongName(int i) {
+        StringBuilder result = new StringBuilder("param").append(i);
+        while (result.length() < 300) {
+            result.append('_').append(i);
+        }
+        return result.toString();
+    }
+
+    @Test
+    public void severalTopLevelClasses() {
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  public void test(@NotNull String param1) {\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    new %s().test(\"ok\");\n" +
+                "    new Second().test(\"ok\", null);\n" +
+                "  }\n" +
+                "}\n" +
+                "\n" +
+                "class Second {\n" +
+                "\n" +
+                "  void test(@NotNull String param2, @NotNull String param3) {\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, CLASS_NAME);
+        expectNpeFromParameterCheck(testSource, "param3", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void nestedClass() {
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  static class Nested {\n" +
+                "    @NotNull\n" +
+                "    String test() {\n" +
+                "      return System.getProperty(\"unknown-property\");\n" +
+                "    }\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    new Nested().test();\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME);
+        expectNpeFromReturnCheck(testSource, "System.getProperty", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void nonDefaultExceptionToThrow() {
+        settingsBuilder.withExceptionToThrow(InstrumentationType.METHOD_PARAMETER,
+                                             IllegalArgumentException.class.getName());
+        String testSource = prepareParameterTestSource(
+                NotNull.class.getName(),
+                String.format("public void %s(@NotNull Integer i1) {}", METHOD_NAME),
+                "null"
+        );
+        expectRunResult.withExceptionClass(IllegalArgumentException.class)
+                       .withExceptionMessageSnippet("i1")
+                       .atLine(findLineNumber(testSource, "i1"));
+        doTest(testSource);
+    }
+
+    @Test
+    public void requireNonNullStyle() {
+        settingsBuilder.withCheckStyle(CheckStyle.REQUIRE_NON_NULL);
+        String testSource = prepareReturnTestSource("return count();");
+        expectNpeFromReturnCheck(testSource, "count()", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void interfaceFallsBackToInline() {
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public interface %s {\n" +
+                "\n" +
+                "  default void test(@NotNull String param) {\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    new %s() {}.test(null);\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, CLASS_NAME);
+        expectNpeFromParameterCheck(testSource, "param", expectRunResult);
+        doTest(testSource);
+    }
+}
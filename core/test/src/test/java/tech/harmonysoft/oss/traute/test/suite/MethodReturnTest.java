@@ -627,6 +627,62 @@ public abstract class MethodReturnTest extends AbstractTrauteTest {
         doTest(testSource);
     }
 
+    @Test
+    public void returnAfterAnonymousClass() {
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  @NotNull\n" +
+                "  public Object test() {\n" +
+                "    Runnable runnable = new Runnable() {\n" +
+                "      public void run() {\n" +
+                "      }\n" +
+                "    };\n" +
+                "    runnable.run();\n" +
+                "    return null;\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    new %s().test();\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, CLASS_NAME);
+        expectNpeFromReturnCheck(testSource, "return null", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void lambdaReturnIsNotInstrumented() {
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "import java.util.function.Supplier;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  @NotNull\n" +
+                "  public Object test() {\n" +
+                "    Supplier<String> supplier = () -> {\n" +
+                "      return null;\n" +
+                "    };\n" +
+                "    if (supplier.get() == null) {\n" +
+                "      return null;\n" +
+                "    }\n" +
+                "    return 1;\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    new %s().test();\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME, CLASS_NAME);
+        expectNpeFromReturnCheck(testSource, "      return null;\n    }\n    return 1", expectRunResult);
+        doTest(testSource);
+    }
+
     @Test
     public void constructor() {
         String testSource = String.format(
@@ -665,6 +721,29 @@ public abstract class MethodReturnTest extends AbstractTrauteTest {
         doTest(testSource);
     }
 
+    @Test
+    public void customExceptionText() {
+        settingsBuilder.withExceptionTextPattern(METHOD_RETURN, "${METHOD_NAME}() must not return null ${RETURN_TYPE}");
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  @%s\n" +
+                "  public String test(){\n" +
+                "    return null;\n" +
+                "  }\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    new %s().test();\n" +
+                "  }\n" +
+                "}", PACKAGE, CLASS_NAME, NotNull.class.getName(), CLASS_NAME);
+        expectRunResult.withExceptionClass(NullPointerException.class)
+                       .withExceptionMessageSnippet("test() must not return null String")
+                       .atLine(findLineNumber(testSource, "return null"));
+        doTest(testSource);
+    }
+
     @Test
     public void notNullByDefault_defaultAnnotation() {
         String packageInfoSource = String.format(
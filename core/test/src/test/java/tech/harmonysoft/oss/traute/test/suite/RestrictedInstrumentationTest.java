@@ -6,7 +6,9 @@ import tech.harmonysoft.oss.traute.test.util.TestUtil;
 
 import static tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType.METHOD_PARAMETER;
 import static tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType.METHOD_RETURN;
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.CLASS_NAME;
 import static tech.harmonysoft.oss.traute.test.util.TestConstants.METHOD_NAME;
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.PACKAGE;
 import static tech.harmonysoft.oss.traute.test.util.TestUtil.prepareParameterTestSource;
 
 public abstract class RestrictedInstrumentationTest extends AbstractTrauteTest {
@@ -29,6 +31,29 @@ public abstract class RestrictedInstrumentationTest extends AbstractTrauteTest {
         doTest(testSource);
     }
 
+    @Test
+    public void parameterOnly_anonymousClassInsideExpression() {
+        settingsBuilder.withInstrumentationToApply(METHOD_PARAMETER);
+        String testSource = String.format(
+                "package %s;\n" +
+                "\n" +
+                "import %s;\n" +
+                "\n" +
+                "public class %s {\n" +
+                "\n" +
+                "  public static void main(String[] args) {\n" +
+                "    Object[] holder = { String.valueOf(((Object) new Object() {\n" +
+                "      @Override\n" +
+                "      public boolean equals(@NotNull Object nestedParam) {\n" +
+                "        return false;\n" +
+                "      }\n" +
+                "    }).equals(null)) };\n" +
+                "  }\n" +
+                "}", PACKAGE, NotNull.class.getName(), CLASS_NAME);
+        TestUtil.expectNpeFromParameterCheck(testSource, "nestedParam", expectRunResult);
+        doTest(testSource);
+    }
+
     @Test
     public void restrictedInstrumentation_returnOnly_noCheckForParameter() {
         settingsBuilder.withInstrumentationToApply(METHOD_RETURN);
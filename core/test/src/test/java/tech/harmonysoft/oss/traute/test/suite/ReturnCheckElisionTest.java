@@ -0,0 +1,181 @@
+package tech.harmonysoft.oss.traute.test.suite;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaFileObject;
+
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.CLASS_NAME;
+import static tech.harmonysoft.oss.traute.test.util.TestConstants.PACKAGE;
+import static tech.harmonysoft.oss.traute.test.util.TestUtil.expectNpeFromReturnCheck;
+
+/**
+ * Holds tests which check that {@code return} expressions which can't be {@code null} are not instrumented.
+ */
+public abstract class ReturnCheckElisionTest extends AbstractTrauteTest {
+
+    private static final String TEST_CLASS_TEMPLATE =
+            "package %s;\n" +
+            "\n" +
+            "import %s;\n" +
+            "\n" +
+            "public class %s {\n" +
+            "\n" +
+            "  private String field;\n" +
+            "\n" +
+            "  @NotNull\n" +
+            "  public %s test(boolean flag, @NotNull String checked, String unchecked) {\n" +
+            "    %s\n" +
+            "  }\n" +
+            "\n" +
+            "  public static void main(String[] args) {\n" +
+            "    new %s().test(args.length == 0, \"checked\", null);\n" +
+            "  }\n" +
+            "}";
+
+    private static final String ELIDED_TEXT = "skipped a null-check for 'return' expression";
+    private static final String ADDED_TEXT  = "added a null-check for 'return' expression";
+
+    @BeforeEach
+    public void enableVerboseMode() {
+        settingsBuilder.withVerboseMode(true);
+    }
+
+    @Test
+    public void elided_this() {
+        doElisionTest(CLASS_NAME, "return this;", true);
+    }
+
+    @Test
+    public void elided_newObject() {
+        doElisionTest("Object", "return new Object();", true);
+    }
+
+    @Test
+    public void elided_newArray() {
+        doElisionTest("String[]", "return new String[] { checked };", true);
+    }
+
+    @Test
+    public void elided_literal() {
+        doElisionTest("String", "return flag ? \"a\" : \"b\";", true);
+    }
+
+    @Test
+    public void elided_concatenation() {
+        doElisionTest("String", "return unchecked + 1;", true);
+    }
+
+    @Test
+    public void elided_boxing() {
+        doElisionTest("Integer", "return 1;", true);
+    }
+
+    @Test
+    public void elided_primitiveLocal() {
+        doElisionTest("Integer", "int i = unchecked == null ? 0 : unchecked.length();\nreturn i;", true);
+    }
+
+    @Test
+    public void elided_local() {
+        doElisionTest("String",
+                      "String result;\n" +
+                      "if (flag) {\n" +
+                      "  result = \"a\";\n" +
+                      "} else {\n" +
+                      "  result = checked;\n" +
+                      "}\n" +
+                      "return result;",
+                      true);
+    }
+
+    @Test
+    public void elided_checkedParameter() {
+        doElisionTest("String", "return checked;", true);
+    }
+
+    @Test
+    public void kept_uncheckedParameter() {
+        String testSource = prepareSource("String", "return unchecked;");
+        expectNpeFromReturnCheck(testSource, "return unchecked", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void kept_localAssignedNull() {
+        String testSource = prepareSource("String",
+                                          "String result = \"a\";\n" +
+                                          "if (flag) {\n" +
+                                          "  result = unchecked;\n" +
+                                          "}\n" +
+                                          "return result;");
+        expectNpeFromReturnCheck(testSource, "return result", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void kept_reassignedParameter() {
+        String testSource = prepareSource("String", "checked = unchecked;\nreturn checked;");
+        expectNpeFromReturnCheck(testSource, "return checked", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void kept_fieldWithLocalNameFromAnotherScope() {
+        String testSource = prepareSource("String",
+                                          "if (flag) {\n" +
+                                          "  String field = \"a\";\n" +
+                                          "}\n" +
+                                          "return field;");
+        expectNpeFromReturnCheck(testSource, "return field", expectRunResult);
+        doTest(testSource);
+    }
+
+    @Test
+    public void kept_localWithSameNameInAnotherScope() {
+        doElisionTest("String",
+                      "if (flag) {\n" +
+                      "  String s = unchecked;\n" +
+                      "}\n" +
+                      "String s = \"a\";\n" +
+                      "return s;",
+                      false);
+    }
+
+    @Test
+    public void kept_lambdaParameterWithSameName() {
+        doElisionTest("String",
+                      "java.util.function.Function<String, String> f = s -> s;\n" +
+                      "String s = checked;\n" +
+                      "return s;",
+                      false);
+    }
+
+    @Test
+    public void elidedStats() {
+        String testSource = prepareSource("String", "return flag ? checked : \"b\";");
+        expectCompilationResult.withText(String.format(
+                "added 1 instrumentation to the .*?/%s/%s%s - METHOD_PARAMETER: 1, elided - METHOD_RETURN: 1",
+                PACKAGE.replaceAll("\\.", "/"), CLASS_NAME, JavaFileObject.Kind.SOURCE.extension
+        ));
+        doTest(testSource);
+    }
+
+    private void doElisionTest(@NotNull String returnType, @NotNull String body, boolean elided) {
+        expectCompilationResult.withText(ELIDED_TEXT, elided);
+        expectCompilationResult.withText(ADDED_TEXT, !elided);
+        doTest(prepareSource(returnType, body));
+    }
+
+    @NotNull
+    private static String prepareSource(@NotNull String returnType, @NotNull String body) {
+        return String.format(TEST_CLASS_TEMPLATE,
+                             PACKAGE,
+                             NotNull.class.getName(),
+                             CLASS_NAME,
+                             returnType,
+                             body.replaceAll("\n", "\n    "),
+                             CLASS_NAME);
+    }
+}
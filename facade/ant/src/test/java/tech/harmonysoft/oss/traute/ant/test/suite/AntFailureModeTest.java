@@ -0,0 +1,9 @@
+package tech.harmonysoft.oss.traute.ant.test.suite;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import tech.harmonysoft.oss.traute.ant.test.impl.TrauteAntExtension;
+import tech.harmonysoft.oss.traute.test.suite.FailureModeTest;
+
+@ExtendWith(TrauteAntExtension.class)
+public class AntFailureModeTest extends FailureModeTest {
+}
@@ -0,0 +1,50 @@
+package tech.harmonysoft.oss.traute.gradle
+
+import org.gradle.api.provider.Provider
+import org.gradle.api.tasks.Input
+import org.gradle.api.tasks.Internal
+import org.gradle.process.CommandLineArgumentProvider
+import org.jetbrains.annotations.NotNull
+
+/**
+ * <p>
+ *     Provides Traute javac plugin arguments to a {@code JavaCompile} task. Only arguments which affect
+ *     the compiled classes are task inputs, the log file and cache directory paths are not - they differ
+ *     between machines and checkout directories and would prevent the task from being loaded from the
+ *     <a href="https://docs.gradle.org/current/userguide/build_cache.html">build cache</a>.
+ * </p>
+ * <p>
+ *     Is used only on Gradle 4.5 and later, earlier versions don't know about argument providers.
+ * </p>
+ */
+class TrauteCompilerArguments implements CommandLineArgumentProvider {
+
+    private final Provider<List<String>> arguments
+    private final Provider<List<String>> localArguments
+
+    /**
+     * @param arguments         arguments which affect the compiled classes
+     * @param localArguments    arguments which refer to local files and don't affect the compiled classes
+     */
+    TrauteCompilerArguments(@NotNull Provider<List<String>> arguments,
+                            @NotNull Provider<List<String>> localArguments)
+    {
+        this.arguments = arguments
+        this.localArguments = localArguments
+    }
+
+    @Input
+    List<String> getArguments() {
+        return arguments.get()
+    }
+
+    @Internal
+    List<String> getLocalArguments() {
+        return localArguments.get()
+    }
+
+    @Override
+    Iterable<String> asArguments() {
+        return getArguments() + getLocalArguments()
+    }
+}
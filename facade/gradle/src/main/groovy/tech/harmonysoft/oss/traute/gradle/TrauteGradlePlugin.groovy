@@ -1,48 +1,342 @@
 package tech.harmonysoft.oss.traute.gradle
 
 import org.gradle.api.Plugin
+import org.gradle.api.NamedDomainObjectContainer
 import org.gradle.api.Project
 import org.gradle.api.artifacts.Configuration
+import org.gradle.api.artifacts.FileCollectionDependency
 import org.gradle.api.file.FileCollection
+import org.gradle.api.model.ObjectFactory
+import org.gradle.api.plugins.JavaBasePlugin
 import org.gradle.api.plugins.PluginInstantiationException
+import org.gradle.api.provider.Property
+import org.gradle.api.provider.Provider
+import org.gradle.api.tasks.SourceSet
 import org.gradle.api.tasks.compile.JavaCompile
+import org.gradle.util.GradleVersion
 import org.jetbrains.annotations.NotNull
+import org.jetbrains.annotations.Nullable
 import tech.harmonysoft.oss.traute.common.instrumentation.InstrumentationType
+import tech.harmonysoft.oss.traute.common.settings.CheckGuard
+import tech.harmonysoft.oss.traute.common.settings.CheckStyle
+import tech.harmonysoft.oss.traute.common.settings.FailureMode
+import tech.harmonysoft.oss.traute.common.settings.LogFormat
 import tech.harmonysoft.oss.traute.common.settings.TrautePluginSettingsBuilder
 import tech.harmonysoft.oss.traute.javac.log.TrautePluginLogger
 
 import static tech.harmonysoft.oss.traute.common.util.TrauteConstants.*
 
+/**
+ * Holds Traute settings of a Java source set or an Android build variant, they take precedence over
+ * the {@link TrautePluginExtension project-wide settings}.
+ */
+class TrauteScopeSettings {
+    final String name
+    private final Property<Boolean> enabled
+    private final Property<Object> instrumentations
+    private final Property<Object> checkStyle
+
+    TrauteScopeSettings(String name, ObjectFactory objects) {
+        this.name = name
+        enabled = objects.property(Boolean)
+        instrumentations = objects.property(Object)
+        checkStyle = objects.property(Object)
+    }
+
+    void setEnabled(value) {
+        enabled.set(value)
+    }
+
+    void setInstrumentations(value) {
+        instrumentations.set(value)
+    }
+
+    void setCheckStyle(value) {
+        checkStyle.set(value)
+    }
+
+    /**
+     * @return  current setting values by setting names, only defined values are included
+     */
+    @NotNull
+    Map<String, Object> snapshot() {
+        def result = [enabled: enabled.getOrElse(true)]
+        if (instrumentations.present) {
+            result.instrumentations = instrumentations.get()
+        }
+        if (checkStyle.present) {
+            result.checkStyle = checkStyle.get()
+        }
+        return result
+    }
+}
+
+/**
+ * Holds Traute settings of a project. The values are {@link Property properties}, so, they might be assigned
+ * from {@link Provider providers} and are read only when compilation task arguments are built.
+ */
 class TrautePluginExtension {
-    def notNullAnnotations
-    def nullableAnnotations
-    def notNullByDefaultAnnotations
-    def instrumentations
-    def exceptionsToThrow
-    def exceptionTexts
-    def logFile
-    boolean verbose
+    private final Property<Object> notNullAnnotations
+    private final Property<Object> nullableAnnotations
+    private final Property<Object> notNullByDefaultAnnotations
+    private final Property<Object> instrumentations
+    private final Property<Object> exceptionsToThrow
+    private final Property<Object> exceptionTexts
+    private final Property<Object> logFile
+    private final Property<Object> logFormat
+    private final Property<Object> cacheDir
+    private final Property<Object> checkStyle
+    private final Property<Object> checkGuard
+    private final Property<Object> failureMode
+    private final Property<Boolean> failureEvents
+    private final Property<Boolean> messageTable
+    private final Property<Boolean> combineParameterChecks
+    private final Property<Boolean> elideDelegatedChecks
+    private final Property<Boolean> verbose
+    final NamedDomainObjectContainer<TrauteScopeSettings> sourceSets
+    final NamedDomainObjectContainer<TrauteScopeSettings> variants
+
+    TrautePluginExtension(Project project) {
+        def objects = project.objects
+        sourceSets = project.container(TrauteScopeSettings) { new TrauteScopeSettings(it, objects) }
+        variants = project.container(TrauteScopeSettings) { new TrauteScopeSettings(it, objects) }
+        notNullAnnotations = objects.property(Object)
+        nullableAnnotations = objects.property(Object)
+        notNullByDefaultAnnotations = objects.property(Object)
+        instrumentations = objects.property(Object)
+        exceptionsToThrow = objects.property(Object)
+        exceptionTexts = objects.property(Object)
+        logFile = objects.property(Object)
+        logFormat = objects.property(Object)
+        cacheDir = objects.property(Object)
+        checkStyle = objects.property(Object)
+        checkGuard = objects.property(Object)
+        failureMode = objects.property(Object)
+        failureEvents = objects.property(Boolean)
+        messageTable = objects.property(Boolean)
+        combineParameterChecks = objects.property(Boolean)
+        elideDelegatedChecks = objects.property(Boolean)
+        verbose = objects.property(Boolean)
+    }
+
+    void setNotNullAnnotations(value) {
+        notNullAnnotations.set(value)
+    }
+
+    void setNullableAnnotations(value) {
+        nullableAnnotations.set(value)
+    }
+
+    void setNotNullByDefaultAnnotations(value) {
+        notNullByDefaultAnnotations.set(value)
+    }
+
+    void setInstrumentations(value) {
+        instrumentations.set(value)
+    }
+
+    void setExceptionsToThrow(value) {
+        exceptionsToThrow.set(value)
+    }
+
+    void setExceptionTexts(value) {
+        exceptionTexts.set(value)
+    }
+
+    void setLogFile(value) {
+        logFile.set(value)
+    }
+
+    void setLogFormat(value) {
+        logFormat.set(value)
+    }
+
+    void setCacheDir(value) {
+        cacheDir.set(value)
+    }
+
+    void setCheckStyle(value) {
+        checkStyle.set(value)
+    }
+
+    void setCheckGuard(value) {
+        checkGuard.set(value)
+    }
+
+    void setFailureMode(value) {
+        failureMode.set(value)
+    }
+
+    void setFailureEvents(value) {
+        failureEvents.set(value)
+    }
+
+    void setMessageTable(value) {
+        messageTable.set(value)
+    }
+
+    void setCombineParameterChecks(value) {
+        combineParameterChecks.set(value)
+    }
+
+    void setElideDelegatedChecks(value) {
+        elideDelegatedChecks.set(value)
+    }
+
+    void setVerbose(value) {
+        verbose.set(value)
+    }
+
+    void sourceSets(Closure closure) {
+        sourceSets.configure(closure)
+    }
+
+    void variants(Closure closure) {
+        variants.configure(closure)
+    }
+
+    /**
+     * @param android   {@code true} if given scope is an Android build variant, {@code false} for a Java source set
+     * @param scope     a source set or variant name, {@code null} for a compilation task which has none of them
+     * @return          current setting values by setting names
+     */
+    @NotNull
+    Map<String, Object> snapshot(boolean android, @Nullable String scope) {
+        def result = [
+                notNullAnnotations: notNullAnnotations.getOrNull(),
+                nullableAnnotations: nullableAnnotations.getOrNull(),
+                notNullByDefaultAnnotations: notNullByDefaultAnnotations.getOrNull(),
+                instrumentations: instrumentations.getOrNull(),
+                exceptionsToThrow: exceptionsToThrow.getOrNull(),
+                exceptionTexts: exceptionTexts.getOrNull(),
+                logFile: logFile.getOrNull(),
+                logFormat: logFormat.getOrNull(),
+                cacheDir: cacheDir.getOrNull(),
+                checkStyle: checkStyle.getOrNull(),
+                checkGuard: checkGuard.getOrNull(),
+                failureMode: failureMode.getOrNull(),
+                failureEvents: failureEvents.getOrElse(false),
+                messageTable: messageTable.getOrElse(false),
+                combineParameterChecks: combineParameterChecks.getOrElse(false),
+                elideDelegatedChecks: elideDelegatedChecks.getOrElse(false),
+                verbose: verbose.getOrElse(false),
+                enabled: true
+        ]
+        def scopeSettings = scope == null ? null : (android ? variants : sourceSets).findByName(scope)
+        if (scopeSettings != null) {
+            result.putAll(scopeSettings.snapshot())
+        }
+        return result
+    }
 }
 
 class TrauteGradlePlugin implements Plugin<Project> {
 
+    private static final String ANNOTATION_PROCESSOR_CONFIGURATION = 'annotationProcessor'
+
     @Override
     void apply(Project project) {
-        def extension = project.extensions.create('traute', TrautePluginExtension)
+        def extension = project.extensions.create('traute', TrautePluginExtension, project)
         def javacPluginFiles = getJavacPluginFiles(project)
 
+        // Plugin files are added only to source sets and tasks for which Traute is enabled. That is known only
+        // after the build script is evaluated, so, the files are provided lazily
+        def mainFiles = getScopeFiles(project, extension, javacPluginFiles, false, SourceSet.MAIN_SOURCE_SET_NAME)
+
         // We support Android projects by configuring Traute as a 'annotationProcessor' configuration's dependency
         // (https://developer.android.com/studio/build/gradle-plugin-3-0-0-migration.html#annotationProcessor_config).
-        // We need to do that before the configuration is resolved (https://github.com/denis-zhdanov/traute/issues/89),
-        // so, that is done at the very beginning of plugin's initialization.
-        def conf = project.configurations.maybeCreate('annotationProcessor')
-        conf.dependencies.add(project.dependencies.create(javacPluginFiles))
-
-        project.afterEvaluate {
-            project.tasks.withType(JavaCompile) {
-                applyOptions(project, javacPluginFiles, it, extension)
+        // We need to do that before the configuration is resolved (https://github.com/denis-zhdanov/traute/issues/89).
+        if (isLazyConfigurationSupported(project)) {
+            // The dependency is added as soon as the configuration is created by the Java or Android plugin
+            project.configurations.matching { it.name == ANNOTATION_PROCESSOR_CONFIGURATION }.all {
+                it.dependencies.add(project.dependencies.create(mainFiles))
+            }
+            project.plugins.withType(JavaBasePlugin) {
+                project.sourceSets.all { SourceSet sourceSet ->
+                    if (sourceSet.annotationProcessorConfigurationName != ANNOTATION_PROCESSOR_CONFIGURATION) {
+                        project.dependencies.add(
+                                sourceSet.annotationProcessorConfigurationName,
+                                getScopeFiles(project, extension, javacPluginFiles, false, sourceSet.name)
+                        )
+                    }
+                }
+            }
+            project.plugins.withId('net.ltgt.apt') {
+                project.tasks.withType(JavaCompile).configureEach { JavaCompile task ->
+                    if (!isAndroidTask(task)) {
+                        mayBeApplyAptProcessorPath(task, getScopeFiles(
+                                project, extension, javacPluginFiles, false, getScope(project, task)
+                        ))
+                    }
+                }
+            }
+            project.tasks.withType(JavaCompile).configureEach { JavaCompile task ->
+                def android = isAndroidTask(task)
+                def scope = getScope(project, task)
+                if (!android) {
+                    // Gradle looks for annotation processors declared in the processor path entries. There are
+                    // no processors in the Traute files, so, the task is still compiled incrementally
+                    def files = getScopeFiles(project, extension, javacPluginFiles, false, scope)
+                    def processorPath = task.options.annotationProcessorPath
+                    task.options.annotationProcessorPath = processorPath == null ? files : processorPath + files
+                }
+                task.options.compilerArgumentProviders << createArguments(project, extension, android, scope)
             }
+        } else {
+            // That is done at the very beginning of plugin's initialization on older Gradle versions
+            def conf = project.configurations.maybeCreate(ANNOTATION_PROCESSOR_CONFIGURATION)
+            conf.dependencies.add(project.dependencies.create(mainFiles))
+
+            project.afterEvaluate {
+                project.tasks.withType(JavaCompile) {
+                    applyOptions(project, extension, javacPluginFiles, it)
+                }
+            }
+        }
+    }
+
+    /**
+     * @param project   current project
+     * @param task      a compilation task
+     * @return          a name of the Android build variant or Java source set compiled by the given task;
+     *                  {@code null} if it's unknown
+     */
+    @Nullable
+    private static String getScope(@NotNull Project project, @NotNull JavaCompile task) {
+        if (isAndroidTask(task)) {
+            def matcher = task.name =~ /^compile(.+)JavaWithJavac$/
+            return matcher.matches() ? matcher.group(1).uncapitalize() : null
+        }
+        if (!project.hasProperty('sourceSets')) {
+            return null
         }
+        return project.sourceSets.find { it.compileJavaTaskName == task.name }?.name
+    }
+
+    /**
+     * @return  Traute plugin files if Traute is enabled for the given scope, no files otherwise
+     */
+    @NotNull
+    private static FileCollection getScopeFiles(@NotNull Project project,
+                                                @NotNull TrautePluginExtension extension,
+                                                @NotNull FileCollection javacPluginFiles,
+                                                boolean android,
+                                                @Nullable String scope)
+    {
+        return project.files({ extension.snapshot(android, scope).enabled ? javacPluginFiles : [] })
+    }
+
+    @NotNull
+    private static TrauteCompilerArguments createArguments(@NotNull Project project,
+                                                           @NotNull TrautePluginExtension extension,
+                                                           boolean android,
+                                                           @Nullable String scope)
+    {
+        // Compilation task arguments are built from the extension values only when the task is executed
+        return new TrauteCompilerArguments(
+                project.provider { getArguments(extension.snapshot(android, scope)) },
+                project.provider { getLocalArguments(extension.snapshot(android, scope)) }
+        )
     }
 
     @NotNull
@@ -54,38 +348,159 @@ class TrauteGradlePlugin implements Plugin<Project> {
         return project.files(roots.collect { new File(it) })
     }
 
-    private static void applyOptions(Project project, FileCollection javacPluginFiles, JavaCompile task, extension) {
-        if (!task.getClass().name.contains('ndroid')) {
-            // We do configure Android projects at the very beginning of the plugin's initialization, so,
-            // non-Android configuration lives here.
-            def aptOptions = task.convention.plugins['net.ltgt.apt']?.aptOptions
-            if (aptOptions) {
-                try {
-                    if (aptOptions.processorpath) {
-                        aptOptions.processorpath = aptOptions.processorpath + javacPluginFiles
-                    } else {
-                        aptOptions.processorpath = javacPluginFiles
-                    }
-                } catch (ignore) {
+    private static boolean isAndroidTask(@NotNull JavaCompile task) {
+        // Android tasks get Traute through the 'annotationProcessor' configuration
+        return task.getClass().name.contains('ndroid')
+    }
+
+    private static void mayBeApplyAptProcessorPath(@NotNull JavaCompile task, @NotNull FileCollection javacPluginFiles) {
+        def aptOptions = task.convention.plugins['net.ltgt.apt']?.aptOptions
+        if (aptOptions) {
+            try {
+                if (aptOptions.processorpath) {
+                    aptOptions.processorpath = aptOptions.processorpath + javacPluginFiles
+                } else {
+                    aptOptions.processorpath = javacPluginFiles
                 }
+            } catch (ignore) {
+            }
+        }
+    }
+
+    /**
+     * Configures a compilation task on Gradle versions which don't support lazy task configuration.
+     */
+    private static void applyOptions(@NotNull Project project,
+                                     @NotNull TrautePluginExtension extension,
+                                     @NotNull FileCollection javacPluginFiles,
+                                     @NotNull JavaCompile task)
+    {
+        def android = isAndroidTask(task)
+        def scope = getScope(project, task)
+        if (!extension.snapshot(android, scope).enabled) {
+            return
+        }
+
+        if (!android) {
+            if (project.plugins.hasPlugin('net.ltgt.apt')) {
+                mayBeApplyAptProcessorPath(task, javacPluginFiles)
             }
 
-            if (task.options.annotationProcessorPath) {
-                task.options.annotationProcessorPath << javacPluginFiles
+            if (isProcessorPathInspected(project)) {
+                if (task.options.annotationProcessorPath) {
+                    task.options.annotationProcessorPath = task.options.annotationProcessorPath + javacPluginFiles
+                } else {
+                    task.options.annotationProcessorPath = javacPluginFiles
+                }
+            } else if (hasOtherProcessors(task, javacPluginFiles)) {
+                // The task is fully recompiled because of the user-defined processors anyway
+                task.options.annotationProcessorPath = task.options.annotationProcessorPath + javacPluginFiles
             } else {
-                task.options.annotationProcessorPath = javacPluginFiles
+                // Older Gradle versions switch incremental compilation off if processor path is defined. Javac
+                // looks for plugins in the classpath when there is no processor path, so, we put Traute there
+                task.options.annotationProcessorPath = null
+                task.classpath = task.classpath + javacPluginFiles
             }
         }
 
-        task.options.compilerArgs << "-Xplugin:${PLUGIN_NAME}"
-        mayBeApplyNotNullAnnotations(task.options.compilerArgs, extension)
-        mayBeApplyNullableAnnotations(task.options.compilerArgs, extension)
-        mayBeApplyNotNullByDefaultAnnotations(task.options.compilerArgs, extension)
-        mayBeApplyLoggingSettings(task.options.compilerArgs, extension)
-        mayBeApplyLogFile(task.options.compilerArgs, extension)
-        mayBeApplyInstrumentations(task.options.compilerArgs, extension)
-        mayBeApplyExceptionsToThrow(task.options.compilerArgs, extension)
-        mayBeApplyExceptionTexts(task.options.compilerArgs, extension)
+        if (isArgumentProviderSupported(project)) {
+            task.options.compilerArgumentProviders << createArguments(project, extension, android, scope)
+        } else {
+            def settings = extension.snapshot(android, scope)
+            task.options.compilerArgs.addAll(getArguments(settings) + getLocalArguments(settings))
+        }
+    }
+
+    /**
+     * @param settings  current {@link TrautePluginExtension#snapshot(boolean, String) settings}
+     * @return          javac arguments which affect the compiled classes
+     */
+    @NotNull
+    private static List<String> getArguments(@NotNull Map<String, Object> settings) {
+        if (!settings.enabled) {
+            return []
+        }
+        def arguments = ["-Xplugin:${PLUGIN_NAME}"]
+        mayBeApplyNotNullAnnotations(arguments, settings)
+        mayBeApplyNullableAnnotations(arguments, settings)
+        mayBeApplyNotNullByDefaultAnnotations(arguments, settings)
+        mayBeApplyLoggingSettings(arguments, settings)
+        mayBeApplyLogFormat(arguments, settings)
+        mayBeApplyCheckStyle(arguments, settings)
+        mayBeApplyCheckGuard(arguments, settings)
+        mayBeApplyFailureMode(arguments, settings)
+        mayBeApplyFailureEvents(arguments, settings)
+        mayBeApplyMessageTable(arguments, settings)
+        mayBeApplyCombineParameterChecks(arguments, settings)
+        mayBeApplyElideDelegatedChecks(arguments, settings)
+        mayBeApplyInstrumentations(arguments, settings)
+        mayBeApplyExceptionsToThrow(arguments, settings)
+        mayBeApplyExceptionTexts(arguments, settings)
+        return arguments.collect { it.toString() }
+    }
+
+    /**
+     * @param settings  current {@link TrautePluginExtension#snapshot(boolean, String) settings}
+     * @return          javac arguments which point to local files and don't affect the compiled classes
+     */
+    @NotNull
+    private static List<String> getLocalArguments(@NotNull Map<String, Object> settings) {
+        if (!settings.enabled) {
+            return []
+        }
+        def arguments = []
+        mayBeApplyLogFile(arguments, settings)
+        mayBeApplyCacheDir(arguments, settings)
+        return arguments.collect { it.toString() }
+    }
+
+    /**
+     * {@link org.gradle.api.tasks.TaskCollection#configureEach(org.gradle.api.Action) Lazy task configuration}
+     * appeared in Gradle 4.9. Compilation tasks are configured there without
+     * {@link Project#afterEvaluate(groovy.lang.Closure) afterEvaluate()} and aren't created unless they are needed
+     * for the build.
+     *
+     * @param project   current project
+     * @return          {@code true} if current Gradle supports lazy task configuration
+     */
+    private static boolean isLazyConfigurationSupported(@NotNull Project project) {
+        return GradleVersion.version(project.gradle.gradleVersion) >= GradleVersion.version('4.9')
+    }
+
+    /**
+     * Gradle 4.7 introduced <a href="https://docs.gradle.org/4.7/release-notes.html#incremental-annotation-processing">
+     * incremental annotation processing</a> - since then a processor path entry affects incremental compilation
+     * only if it declares annotation processors.
+     *
+     * @param project   current project
+     * @return          {@code true} if current Gradle checks processor path entries for annotation processors
+     */
+    private static boolean isProcessorPathInspected(@NotNull Project project) {
+        return GradleVersion.version(project.gradle.gradleVersion) >= GradleVersion.version('4.7')
+    }
+
+    /**
+     * {@link TrauteCompilerArguments} can't be loaded by Gradle versions before 4.5.
+     *
+     * @param project   current project
+     * @return          {@code true} if current Gradle supports compiler argument providers
+     */
+    private static boolean isArgumentProviderSupported(@NotNull Project project) {
+        return GradleVersion.version(project.gradle.gradleVersion) >= GradleVersion.version('4.5')
+    }
+
+    private static boolean hasOtherProcessors(@NotNull JavaCompile task, @NotNull FileCollection javacPluginFiles) {
+        def processorPath = task.options.annotationProcessorPath
+        if (processorPath == null) {
+            return false
+        }
+        if (processorPath instanceof Configuration) {
+            // Don't resolve the configuration, other plugins might still add dependencies to it
+            return processorPath.allDependencies.any {
+                !(it instanceof FileCollectionDependency) || !it.files.is(javacPluginFiles)
+            }
+        }
+        return !(processorPath - javacPluginFiles).empty
     }
 
     private static void mayBeApplyNotNullAnnotations(compilerArgs, extension) {
@@ -125,6 +540,91 @@ class TrauteGradlePlugin implements Plugin<Project> {
         }
     }
 
+    private static void mayBeApplyLogFormat(compilerArgs, extension) {
+        if (extension.logFormat) {
+            if (!LogFormat.byOptionValue(extension.logFormat as String)) {
+                throw new PluginInstantiationException(
+                        "Error on ${PLUGIN_NAME} plugin initialization - unsupported log format is provided "
+                                + "in the 'logFormat' option - '${extension.logFormat}'. "
+                                + "Supported formats: ${LogFormat.values().collect { it.optionValue }}"
+                )
+            }
+            compilerArgs << "-A${OPTION_LOG_FORMAT}=${extension.logFormat}"
+        }
+    }
+
+    private static void mayBeApplyCacheDir(compilerArgs, extension) {
+        if (extension.cacheDir) {
+            compilerArgs << "-A${OPTION_CACHE_DIR}=${extension.cacheDir}"
+        }
+    }
+
+    private static void mayBeApplyCheckStyle(compilerArgs, extension) {
+        if (!extension.checkStyle) {
+            return
+        }
+        if (!CheckStyle.byOptionValue(extension.checkStyle as String)) {
+            throw new PluginInstantiationException(
+                    "Error on ${PLUGIN_NAME} plugin initialization - unsupported check style is provided "
+                            + "in the 'checkStyle' option - '${extension.checkStyle}'. "
+                            + "Supported styles: ${CheckStyle.values().collect { it.optionValue }}"
+            )
+        }
+        compilerArgs << "-A${OPTION_CHECK_STYLE}=${extension.checkStyle}"
+    }
+
+    private static void mayBeApplyCheckGuard(compilerArgs, extension) {
+        if (!extension.checkGuard) {
+            return
+        }
+        if (!CheckGuard.byOptionValue(extension.checkGuard as String)) {
+            throw new PluginInstantiationException(
+                    "Error on ${PLUGIN_NAME} plugin initialization - unsupported check guard is provided "
+                            + "in the 'checkGuard' option - '${extension.checkGuard}'. "
+                            + "Supported guards: ${CheckGuard.values().collect { it.optionValue }}"
+            )
+        }
+        compilerArgs << "-A${OPTION_CHECK_GUARD}=${extension.checkGuard}"
+    }
+
+    private static void mayBeApplyFailureMode(compilerArgs, extension) {
+        if (!extension.failureMode) {
+            return
+        }
+        if (!FailureMode.byOptionValue(extension.failureMode as String)) {
+            throw new PluginInstantiationException(
+                    "Error on ${PLUGIN_NAME} plugin initialization - unsupported failure mode is provided "
+                            + "in the 'failureMode' option - '${extension.failureMode}'. "
+                            + "Supported modes: ${FailureMode.values().collect { it.optionValue }}"
+            )
+        }
+        compilerArgs << "-A${OPTION_FAILURE_MODE}=${extension.failureMode}"
+    }
+
+    private static void mayBeApplyFailureEvents(compilerArgs, extension) {
+        if (extension.failureEvents) {
+            compilerArgs << "-A${OPTION_FAILURE_EVENTS}=true"
+        }
+    }
+
+    private static void mayBeApplyMessageTable(compilerArgs, extension) {
+        if (extension.messageTable) {
+            compilerArgs << "-A${OPTION_MESSAGE_TABLE}=true"
+        }
+    }
+
+    private static void mayBeApplyCombineParameterChecks(compilerArgs, extension) {
+        if (extension.combineParameterChecks) {
+            compilerArgs << "-A${OPTION_COMBINE_PARAMETER_CHECKS}=true"
+        }
+    }
+
+    private static void mayBeApplyElideDelegatedChecks(compilerArgs, extension) {
+        if (extension.elideDelegatedChecks) {
+            compilerArgs << "-A${OPTION_ELIDE_DELEGATED_CHECKS}=true"
+        }
+    }
+
     private static void mayBeApplyLoggingSettings(compilerArgs, extension) {
         if (extension.verbose) {
             compilerArgs << "-A${OPTION_LOG_VERBOSE}=true"
@@ -9,6 +9,7 @@ import tech.harmonysoft.oss.traute.common.settings.TrautePluginSettings
 import tech.harmonysoft.oss.traute.common.settings.TrautePluginSettingsBuilder
 import tech.harmonysoft.oss.traute.gradle.TrauteGradlePlugin
 import tech.harmonysoft.oss.traute.javac.TrauteJavacPlugin
+import tech.harmonysoft.oss.traute.runtime.TrauteViolations
 import tech.harmonysoft.oss.traute.test.fixture.NN
 import tech.harmonysoft.oss.traute.test.impl.engine.AbstractExternalSystemTestCompiler
 
@@ -18,6 +19,10 @@ import static tech.harmonysoft.oss.traute.common.settings.TrautePluginSettingsBu
 import static tech.harmonysoft.oss.traute.common.settings.TrautePluginSettingsBuilder.DEFAULT_NULLABLE_ANNOTATIONS
 import static tech.harmonysoft.oss.traute.common.settings.TrautePluginSettingsBuilder.DEFAULT_PARAMETERS_NOT_NULL_BY_DEFAULT_ANNOTATIONS
 import static tech.harmonysoft.oss.traute.common.settings.TrautePluginSettingsBuilder.DEFAULT_RETURN_NOT_NULL_BY_DEFAULT_ANNOTATIONS
+import static tech.harmonysoft.oss.traute.common.settings.TrautePluginSettingsBuilder.DEFAULT_CHECK_GUARD
+import static tech.harmonysoft.oss.traute.common.settings.TrautePluginSettingsBuilder.DEFAULT_FAILURE_MODE
+import static tech.harmonysoft.oss.traute.common.settings.TrautePluginSettingsBuilder.DEFAULT_CHECK_STYLE
+import static tech.harmonysoft.oss.traute.common.settings.TrautePluginSettingsBuilder.DEFAULT_LOG_FORMAT
 import static tech.harmonysoft.oss.traute.gradle.TrauteGradlePlugin.findRootInClassPath
 
 class GradleTestCompiler extends AbstractExternalSystemTestCompiler {
@@ -30,6 +35,15 @@ class GradleTestCompiler extends AbstractExternalSystemTestCompiler {
     private static final def MARKER_LOGGING = '<LOGGING>'
     private static final def MARKER_INSTRUMENTATIONS = '<INSTRUMENTATIONS>'
     private static final def MARKER_LOG_FILE = '<LOG_FILE>'
+    private static final def MARKER_LOG_FORMAT = '<LOG_FORMAT>'
+    private static final def MARKER_CACHE_DIR = '<CACHE_DIR>'
+    private static final def MARKER_CHECK_STYLE = '<CHECK_STYLE>'
+    private static final def MARKER_CHECK_GUARD = '<CHECK_GUARD>'
+    private static final def MARKER_FAILURE_MODE = '<FAILURE_MODE>'
+    private static final def MARKER_FAILURE_EVENTS = '<FAILURE_EVENTS>'
+    private static final def MARKER_MESSAGE_TABLE = '<MESSAGE_TABLE>'
+    private static final def MARKER_COMBINE_PARAMETER_CHECKS = '<COMBINE_PARAMETER_CHECKS>'
+    private static final def MARKER_ELIDE_DELEGATED_CHECKS = '<ELIDE_DELEGATED_CHECKS>'
     private static final def MARKER_EXCEPTIONS_TO_THROW = '<EXCEPTIONS_TO_THROW>'
     private static final def MARKER_EXCEPTION_TEXTS = '<EXCEPTION_TEXTS>'
     private static final def BUILD_GRADLE_CONTENT =
@@ -56,6 +70,15 @@ class GradleTestCompiler extends AbstractExternalSystemTestCompiler {
               |    $MARKER_LOGGING
               |    $MARKER_INSTRUMENTATIONS
               |    $MARKER_LOG_FILE
+              |    $MARKER_LOG_FORMAT
+              |    $MARKER_CACHE_DIR
+              |    $MARKER_CHECK_STYLE
+              |    $MARKER_CHECK_GUARD
+              |    $MARKER_FAILURE_MODE
+              |    $MARKER_FAILURE_EVENTS
+              |    $MARKER_MESSAGE_TABLE
+              |    $MARKER_COMBINE_PARAMETER_CHECKS
+              |    $MARKER_ELIDE_DELEGATED_CHECKS
               |    $MARKER_EXCEPTIONS_TO_THROW
               |    $MARKER_EXCEPTION_TEXTS
               |}
@@ -71,6 +94,7 @@ class GradleTestCompiler extends AbstractExternalSystemTestCompiler {
               |    compile 'org.springframework:spring-core:5.0.1.RELEASE'
               |    compile 'org.checkerframework:checker:2.3.0'
               |    compile ${getCommonDependency()}
+              |    compile ${getRuntimeDependency()}
               |}""".stripMargin()
 
     @NotNull
@@ -143,6 +167,51 @@ class GradleTestCompiler extends AbstractExternalSystemTestCompiler {
                 settings.logFile.present ? "logFile = '${settings.logFile.get()}'" : ''
         )
 
+        content = content.replace(
+                MARKER_LOG_FORMAT,
+                settings.logFormat != DEFAULT_LOG_FORMAT ? "logFormat = '${settings.logFormat.optionValue}'" : ''
+        )
+
+        content = content.replace(
+                MARKER_CACHE_DIR,
+                settings.cacheDir.present ? "cacheDir = '${settings.cacheDir.get()}'" : ''
+        )
+
+        content = content.replace(
+                MARKER_CHECK_STYLE,
+                settings.checkStyle != DEFAULT_CHECK_STYLE ? "checkStyle = '${settings.checkStyle.optionValue}'" : ''
+        )
+
+        content = content.replace(
+                MARKER_CHECK_GUARD,
+                settings.checkGuard != DEFAULT_CHECK_GUARD ? "checkGuard = '${settings.checkGuard.optionValue}'" : ''
+        )
+
+        content = content.replace(
+                MARKER_FAILURE_MODE,
+                settings.failureMode != DEFAULT_FAILURE_MODE ? "failureMode = '${settings.failureMode.optionValue}'" : ''
+        )
+
+        content = content.replace(
+                MARKER_FAILURE_EVENTS,
+                settings.failureEvents ? 'failureEvents = true' : ''
+        )
+
+        content = content.replace(
+                MARKER_MESSAGE_TABLE,
+                settings.messageTable ? 'messageTable = true' : ''
+        )
+
+        content = content.replace(
+                MARKER_COMBINE_PARAMETER_CHECKS,
+                settings.combineParameterChecks ? 'combineParameterChecks = true' : ''
+        )
+
+        content = content.replace(
+                MARKER_ELIDE_DELEGATED_CHECKS,
+                settings.elideDelegatedChecks ? 'elideDelegatedChecks = true' : ''
+        )
+
         content = content.replace(
                 MARKER_EXCEPTIONS_TO_THROW,
                 settings.exceptionsToThrow
@@ -227,4 +296,15 @@ class GradleTestCompiler extends AbstractExternalSystemTestCompiler {
     private static String getCommonDependency() {
         return "files('${findRootInClassPath(NN)}')"
     }
+
+    /**
+     * Checks generated in the {@code 'record'} failure mode and in the {@code 'runtime'} check style call
+     * the {@code 'runtime'} module, so, we add its classpath root to the test project
+     *
+     * @return dependency spec for the {@code 'runtime'} classpath root
+     */
+    @NotNull
+    private static String getRuntimeDependency() {
+        return "files('${findRootInClassPath(TrauteViolations)}')"
+    }
 }
@@ -0,0 +1,97 @@
+package tech.harmonysoft.oss.traute.gradle.test.suite
+
+import org.gradle.testkit.runner.GradleRunner
+import org.gradle.testkit.runner.TaskOutcome
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+
+import java.nio.file.Files
+
+import static org.junit.jupiter.api.Assertions.assertEquals
+import static tech.harmonysoft.oss.traute.gradle.test.impl.GradleTestCompiler.getTrauteJavacDependencySpec
+
+/**
+ * Checks that Traute arguments don't prevent {@code JavaCompile} results from being reused through the build
+ * cache when the same project is built from another directory.
+ */
+class GradleBuildCacheTest {
+
+    private static final def BUILD_GRADLE_CONTENT =
+            """buildscript {
+              |    dependencies {
+              |        classpath ${getTrauteJavacDependencySpec()}
+              |    }
+              |}
+              |
+              |apply plugin: 'java'
+              |apply plugin: 'tech.harmonysoft.oss.traute'
+              |
+              |sourceCompatibility = 1.8
+              |
+              |repositories {
+              |    mavenCentral()
+              |}
+              |
+              |traute {
+              |    logFile = "\$buildDir/traute.log"
+              |    cacheDir = "\$buildDir/traute-cache"
+              |    exceptionsToThrow = ['parameter': 'IllegalArgumentException']
+              |}
+              |
+              |dependencies {
+              |    compile 'org.jetbrains:annotations:15.0'
+              |}""".stripMargin()
+
+    private File rootDir
+    private File cacheDir
+
+    @BeforeEach
+    void setUp() {
+        rootDir = Files.createTempDirectory('traute-build-cache').toFile()
+        cacheDir = new File(rootDir, 'cache')
+    }
+
+    @AfterEach
+    void tearDown() {
+        rootDir.deleteDir()
+    }
+
+    @Test
+    void relocatedProjectIsLoadedFromCache() {
+        assertEquals(TaskOutcome.SUCCESS, compile(createProject('first')))
+        assertEquals(TaskOutcome.FROM_CACHE, compile(createProject('second')))
+    }
+
+    private File createProject(String name) {
+        def projectDir = new File(rootDir, name)
+        projectDir.mkdirs()
+        new File(projectDir, 'settings.gradle').text =
+                """buildCache {
+                  |    local(DirectoryBuildCache) {
+                  |        directory = '${cacheDir.absolutePath.replace('\\', '/')}'
+                  |    }
+                  |}""".stripMargin()
+        new File(projectDir, 'build.gradle').text = BUILD_GRADLE_CONTENT
+        def source = new File(projectDir, 'src/main/java/tech/harmonysoft/oss/traute/Test.java')
+        source.parentFile.mkdirs()
+        source.text = """package tech.harmonysoft.oss.traute;
+                        |
+                        |public class Test {
+                        |    public void test(@org.jetbrains.annotations.NotNull String name) {
+                        |    }
+                        |}""".stripMargin()
+        return projectDir
+    }
+
+    private TaskOutcome compile(File projectDir) {
+        def pluginClasspath = getClass().classLoader.getResource('plugin-classpath.txt').readLines()
+                                                                                     .collect { new File(it) }
+        def result = GradleRunner.create()
+                .withProjectDir(projectDir)
+                .withPluginClasspath(pluginClasspath)
+                .withArguments('compileJava', '--build-cache')
+                .build()
+        return result.task(':compileJava').outcome
+    }
+}
@@ -0,0 +1,98 @@
+package tech.harmonysoft.oss.traute.gradle.test.suite
+
+import org.gradle.testkit.runner.GradleRunner
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+
+import static org.junit.jupiter.api.Assertions.*
+import static tech.harmonysoft.oss.traute.gradle.test.impl.GradleTestCompiler.getTrauteJavacDependencySpec
+
+/**
+ * Checks that applying Traute doesn't switch off Gradle's incremental java compilation - only changed classes
+ * are recompiled and they are still instrumented.
+ */
+class GradleIncrementalCompilationTest {
+
+    private static final def BUILD_GRADLE_CONTENT =
+            """buildscript {
+              |    dependencies {
+              |        classpath ${getTrauteJavacDependencySpec()}
+              |    }
+              |}
+              |
+              |apply plugin: 'java'
+              |apply plugin: 'tech.harmonysoft.oss.traute'
+              |
+              |sourceCompatibility = 1.8
+              |
+              |repositories {
+              |    mavenCentral()
+              |}
+              |
+              |dependencies {
+              |    compile 'org.jetbrains:annotations:15.0'
+              |}""".stripMargin()
+
+    private File projectRootDir
+
+    @BeforeEach
+    void setUp() {
+        projectRootDir = Files.createTempDirectory('traute-incremental').toFile()
+        new File(projectRootDir, 'build.gradle').text = BUILD_GRADLE_CONTENT
+        writeSource('Changed', 'first')
+        writeSource('Unchanged', 'value')
+    }
+
+    @AfterEach
+    void tearDown() {
+        projectRootDir.deleteDir()
+    }
+
+    @Test
+    void onlyChangedClassIsRecompiled() {
+        compile()
+        def changed = getBinary('Changed')
+        def unchanged = getBinary('Unchanged')
+        assertTrue(changed.file, "Expected to find compiled class at ${changed.path}")
+        def unchangedModified = unchanged.lastModified()
+
+        writeSource('Changed', 'second')
+        def output = compile('--info')
+
+        assertEquals(unchangedModified, unchanged.lastModified(), "Unchanged class is recompiled:\n$output")
+        assertFalse(output.contains('Full recompilation is required'), output)
+        def binary = new String(changed.bytes, StandardCharsets.ISO_8859_1)
+        assertTrue(binary.contains("Argument 'second'"), "Changed class is not instrumented:\n$output")
+        assertFalse(binary.contains("Argument 'first'"), "Changed class is not recompiled:\n$output")
+    }
+
+    private void writeSource(String className, String parameterName) {
+        def file = new File(projectRootDir, "src/main/java/tech/harmonysoft/oss/traute/${className}.java")
+        file.parentFile.mkdirs()
+        file.text = """package tech.harmonysoft.oss.traute;
+                      |
+                      |public class $className {
+                      |    public void test(@org.jetbrains.annotations.NotNull String $parameterName) {
+                      |    }
+                      |}""".stripMargin()
+    }
+
+    private File getBinary(String className) {
+        return new File(projectRootDir, "build/classes/java/main/tech/harmonysoft/oss/traute/${className}.class")
+    }
+
+    private String compile(String... arguments) {
+        def pluginClasspath = getClass().classLoader.getResource('plugin-classpath.txt').readLines()
+                                                                                     .collect { new File(it) }
+        return GradleRunner.create()
+                .withProjectDir(projectRootDir)
+                .withPluginClasspath(pluginClasspath)
+                .withArguments(['compileJava'] + arguments.toList())
+                .build()
+                .output
+    }
+}
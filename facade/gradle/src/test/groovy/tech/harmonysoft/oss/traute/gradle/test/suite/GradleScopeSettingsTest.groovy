@@ -0,0 +1,120 @@
+package tech.harmonysoft.oss.traute.gradle.test.suite
+
+import org.gradle.testkit.runner.GradleRunner
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+
+import static org.junit.jupiter.api.Assertions.*
+import static tech.harmonysoft.oss.traute.gradle.test.impl.GradleTestCompiler.getTrauteJavacDependencySpec
+
+/**
+ * Checks that Traute settings defined for a source set are applied only to its compilation task.
+ */
+class GradleScopeSettingsTest {
+
+    private static final def BUILD_GRADLE_CONTENT =
+            """buildscript {
+              |    dependencies {
+              |        classpath ${getTrauteJavacDependencySpec()}
+              |    }
+              |}
+              |
+              |apply plugin: 'java'
+              |apply plugin: 'tech.harmonysoft.oss.traute'
+              |
+              |sourceCompatibility = 1.8
+              |
+              |repositories {
+              |    mavenCentral()
+              |}
+              |
+              |sourceSets {
+              |    jmh
+              |}
+              |
+              |traute {
+              |    sourceSets {
+              |        jmh {
+              |            enabled = false
+              |        }
+              |        test {
+              |            instrumentations = ['return']
+              |        }
+              |    }
+              |}
+              |
+              |dependencies {
+              |    compile 'org.jetbrains:annotations:15.0'
+              |    testCompile 'org.jetbrains:annotations:15.0'
+              |    jmhCompile 'org.jetbrains:annotations:15.0'
+              |}
+              |
+              |task printProcessorPath {
+              |    doLast {
+              |        println "jmh processor path: \${compileJmhJava.options.annotationProcessorPath?.files}"
+              |    }
+              |}""".stripMargin()
+
+    private File projectRootDir
+
+    @BeforeEach
+    void setUp() {
+        projectRootDir = Files.createTempDirectory('traute-scope').toFile()
+        new File(projectRootDir, 'build.gradle').text = BUILD_GRADLE_CONTENT
+        ['main', 'test', 'jmh'].each { writeSource(it) }
+    }
+
+    @AfterEach
+    void tearDown() {
+        projectRootDir.deleteDir()
+    }
+
+    @Test
+    void sourceSetSettings() {
+        def output = GradleRunner.create()
+                .withProjectDir(projectRootDir)
+                .withPluginClasspath(getClass().classLoader.getResource('plugin-classpath.txt').readLines()
+                                                                                   .collect { new File(it) })
+                .withArguments('compileJava', 'compileTestJava', 'compileJmhJava', 'printProcessorPath')
+                .build()
+                .output
+
+        def main = getBinary('main')
+        assertTrue(main.contains("Argument 'main'"), output)
+        assertTrue(main.contains('Detected an attempt to return null'), output)
+
+        def test = getBinary('test')
+        assertFalse(test.contains("Argument 'test'"), output)
+        assertTrue(test.contains('Detected an attempt to return null'), output)
+
+        def jmh = getBinary('jmh')
+        assertFalse(jmh.contains("Argument 'jmh'"), output)
+        assertFalse(jmh.contains('Detected an attempt to return null'), output)
+        assertTrue(output.contains('jmh processor path: []'), output)
+    }
+
+    private void writeSource(String sourceSet) {
+        def file = new File(projectRootDir, "src/$sourceSet/java/tech/harmonysoft/oss/traute/Test.java")
+        file.parentFile.mkdirs()
+        file.text = """package tech.harmonysoft.oss.traute;
+                      |
+                      |import org.jetbrains.annotations.NotNull;
+                      |
+                      |public class Test {
+                      |    @NotNull
+                      |    public String test(@NotNull String $sourceSet) {
+                      |        return $sourceSet.trim();
+                      |    }
+                      |}""".stripMargin()
+    }
+
+    private String getBinary(String sourceSet) {
+        def file = new File(projectRootDir, "build/classes/java/$sourceSet/tech/harmonysoft/oss/traute/Test.class")
+        assertTrue(file.file, "Expected to find compiled class at ${file.path}")
+        return new String(file.bytes, StandardCharsets.ISO_8859_1)
+    }
+}